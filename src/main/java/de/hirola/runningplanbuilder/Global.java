@@ -25,14 +25,34 @@ public final class Global {
 
     // JSON import and export
     public static final FileChooser.ExtensionFilter JSON_FILE_EXTENSION_FILTER
-            = new FileChooser.ExtensionFilter("JSON Format", "*.json");
+            = new FileChooser.ExtensionFilter("JSON Format", "*.json", "*.json.gz");
     public static final String JSON_FILE_EXTENSION = ".json";
 
     // JSON import and export
     public static final FileChooser.ExtensionFilter ICAL_FILE_EXTENSION_FILTER
-            = new FileChooser.ExtensionFilter("iCAL Format", "*.ics");
+            = new FileChooser.ExtensionFilter("iCAL Format", "*.ics", "*.ics.gz");
     public static final String ICAL_FILE_EXTENSION = ".ics";
 
+    // compressed JSON and iCAL files, e.g. "plan.json.gz"
+    public static final String GZIP_FILE_EXTENSION = ".gz";
+    public static final String OFFSET_INDEX_FILE_EXTENSION = ".idx"; // index of the weeks, e.g. "plan.json.idx"
+
+    // CSV import and export
+    public static final FileChooser.ExtensionFilter CSV_FILE_EXTENSION_FILTER
+            = new FileChooser.ExtensionFilter("CSV Format", "*.csv");
+    public static final String CSV_FILE_EXTENSION = ".csv";
+
+    // series of plans in a single file
+    public static final FileChooser.ExtensionFilter SERIES_FILE_EXTENSION_FILTER
+            = new FileChooser.ExtensionFilter("Plan Series", "*.zip");
+    public static final String SERIES_FILE_EXTENSION = ".zip";
+
+    // flight recordings
+    public static final FileChooser.ExtensionFilter JFR_FILE_EXTENSION_FILTER
+            = new FileChooser.ExtensionFilter("Flight Recording", "*.jfr");
+    public static final String JFR_FILE_EXTENSION = ".jfr";
+    public static final String JFR_SETTINGS = "/runningplanbuilder.jfc";
+
     // localizations
     public static final String LOCALIZATION_PROPERTIES = "/localizations.properties";
 
@@ -69,10 +89,110 @@ public final class Global {
         public static final double RUNNING_INFOS_COLUMN_PREF_WIDTH = 120.0;
     }
 
+    // calendar grid of the main view
+    public static class CalendarGridPreferences {
+        public static final double HEADER_HEIGHT = 24.0;
+        public static final double ROW_HEIGHT = 24.0;
+        public static final double WEEK_COLUMN_WIDTH = 80.0;
+        public static final double MIN_CELL_WIDTH = 60.0;
+        public static final double CELL_GAP = 2.0;
+        public static final Color HEADER_COLOR = Color.ALICEBLUE;
+        public static final Color EMPTY_CELL_COLOR = Color.WHITESMOKE;
+    }
+
+    // template library
+    public static class TemplateLibraryPreferences {
+        public static final String INDEX_FILE_NAME = "template-library.json";
+        public static final int MAX_DIRECTORY_DEPTH = 8; // levels of subdirectories, which are walked
+    }
+
+    // CSV import and export
+    public static class CSVPreferences {
+        public static final int BUFFER_SIZE = 64 * 1024; // chars
+        public static final int MAX_REPORTED_ERRORS = 20; // malformed lines shown to the user
+        public static final int FIRST_CHUNK_SIZE = 64; // entries shown before the rest of the file is read
+        public static final int MAX_CHUNK_SIZE = 4096; // entries, the chunks grow up to this size
+    }
+
+    // files compressed with gzip
+    public static class CompressionPreferences {
+        public static final int BUFFER_SIZE = 64 * 1024; // bytes, the files are streamed
+    }
+
+    // table objects of the main table, created only for the visible rows
+    public static class TableWindowPreferences {
+        public static final int WINDOW_SIZE = 256; // rows, which are created together
+        public static final long MEMORY_BUDGET = 4 * 1024 * 1024; // bytes of all created rows
+        public static final int ESTIMATED_ROW_SIZE = 640; // bytes of a table object with its strings
+    }
+
+    // index of the weeks of large templates
+    public static class OffsetIndexPreferences {
+        public static final long MIN_FILE_SIZE = 1024 * 1024; // bytes, smaller templates are parsed completely
+        public static final int PREVIEW_WEEKS = 4; // weeks shown before the whole template is parsed
+    }
+
+    // export to several formats at once
+    public static class ExportPreferences {
+        public static final int QUEUE_CAPACITY = 256; // entries, which are read ahead for each format
+        public static final int BATCH_SIZE = 64; // entries, which are passed to a format at once
+    }
+
+    // reload of plans, which are changed by other programs
+    public static class FileWatcherPreferences {
+        public static final long DEBOUNCE_MILLIS = 500; // editors write a file in several steps
+    }
+
+    // undo and redo
+    public static class UndoHistoryPreferences {
+        public static final int DEFAULT_DEPTH = 200;
+        public static final long DEFAULT_MAX_BYTES = 16L * 1024 * 1024;
+    }
+
+    // generator of running plans
+    public static class GeneratorPreferences {
+        public static final int DEFAULT_WEEKS = 16;
+        public static final int DEFAULT_SESSIONS_PER_WEEK = 3;
+        public static final int DEFAULT_BASE_VOLUME = 90; // minutes per week
+        public static final int DEFAULT_PEAK_VOLUME = 240; // minutes per week
+    }
+
+    // validation of the running plan
+    public static class ValidationPreferences {
+        // the validation starts after the last edit of a series
+        public static final long DEBOUNCE_MILLIS = 300;
+        // the background of table rows with findings
+        public static final String FINDING_ROW_STYLE = "-fx-control-inner-background: #ffd8cc;";
+    }
+
+    // acute:chronic training load
+    public static class TrainingLoadPreferences {
+        // a unit with this pace (min / km) has the weight 1
+        public static final double REFERENCE_PACE = 6.0;
+        public static final double MIN_WEIGHT = 0.25;
+        public static final double MAX_WEIGHT = 2.0;
+        // a higher ratio is shown as warning
+        public static final double MAX_RATIO = 1.5;
+    }
+
+    // stall detection of the FX thread
+    public static class FXThreadWatchdogPreferences {
+        public static final long HEARTBEAT_INTERVAL_MILLIS = 100;
+        public static final long STALL_THRESHOLD_MILLIS = 500;
+        public static final long PULSE_THRESHOLD_MILLIS = 100;
+    }
+
+    // system properties, used by the build (class data sharing training run, startup benchmark)
+    public static class SystemPropertyKeys {
+        public static final String EXIT_AFTER_FIRST_FRAME = "runningplanbuilder.exitAfterFirstFrame";
+        public static final String FIRST_FRAME_OUTPUT_PREFIX = "runningplanbuilder.firstFrameMillis=";
+    }
+
     public static class UserPreferencesKeys {
         public static final String USER_ROOT_NODE = RunningPlanBuilder.class.getName();
         public static final String LOCALE = "locale";
         public static final String USE_DEBUG_MODE = "debug.mode";
+        public static final String USE_FX_THREAD_WATCHDOG = "debug.fxthread.watchdog";
         public static final String USE_LAST_VIEW_VALUES = "mainview.use.last.size";
         public static final String LAST_MAIN_VIEW_WIDTH = "mainview.last.width";
         public static final String LAST_MAIN_VIEW_HEIGHT = "mainview.last.height";
@@ -82,6 +202,9 @@ public final class Global {
         public static final String JSON_LAST_DIRECTORY = "json.last.directory";
         public static final String ICAL_LAST_DIRECTORY = "ical.last.directory";
         public static final String ICAL_MODE = "ical.mode";
+        public static final String UNDO_HISTORY_DEPTH = "undo.history.depth";
+        public static final String UNDO_HISTORY_MAX_BYTES = "undo.history.max.bytes";
+        public static final String TEMPLATE_LIBRARY_DIRECTORIES = "template.library.directories";
     }
 }
 
@@ -1,5 +1,6 @@
 package de.hirola.runningplanbuilder;
 
+import de.hirola.runningplanbuilder.util.ApplicationMetrics;
 import de.hirola.runningplanbuilder.view.MainView;
 import javafx.application.Application;
 import javafx.stage.Stage;
@@ -18,6 +19,8 @@ import java.io.IOException;
 public class RunningPlanBuilder extends Application {
     @Override
     public void start(Stage stage) throws IOException {
+        // metrics for JConsole, VisualVM, ...
+        ApplicationMetrics.getInstance().register();
         MainView mainView = new MainView();
         mainView.showView(stage, this);
     }
@@ -0,0 +1,290 @@
+package de.hirola.runningplanbuilder.controller;
+
+import de.hirola.runningplanbuilder.Global;
+import de.hirola.runningplanbuilder.model.RunningPlanSnapshot;
+import de.hirola.runningplanbuilder.util.ApplicationMetrics;
+import de.hirola.runningplanbuilder.util.ApplicationResources;
+import de.hirola.runningplanbuilder.util.PlanExportPipeline;
+import de.hirola.runningplanbuilder.util.RunningPlanCSV;
+import de.hirola.runningplanbuilder.util.RunningPlanICS;
+import de.hirola.runningplanbuilder.util.RunningPlanJSON;
+import de.hirola.runningplanbuilder.util.TemplateOffsetIndex;
+import javafx.application.Platform;
+import javafx.event.ActionEvent;
+import javafx.fxml.FXML;
+import javafx.scene.control.Alert;
+import javafx.scene.control.Button;
+import javafx.scene.control.ButtonBar;
+import javafx.scene.control.ButtonType;
+import javafx.scene.control.CheckBox;
+import javafx.scene.control.DatePicker;
+import javafx.scene.control.Label;
+import javafx.scene.control.ProgressBar;
+import javafx.scene.control.TextField;
+import javafx.stage.DirectoryChooser;
+import javafx.stage.Stage;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.tinylog.Logger;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Copyright 2022 by Michael Schmidt, Hirola Consulting
+ * This software us licensed under the AGPL-3.0 or later.
+ *
+ * Controller for the view to export the running plan to several formats at once using fxml.
+ *
+ * @author Michael Schmidt (Hirola)
+ * @since v0.1
+ */
+public class ExportViewController {
+    private RunningPlanSnapshot snapshot;
+    private String fileName; // the name of the files without extension
+    private File directory;
+    private File exportDirectory; // the directory of the last export, null if nothing was exported
+    private boolean isExporting;
+    private final ApplicationResources applicationResources
+            = ApplicationResources.getInstance(); // bundle for localization, ...
+
+    // created with SceneBuilder
+    @FXML
+    private Label infoLabel;
+    @FXML
+    private CheckBox jsonCheckBox;
+    @FXML
+    private CheckBox icalCheckBox;
+    @FXML
+    private CheckBox csvCheckBox;
+    @FXML
+    private Label startDateLabel;
+    @FXML
+    private DatePicker startDatePicker;
+    @FXML
+    private Label directoryLabel;
+    @FXML
+    private TextField directoryTextField;
+    @FXML
+    private Button directoryButton;
+    @FXML
+    private ProgressBar progressBar;
+    @FXML
+    private Label statusLabel;
+    @FXML
+    private Button saveButton;
+    @FXML
+    private Button closeButton;
+
+    public ExportViewController() {}
+
+    /**
+     * Sets the plan and the location of the export.
+     *
+     * @param snapshot of the plan
+     * @param fileName of the files without extension
+     * @param directory of the files
+     */
+    public void setExport(@NotNull RunningPlanSnapshot snapshot, @NotNull String fileName, @NotNull File directory) {
+        this.snapshot = snapshot;
+        this.fileName = fileName;
+        this.directory = directory;
+        directoryTextField.setText(directory.getAbsolutePath());
+    }
+
+    /**
+     * Returns the directory of the exported files.
+     *
+     * @return The directory or null, if nothing was exported.
+     */
+    @Nullable
+    public File getExportDirectory() {
+        return exportDirectory;
+    }
+
+    /**
+     * The dialog must not be closed while the files are written.
+     *
+     * @return True, if the export is running.
+     */
+    public boolean isExporting() {
+        return isExporting;
+    }
+
+    @FXML
+    // when the FXML loader is done loading the FXML document, it calls this method of the controller
+    private void initialize() {
+        infoLabel.setText(applicationResources.getString("exportView.infoText"));
+        startDateLabel.setText(applicationResources.getString("exportView.startDate"));
+        directoryLabel.setText(applicationResources.getString("exportView.directory"));
+        directoryButton.setText(applicationResources.getString("exportView.chooseDirectory"));
+        saveButton.setText(applicationResources.getString("exportView.exportButtonText"));
+        closeButton.setText(applicationResources.getString("action.close"));
+        statusLabel.setText("");
+        // the calendar starts on the next monday
+        startDatePicker.setValue(LocalDate.now().with(TemporalAdjusters.next(DayOfWeek.MONDAY)));
+        startDatePicker.disableProperty().bind(icalCheckBox.selectedProperty().not());
+    }
+
+    @FXML
+    // use for onAction by the FXML loader
+    private void onAction(ActionEvent event) {
+        if (event.getSource().equals(directoryButton)) {
+            DirectoryChooser directoryChooser = new DirectoryChooser();
+            if (directory.isDirectory()) {
+                directoryChooser.setInitialDirectory(directory);
+            }
+            File chosenDirectory = directoryChooser.showDialog(directoryButton.getScene().getWindow());
+            if (chosenDirectory != null) {
+                directory = chosenDirectory;
+                directoryTextField.setText(directory.getAbsolutePath());
+            }
+        }
+        if (event.getSource().equals(saveButton)) {
+            export();
+        }
+        if (event.getSource().equals(closeButton)) {
+            close();
+        }
+    }
+
+    private void export() {
+        List<File> files = new ArrayList<>(3);
+        if (jsonCheckBox.isSelected()) {
+            files.add(new File(directory, fileName + Global.JSON_FILE_EXTENSION));
+        }
+        if (icalCheckBox.isSelected()) {
+            files.add(new File(directory, fileName + Global.ICAL_FILE_EXTENSION));
+        }
+        if (csvCheckBox.isSelected()) {
+            files.add(new File(directory, fileName + Global.CSV_FILE_EXTENSION));
+        }
+        if (files.isEmpty()) {
+            statusLabel.setText(applicationResources.getString("exportView.status.noFormat"));
+            return;
+        }
+        if (files.stream().anyMatch(File::exists) && !continueWithExistingFiles()) {
+            return;
+        }
+        List<PlanExportPipeline.FormatWriter> writers = new ArrayList<>(files.size());
+        try {
+            for (File file: files) {
+                if (file.getName().endsWith(Global.JSON_FILE_EXTENSION)) {
+                    writers.add(RunningPlanJSON.createFormatWriter(
+                            new BufferedOutputStream(Files.newOutputStream(file.toPath()))));
+                } else if (file.getName().endsWith(Global.ICAL_FILE_EXTENSION)) {
+                    writers.add(RunningPlanICS.createFormatWriter(
+                            Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8), startDatePicker.getValue()));
+                } else {
+                    writers.add(RunningPlanCSV.createFormatWriter(
+                            Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)));
+                }
+            }
+        } catch (IOException exception) {
+            writers.forEach(this::closeQuietly);
+            showExportFailed(exception);
+            return;
+        }
+        setExporting(true);
+        progressBar.setProgress(0.0);
+        statusLabel.setText(applicationResources.getString("exportView.status.exporting"));
+        long startNanos = System.nanoTime();
+        PlanExportPipeline exportPipeline = new PlanExportPipeline(writers);
+        Thread exportThread = new Thread(() -> {
+            try {
+                exportPipeline.export(snapshot, progress -> Platform.runLater(() -> progressBar.setProgress(progress)));
+                for (File file: files) {
+                    if (file.getName().endsWith(Global.JSON_FILE_EXTENSION)) {
+                        TemplateOffsetIndex.update(file.toPath());
+                    }
+                }
+                long nanos = System.nanoTime() - startNanos;
+                Platform.runLater(() -> {
+                    setExporting(false);
+                    exportDirectory = directory;
+                    ApplicationMetrics.getInstance().record(ApplicationMetrics.Operation.EXPORT, nanos);
+                    statusLabel.setText(files.size()
+                            + " "
+                            + applicationResources.getString("exportView.status.exported")
+                            + " "
+                            + nanos / 1_000_000
+                            + " ms");
+                });
+            } catch (IOException | InterruptedException exception) {
+                Platform.runLater(() -> {
+                    setExporting(false);
+                    showExportFailed(exception);
+                });
+            }
+        }, "plan-export-pipeline");
+        exportThread.setDaemon(true);
+        exportThread.start();
+    }
+
+    private void setExporting(boolean isExporting) {
+        this.isExporting = isExporting;
+        saveButton.setDisable(isExporting);
+        closeButton.setDisable(isExporting);
+        directoryButton.setDisable(isExporting);
+        jsonCheckBox.setDisable(isExporting);
+        icalCheckBox.setDisable(isExporting);
+        csvCheckBox.setDisable(isExporting);
+    }
+
+    private boolean continueWithExistingFiles() {
+        AtomicBoolean doAction = new AtomicBoolean(false);
+        Alert alert = new Alert(Alert.AlertType.WARNING);
+        alert.setTitle(applicationResources.getString("app.name")
+                + " "
+                + applicationResources.getString("app.version"));
+        alert.setHeaderText(applicationResources.getString("exportView.alert.overwrite"));
+        ButtonType okButton = new ButtonType(applicationResources
+                .getString("action.yes"), ButtonBar.ButtonData.YES);
+        ButtonType cancelButton = new ButtonType(applicationResources
+                .getString("action.cancel"), ButtonBar.ButtonData.CANCEL_CLOSE);
+        alert.getButtonTypes().setAll(okButton, cancelButton);
+        alert.showAndWait().ifPresent(type -> {
+            if (type == okButton) {
+                doAction.set(true);
+            } else {
+                alert.close();
+            }
+        });
+        return doAction.get();
+    }
+
+    private void showExportFailed(Exception exception) {
+        statusLabel.setText("");
+        Alert alert = new Alert(Alert.AlertType.WARNING);
+        alert.setTitle(applicationResources.getString("app.name")
+                + " "
+                + applicationResources.getString("app.version"));
+        alert.setHeaderText(applicationResources.getString("alert.export.failed"));
+        alert.showAndWait();
+        Logger.warn(exception, "Export of the running plan failed.");
+    }
+
+    private void closeQuietly(Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (IOException exception) {
+            Logger.debug(exception, "Error while closing an export file.");
+        }
+    }
+
+    private void close() {
+        // get a handle to the stage
+        Stage stage = (Stage) closeButton.getScene().getWindow();
+        stage.close();
+    }
+}
@@ -2,25 +2,60 @@ package de.hirola.runningplanbuilder.controller;
 
 import de.hirola.runningplanbuilder.Global;
 import de.hirola.runningplanbuilder.model.*;
+import de.hirola.runningplanbuilder.util.ApplicationMetrics;
 import de.hirola.runningplanbuilder.util.ApplicationResources;
+import de.hirola.runningplanbuilder.util.CompressedFiles;
+import de.hirola.runningplanbuilder.util.CountingInputStream;
+import de.hirola.runningplanbuilder.util.FXThreadWatchdog;
+import de.hirola.runningplanbuilder.util.FlightRecording;
+import de.hirola.runningplanbuilder.util.LatencySummary;
+import de.hirola.runningplanbuilder.util.PlanExportEvent;
+import de.hirola.runningplanbuilder.util.PlanFileWatcher;
+import de.hirola.runningplanbuilder.util.PlanImportEvent;
+import de.hirola.runningplanbuilder.util.PlanValidator;
+import de.hirola.runningplanbuilder.util.PulseChunkQueue;
+import de.hirola.runningplanbuilder.util.RunningPlanBulkEdit;
+import de.hirola.runningplanbuilder.util.RunningPlanCSV;
+import de.hirola.runningplanbuilder.util.RunningPlanMerge;
+import de.hirola.runningplanbuilder.util.RunningPlanSearchIndex;
+import de.hirola.runningplanbuilder.util.TableRefreshEvent;
+import de.hirola.runningplanbuilder.util.TemplateLibrary;
+import de.hirola.runningplanbuilder.util.TemplateOffsetIndex;
+import de.hirola.runningplanbuilder.util.TrainingLoadAnalyzer;
+import de.hirola.runningplanbuilder.util.WindowedObservableList;
+import de.hirola.runningplanbuilder.view.CalendarGridView;
+import de.hirola.runningplanbuilder.view.ExportView;
+import de.hirola.runningplanbuilder.view.MergeView;
 import de.hirola.runningplanbuilder.view.PreferencesView;
 import de.hirola.runningplanbuilder.view.RunningEntryView;
+import de.hirola.runningplanbuilder.view.RunningPlanGeneratorView;
 import de.hirola.runningplanbuilder.view.RunningPlanView;
+import de.hirola.runningplanbuilder.view.SeriesView;
+import de.hirola.runningplanbuilder.view.TemplateLibraryView;
 import de.hirola.sportsapplications.SportsLibrary;
 import de.hirola.sportsapplications.SportsLibraryException;
 import de.hirola.sportsapplications.model.RunningPlan;
 import de.hirola.sportsapplications.model.RunningPlanEntry;
+import de.hirola.sportsapplications.model.UUID;
 import de.hirola.sportsapplications.util.ICALManager;
 import de.hirola.sportsapplications.util.TemplateLoader;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
 import javafx.application.HostServices;
-import javafx.collections.FXCollections;
+import javafx.application.Platform;
+import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
 import javafx.event.ActionEvent;
 import javafx.event.EventHandler;
 import javafx.fxml.FXML;
+import javafx.scene.chart.LineChart;
+import javafx.scene.chart.NumberAxis;
+import javafx.scene.chart.XYChart;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
+import javafx.scene.control.cell.TreeItemPropertyValueFactory;
 import javafx.scene.input.MouseEvent;
+import javafx.scene.layout.GridPane;
 import javafx.scene.layout.Region;
 import javafx.scene.layout.VBox;
 import javafx.scene.shape.Arc;
@@ -28,13 +63,35 @@ import javafx.scene.shape.Rectangle;
 import javafx.stage.FileChooser;
 import javafx.stage.Stage;
 import javafx.stage.WindowEvent;
+import javafx.util.Duration;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.tinylog.Logger;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.prefs.BackingStoreException;
 import java.util.prefs.Preferences;
 
 /**
@@ -51,6 +108,10 @@ public class MainViewController {
     private HostServices hostServices;
     private final ApplicationResources applicationResources
             = ApplicationResources.getInstance(); // bundle for localization, ...
+    private final FXThreadWatchdog fxThreadWatchdog
+            = FXThreadWatchdog.getInstance(); // logs the last action, if the FX thread stalls
+    private final ApplicationMetrics applicationMetrics
+            = ApplicationMetrics.getInstance(); // counters and latencies, shown in the debug dialog
     private Preferences userPreferences;
     private boolean debugMode;
     private boolean icalMode;
@@ -60,13 +121,34 @@ public class MainViewController {
     private RunningPlan runningPlan; // actual running plan for the application
     private List<RunningPlanEntry> runningPlanEntries;
     private RunningPlanEntry runningPlanEntry; // actual edited running plan entry
-    private ObservableList<RunningPlanEntryTableObject> runningPlanEntryTableObjects; // list for the table view
+    // items of the table, created only for the visible rows
+    private WindowedObservableList<RunningPlanEntry, RunningPlanEntryTableObject> runningPlanEntryTableItems;
+    private Predicate<UUID> searchFilter; // the filter of the search, null if all entries are shown
+    private int[] shownEntryIndices; // the indices of the entries found by the search, null if all are shown
+    private RunningPlanSearchIndex runningPlanSearchIndex; // full-text search in the table view
+    private RunningPlanDocument activeDocument; // the plan of the selected tab
+    private RunningPlanHistory runningPlanHistory; // undo and redo of edits of the active document
+    // the snapshots of the active document, shown in the views
+    private final RunningPlanSnapshotPublisher runningPlanSnapshotPublisher = new RunningPlanSnapshotPublisher();
+    private PlanValidator planValidator; // validates the snapshots of the active document in background
+    private ValidationResult validationResult; // the last findings, shown in the table view
+    private final TrainingLoadAnalyzer trainingLoadAnalyzer = new TrainingLoadAnalyzer();
+    private XYChart.Series<Number, Number> acuteLoadSeries;
+    private XYChart.Series<Number, Number> chronicLoadSeries;
+    private CalendarGridView calendarGridView; // the plans of all tabs
     private RunningPlanView runningPlanView;
     private RunningEntryView runningEntryView;
+    private RunningPlanGeneratorView runningPlanGeneratorView;
+    private TemplateLibrary templateLibrary; // the templates in the directories of the library
+    private TemplateLibraryView templateLibraryView;
+    private PlanFileWatcher planFileWatcher; // reloads the files of the plans, which are changed by other programs
     private PreferencesView preferencesView;
     private ContextMenu tableViewContextMenu;
     private MenuItem tableViewContextMenuItemEdit;
     private MenuItem tableViewContextMenuItemDelete;
+    private MenuItem tableViewContextMenuItemShiftWeeks;
+    private MenuItem tableViewContextMenuItemScaleDurations;
+    private MenuItem tableViewContextMenuItemCopyWeeks;
 
     // main app menu
     // created with SceneBuilder
@@ -78,21 +160,54 @@ public class MainViewController {
     private MenuItem menuItemNew;
     @FXML
     // the reference will be injected by the FXML loader
+    private MenuItem menuItemGenerate;
+    @FXML
+    // the reference will be injected by the FXML loader
+    private MenuItem menuItemLibrary;
+    @FXML
+    // the reference will be injected by the FXML loader
     private MenuItem menuItemImportJSON;
     @FXML
     // the reference will be injected by the FXML loader
     private MenuItem menuItemImportICAL;
     @FXML
     // the reference will be injected by the FXML loader
+    private MenuItem menuItemImportCSV;
+    @FXML
+    // the reference will be injected by the FXML loader
+    private MenuItem menuItemImportSeries;
+    @FXML
+    // the reference will be injected by the FXML loader
+    private MenuItem menuItemImportWeeks;
+    @FXML
+    // the reference will be injected by the FXML loader
+    private MenuItem menuItemMerge;
+    @FXML
+    // the reference will be injected by the FXML loader
     private MenuItem menuItemSave;
     @FXML
     // the reference will be injected by the FXML loader
+    private MenuItem menuItemExportCSV;
+    @FXML
+    // the reference will be injected by the FXML loader
+    private MenuItem menuItemExport;
+    @FXML
+    // the reference will be injected by the FXML loader
+    private MenuItem menuItemExportSeries;
+    @FXML
+    // the reference will be injected by the FXML loader
     private MenuItem menuItemQuit;
     @FXML
     // the reference will be injected by the FXML loader
     private Menu menuEdit; // edit menu
     @FXML
     // the reference will be injected by the FXML loader
+    private MenuItem menuItemUndo;
+    @FXML
+    // the reference will be injected by the FXML loader
+    private MenuItem menuItemRedo;
+    @FXML
+    // the reference will be injected by the FXML loader
     private MenuItem menuItemEditRunningPlan;
     @FXML
     // the reference will be injected by the FXML loader
@@ -125,25 +240,57 @@ public class MainViewController {
     private SplitPane mainSplitPane;
     @FXML
     private TableView<RunningPlanEntryTableObject> runningPlanEntryTableView;
+    @FXML
+    private LineChart<Number, Number> trainingLoadChart;
+    @FXML
+    private NumberAxis trainingLoadWeekAxis;
+    @FXML
+    private NumberAxis trainingLoadAxis;
+    @FXML
+    private ListView<String> trainingLoadWarningsListView;
+    @FXML
+    private TabPane planTabPane;
+    @FXML
+    private TextField searchTextField;
+    @FXML
+    private Tab tableTab;
+    @FXML
+    private Tab weekTab;
+    @FXML
+    private TreeTableView<RunningPlanTreeTableObject> runningPlanWeekTreeTableView;
+    @FXML
+    private Tab calendarTab;
 
     private final EventHandler<ActionEvent> onMenuItemActionEventHandler =
             event -> {
+                fxThreadWatchdog.actionStarted(event.getSource());
                 if (event.getSource() instanceof MenuItem) {
                     // context menu action from table view
                     if (event.getSource().equals(tableViewContextMenuItemEdit)) {
                         // open the view for editing
                         int index = runningPlanEntryTableView.getSelectionModel().getSelectedIndex();
-                        if (index < runningPlanEntries.size()) {
+                        if (index > -1) {
+                            index = getEntryIndex(index);
+                        }
+                        if (index > -1 && index < runningPlanEntries.size()) {
                             runningPlanEntry = runningPlanEntries.get(index);
                             showRunningEntryView();
                         }
                     }
                     // context menu action from a running unit element
                     if (event.getSource().equals(tableViewContextMenuItemDelete)) {
-                        //TODO: ask user
-                        // remove the selected running unit
-                        int index = runningPlanEntryTableView.getSelectionModel().getSelectedIndex();
-                        removeRunningEntryForIndex(index);
+                        // remove the selected running entries, can be undone
+                        removeRunningEntriesForIndices(getSelectedIndices());
+                    }
+                    // bulk edits of the selected entries
+                    if (event.getSource().equals(tableViewContextMenuItemShiftWeeks)) {
+                        shiftWeeksOfSelectedEntries();
+                    }
+                    if (event.getSource().equals(tableViewContextMenuItemScaleDurations)) {
+                        scaleDurationsOfSelectedEntries();
+                    }
+                    if (event.getSource().equals(tableViewContextMenuItemCopyWeeks)) {
+                        copyWeeksOfSelectedEntries();
                     }
                 }
             };
@@ -170,55 +317,88 @@ public class MainViewController {
     // when the FXML loader is done loading the FXML document, it calls this method of the controller
     private void initialize() throws InstantiationException, SportsLibraryException {
         runningPlanEntries = new ArrayList<>();
-        runningPlanEntryTableObjects = FXCollections.observableArrayList();
+        // the table objects are created in windows around the visible rows, all changes in a pulse
+        // are sent as a single change
+        runningPlanEntryTableItems = new WindowedObservableList<>(RunningPlanEntryTableObject::new,
+                Global.TableWindowPreferences.WINDOW_SIZE, Global.TableWindowPreferences.MEMORY_BUDGET,
+                Global.TableWindowPreferences.ESTIMATED_ROW_SIZE);
+        runningPlanEntryTableItems.attachTo(runningPlanEntryTableView);
+        runningPlanEntryTableItems.addListener((ListChangeListener<RunningPlanEntryTableObject>) change ->
+                applicationMetrics.increment(ApplicationMetrics.Counter.TABLE_CHANGE));
+        runningPlanEntryTableView.setItems(runningPlanEntryTableItems);
         loadUserPreferences();
         // initialize sports library
         File appDirectory = SportsLibrary.initializeAppDirectory(Global.PACKAGE_NAME);
         sportsLibrary = SportsLibrary.getInstance(debugMode, applicationResources.getAppLocale(), appDirectory, null);
+        templateLibrary = new TemplateLibrary(
+                appDirectory.toPath().resolve(Global.TemplateLibraryPreferences.INDEX_FILE_NAME));
+        planFileWatcher = new PlanFileWatcher(this::reloadChangedFile);
+        try {
+            planFileWatcher.start();
+        } catch (IOException exception) {
+            Logger.warn(exception, "Changes of the plan files by other programs are not detected.");
+        }
         // set nodes to javax default colors
         runningPlanMenuElement.setFill(Global.RUNNING_PLAN_TEMPLATE_NODE_COLOR);
         runningEntryMenuElement.setFill(Global.RUNNING_UNIT_NODE_COLOR);
         setMenuLabel();  // localisation the menu (item) labels
         setToolMenuLabel(); // localisation the tool "menu" item labels
         createContextMenuForTableView();
-        canEdited(); // disable different menu items
+        createRowFactoryForTableView();
+        // bulk edits of the selected rows
+        runningPlanEntryTableView.getSelectionModel().setSelectionMode(SelectionMode.MULTIPLE);
+        initializeTrainingLoadChart();
+        initializeSearch();
+        initializeWeekTreeTableView();
+        initializeCalendarGrid();
+        initializePlanTabs(); // disables different menu items
     }
 
     @FXML
     // use for onAction by the FXML loader
     private void onAction(ActionEvent event) {
+        fxThreadWatchdog.actionStarted(event.getSource());
         if (event.getSource().equals(menuItemNew)) {
-            if (runningPlan != null) {
-                resetRunningPlan();
-            }
-            if (runningPlan == null) {
-                // running plan was reset
-                showRunningPlanView();
-            }
+            runInPlanTab(this::showRunningPlanView);
+        }
+        if (event.getSource().equals(menuItemGenerate)) {
+            runInPlanTab(this::showRunningPlanGeneratorView);
+        }
+        if (event.getSource().equals(menuItemLibrary)) {
+            runInPlanTab(this::showTemplateLibraryView);
+        }
+        if (event.getSource().equals(menuItemMerge)) {
+            mergeRunningPlan();
         }
         if (event.getSource().equals(menuItemImportJSON)) {
-            if (runningPlan != null) {
-                if (continueOperation()) {
-                    importJSONFromFile();
-                }
-            } else {
-                importJSONFromFile();
-            }
+            runInPlanTab(this::importJSONFromFile);
         }
         if (event.getSource().equals(menuItemImportICAL)) {
-            if (runningPlan != null) {
-                if (continueOperation()) {
-                    importICALFromFile();
-                }
-            } else {
-                importICALFromFile();
-            }
+            runInPlanTab(this::importICALFromFile);
+        }
+        if (event.getSource().equals(menuItemImportCSV)) {
+            runInPlanTab(this::importCSVFromFile);
+        }
+        if (event.getSource().equals(menuItemImportSeries)) {
+            importSeries();
+        }
+        if (event.getSource().equals(menuItemImportWeeks)) {
+            runInPlanTab(this::importJSONWeeksFromFile);
         }
         if (event.getSource().equals(menuItemSave)) {
             exportToJSONFile();
         }
+        if (event.getSource().equals(menuItemExportCSV)) {
+            exportToCSVFile();
+        }
+        if (event.getSource().equals(menuItemExport)) {
+            showExportView();
+        }
+        if (event.getSource().equals(menuItemExportSeries)) {
+            exportSeries();
+        }
         if (event.getSource().equals(menuItemQuit)) {
-            if (runningPlan != null && !icalMode) { // warning only with JSON
+            if (hasOpenJSONPlan()) { // warning only with JSON
                 if (continueOperation()) {
                     saveLastWindowValues();
                     mainWindow.close();
@@ -228,6 +408,16 @@ public class MainViewController {
                 mainWindow.close();
             }
         }
+        if (event.getSource().equals(menuItemUndo)) {
+            if (runningPlanHistory.canUndo()) {
+                restoreRunningPlanSnapshot(runningPlanHistory.undo());
+            }
+        }
+        if (event.getSource().equals(menuItemRedo)) {
+            if (runningPlanHistory.canRedo()) {
+                restoreRunningPlanSnapshot(runningPlanHistory.redo());
+            }
+        }
         if (event.getSource().equals(menuItemEditRunningPlan)) {
             showRunningPlanView();
         }
@@ -248,35 +438,51 @@ public class MainViewController {
     @FXML
     // use for onMouseClicked by the FXML loader
     private void onMouseClicked(MouseEvent event) {
+        fxThreadWatchdog.actionStarted(event.getSource());
         if (event.getSource().equals(runningPlanMenuElement)) {
             // create a new running plan
             showRunningPlanView();
             return;
         }
-        if (event.getSource().equals(runningEntryMenuElement)) {
+        if (event.getSource().equals(runningEntryMenuElement) && !isActiveDocumentLoading()) {
             if (runningPlan != null) {
                 // create a new running entry
                 runningPlanEntry = null;
                 showRunningEntryView();
             } else {
-                Alert alert = new Alert(Alert.AlertType.INFORMATION);
-                alert.setTitle(applicationResources.getString("app.name")
-                        + " "
-                        + applicationResources.getString("app.version"));
-                alert.setHeaderText(applicationResources.getString("alert.runningplan.null"));
+                Alert alert = createAlert(Alert.AlertType.INFORMATION, "alert.runningplan.null");
                 alert.showAndWait();
             }
         }
+        if (event.getSource().equals(runningPlanWeekTreeTableView) && event.getClickCount() == 2) {
+            // open the view for editing the entry, the rows of the weeks have no entry
+            TreeItem<RunningPlanTreeTableObject> treeItem
+                    = runningPlanWeekTreeTableView.getSelectionModel().getSelectedItem();
+            if (treeItem != null && treeItem.getValue() != null && treeItem.getValue().getEntry() != null) {
+                showRunningEntryViewForSnapshot(treeItem.getValue().getEntry());
+            }
+        }
     }
 
     private void setMenuLabel() {
         menuFile.setText(applicationResources.getString("mainMenuBar.menuFile"));
         menuItemNew.setText(applicationResources.getString("mainMenuBar.menuFile.menuItemNew"));
+        menuItemGenerate.setText(applicationResources.getString("mainMenuBar.menuFile.menuItemGenerate"));
+        menuItemLibrary.setText(applicationResources.getString("mainMenuBar.menuFile.menuItemLibrary"));
         menuItemImportJSON.setText(applicationResources.getString("mainMenuBar.menuFile.menuItemImportJSON"));
+        menuItemMerge.setText(applicationResources.getString("mainMenuBar.menuFile.menuItemMerge"));
         menuItemImportICAL.setText(applicationResources.getString("mainMenuBar.menuFile.menuItemImportICAL"));
+        menuItemImportCSV.setText(applicationResources.getString("mainMenuBar.menuFile.menuItemImportCSV"));
+        menuItemImportSeries.setText(applicationResources.getString("mainMenuBar.menuFile.menuItemImportSeries"));
+        menuItemImportWeeks.setText(applicationResources.getString("mainMenuBar.menuFile.menuItemImportWeeks"));
         menuItemSave.setText(applicationResources.getString("mainMenuBar.menuFile.menuItemSave"));
+        menuItemExportCSV.setText(applicationResources.getString("mainMenuBar.menuFile.menuItemExportCSV"));
+        menuItemExport.setText(applicationResources.getString("mainMenuBar.menuFile.menuItemExport"));
+        menuItemExportSeries.setText(applicationResources.getString("mainMenuBar.menuFile.menuItemExportSeries"));
         menuItemQuit.setText(applicationResources.getString("mainMenuBar.menuFile.menuItemQuit"));
         menuEdit.setText(applicationResources.getString("mainMenuBar.menuEdit"));
+        menuItemUndo.setText(applicationResources.getString("mainMenuBar.menuEdit.menuItemUndo"));
+        menuItemRedo.setText(applicationResources.getString("mainMenuBar.menuEdit.menuItemRedo"));
         menuItemEditRunningPlan.setText(applicationResources.getString("mainMenuBar.menuEdit.menuItemTemplate"));
         menuItemEditPreferences.setText(applicationResources.getString("mainMenuBar.menuEdit.menuItemPreferences"));
         menuHelp.setText(applicationResources.getString("mainMenuBar.menuHelp"));
@@ -308,8 +514,6 @@ public class MainViewController {
             minWith += Global.MainViewTableViewPreferences.RUNNING_UNIT_COLUMN_PREF_WIDTH;
         }
         runningPlanEntryTableView.setMinSize(minWith, Region.USE_PREF_SIZE);
-        // TODO: in this version only a single row can be selected
-        runningPlanEntryTableView.getSelectionModel().setSelectionMode(SelectionMode.SINGLE);
         // the table column header
         TableColumn<RunningPlanEntryTableObject, String> weekColumn
                 = new TableColumn<>(applicationResources.getString("mainView.table.column.week.headerText"));
@@ -375,17 +579,387 @@ public class MainViewController {
         tableViewContextMenuItemEdit.setOnAction(onMenuItemActionEventHandler);
         tableViewContextMenuItemDelete = new MenuItem(applicationResources.getString("action.delete"));
         tableViewContextMenuItemDelete.setOnAction(onMenuItemActionEventHandler);
-        tableViewContextMenu.getItems().addAll(tableViewContextMenuItemEdit, tableViewContextMenuItemDelete);
+        tableViewContextMenuItemShiftWeeks = new MenuItem(applicationResources.getString("action.shiftWeeks"));
+        tableViewContextMenuItemShiftWeeks.setOnAction(onMenuItemActionEventHandler);
+        tableViewContextMenuItemScaleDurations = new MenuItem(applicationResources.getString("action.scaleDurations"));
+        tableViewContextMenuItemScaleDurations.setOnAction(onMenuItemActionEventHandler);
+        tableViewContextMenuItemCopyWeeks = new MenuItem(applicationResources.getString("action.copyWeeks"));
+        tableViewContextMenuItemCopyWeeks.setOnAction(onMenuItemActionEventHandler);
+        tableViewContextMenu.getItems().addAll(tableViewContextMenuItemEdit, tableViewContextMenuItemDelete,
+                new SeparatorMenuItem(), tableViewContextMenuItemShiftWeeks, tableViewContextMenuItemScaleDurations,
+                tableViewContextMenuItemCopyWeeks);
+    }
+
+    // mark the rows with findings of the validation
+    private void createRowFactoryForTableView() {
+        runningPlanEntryTableView.setRowFactory(tableView -> new TableRow<>() {
+            @Override
+            protected void updateItem(RunningPlanEntryTableObject item, boolean empty) {
+                super.updateItem(item, empty);
+                List<ValidationFinding> findings = List.of();
+                if (!empty && item != null && validationResult != null) {
+                    findings = validationResult.getFindings(item.getUUID());
+                }
+                if (findings.isEmpty()) {
+                    setStyle("");
+                    setTooltip(null);
+                } else {
+                    StringBuilder tooltipText = new StringBuilder();
+                    for (ValidationFinding finding: findings) {
+                        if (tooltipText.length() > 0) {
+                            tooltipText.append('\n');
+                        }
+                        tooltipText.append(applicationResources
+                                .getString("validation.rule." + finding.getRule().getKey()));
+                    }
+                    setStyle(Global.ValidationPreferences.FINDING_ROW_STYLE);
+                    setTooltip(new Tooltip(tooltipText.toString()));
+                }
+            }
+        });
+    }
+
+    // called on the FX thread, after the validation of a new snapshot
+    private void showValidationResult(@Nullable ValidationResult result) {
+        validationResult = result;
+        runningPlanEntryTableView.refresh();
+    }
+
+    private void initializeTrainingLoadChart() {
+        trainingLoadWeekAxis.setLabel(applicationResources.getString("misc.week"));
+        trainingLoadAxis.setLabel(applicationResources.getString("trainingLoad.axis.label"));
+        acuteLoadSeries = new XYChart.Series<>();
+        acuteLoadSeries.setName(applicationResources.getString("trainingLoad.acute"));
+        chronicLoadSeries = new XYChart.Series<>();
+        chronicLoadSeries.setName(applicationResources.getString("trainingLoad.chronic"));
+        trainingLoadChart.getData().add(acuteLoadSeries);
+        trainingLoadChart.getData().add(chronicLoadSeries);
+        trainingLoadWarningsListView.setPlaceholder(
+                new Label(applicationResources.getString("trainingLoad.warnings.placeholder")));
+        // the snapshots are published on the FX thread
+        runningPlanSnapshotPublisher.addListener(this::showTrainingLoad);
+    }
+
+    private void initializeSearch() {
+        runningPlanSearchIndex = new RunningPlanSearchIndex(applicationResources.getAppLocale());
+        searchTextField.setPromptText(applicationResources.getString("mainView.search.promptText"));
+        searchTextField.textProperty().addListener((observable, oldText, newText) -> filterTableView());
+        // the index is updated before the filter, the filter must find new and edited entries
+        runningPlanSnapshotPublisher.addListener(snapshot -> {
+            runningPlanSearchIndex.update(snapshot);
+            if (!searchTextField.getText().isBlank()) {
+                filterTableView();
+            }
+        });
+    }
+
+    // show only the entries found by the search
+    private void filterTableView() {
+        long startNanos = System.nanoTime();
+        String query = searchTextField.getText();
+        searchFilter = query.isBlank() ? null : runningPlanSearchIndex.createFilter(query);
+        showEntries();
+        applicationMetrics.record(ApplicationMetrics.Operation.SEARCH, System.nanoTime() - startNanos);
+    }
+
+    private void initializeWeekTreeTableView() {
+        weekTab.setText(applicationResources.getString("mainView.tab.weeks"));
+        runningPlanWeekTreeTableView.setRoot(new TreeItem<>());
+        runningPlanWeekTreeTableView.setPlaceholder(
+                new Label(applicationResources.getString("mainView.table.defaultLabelText")));
+        TreeTableColumn<RunningPlanTreeTableObject, String> weekColumn
+                = new TreeTableColumn<>(applicationResources.getString("mainView.table.column.week.headerText"));
+        weekColumn.setCellValueFactory(new TreeItemPropertyValueFactory<>("weekString"));
+        weekColumn.setPrefWidth(Global.MainViewTableViewPreferences.WEEK_COLUMN_PREF_WIDTH);
+        TreeTableColumn<RunningPlanTreeTableObject, String> dayColumn
+                = new TreeTableColumn<>(applicationResources.getString("mainView.table.column.day.headerText"));
+        dayColumn.setCellValueFactory(new TreeItemPropertyValueFactory<>("dayString"));
+        dayColumn.setPrefWidth(Global.MainViewTableViewPreferences.DAY_COLUMN_PREF_WIDTH);
+        TreeTableColumn<RunningPlanTreeTableObject, String> durationColumn
+                = new TreeTableColumn<>(applicationResources.getString("mainView.table.column.duration.headerText"));
+        durationColumn.setCellValueFactory(new TreeItemPropertyValueFactory<>("durationString"));
+        durationColumn.setPrefWidth(Global.MainViewTableViewPreferences.DURATION_COLUMN_PREF_WIDTH);
+        TreeTableColumn<RunningPlanTreeTableObject, String> runningUnitsColumn
+                = new TreeTableColumn<>(applicationResources.getString("mainView.table.column.entries.headerText"));
+        runningUnitsColumn.setCellValueFactory(new TreeItemPropertyValueFactory<>("runningUnitsString"));
+        runningUnitsColumn.setPrefWidth(Global.MainViewTableViewPreferences.RUNNING_UNIT_COLUMN_PREF_WIDTH);
+        runningPlanWeekTreeTableView.getColumns().setAll(List.of(weekColumn, dayColumn, durationColumn, runningUnitsColumn));
+        runningPlanWeekTreeTableView.setColumnResizePolicy(TreeTableView.CONSTRAINED_RESIZE_POLICY);
+        runningPlanSnapshotPublisher.addListener(this::showWeekTree);
+    }
+
+    // one item for each week, the items of the entries are created when a week is expanded
+    private void showWeekTree(@NotNull RunningPlanSnapshot snapshot) {
+        Map<Integer, List<RunningPlanEntrySnapshot>> entriesOfWeeks = new TreeMap<>();
+        for (RunningPlanEntrySnapshot entry: snapshot.getEntries()) {
+            entriesOfWeeks.computeIfAbsent(entry.getWeek(), week -> new ArrayList<>()).add(entry);
+        }
+        ObservableList<TreeItem<RunningPlanTreeTableObject>> weekItems
+                = runningPlanWeekTreeTableView.getRoot().getChildren();
+        Map<Integer, RunningPlanWeekTreeItem> actualWeekItems = new HashMap<>();
+        for (TreeItem<RunningPlanTreeTableObject> weekItem: weekItems) {
+            RunningPlanWeekTreeItem runningPlanWeekTreeItem = (RunningPlanWeekTreeItem) weekItem;
+            actualWeekItems.put(runningPlanWeekTreeItem.getWeek(), runningPlanWeekTreeItem);
+        }
+        List<TreeItem<RunningPlanTreeTableObject>> newWeekItems = new ArrayList<>(entriesOfWeeks.size());
+        boolean changed = weekItems.size() != entriesOfWeeks.size();
+        for (Map.Entry<Integer, List<RunningPlanEntrySnapshot>> entriesOfWeek: entriesOfWeeks.entrySet()) {
+            int week = entriesOfWeek.getKey();
+            RunningPlanWeekTreeItem weekItem = actualWeekItems.get(week);
+            if (weekItem == null || !weekItem.hasEntries(week, entriesOfWeek.getValue())) {
+                // a changed week keeps the expanded state
+                RunningPlanWeekTreeItem newWeekItem = new RunningPlanWeekTreeItem(week, entriesOfWeek.getValue());
+                newWeekItem.setExpanded(weekItem != null && weekItem.isExpanded());
+                weekItem = newWeekItem;
+            }
+            changed |= newWeekItems.size() >= weekItems.size() || weekItems.get(newWeekItems.size()) != weekItem;
+            newWeekItems.add(weekItem);
+        }
+        if (changed) {
+            weekItems.setAll(newWeekItems);
+        }
+    }
+
+    private void initializeCalendarGrid() {
+        tableTab.setText(applicationResources.getString("mainView.tab.table"));
+        calendarTab.setText(applicationResources.getString("mainView.tab.calendar"));
+        calendarGridView = new CalendarGridView();
+        calendarGridView.setId("calendarGridView");
+        calendarGridView.setOnEntryClicked(this::showRunningEntryViewForSnapshot);
+        calendarTab.setContent(calendarGridView);
+    }
+
+    // the actual snapshots of the plans of all tabs in the order of the tabs,
+    // the grid draws only the cells of the changed snapshots
+    private void showPlansInCalendarGrid() {
+        List<RunningPlanSnapshot> snapshots = new ArrayList<>(planTabPane.getTabs().size());
+        for (Tab tab: planTabPane.getTabs()) {
+            RunningPlanSnapshot snapshot = ((RunningPlanDocument) tab.getUserData()).getHistory().getActualSnapshot();
+            if (snapshot.hasRunningPlan() || !snapshot.getEntries().isEmpty()) {
+                snapshots.add(snapshot);
+            }
+        }
+        calendarGridView.setPlans(snapshots);
+    }
+
+    // open the view for editing the entry of a cell in the calendar grid, the tab of the plan is selected
+    private void showRunningEntryViewForSnapshot(@NotNull RunningPlanEntrySnapshot entrySnapshot) {
+        fxThreadWatchdog.actionStarted(calendarTab.getContent());
+        for (Tab tab: planTabPane.getTabs()) {
+            RunningPlanDocument document = (RunningPlanDocument) tab.getUserData();
+            if (document != activeDocument
+                    && document.getHistory().getActualSnapshot().getEntries().indexOfIdentical(entrySnapshot) > -1) {
+                planTabPane.getSelectionModel().select(tab);
+                break;
+            }
+        }
+        int index = runningPlanHistory.getActualSnapshot().getEntries().indexOfIdentical(entrySnapshot);
+        if (index > -1 && index < runningPlanEntries.size()) {
+            runningPlanEntry = runningPlanEntries.get(index);
+            showRunningEntryView();
+        }
+    }
+
+    // update the chart and the warnings with the loads of the changed entries
+    private void showTrainingLoad(@NotNull RunningPlanSnapshot snapshot) {
+        if (!trainingLoadAnalyzer.update(snapshot)) {
+            return;
+        }
+        int weekCount = trainingLoadAnalyzer.getWeekCount();
+        List<XYChart.Data<Number, Number>> acuteLoadData = new ArrayList<>(weekCount);
+        List<XYChart.Data<Number, Number>> chronicLoadData = new ArrayList<>(weekCount);
+        List<String> warnings = new ArrayList<>();
+        for (int week = 1; week <= weekCount; week++) {
+            acuteLoadData.add(new XYChart.Data<>(week, trainingLoadAnalyzer.getWeeklyLoad(week)));
+            chronicLoadData.add(new XYChart.Data<>(week, trainingLoadAnalyzer.getChronicWeeklyLoad(week)));
+            double ratio = trainingLoadAnalyzer.getMaxRatio(week);
+            if (ratio > Global.TrainingLoadPreferences.MAX_RATIO) {
+                warnings.add(applicationResources.getString("misc.week")
+                        + " "
+                        + week
+                        + ": "
+                        + applicationResources.getString("trainingLoad.warning.ratio")
+                        + " "
+                        + String.format("%.2f", ratio));
+            }
+        }
+        trainingLoadWeekAxis.setUpperBound(Math.max(weekCount, 1));
+        // a single change of each list
+        acuteLoadSeries.getData().setAll(acuteLoadData);
+        chronicLoadSeries.getData().setAll(chronicLoadData);
+        trainingLoadWarningsListView.getItems().setAll(warnings);
+    }
+
+    private void initializePlanTabs() {
+        planTabPane.getSelectionModel().selectedItemProperty().addListener((observable, oldTab, newTab) -> {
+            if (oldTab != null) {
+                storeActiveDocument();
+            }
+            if (newTab != null) {
+                activateDocument((RunningPlanDocument) newTab.getUserData());
+            }
+        });
+        // the calendar grid shows the plans of the tabs in their order
+        planTabPane.getTabs().addListener((ListChangeListener<Tab>) change -> showPlansInCalendarGrid());
+        addPlanTab();
+    }
+
+    // a new tab with an empty document, the tab is selected
+    private Tab addPlanTab() {
+        RunningPlanDocument document = new RunningPlanDocument(
+                userPreferences.getInt(Global.UserPreferencesKeys.UNDO_HISTORY_DEPTH,
+                        Global.UndoHistoryPreferences.DEFAULT_DEPTH),
+                userPreferences.getLong(Global.UserPreferencesKeys.UNDO_HISTORY_MAX_BYTES,
+                        Global.UndoHistoryPreferences.DEFAULT_MAX_BYTES),
+                validatedDocument -> {
+                    if (validatedDocument == activeDocument) {
+                        showValidationResult(validatedDocument.getValidationResult());
+                    }
+                });
+        Tab tab = new Tab(getPlanTabTitle(RunningPlanSnapshot.empty()));
+        tab.setUserData(document);
+        // the snapshots of the active document are shown in the views
+        document.getPublisher().addListener(snapshot -> {
+            tab.setText(getPlanTabTitle(snapshot));
+            if (document == activeDocument) {
+                runningPlanSnapshotPublisher.publish(snapshot);
+            }
+            showPlansInCalendarGrid();
+        });
+        tab.setOnCloseRequest(event -> {
+            if (document == activeDocument) {
+                storeActiveDocument();
+            }
+            if (document.getRunningPlan() != null && !document.isIcalMode() && !continueOperation()) {
+                event.consume();
+            }
+        });
+        tab.setOnClosed(event -> closeDocument(tab));
+        document.open();
+        planTabPane.getTabs().add(tab);
+        planTabPane.getSelectionModel().select(tab);
+        return tab;
+    }
+
+    private void closePlanTab(@NotNull Tab tab) {
+        planTabPane.getTabs().remove(tab);
+        closeDocument(tab);
+    }
+
+    private void closeDocument(@NotNull Tab tab) {
+        RunningPlanDocument document = (RunningPlanDocument) tab.getUserData();
+        document.close();
+        if (document.getFile() != null && !document.isIcalMode()) {
+            planFileWatcher.unwatch(document.getFile().toPath());
+        }
+        if (planTabPane.getTabs().isEmpty()) {
+            // the workspace has always a tab
+            addPlanTab();
+        }
+    }
+
+    // a loaded plan is kept, the action creates its plan in a new tab
+    private void runInPlanTab(@NotNull Runnable action) {
+        if (runningPlan == null) {
+            action.run();
+            return;
+        }
+        Tab previousTab = planTabPane.getSelectionModel().getSelectedItem();
+        Tab tab = addPlanTab();
+        action.run();
+        storeActiveDocument();
+        if (((RunningPlanDocument) tab.getUserData()).getRunningPlan() == null) {
+            // cancelled by the user or the plan is open in another tab
+            if (planTabPane.getSelectionModel().getSelectedItem() == tab) {
+                planTabPane.getSelectionModel().select(previousTab);
+            }
+            closePlanTab(tab);
+        }
+    }
+
+    // select the tab of a plan, which was loaded from the unchanged file
+    private boolean selectPlanTabOfFile(@NotNull File file) {
+        for (Tab tab: planTabPane.getTabs()) {
+            RunningPlanDocument document = (RunningPlanDocument) tab.getUserData();
+            if (document.getRunningPlan() != null && document.isLoadedFrom(file)) {
+                planTabPane.getSelectionModel().select(tab);
+                applicationMetrics.increment(ApplicationMetrics.Counter.CACHE_HIT);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // write the state of the views back to the document of the selected tab
+    private void storeActiveDocument() {
+        if (activeDocument != null) {
+            activeDocument.setRunningPlan(runningPlan);
+            activeDocument.setRunningPlanEntries(runningPlanEntries);
+            activeDocument.setIcalMode(icalMode);
+        }
+    }
+
+    // show the plan of the document, the table objects are created only for the active document
+    private void activateDocument(@NotNull RunningPlanDocument document) {
+        activeDocument = document;
+        runningPlan = document.getRunningPlan();
+        runningPlanEntries = document.getRunningPlanEntries();
+        icalMode = document.isIcalMode();
+        runningPlanHistory = document.getHistory();
+        planValidator = document.getValidator();
+        runningPlanEntry = null;
+        if (runningPlan != null) {
+            // different columns for JSON or iCAL
+            initializeTableView();
+        }
+        refreshTableView();
+        runningPlanSnapshotPublisher.publish(runningPlanHistory.getActualSnapshot());
+        showValidationResult(document.getValidationResult());
+        canEdited();
+    }
+
+    private String getPlanTabTitle(@NotNull RunningPlanSnapshot snapshot) {
+        if (snapshot.getName() == null || snapshot.getName().isBlank()) {
+            return applicationResources.getString("mainView.planTab.new");
+        }
+        return snapshot.getName();
+    }
+
+    // the files of the plans in all tabs
+    private Set<Path> getOpenFiles() {
+        Set<Path> openFiles = new HashSet<>();
+        for (Tab tab: planTabPane.getTabs()) {
+            File file = ((RunningPlanDocument) tab.getUserData()).getFile();
+            if (file != null) {
+                openFiles.add(file.toPath());
+            }
+        }
+        return openFiles;
+    }
+
+    private boolean hasOpenJSONPlan() {
+        storeActiveDocument();
+        for (Tab tab: planTabPane.getTabs()) {
+            RunningPlanDocument document = (RunningPlanDocument) tab.getUserData();
+            if (document.getRunningPlan() != null && !document.isIcalMode()) {
+                return true;
+            }
+        }
+        return false;
     }
 
     private void showRunningPlanView() {
         // show dialog
         if (runningPlanView == null) {
             runningPlanView = new RunningPlanView();
+            applicationMetrics.increment(ApplicationMetrics.Counter.CACHE_MISS);
+        } else {
+            applicationMetrics.increment(ApplicationMetrics.Counter.CACHE_HIT);
         }
         try {
             RunningPlanViewController viewController = runningPlanView.showView(mainSplitPane, runningPlan);
             runningPlan = viewController.getRunningPlan();
+            runningPlanHistory.commit(runningPlanHistory.getActualSnapshot().withRunningPlan(runningPlan));
             canEdited();
         } catch (IOException exception) {
             //TODO: Alert
@@ -399,6 +973,9 @@ public class MainViewController {
             // get the running plan entry from modal dialog
             if (runningEntryView == null) {
                 runningEntryView = new RunningEntryView(sportsLibrary);
+                applicationMetrics.increment(ApplicationMetrics.Counter.CACHE_MISS);
+            } else {
+                applicationMetrics.increment(ApplicationMetrics.Counter.CACHE_HIT);
             }
             RunningEntryViewController viewController
                     = runningEntryView.showViewModal(mainSplitPane, runningPlanEntry);
@@ -407,20 +984,80 @@ public class MainViewController {
                 addOrUpdateRunningPlanEntry(runningPlanEntry);
             }
             // refresh the table view
-            runningPlanEntryTableView.getItems().clear();
-            runningPlanEntryTableView.getItems().addAll(runningPlanEntryTableObjects);
+            refreshTableView();
         } catch (IOException exception) {
             //TODO: alert
             exception.printStackTrace();
         }
     }
 
+    private void showRunningPlanGeneratorView() {
+        // show dialog
+        try {
+            if (runningPlanGeneratorView == null) {
+                runningPlanGeneratorView = new RunningPlanGeneratorView(sportsLibrary);
+                applicationMetrics.increment(ApplicationMetrics.Counter.CACHE_MISS);
+            } else {
+                applicationMetrics.increment(ApplicationMetrics.Counter.CACHE_HIT);
+            }
+            RunningPlanGeneratorViewController viewController
+                    = runningPlanGeneratorView.showViewModal(mainSplitPane);
+            RunningPlan generatedRunningPlan = viewController.getRunningPlan();
+            if (generatedRunningPlan != null) {
+                icalMode = false;
+                runningPlan = generatedRunningPlan;
+                runningPlanEntry = null;
+                runningPlanEntries = runningPlan.getEntries();
+                // the generated plan replaces the actual plan and can be undone
+                runningPlanHistory.commit(RunningPlanSnapshot.of(runningPlan, runningPlanEntries));
+                initializeTableView();
+                refreshTableView();
+                canEdited();
+            }
+        } catch (IOException exception) {
+            Alert alert = createAlert(Alert.AlertType.WARNING, "alert.generator.failed");
+            alert.showAndWait();
+            if (sportsLibrary.isDebugMode()) {
+                sportsLibrary.debug(exception, "The generator view can not be shown.");
+            }
+        }
+    }
+
+    private void showTemplateLibraryView() {
+        // show dialog
+        try {
+            if (templateLibraryView == null) {
+                templateLibraryView = new TemplateLibraryView(templateLibrary);
+                applicationMetrics.increment(ApplicationMetrics.Counter.CACHE_MISS);
+            } else {
+                applicationMetrics.increment(ApplicationMetrics.Counter.CACHE_HIT);
+            }
+            // the files of the open plans are not compressed
+            TemplateLibraryViewController viewController = templateLibraryView.showViewModal(mainSplitPane,
+                    getOpenFiles());
+            File templateFile = viewController.getTemplateFile();
+            if (templateFile != null) {
+                // a loaded plan is kept, the template is loaded in a new tab
+                runInPlanTab(() -> importJSONFile(templateFile));
+            }
+        } catch (IOException exception) {
+            Alert alert = createAlert(Alert.AlertType.WARNING, "alert.library.failed");
+            alert.showAndWait();
+            if (sportsLibrary.isDebugMode()) {
+                sportsLibrary.debug(exception, "The template library view can not be shown.");
+            }
+        }
+    }
+
     private void showPreferencesDialog() {
         // show dialog
         try {
             // get the running plan entry from modal dialog
             if (preferencesView == null) {
                 preferencesView = new PreferencesView();
+                applicationMetrics.increment(ApplicationMetrics.Counter.CACHE_MISS);
+            } else {
+                applicationMetrics.increment(ApplicationMetrics.Counter.CACHE_HIT);
             }
             // actual we do not need any return values
             preferencesView.showViewModal(mainSplitPane, sportsLibrary);
@@ -431,26 +1068,108 @@ public class MainViewController {
     }
 
     private void showDebugDialog() {
-        Alert alert = new Alert(Alert.AlertType.INFORMATION);
-        alert.setTitle(applicationResources.getString("app.name")
-                + " "
-                + applicationResources.getString("app.version"));
-        alert.setHeaderText(applicationResources.getString("alert.debug.header"));
+        Alert alert = createAlert(Alert.AlertType.INFORMATION, "alert.debug.header");
         VBox vBox = new VBox();
         Label label = new Label(applicationResources.getString("alert.debug.info"));
         Hyperlink hyperlink = new Hyperlink(applicationResources.getString("alert.debug.info.url"));
         hyperlink.setOnAction((event) -> hostServices.showDocument(hyperlink.getText()));
-        vBox.getChildren().addAll(label, hyperlink);
+        // start and stop a flight recording
+        Button recordingButton = new Button(getFlightRecordingButtonText());
+        recordingButton.setOnAction((event) -> {
+            toggleFlightRecording();
+            recordingButton.setText(getFlightRecordingButtonText());
+        });
+        // live values of the app metrics
+        Label performanceLabel = new Label(applicationResources.getString("alert.debug.performance"));
+        GridPane performanceGridPane = new GridPane();
+        performanceGridPane.setHgap(10.0);
+        updatePerformanceGridPane(performanceGridPane);
+        Timeline performanceTimeline = new Timeline(new KeyFrame(Duration.seconds(1.0),
+                (event) -> updatePerformanceGridPane(performanceGridPane)));
+        performanceTimeline.setCycleCount(Timeline.INDEFINITE);
+        performanceTimeline.play();
+        alert.setOnHidden((event) -> performanceTimeline.stop());
+        vBox.getChildren().addAll(label, hyperlink, recordingButton, performanceLabel, performanceGridPane);
         alert.getDialogPane().contentProperty().set(vBox);
         alert.showAndWait();
     }
 
+    private void updatePerformanceGridPane(GridPane gridPane) {
+        gridPane.getChildren().clear();
+        gridPane.addRow(0,
+                new Label(applicationResources.getString("alert.debug.performance.operation")),
+                new Label(applicationResources.getString("alert.debug.performance.count")),
+                new Label("p50"), new Label("p90"), new Label("p99"), new Label("max"));
+        int row = 1;
+        for (ApplicationMetrics.Operation operation: ApplicationMetrics.Operation.values()) {
+            LatencySummary latency = applicationMetrics.getLatency(operation);
+            gridPane.addRow(row,
+                    new Label(applicationResources.getString("metrics.operation." + operation.getKey())),
+                    new Label(String.valueOf(latency.getCount())),
+                    new Label(String.format("%.1f", latency.getP50Millis())),
+                    new Label(String.format("%.1f", latency.getP90Millis())),
+                    new Label(String.format("%.1f", latency.getP99Millis())),
+                    new Label(String.format("%.1f", latency.getMaxMillis())));
+            row++;
+        }
+        gridPane.addRow(row++,
+                new Label(applicationResources.getString("alert.debug.performance.history")),
+                new Label(String.valueOf(runningPlanHistory.size())),
+                new Label((runningPlanHistory.getEstimatedBytes() >> 10) + " KB"));
+        long documentBytes = 0;
+        for (Tab tab: planTabPane.getTabs()) {
+            documentBytes += ((RunningPlanDocument) tab.getUserData()).getEstimatedBytes();
+        }
+        gridPane.addRow(row++,
+                new Label(applicationResources.getString("alert.debug.performance.plans")),
+                new Label(String.valueOf(planTabPane.getTabs().size())),
+                new Label((documentBytes >> 10) + " KB"));
+        gridPane.addRow(row++,
+                new Label(applicationResources.getString("alert.debug.performance.cache")),
+                new Label(applicationMetrics.getCount(ApplicationMetrics.Counter.CACHE_HIT)
+                        + " / "
+                        + applicationMetrics.getCount(ApplicationMetrics.Counter.CACHE_MISS)));
+        gridPane.addRow(row,
+                new Label(applicationResources.getString("alert.debug.performance.layout")),
+                new Label(applicationMetrics.getCount(ApplicationMetrics.Counter.TABLE_CHANGE)
+                        + " / "
+                        + applicationMetrics.getCount(ApplicationMetrics.Counter.LAYOUT_PASS)));
+    }
+
+    private String getFlightRecordingButtonText() {
+        if (FlightRecording.getInstance().isRecording()) {
+            return applicationResources.getString("alert.debug.recording.stop");
+        }
+        return applicationResources.getString("alert.debug.recording.start");
+    }
+
+    private void toggleFlightRecording() {
+        FlightRecording flightRecording = FlightRecording.getInstance();
+        try {
+            if (flightRecording.isRecording()) {
+                // get the file for the recording with file chooser dialog
+                FileChooser fileChooser = new FileChooser();
+                fileChooser.setInitialDirectory(new File(System.getProperty("user.home")));
+                fileChooser.setSelectedExtensionFilter(Global.JFR_FILE_EXTENSION_FILTER);
+                fileChooser.setInitialFileName(applicationResources.getString("app.name") + Global.JFR_FILE_EXTENSION);
+                File recordingFile = fileChooser.showSaveDialog(mainSplitPane.getScene().getWindow());
+                if (recordingFile != null) {
+                    flightRecording.stop(recordingFile.toPath());
+                }
+            } else {
+                flightRecording.start();
+            }
+        } catch (IOException | ParseException | SecurityException exception) {
+            Alert alert = createAlert(Alert.AlertType.WARNING, "alert.debug.recording.failed");
+            alert.showAndWait();
+            if (sportsLibrary.isDebugMode()) {
+                sportsLibrary.debug(exception, "Flight recording failed.");
+            }
+        }
+    }
+
     private void showLicensesDialog() {
-        Alert alert = new Alert(Alert.AlertType.INFORMATION);
-        alert.setTitle(applicationResources.getString("app.name")
-                + " "
-                + applicationResources.getString("app.version"));
-        alert.setHeaderText(applicationResources.getString("alert.licenses.header"));
+        Alert alert = createAlert(Alert.AlertType.INFORMATION, "alert.licenses.header");
         VBox vBox = new VBox();
         Label label = new Label(applicationResources.getString("alert.licenses.info"));
         Hyperlink hyperlink = new Hyperlink(applicationResources.getString("alert.licenses.info.url"));
@@ -461,11 +1180,7 @@ public class MainViewController {
     }
 
     private void showAboutDialog() {
-        Alert alert = new Alert(Alert.AlertType.INFORMATION);
-        alert.setTitle(applicationResources.getString("app.name")
-                + " "
-                + applicationResources.getString("app.version"));
-        alert.setHeaderText(applicationResources.getString("alert.about.header"));
+        Alert alert = createAlert(Alert.AlertType.INFORMATION, "alert.about.header");
         VBox vBox = new VBox();
         Label label = new Label(applicationResources.getString("alert.about.info"));
         Hyperlink hyperlink = new Hyperlink(applicationResources.getString("alert.about.info.url"));
@@ -476,132 +1191,539 @@ public class MainViewController {
     }
 
     private void addOrUpdateRunningPlanEntry(@NotNull RunningPlanEntry entry) {
+        long startNanos = System.nanoTime();
+        TableRefreshEvent tableRefreshEvent = new TableRefreshEvent("runningPlanEntryTableView");
+        tableRefreshEvent.begin();
         // if the running entry is new, add it to the list
         if (!runningPlanEntries.contains(entry)) {
             // add to the running entry list of running plan
             runningPlanEntries.add(entry);
-            // add to table object list
-            runningPlanEntryTableObjects.add(new RunningPlanEntryTableObject(entry));
+            runningPlanHistory.commit(runningPlanHistory.getActualSnapshot().withAddedEntry(entry));
         } else {
-            // the entry can be updated - update the table objects
-            // using the easiest way
-            runningPlanEntryTableView.getItems().clear();
-            runningPlanEntryTableObjects.clear();
-            for (RunningPlanEntry entry1: runningPlanEntries) {
-                runningPlanEntryTableObjects.add(new RunningPlanEntryTableObject(entry1));
-            }
-            runningPlanEntryTableView.getItems().addAll(runningPlanEntryTableObjects);
+            int index = runningPlanEntries.indexOf(entry);
+            runningPlanHistory.commit(runningPlanHistory.getActualSnapshot().withEntry(index, entry));
         }
         // add context menu to table view
-        if (runningPlanEntryTableObjects.size() == 1) {
+        if (runningPlanEntries.size() == 1) {
             runningPlanEntryTableView.setContextMenu(tableViewContextMenu);
         }
         // refresh the table view
-        runningPlanEntryTableView.getItems().clear();
-        runningPlanEntryTableView.getItems().addAll(runningPlanEntryTableObjects);
+        refreshTableView();
+        updateUndoMenuItems();
+        tableRefreshEvent.setRows(runningPlanEntries.size());
+        tableRefreshEvent.commit();
+        applicationMetrics.record(ApplicationMetrics.Operation.ENTRY_EDIT, System.nanoTime() - startNanos);
     }
 
-    private void removeRunningEntryForIndex(int index) {
-        if (index < runningPlanEntries.size()) {
-            // remove the entry from both lists
-            runningPlanEntries.remove(index);
-            runningPlanEntryTableObjects.remove(index);
-            // refresh the table view
-            runningPlanEntryTableView.getItems().clear();
-            runningPlanEntryTableView.getItems().addAll(runningPlanEntryTableObjects);
+    // refresh the table view
+    private void refreshTableView() {
+        long startNanos = System.nanoTime();
+        showEntries();
+        applicationMetrics.record(ApplicationMetrics.Operation.TABLE_REFRESH, System.nanoTime() - startNanos);
+    }
+
+    // a single change of the list, the table objects of the visible rows are created again
+    private void showEntries() {
+        if (searchFilter == null) {
+            shownEntryIndices = null;
+            runningPlanEntryTableItems.setSource(runningPlanEntries);
+            return;
         }
-        if (runningPlanEntryTableObjects.size() == 0) {
-            runningPlanEntryTableView.setContextMenu(null);
+        // the search compares the ids, no table objects are created for the entries not shown
+        List<RunningPlanEntry> foundEntries = new ArrayList<>();
+        int[] foundIndices = new int[runningPlanEntries.size()];
+        for (int index = 0; index < runningPlanEntries.size(); index++) {
+            RunningPlanEntry entry = runningPlanEntries.get(index);
+            if (searchFilter.test(entry.getUUID())) {
+                foundIndices[foundEntries.size()] = index;
+                foundEntries.add(entry);
+            }
         }
+        shownEntryIndices = Arrays.copyOf(foundIndices, foundEntries.size());
+        runningPlanEntryTableItems.setSource(foundEntries);
     }
 
-    private void importJSONFromFile() {
-        icalMode = false;
-        // open system file dialog
-        // user prefs for last directory
-        String directoryPathString;
-        if (useLastDirectory && !lastDirectoryPath.isEmpty()) {
-            directoryPathString = lastDirectoryPath;
-        } else {
-            try {
-                directoryPathString = System.getProperty("user.home");
-            } catch (SecurityException exception) {
-                directoryPathString = "/"; // can be used on linux, macOS and Windows
+    // the index of the entry of a row, the table can be filtered by the search
+    private int getEntryIndex(int rowIndex) {
+        return shownEntryIndices == null ? rowIndex : shownEntryIndices[rowIndex];
+    }
+
+    // the indices of the entries of the selected rows, the table can be filtered by the search
+    private List<Integer> getSelectedIndices() {
+        List<Integer> indices = new ArrayList<>();
+        for (int index: runningPlanEntryTableView.getSelectionModel().getSelectedIndices()) {
+            indices.add(getEntryIndex(index));
+        }
+        return indices;
+    }
+
+    private void removeRunningEntriesForIndices(@NotNull List<Integer> indices) {
+        long startNanos = System.nanoTime();
+        // remove from the end, so the smaller indices are still valid
+        indices.sort(Comparator.reverseOrder());
+        RunningPlanSnapshot snapshot = runningPlanHistory.getActualSnapshot();
+        for (int index: indices) {
+            if (index >= 0 && index < runningPlanEntries.size()) {
+                runningPlanEntries.remove(index);
+                snapshot = snapshot.withoutEntry(index);
             }
         }
-        FileChooser fileChooser = new FileChooser();
-        fileChooser.setInitialDirectory(new File(directoryPathString));
-        fileChooser.setSelectedExtensionFilter(Global.JSON_FILE_EXTENSION_FILTER);
-        File jsonFile = fileChooser.showOpenDialog(mainSplitPane.getScene().getWindow());
-        if (!jsonFile.exists() || jsonFile.isDirectory() || !jsonFile.canRead()) {
-            Alert alert = new Alert(Alert.AlertType.WARNING);
-            alert.setTitle(applicationResources.getString("app.name")
-                    + " "
-                    + applicationResources.getString("app.version"));
-            alert.setHeaderText(applicationResources.getString("alert.import.failed"));
-            alert.setContentText(applicationResources.getString("alert.import.wrong.file.info"));
-            alert.showAndWait();
+        // one undo record and a single change of the table
+        runningPlanHistory.commit(snapshot);
+        refreshTableView();
+        if (runningPlanEntries.isEmpty()) {
+            runningPlanEntryTableView.setContextMenu(null);
+        }
+        updateUndoMenuItems();
+        applicationMetrics.record(ApplicationMetrics.Operation.ENTRY_EDIT, System.nanoTime() - startNanos);
+    }
+
+    private void shiftWeeksOfSelectedEntries() {
+        List<Integer> indices = getSelectedIndices();
+        if (indices.isEmpty()) {
             return;
-        } else {
-            // remember the last used directory
-            saveLastUsedDirectory(jsonFile);
         }
-        try {
-            // load the plan from json
-            TemplateLoader templateLoader = new TemplateLoader(sportsLibrary);
-            runningPlan = templateLoader.loadRunningPlanFromJSON(jsonFile);
-            runningPlanEntries = runningPlan.getEntries();
-            // update the table object list
-            runningPlanEntryTableObjects.clear();
-            for (RunningPlanEntry entry: runningPlanEntries) {
-                runningPlanEntryTableObjects.add(new RunningPlanEntryTableObject(entry));
+        askForNumber(applicationResources.getString("alert.bulk.shiftWeeks"), "1").ifPresent(weeks -> {
+            try {
+                RunningPlanBulkEdit.shiftWeeks(getRunningPlanEntries(indices), weeks);
+                applyBulkEdit(indices, List.of());
+            } catch (IllegalArgumentException exception) {
+                showBulkEditWarning();
             }
-            // initialize the table
-            initializeTableView();
-            // refresh the table view
-            runningPlanEntryTableView.getItems().clear();
-            runningPlanEntryTableView.getItems().addAll(runningPlanEntryTableObjects);
-            // save the mode in user prefs
-            userPreferences.putBoolean(Global.UserPreferencesKeys.ICAL_MODE, icalMode);
-            // enable / disable editing and saving the running plan
+        });
+    }
+
+    private void scaleDurationsOfSelectedEntries() {
+        List<Integer> indices = getSelectedIndices();
+        if (indices.isEmpty()) {
+            return;
+        }
+        askForNumber(applicationResources.getString("alert.bulk.scaleDurations"), "110").ifPresent(percent -> {
+            try {
+                RunningPlanBulkEdit.scaleDurations(getRunningPlanEntries(indices), percent);
+                applyBulkEdit(indices, List.of());
+            } catch (IllegalArgumentException exception) {
+                showBulkEditWarning();
+            }
+        });
+    }
+
+    // copy the range of weeks of the selected entries
+    private void copyWeeksOfSelectedEntries() {
+        List<RunningPlanEntry> selectedEntries = getRunningPlanEntries(getSelectedIndices());
+        if (selectedEntries.isEmpty()) {
+            return;
+        }
+        int fromWeek = Integer.MAX_VALUE;
+        int toWeek = 0;
+        for (RunningPlanEntry entry: selectedEntries) {
+            fromWeek = Math.min(fromWeek, entry.getWeek());
+            toWeek = Math.max(toWeek, entry.getWeek());
+        }
+        int firstWeek = fromWeek;
+        int lastWeek = toWeek;
+        askForNumber(applicationResources.getString("alert.bulk.copyWeeks") + " " + firstWeek + " - " + lastWeek + ":",
+                String.valueOf(lastWeek + 1)).ifPresent(targetWeek -> {
+            try {
+                applyBulkEdit(List.of(),
+                        RunningPlanBulkEdit.copyWeeks(runningPlanEntries, firstWeek, lastWeek, targetWeek));
+            } catch (IllegalArgumentException exception) {
+                showBulkEditWarning();
+            }
+        });
+    }
+
+    private List<RunningPlanEntry> getRunningPlanEntries(@NotNull List<Integer> indices) {
+        List<RunningPlanEntry> entries = new ArrayList<>(indices.size());
+        for (int index: indices) {
+            if (index >= 0 && index < runningPlanEntries.size()) {
+                entries.add(runningPlanEntries.get(index));
+            }
+        }
+        return entries;
+    }
+
+    // one undo record, one validation and load calculation and a single change of the table
+    private void applyBulkEdit(@NotNull List<Integer> changedIndices, @NotNull List<RunningPlanEntry> addedEntries) {
+        long startNanos = System.nanoTime();
+        RunningPlanSnapshot snapshot = runningPlanHistory.getActualSnapshot();
+        for (int index: changedIndices) {
+            if (index >= 0 && index < runningPlanEntries.size()) {
+                snapshot = snapshot.withEntry(index, runningPlanEntries.get(index));
+            }
+        }
+        for (RunningPlanEntry entry: addedEntries) {
+            runningPlanEntries.add(entry);
+            snapshot = snapshot.withAddedEntry(entry);
+        }
+        runningPlanHistory.commit(snapshot);
+        refreshTableView();
+        canEdited();
+        applicationMetrics.record(ApplicationMetrics.Operation.BULK_EDIT, System.nanoTime() - startNanos);
+    }
+
+    private Optional<Integer> askForNumber(@NotNull String headerText, @NotNull String defaultValue) {
+        TextInputDialog dialog = new TextInputDialog(defaultValue);
+        dialog.setTitle(applicationResources.getString("app.name")
+                + " "
+                + applicationResources.getString("app.version"));
+        dialog.setHeaderText(headerText);
+        Optional<String> value = dialog.showAndWait();
+        if (value.isPresent()) {
+            try {
+                return Optional.of(Integer.parseInt(value.get().trim()));
+            } catch (NumberFormatException exception) {
+                showBulkEditWarning();
+            }
+        }
+        return Optional.empty();
+    }
+
+    private void showBulkEditWarning() {
+        Alert alert = createAlert(Alert.AlertType.WARNING, "alert.bulk.invalidValue");
+        alert.showAndWait();
+    }
+
+    private void importJSONFromFile() {
+        icalMode = false;
+        // open system file dialog
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setInitialDirectory(getInitialDirectory());
+        fileChooser.setSelectedExtensionFilter(Global.JSON_FILE_EXTENSION_FILTER);
+        File jsonFile = fileChooser.showOpenDialog(mainSplitPane.getScene().getWindow());
+        if (jsonFile == null) {
+            return; // cancelled by the user
+        }
+        if (!jsonFile.exists() || jsonFile.isDirectory() || !jsonFile.canRead()) {
+            Alert alert = createAlert(Alert.AlertType.WARNING, "alert.import.failed");
+            alert.setContentText(applicationResources.getString("alert.import.wrong.file.info"));
+            alert.showAndWait();
+            return;
+        } else {
+            // remember the last used directory
+            saveLastUsedDirectory(jsonFile);
+        }
+        importJSONFile(jsonFile);
+    }
+
+    // load the plan from the file, the file must be readable
+    // the file is parsed in the background, the tab shows the first weeks of a large indexed template
+    private void importJSONFile(@NotNull File jsonFile) {
+        icalMode = false;
+        if (selectPlanTabOfFile(jsonFile)) {
+            // the unchanged file is already open in a tab
+            return;
+        }
+        PlanImportEvent importEvent = new PlanImportEvent(Global.JSON_FILE_EXTENSION, jsonFile);
+        importEvent.begin();
+        long startNanos = System.nanoTime();
+        // save the mode in user prefs
+        userPreferences.putBoolean(Global.UserPreferencesKeys.ICAL_MODE, icalMode);
+        RunningPlanDocument document = activeDocument;
+        PulseChunkQueue<RunningPlanEntry> chunkQueue = beginLoadingDocument(jsonFile.getName());
+        Thread importThread = new Thread(() -> {
+            try {
+                // the weeks of the preview and the whole file are parsed
+                AtomicLong parsedBytes = new AtomicLong();
+                if (!CompressedFiles.isCompressed(jsonFile)) {
+                    TemplateOffsetIndex.loadWeeks(jsonFile.toPath(), 1, Global.OffsetIndexPreferences.PREVIEW_WEEKS,
+                            sportsLibrary.getMovementTypes(), parsedBytes::addAndGet)
+                            .ifPresent(weeksPlan -> chunkQueue.publish(weeksPlan.getEntries()));
+                }
+                // load the plan from json, a compressed file is inflated while reading
+                TemplateLoader templateLoader = new TemplateLoader(sportsLibrary);
+                RunningPlan importedPlan = CompressedFiles.read(jsonFile, templateLoader::loadRunningPlanFromJSON,
+                        parsedBytes::addAndGet);
+                Platform.runLater(() -> {
+                    chunkQueue.flush();
+                    showImportedPlan(document, importedPlan, jsonFile);
+                    // changes of the file by other programs are merged into the plan
+                    planFileWatcher.watch(jsonFile.toPath());
+                    importEvent.setImported(parsedBytes.get(), importedPlan.getEntries().size());
+                    importEvent.commit();
+                    applicationMetrics.record(ApplicationMetrics.Operation.IMPORT, System.nanoTime() - startNanos);
+                });
+            } catch (Exception exception) {
+                Platform.runLater(() -> {
+                    chunkQueue.clear();
+                    importEvent.commit();
+                    discardLoadingDocument(document);
+                    Alert alert = createAlert(Alert.AlertType.WARNING, "alert.import.failed");
+                    alert.showAndWait();
+                    if (sportsLibrary.isDebugMode()) {
+                        sportsLibrary.debug(exception, "Import from JSON failed.");
+                    }
+                });
+            }
+        }, "plan-import");
+        importThread.setDaemon(true);
+        importThread.start();
+    }
+
+    // loads some weeks of a large template, with the index of the template only these weeks are parsed
+    private void importJSONWeeksFromFile() {
+        File jsonFile = chooseJSONFile(applicationResources.getString("mainMenuBar.menuFile.menuItemImportWeeks"),
+                "alert.import.failed");
+        if (jsonFile == null) {
+            return; // cancelled by the user
+        }
+        Optional<Integer> fromWeek = askForNumber(applicationResources.getString("alert.importWeeks.fromWeek"), "1");
+        if (fromWeek.isEmpty()) {
+            return;
+        }
+        Optional<Integer> toWeek = askForNumber(applicationResources.getString("alert.importWeeks.toWeek"),
+                String.valueOf(fromWeek.get()));
+        if (toWeek.isEmpty()) {
+            return;
+        }
+        int firstWeek = Math.min(fromWeek.get(), toWeek.get());
+        int lastWeek = Math.max(fromWeek.get(), toWeek.get());
+        icalMode = false;
+        PlanImportEvent importEvent = new PlanImportEvent(Global.JSON_FILE_EXTENSION, jsonFile);
+        importEvent.begin();
+        long startNanos = System.nanoTime();
+        userPreferences.putBoolean(Global.UserPreferencesKeys.ICAL_MODE, icalMode);
+        String weeksName = " ("
+                + applicationResources.getString("alert.importWeeks.weeks")
+                + " "
+                + firstWeek
+                + " - "
+                + lastWeek
+                + ")";
+        RunningPlanDocument document = activeDocument;
+        PulseChunkQueue<RunningPlanEntry> chunkQueue = beginLoadingDocument(jsonFile.getName() + weeksName);
+        Thread importThread = new Thread(() -> {
+            try {
+                AtomicLong parsedBytes = new AtomicLong();
+                boolean isCompressed = CompressedFiles.isCompressed(jsonFile);
+                RunningPlan weeksPlan = null;
+                if (!isCompressed) {
+                    weeksPlan = TemplateOffsetIndex.loadWeeks(jsonFile.toPath(), firstWeek, lastWeek,
+                            sportsLibrary.getMovementTypes(), parsedBytes::set).orElse(null);
+                }
+                if (weeksPlan == null) {
+                    // without a valid index the whole file is parsed
+                    TemplateLoader templateLoader = new TemplateLoader(sportsLibrary);
+                    weeksPlan = CompressedFiles.read(jsonFile, templateLoader::loadRunningPlanFromJSON,
+                            parsedBytes::set);
+                    List<RunningPlanEntry> weeksEntries = new ArrayList<>();
+                    for (RunningPlanEntry entry: weeksPlan.getEntries()) {
+                        if (entry.getWeek() >= firstWeek && entry.getWeek() <= lastWeek) {
+                            weeksEntries.add(entry);
+                        }
+                    }
+                    weeksPlan.setEntries(weeksEntries);
+                    if (!isCompressed) {
+                        // the next load of the weeks uses the index
+                        TemplateOffsetIndex.update(jsonFile.toPath());
+                    }
+                }
+                weeksPlan.setName(weeksPlan.getName() + weeksName);
+                RunningPlan importedPlan = weeksPlan;
+                Platform.runLater(() -> {
+                    chunkQueue.flush();
+                    // the file is not set, the weeks must not overwrite the whole plan
+                    showImportedPlan(document, importedPlan, null);
+                    importEvent.setImported(parsedBytes.get(), importedPlan.getEntries().size());
+                    importEvent.commit();
+                    applicationMetrics.record(ApplicationMetrics.Operation.IMPORT, System.nanoTime() - startNanos);
+                });
+            } catch (Exception exception) {
+                Platform.runLater(() -> {
+                    chunkQueue.clear();
+                    importEvent.commit();
+                    discardLoadingDocument(document);
+                    Alert alert = createAlert(Alert.AlertType.WARNING, "alert.import.failed");
+                    alert.showAndWait();
+                    if (sportsLibrary.isDebugMode()) {
+                        sportsLibrary.debug(exception, "Import of the weeks from JSON failed.");
+                    }
+                });
+            }
+        }, "plan-import");
+        importThread.setDaemon(true);
+        importThread.start();
+    }
+
+    // merges the changes of another copy of the plan, both copies derived from the same ancestor
+    private void mergeRunningPlan() {
+        if (runningPlan == null) {
+            Alert alert = createAlert(Alert.AlertType.INFORMATION, "alert.runningplan.null");
+            alert.showAndWait();
+            return;
+        }
+        File ancestorFile = chooseJSONFile(applicationResources.getString("mergeView.chooseAncestor"),
+                "alert.merge.failed");
+        if (ancestorFile == null) {
+            return;
+        }
+        File theirFile = chooseJSONFile(applicationResources.getString("mergeView.chooseTheirs"),
+                "alert.merge.failed");
+        if (theirFile == null) {
+            return;
+        }
+        try {
+            TemplateLoader templateLoader = new TemplateLoader(sportsLibrary);
+            RunningPlan ancestorPlan = CompressedFiles.read(ancestorFile, templateLoader::loadRunningPlanFromJSON);
+            RunningPlan theirPlan = CompressedFiles.read(theirFile, templateLoader::loadRunningPlanFromJSON);
+            MergeResult mergeResult = RunningPlanMerge.merge(
+                    RunningPlanSnapshot.of(ancestorPlan, ancestorPlan.getEntries()),
+                    runningPlanHistory.getActualSnapshot(),
+                    RunningPlanSnapshot.of(theirPlan, theirPlan.getEntries()));
+            MergeViewController viewController = new MergeView().showViewModal(mainSplitPane, mergeResult);
+            mergeResult = viewController.getMergeResult();
+            if (mergeResult == null) {
+                return; // cancelled by the user
+            }
+            long startNanos = System.nanoTime();
+            // the merged entries replace the entries of the plan, the merge can be undone
+            runningPlanEntry = null;
+            runningPlanEntries = mergeResult.restoreEntries();
+            runningPlanHistory.commit(RunningPlanSnapshot.of(runningPlan, runningPlanEntries));
+            refreshTableView();
             canEdited();
+            updateUndoMenuItems();
+            applicationMetrics.record(ApplicationMetrics.Operation.MERGE, System.nanoTime() - startNanos);
         } catch (Exception exception) {
-            Alert alert = new Alert(Alert.AlertType.WARNING);
-            alert.setTitle(applicationResources.getString("app.name")
-                    + " "
-                    + applicationResources.getString("app.version"));
-            alert.setHeaderText(applicationResources.getString("alert.import.failed"));
+            Alert alert = createAlert(Alert.AlertType.WARNING, "alert.merge.failed");
             alert.showAndWait();
             if (sportsLibrary.isDebugMode()) {
-                sportsLibrary.debug(exception, "Import from JSON failed.");
+                sportsLibrary.debug(exception, "Merge of the running plan failed.");
             }
         }
     }
 
+    // called on the thread of the file watcher, only the changed file is read
+    private void reloadChangedFile(@NotNull Path path) {
+        File file = path.toFile();
+        long fileLength = file.length();
+        long fileLastModified = file.lastModified();
+        try {
+            TemplateLoader templateLoader = new TemplateLoader(sportsLibrary);
+            RunningPlan changedPlan = CompressedFiles.read(file, templateLoader::loadRunningPlanFromJSON);
+            RunningPlanSnapshot changedSnapshot = RunningPlanSnapshot.of(changedPlan, changedPlan.getEntries());
+            Platform.runLater(() -> {
+                // a newer version of the file is reloaded by the next event
+                if (file.length() == fileLength && file.lastModified() == fileLastModified) {
+                    mergeChangedFile(file, changedSnapshot);
+                }
+            });
+        } catch (Exception exception) {
+            // e.g. the file is written again by the editor and read again after the next event
+            if (sportsLibrary.isDebugMode()) {
+                sportsLibrary.debug(exception, "Reload of the changed file failed.");
+            }
+        }
+    }
+
+    // merges the changes of another program into each document of the file
+    private void mergeChangedFile(@NotNull File file, @NotNull RunningPlanSnapshot changedSnapshot) {
+        storeActiveDocument();
+        for (Tab tab: new ArrayList<>(planTabPane.getTabs())) {
+            RunningPlanDocument document = (RunningPlanDocument) tab.getUserData();
+            File documentFile = document.getFile();
+            if (document.getRunningPlan() == null
+                    || document.isIcalMode()
+                    || documentFile == null
+                    || !documentFile.getAbsoluteFile().equals(file.getAbsoluteFile())
+                    || !document.isFileChanged()) {
+                // not the file of the document, saved by the app or already reloaded
+                continue;
+            }
+            MergeResult mergeResult = RunningPlanMerge.merge(document.getFileSnapshot(),
+                    document.getHistory().getActualSnapshot(), changedSnapshot);
+            if (!mergeResult.getConflicts().isEmpty()) {
+                // the user resolves the conflicts in the tab of the document
+                planTabPane.getSelectionModel().select(tab);
+                try {
+                    MergeViewController viewController = new MergeView().showViewModal(mainSplitPane, mergeResult);
+                    mergeResult = viewController.getMergeResult();
+                } catch (IOException exception) {
+                    Logger.error(exception, "The conflicts of the changed file can not be shown.");
+                    mergeResult = null;
+                }
+                if (mergeResult == null) {
+                    // not reloaded, saving the plan warns before overwriting the file
+                    continue;
+                }
+            }
+            long startNanos = System.nanoTime();
+            if (!mergeResult.getTheirChanges().isEmpty()) {
+                applyChangedFile(document, mergeResult);
+            }
+            document.setFile(file, changedSnapshot);
+            applicationMetrics.record(ApplicationMetrics.Operation.RELOAD, System.nanoTime() - startNanos);
+        }
+    }
+
+    // only the entries changed by the other program are replaced, the merge can be undone
+    private void applyChangedFile(@NotNull RunningPlanDocument document, @NotNull MergeResult mergeResult) {
+        Map<UUID, RunningPlanEntry> changedEntries = mergeResult.restoreTheirChangedEntries();
+        boolean isActiveDocument = document == activeDocument;
+        List<RunningPlanEntry> entries = document.getRunningPlanEntries();
+        RunningPlanSnapshot snapshot = document.getHistory().getActualSnapshot();
+        // from the end, so the indices of the remaining entries are not shifted
+        for (int index = entries.size() - 1; index >= 0; index--) {
+            UUID uuid = entries.get(index).getUUID();
+            if (!changedEntries.containsKey(uuid)) {
+                continue;
+            }
+            RunningPlanEntry entry = changedEntries.remove(uuid);
+            if (entry == null) {
+                entries.remove(index);
+                snapshot = snapshot.withoutEntry(index);
+            } else {
+                entries.set(index, entry);
+                snapshot = snapshot.withEntry(index, entry);
+            }
+        }
+        // the entries added by the other program
+        for (RunningPlanEntry entry: changedEntries.values()) {
+            if (entry != null) {
+                entries.add(entry);
+                snapshot = snapshot.withAddedEntry(entry);
+            }
+        }
+        document.getHistory().commit(snapshot);
+        if (isActiveDocument) {
+            runningPlanEntry = null;
+            refreshTableView();
+            canEdited();
+        }
+    }
+
+    @Nullable
+    private File chooseJSONFile(@NotNull String title, @NotNull String failedHeaderKey) {
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle(title);
+        fileChooser.setInitialDirectory(getInitialDirectory());
+        fileChooser.setSelectedExtensionFilter(Global.JSON_FILE_EXTENSION_FILTER);
+        File jsonFile = fileChooser.showOpenDialog(mainSplitPane.getScene().getWindow());
+        if (jsonFile == null) {
+            return null; // cancelled by the user
+        }
+        if (!jsonFile.exists() || jsonFile.isDirectory() || !jsonFile.canRead()) {
+            Alert alert = createAlert(Alert.AlertType.WARNING, failedHeaderKey);
+            alert.setContentText(applicationResources.getString("alert.import.wrong.file.info"));
+            alert.showAndWait();
+            return null;
+        }
+        saveLastUsedDirectory(jsonFile);
+        return jsonFile;
+    }
+
     private void importICALFromFile() {
         icalMode = true;
         // open system file dialog
-        // user prefs for last directory
-        String directoryPathString;
-        if (useLastDirectory && !lastDirectoryPath.isEmpty()) {
-            directoryPathString = lastDirectoryPath;
-        } else {
-            try {
-                directoryPathString = System.getProperty("user.home");
-            } catch (SecurityException exception) {
-                directoryPathString = "/"; // can be used on linux, macOS and Windows
-            }
-        }
         FileChooser fileChooser = new FileChooser();
-        fileChooser.setInitialDirectory(new File(directoryPathString));
+        fileChooser.setInitialDirectory(getInitialDirectory());
         fileChooser.setSelectedExtensionFilter(Global.ICAL_FILE_EXTENSION_FILTER);
         File iCALFile = fileChooser.showOpenDialog(mainSplitPane.getScene().getWindow());
+        if (iCALFile == null) {
+            return; // cancelled by the user
+        }
         if (!iCALFile.exists() || iCALFile.isDirectory() || !iCALFile.canRead()) {
-            Alert alert = new Alert(Alert.AlertType.WARNING);
-            alert.setTitle(applicationResources.getString("app.name")
-                    + " "
-                    + applicationResources.getString("app.version"));
-            alert.setHeaderText(applicationResources.getString("alert.import.failed"));
+            Alert alert = createAlert(Alert.AlertType.WARNING, "alert.import.failed");
             alert.setContentText(applicationResources.getString("alert.import.wrong.file.info"));
             alert.showAndWait();
             return;
@@ -609,30 +1731,37 @@ public class MainViewController {
             // remember the last used directory
             saveLastUsedDirectory(iCALFile);
         }
+        if (selectPlanTabOfFile(iCALFile)) {
+            // the unchanged file is already open in a tab
+            return;
+        }
+        PlanImportEvent importEvent = new PlanImportEvent(Global.ICAL_FILE_EXTENSION, iCALFile);
+        importEvent.begin();
+        long startNanos = System.nanoTime();
         try {
-            // load the plan from iCAL
-            runningPlan = ICALManager.loadRunningPlanFromICAL(sportsLibrary, iCALFile);
+            // load the plan from iCAL, a compressed file is inflated while reading
+            AtomicLong parsedBytes = new AtomicLong();
+            runningPlan = CompressedFiles.read(iCALFile,
+                    file -> ICALManager.loadRunningPlanFromICAL(sportsLibrary, file), parsedBytes::set);
             runningPlanEntries = runningPlan.getEntries();
-            // update the table object list
-            runningPlanEntryTableObjects.clear();
-            for (RunningPlanEntry entry: runningPlanEntries) {
-                runningPlanEntryTableObjects.add(new RunningPlanEntryTableObject(entry));
-            }
+            // a new history for the imported plan
+            RunningPlanSnapshot fileSnapshot = RunningPlanSnapshot.of(runningPlan, runningPlanEntries);
+            runningPlanHistory.reset(fileSnapshot);
+            activeDocument.setFile(iCALFile, fileSnapshot);
             // initialize the table
             initializeTableView();
             // refresh the table view
-            runningPlanEntryTableView.getItems().clear();
-            runningPlanEntryTableView.getItems().addAll(runningPlanEntryTableObjects);
+            refreshTableView();
             // save the mode in user prefs
             userPreferences.putBoolean(Global.UserPreferencesKeys.ICAL_MODE, icalMode);
             // enable / disable editing and saving the running plan
             canEdited();
+            importEvent.setImported(parsedBytes.get(), runningPlanEntries.size());
+            importEvent.commit();
+            applicationMetrics.record(ApplicationMetrics.Operation.IMPORT, System.nanoTime() - startNanos);
         } catch (Exception exception) {
-            Alert alert = new Alert(Alert.AlertType.WARNING);
-            alert.setTitle(applicationResources.getString("app.name")
-                    + " "
-                    + applicationResources.getString("app.version"));
-            alert.setHeaderText(applicationResources.getString("alert.import.failed"));
+            importEvent.commit();
+            Alert alert = createAlert(Alert.AlertType.WARNING, "alert.import.failed");
             alert.showAndWait();
             if (sportsLibrary.isDebugMode()) {
                 sportsLibrary.debug(exception, "Import from iCAL failed.");
@@ -642,55 +1771,324 @@ public class MainViewController {
 
     private void exportToJSONFile() {
         if (runningPlan != null) {
-            // overwrite the entries with the actual list
-            runningPlan.setEntries(runningPlanEntries);
-            String directoryPathString;
-            if (useLastDirectory && !lastDirectoryPath.isEmpty()) {
-                directoryPathString = lastDirectoryPath;
-            } else {
-                try {
-                    directoryPathString = System.getProperty("user.home");
-                } catch (SecurityException exception) {
-                    directoryPathString = "/"; // can be used on linux, macOS and Windows
-                }
+            // the plan is validated again, only if edited since the last validation
+            runValidated(this::writeJSONFile);
+        }
+    }
+
+    private void writeJSONFile() {
+        // overwrite the entries with the actual list
+        runningPlan.setEntries(runningPlanEntries);
+        String fileName = getExportFileName();
+        // get the export directory with file chooser dialog
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setInitialDirectory(getInitialDirectory());
+        fileChooser.setSelectedExtensionFilter(Global.JSON_FILE_EXTENSION_FILTER);
+        fileChooser.setInitialFileName(fileName + Global.JSON_FILE_EXTENSION);
+        File jsonFile = fileChooser.showSaveDialog(mainSplitPane.getScene().getWindow());
+        if (jsonFile == null) {
+            return; // cancelled by the user
+        }
+        // the changes of another program, which are not merged, are lost
+        File documentFile = activeDocument.getFile();
+        if (documentFile != null
+                && documentFile.getAbsoluteFile().equals(jsonFile.getAbsoluteFile())
+                && activeDocument.isFileChanged()
+                && !continueWithChangedFile()) {
+            return;
+        }
+        // remember last used directory
+        saveLastUsedDirectory(jsonFile);
+        PlanExportEvent exportEvent
+                = new PlanExportEvent(Global.JSON_FILE_EXTENSION, jsonFile, runningPlanEntries.size());
+        exportEvent.begin();
+        long startNanos = System.nanoTime();
+        try {
+            // compressed, if the name of the file ends with ".gz"
+            TemplateLoader templateLoader = new TemplateLoader(sportsLibrary);
+            CompressedFiles.write(jsonFile, file -> templateLoader.exportRunningPlanToJSON(runningPlan, file));
+            if (!CompressedFiles.isCompressedName(jsonFile)) {
+                // the index of the weeks of a large plan
+                TemplateOffsetIndex.update(jsonFile.toPath());
             }
-            // get the file name from running plan name, removing empty spaces
-            String fileName = runningPlan.getName().replaceAll("\\s","");
-            if (fileName.isEmpty()) {
-                applicationResources.getString("export.file.name");
-            }
-            // get the export directory with file chooser dialog
-            FileChooser fileChooser = new FileChooser();
-            fileChooser.setInitialDirectory(new File(directoryPathString));
-            fileChooser.setSelectedExtensionFilter(Global.JSON_FILE_EXTENSION_FILTER);
-            fileChooser.setInitialFileName(fileName + Global.JSON_FILE_EXTENSION);
-            File jsonFile = fileChooser.showSaveDialog(mainSplitPane.getScene().getWindow());
-            // remember last used directory
-            saveLastUsedDirectory(jsonFile);
-            try {
-                TemplateLoader templateLoader = new TemplateLoader(sportsLibrary);
-                templateLoader.exportRunningPlanToJSON(runningPlan, jsonFile);
-            } catch (SportsLibraryException exception) {
-                Alert alert = new Alert(Alert.AlertType.WARNING);
-                alert.setTitle(applicationResources.getString("app.name")
-                        + " "
-                        + applicationResources.getString("app.version"));
-                alert.setHeaderText(applicationResources.getString("alert.export.failed"));
-                alert.showAndWait();
-                if (sportsLibrary.isDebugMode()) {
-                    sportsLibrary.debug(exception, "Export to JSON failed.");
-                }
+            // the saved plan is the ancestor of the next reload
+            if (documentFile != null) {
+                planFileWatcher.unwatch(documentFile.toPath());
+            }
+            activeDocument.setFile(jsonFile, runningPlanHistory.getActualSnapshot());
+            planFileWatcher.watch(jsonFile.toPath());
+            exportEvent.setExported(jsonFile.length());
+            exportEvent.commit();
+            applicationMetrics.record(ApplicationMetrics.Operation.EXPORT, System.nanoTime() - startNanos);
+        } catch (SportsLibraryException | IOException exception) {
+            exportEvent.commit();
+            Alert alert = createAlert(Alert.AlertType.WARNING, "alert.export.failed");
+            alert.showAndWait();
+            if (sportsLibrary.isDebugMode()) {
+                sportsLibrary.debug(exception, "Export to JSON failed.");
             }
         }
     }
 
-    // clean all data
-    private void resetRunningPlan() {
-        Alert alert = new Alert(Alert.AlertType.WARNING);
-        alert.setTitle(applicationResources.getString("app.name")
-                + " "
-                + applicationResources.getString("app.version"));
-        alert.setHeaderText(applicationResources.getString("alert.runningplan.overwrite"));
+    private void importCSVFromFile() {
+        icalMode = false;
+        // open system file dialog
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setInitialDirectory(getInitialDirectory());
+        fileChooser.setSelectedExtensionFilter(Global.CSV_FILE_EXTENSION_FILTER);
+        File csvFile = fileChooser.showOpenDialog(mainSplitPane.getScene().getWindow());
+        if (csvFile == null) {
+            return; // cancelled by the user
+        }
+        if (!csvFile.exists() || csvFile.isDirectory() || !csvFile.canRead()) {
+            Alert alert = createAlert(Alert.AlertType.WARNING, "alert.import.failed");
+            alert.setContentText(applicationResources.getString("alert.import.wrong.file.info"));
+            alert.showAndWait();
+            return;
+        } else {
+            // remember the last used directory
+            saveLastUsedDirectory(csvFile);
+        }
+        if (selectPlanTabOfFile(csvFile)) {
+            // the unchanged file is already open in a tab
+            return;
+        }
+        PlanImportEvent importEvent = new PlanImportEvent(Global.CSV_FILE_EXTENSION, csvFile);
+        importEvent.begin();
+        long startNanos = System.nanoTime();
+        // the name of the plan is the name of the file
+        String name = csvFile.getName();
+        if (name.toLowerCase(Locale.ROOT).endsWith(Global.CSV_FILE_EXTENSION)) {
+            name = name.substring(0, name.length() - Global.CSV_FILE_EXTENSION.length());
+        }
+        RunningPlanDocument document = activeDocument;
+        PulseChunkQueue<RunningPlanEntry> chunkQueue = beginLoadingDocument(name);
+        String planName = name;
+        Thread importThread = new Thread(() -> {
+            // a compressed file is inflated while reading, the uncompressed bytes are counted
+            try (CountingInputStream inputStream = new CountingInputStream(
+                    CompressedFiles.newInputStream(csvFile.toPath()));
+                 Reader reader = new InputStreamReader(inputStream, StandardCharsets.UTF_8)) {
+                // the rows are read in a single pass
+                RunningPlan importedPlan = RunningPlanCSV.importRunningPlan(reader, planName,
+                        sportsLibrary.getMovementTypes(), chunkQueue::publish);
+                Platform.runLater(() -> {
+                    chunkQueue.flush();
+                    showImportedPlan(document, importedPlan, csvFile);
+                    importEvent.setImported(inputStream.getCount(), importedPlan.getEntries().size());
+                    importEvent.commit();
+                    applicationMetrics.record(ApplicationMetrics.Operation.IMPORT, System.nanoTime() - startNanos);
+                });
+            } catch (ParseException exception) {
+                Platform.runLater(() -> {
+                    chunkQueue.clear();
+                    importEvent.commit();
+                    discardLoadingDocument(document);
+                    // the malformed lines are shown to the user
+                    Alert alert = createAlert(Alert.AlertType.WARNING, "alert.import.csv.malformed");
+                    alert.setContentText(exception.getMessage());
+                    alert.showAndWait();
+                });
+            } catch (Exception exception) {
+                Platform.runLater(() -> {
+                    chunkQueue.clear();
+                    importEvent.commit();
+                    discardLoadingDocument(document);
+                    Alert alert = createAlert(Alert.AlertType.WARNING, "alert.import.failed");
+                    alert.showAndWait();
+                    if (sportsLibrary.isDebugMode()) {
+                        sportsLibrary.debug(exception, "Import from CSV failed.");
+                    }
+                });
+            }
+        }, "plan-import");
+        importThread.setDaemon(true);
+        importThread.start();
+    }
+
+    // the tab shows the entries read so far, the plan can not be edited until the whole file is read
+    private PulseChunkQueue<RunningPlanEntry> beginLoadingDocument(@NotNull String name) {
+        RunningPlanDocument document = activeDocument;
+        List<RunningPlanEntry> loadedEntries = new ArrayList<>();
+        runningPlan = new RunningPlan();
+        runningPlan.setName(name);
+        runningPlan.setOrderNumber(1);
+        runningPlanEntries = loadedEntries;
+        runningPlanEntry = null;
+        runningPlanHistory.reset(RunningPlanSnapshot.of(runningPlan, runningPlanEntries));
+        document.setLoading(true);
+        initializeTableView();
+        refreshTableView();
+        canEdited();
+        // all chunks read until the next pulse are shown with a single change of the table
+        return new PulseChunkQueue<>(entries -> {
+            if (!document.isLoading()) {
+                return; // the loading was discarded
+            }
+            loadedEntries.addAll(entries);
+            // the search, the training load, the week tree and the calendar get the entries read so far
+            RunningPlanSnapshot snapshot = document.getHistory().getActualSnapshot();
+            for (RunningPlanEntry entry: entries) {
+                snapshot = snapshot.withAddedEntry(entry);
+            }
+            document.getHistory().reset(snapshot);
+            if (document == activeDocument) {
+                refreshTableView();
+            }
+        });
+    }
+
+    // the imported plan replaces the entries shown while loading, the document may not be active anymore
+    // without a file, e.g. for some weeks of a plan, the plan can only be saved to a new file
+    private void showImportedPlan(@NotNull RunningPlanDocument document, @NotNull RunningPlan importedPlan,
+                                  @Nullable File file) {
+        document.setLoading(false);
+        RunningPlanSnapshot fileSnapshot = RunningPlanSnapshot.of(importedPlan, importedPlan.getEntries());
+        // a new history for the imported plan
+        document.getHistory().reset(fileSnapshot);
+        if (file != null) {
+            document.setFile(file, fileSnapshot);
+        }
+        if (document == activeDocument) {
+            runningPlan = importedPlan;
+            runningPlanEntries = importedPlan.getEntries();
+            refreshTableView();
+            // enable / disable editing and saving the running plan
+            canEdited();
+        } else {
+            document.setRunningPlan(importedPlan);
+            document.setRunningPlanEntries(importedPlan.getEntries());
+        }
+    }
+
+    // the entries of a failed import are not kept
+    private void discardLoadingDocument(@NotNull RunningPlanDocument document) {
+        document.setLoading(false);
+        for (Tab tab: planTabPane.getTabs()) {
+            if (tab.getUserData() == document) {
+                closePlanTab(tab);
+                return;
+            }
+        }
+    }
+
+    // a row for each running unit, the file can be edited in a spreadsheet
+    private void exportToCSVFile() {
+        if (runningPlan == null) {
+            return;
+        }
+        String fileName = getExportFileName();
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setInitialDirectory(getInitialDirectory());
+        fileChooser.setSelectedExtensionFilter(Global.CSV_FILE_EXTENSION_FILTER);
+        fileChooser.setInitialFileName(fileName + Global.CSV_FILE_EXTENSION);
+        File csvFile = fileChooser.showSaveDialog(mainSplitPane.getScene().getWindow());
+        if (csvFile == null) {
+            return; // cancelled by the user
+        }
+        // remember last used directory
+        saveLastUsedDirectory(csvFile);
+        PlanExportEvent exportEvent
+                = new PlanExportEvent(Global.CSV_FILE_EXTENSION, csvFile, runningPlanEntries.size());
+        exportEvent.begin();
+        long startNanos = System.nanoTime();
+        try (Writer writer = Files.newBufferedWriter(csvFile.toPath(), StandardCharsets.UTF_8)) {
+            RunningPlanCSV.exportRunningPlan(runningPlanEntries, writer);
+        } catch (IOException exception) {
+            exportEvent.commit();
+            Alert alert = createAlert(Alert.AlertType.WARNING, "alert.export.failed");
+            alert.showAndWait();
+            if (sportsLibrary.isDebugMode()) {
+                sportsLibrary.debug(exception, "Export to CSV failed.");
+            }
+            return;
+        }
+        exportEvent.setExported(csvFile.length());
+        exportEvent.commit();
+        applicationMetrics.record(ApplicationMetrics.Operation.EXPORT, System.nanoTime() - startNanos);
+    }
+
+    // exports the plan to several formats at once
+    private void showExportView() {
+        if (runningPlan != null) {
+            runValidated(this::openExportView);
+        }
+    }
+
+    // all formats are written from the snapshot, the model is not read by the thread of the export
+    private void openExportView() {
+        String fileName = getExportFileName();
+        try {
+            ExportViewController viewController = new ExportView().showViewModal(mainSplitPane,
+                    runningPlanHistory.getActualSnapshot(), fileName, getInitialDirectory());
+            File exportDirectory = viewController.getExportDirectory();
+            if (exportDirectory != null) {
+                // remember last used directory
+                saveLastUsedDirectory(new File(exportDirectory, fileName));
+            }
+        } catch (IOException exception) {
+            Logger.error(exception, "The export view can not be shown.");
+        }
+    }
+
+    // the JSON plans of all tabs are exported as a series in a single file
+    private void exportSeries() {
+        storeActiveDocument();
+        List<RunningPlanSnapshot> series = new ArrayList<>();
+        for (Tab tab: planTabPane.getTabs()) {
+            RunningPlanDocument document = (RunningPlanDocument) tab.getUserData();
+            if (document.getRunningPlan() != null && !document.isIcalMode() && !document.isLoading()) {
+                series.add(document.getHistory().getActualSnapshot());
+            }
+        }
+        if (series.isEmpty()) {
+            Alert alert = createAlert(Alert.AlertType.INFORMATION, "alert.runningplan.null");
+            alert.showAndWait();
+            return;
+        }
+        showSeriesView(series);
+    }
+
+    // each plan of the series is opened in its own tab, the last plan is shown
+    private void importSeries() {
+        List<RunningPlan> plans = showSeriesView(new ArrayList<>());
+        if (plans.isEmpty()) {
+            return;
+        }
+        for (RunningPlan plan: plans) {
+            if (runningPlan != null) {
+                // the empty tab is used for the first plan
+                addPlanTab();
+            }
+            icalMode = false;
+            runningPlan = plan;
+            runningPlanEntries = plan.getEntries();
+            runningPlanHistory.reset(RunningPlanSnapshot.of(runningPlan, runningPlanEntries));
+            storeActiveDocument();
+        }
+        // the table objects are created only for the shown plan
+        activateDocument(activeDocument);
+    }
+
+    @NotNull
+    private List<RunningPlan> showSeriesView(@NotNull List<RunningPlanSnapshot> series) {
+        try {
+            SeriesViewController viewController = new SeriesView().showViewModal(mainSplitPane, series,
+                    getInitialDirectory(), sportsLibrary);
+            if (viewController.getBundleFile() != null) {
+                // remember last used directory
+                saveLastUsedDirectory(viewController.getBundleFile());
+            }
+            return viewController.getImportedPlans();
+        } catch (IOException exception) {
+            Logger.error(exception, "The series view can not be shown.");
+            return new ArrayList<>();
+        }
+    }
+
+    private boolean continueOperation() {
+        AtomicBoolean doAction = new AtomicBoolean(false);
+        Alert alert = createAlert(Alert.AlertType.WARNING, "alert.runningplan.overwrite");
         ButtonType okButton = new ButtonType(applicationResources
                 .getString("action.yes"), ButtonBar.ButtonData.YES);
         ButtonType cancelButton = new ButtonType(applicationResources
@@ -698,24 +2096,17 @@ public class MainViewController {
         alert.getButtonTypes().setAll(okButton, cancelButton);
         alert.showAndWait().ifPresent(type -> {
             if (type == okButton) {
-                runningPlan = null;
-                runningPlanEntry = null;
-                runningPlanEntries.clear();
-                runningPlanEntryTableObjects.clear();
-                runningPlanEntryTableView.getItems().clear();
+                doAction.set(true);
             } else {
                 alert.close();
             }
         });
+        return doAction.get();
     }
 
-    private boolean continueOperation() {
+    private boolean continueWithChangedFile() {
         AtomicBoolean doAction = new AtomicBoolean(false);
-        Alert alert = new Alert(Alert.AlertType.WARNING);
-        alert.setTitle(applicationResources.getString("app.name")
-                + " "
-                + applicationResources.getString("app.version"));
-        alert.setHeaderText(applicationResources.getString("alert.runningplan.overwrite"));
+        Alert alert = createAlert(Alert.AlertType.WARNING, "alert.file.changed.overwrite");
         ButtonType okButton = new ButtonType(applicationResources
                 .getString("action.yes"), ButtonBar.ButtonData.YES);
         ButtonType cancelButton = new ButtonType(applicationResources
@@ -731,14 +2122,81 @@ public class MainViewController {
         return doAction.get();
     }
 
+    // the action is run after the validation of the actual plan, if the plan is valid or the user continues
+    // the last result of the validation is used, otherwise the plan is validated in the background
+    private void runValidated(@NotNull Runnable action) {
+        RunningPlanDocument document = activeDocument;
+        RunningPlanSnapshot snapshot = runningPlanHistory.getActualSnapshot();
+        ValidationResult validationResult = document.getValidationResult();
+        if (validationResult != null && validationResult.getSnapshot() == snapshot) {
+            if (validationResult.isValid() || continueWithValidationFindings()) {
+                action.run();
+            }
+            return;
+        }
+        planValidator.validateLater(snapshot, result -> {
+            if (document != activeDocument) {
+                return; // another plan is shown now
+            }
+            if (runningPlanHistory.getActualSnapshot() != snapshot) {
+                // edited while validating
+                runValidated(action);
+            } else if (result.isValid() || continueWithValidationFindings()) {
+                action.run();
+            }
+        });
+    }
+
+    private boolean continueWithValidationFindings() {
+        AtomicBoolean doAction = new AtomicBoolean(false);
+        Alert alert = createAlert(Alert.AlertType.WARNING, "alert.validation.findings");
+        ButtonType okButton = new ButtonType(applicationResources
+                .getString("action.yes"), ButtonBar.ButtonData.YES);
+        ButtonType cancelButton = new ButtonType(applicationResources
+                .getString("action.cancel"), ButtonBar.ButtonData.CANCEL_CLOSE);
+        alert.getButtonTypes().setAll(okButton, cancelButton);
+        alert.showAndWait().ifPresent(type -> {
+            if (type == okButton) {
+                doAction.set(true);
+            } else {
+                alert.close();
+            }
+        });
+        return doAction.get();
+    }
+
+    // restore the plan after undo or redo
+    private void restoreRunningPlanSnapshot(@NotNull RunningPlanSnapshot snapshot) {
+        runningPlan = snapshot.restoreRunningPlan();
+        runningPlanEntries = snapshot.restoreEntries();
+        runningPlanEntry = null;
+        refreshTableView();
+        canEdited();
+    }
+
+    private boolean isActiveDocumentLoading() {
+        return activeDocument != null && activeDocument.isLoading();
+    }
+
+    private void updateUndoMenuItems() {
+        menuItemUndo.setDisable(!runningPlanHistory.canUndo());
+        menuItemRedo.setDisable(!runningPlanHistory.canRedo());
+    }
+
     // enable / disable editing
     private void canEdited() {
         // save the mode to the preferences
         userPreferences.putBoolean(Global.UserPreferencesKeys.ICAL_MODE, icalMode);
-        boolean isEditable = runningPlan == null;
+        // a plan, which is still loaded, can not be edited or saved
+        boolean isLoading = isActiveDocumentLoading();
+        boolean isEditable = runningPlan == null || isLoading;
         menuItemEditRunningPlan.setDisable(isEditable);
-        menuItemSave.setDisable(icalMode); // in this version only json can be saved
-        if (!runningPlanEntryTableObjects.isEmpty()) {
+        menuItemSave.setDisable(icalMode || isLoading); // in this version only json can be saved
+        menuItemExportCSV.setDisable(runningPlan == null || isLoading);
+        menuItemExport.setDisable(runningPlan == null || isLoading);
+        menuItemMerge.setDisable(isLoading);
+        updateUndoMenuItems();
+        if (!runningPlanEntries.isEmpty() && !isLoading) {
             runningPlanEntryTableView.setContextMenu(tableViewContextMenu);
         } else {
             runningPlanEntryTableView.setContextMenu(null);
@@ -761,6 +2219,40 @@ public class MainViewController {
         }
     }
 
+    // the last used directory or the home directory of the user for the file dialogs
+    @NotNull
+    private File getInitialDirectory() {
+        if (useLastDirectory && !lastDirectoryPath.isEmpty()) {
+            return new File(lastDirectoryPath);
+        }
+        try {
+            return new File(System.getProperty("user.home"));
+        } catch (SecurityException exception) {
+            return new File("/"); // can be used on linux, macOS and Windows
+        }
+    }
+
+    // the name of the running plan without white spaces for the exported files
+    @NotNull
+    private String getExportFileName() {
+        String fileName = runningPlan.getName().replaceAll("\\s","");
+        if (fileName.isEmpty()) {
+            fileName = applicationResources.getString("export.file.name");
+        }
+        return fileName;
+    }
+
+    // an alert with the name and the version of the app as title
+    @NotNull
+    private Alert createAlert(@NotNull Alert.AlertType alertType, @NotNull String headerTextKey) {
+        Alert alert = new Alert(alertType);
+        alert.setTitle(applicationResources.getString("app.name")
+                + " "
+                + applicationResources.getString("app.version"));
+        alert.setHeaderText(applicationResources.getString(headerTextKey));
+        return alert;
+    }
+
     private void saveLastUsedDirectory(@NotNull File jsonFile) {
         lastDirectoryPath = jsonFile.getParent();
         userPreferences.put(Global.UserPreferencesKeys.JSON_LAST_DIRECTORY, lastDirectoryPath);
@@ -775,5 +2267,19 @@ public class MainViewController {
                 mainWindow.getX());
         userPreferences.putDouble(Global.UserPreferencesKeys.LAST_MAIN_VIEW_POS_Y,
                 mainWindow.getY());
+        flushUserPreferences();
+    }
+
+    // write the preferences to the backing store, before the app is closed
+    private void flushUserPreferences() {
+        long startNanos = System.nanoTime();
+        try {
+            userPreferences.flush();
+        } catch (BackingStoreException | SecurityException exception) {
+            if (sportsLibrary.isDebugMode()) {
+                sportsLibrary.debug(exception, "Error while saving user preferences.");
+            }
+        }
+        applicationMetrics.record(ApplicationMetrics.Operation.PREFERENCES_FLUSH, System.nanoTime() - startNanos);
     }
 }
@@ -0,0 +1,228 @@
+package de.hirola.runningplanbuilder.controller;
+
+import de.hirola.runningplanbuilder.model.EntryAttribute;
+import de.hirola.runningplanbuilder.model.EntryChange;
+import de.hirola.runningplanbuilder.model.MergeConflict;
+import de.hirola.runningplanbuilder.model.MergeResolution;
+import de.hirola.runningplanbuilder.model.MergeResult;
+import de.hirola.runningplanbuilder.model.RunningPlanEntrySnapshot;
+import de.hirola.runningplanbuilder.model.RunningUnitSnapshot;
+import de.hirola.runningplanbuilder.util.ApplicationResources;
+import javafx.beans.property.ReadOnlyStringWrapper;
+import javafx.event.ActionEvent;
+import javafx.fxml.FXML;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+import javafx.scene.control.cell.ChoiceBoxTableCell;
+import javafx.stage.Stage;
+import javafx.util.StringConverter;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Copyright 2022 by Michael Schmidt, Hirola Consulting
+ * This software us licensed under the AGPL-3.0 or later.
+ *
+ * Controller for the view to preview a merge and to resolve the conflicts using fxml.
+ *
+ * @author Michael Schmidt (Hirola)
+ * @since v0.1
+ */
+public class MergeViewController {
+    private static final String[] DAY_KEYS
+            = {"monday", "tuesday", "wednesday", "thursday", "friday", "saturday", "sunday"};
+    private MergeResult mergeResult;
+    private boolean isMerged; // false, if the user has cancelled the dialog
+    private final ApplicationResources applicationResources
+            = ApplicationResources.getInstance(); // bundle for localization, ...
+
+    // created with SceneBuilder
+    @FXML
+    private Label infoLabel;
+    @FXML
+    private TableView<MergeConflict> conflictsTableView;
+    @FXML
+    private Button saveButton;
+    @FXML
+    private Button closeButton;
+
+    public MergeViewController() {}
+
+    public void setMergeResult(@NotNull MergeResult mergeResult) {
+        this.mergeResult = mergeResult;
+        infoLabel.setText(applicationResources.getString("mergeView.infoText")
+                + "\n"
+                + applicationResources.getString("mergeView.ourChanges") + " " + mergeResult.getOurChanges().size()
+                + ", "
+                + applicationResources.getString("mergeView.theirChanges") + " " + mergeResult.getTheirChanges().size()
+                + ", "
+                + applicationResources.getString("mergeView.conflicts") + " " + mergeResult.getConflicts().size()
+                + " (" + countChanges(mergeResult.getTheirChanges(), EntryChange.Type.ADDED) + " "
+                + applicationResources.getString("mergeView.added") + ", "
+                + countChanges(mergeResult.getTheirChanges(), EntryChange.Type.REMOVED) + " "
+                + applicationResources.getString("mergeView.removed") + ")");
+        conflictsTableView.getItems().setAll(mergeResult.getConflicts());
+    }
+
+    /**
+     * Returns the merge with the resolved conflicts.
+     *
+     * @return The merge or null, if the user has cancelled the dialog.
+     */
+    @Nullable
+    public MergeResult getMergeResult() {
+        return isMerged ? mergeResult : null;
+    }
+
+    @FXML
+    // when the FXML loader is done loading the FXML document, it calls this method of the controller
+    private void initialize() {
+        saveButton.setText(applicationResources.getString("mergeView.mergeButtonText"));
+        closeButton.setText(applicationResources.getString("action.cancel"));
+        conflictsTableView.setPlaceholder(new Label(applicationResources.getString("mergeView.noConflicts")));
+        initializeTableView();
+    }
+
+    @FXML
+    // use for onAction by the FXML loader
+    private void onAction(ActionEvent event) {
+        if (event.getSource().equals(saveButton)) {
+            isMerged = true;
+            close();
+        }
+        if (event.getSource().equals(closeButton)) {
+            close();
+        }
+    }
+
+    private void initializeTableView() {
+        conflictsTableView.getColumns().add(createColumn("mainView.table.column.week.headerText",
+                conflict -> String.valueOf(getEntry(conflict).getWeek())));
+        conflictsTableView.getColumns().add(createColumn("mainView.table.column.day.headerText",
+                conflict -> getDayString(getEntry(conflict).getDay())));
+        conflictsTableView.getColumns().add(createColumn("mergeView.column.conflict",
+                this::getConflictString));
+        conflictsTableView.getColumns().add(createColumn("mergeView.column.ancestor",
+                conflict -> describe(conflict.getAncestor(), conflict.getAttributes())));
+        conflictsTableView.getColumns().add(createColumn("mergeView.column.ours",
+                conflict -> describe(conflict.getOurs(), conflict.getAttributes())));
+        conflictsTableView.getColumns().add(createColumn("mergeView.column.theirs",
+                conflict -> describe(conflict.getTheirs(), conflict.getAttributes())));
+        // the user chooses the side of each conflict
+        TableColumn<MergeConflict, MergeResolution> resolutionColumn
+                = new TableColumn<>(applicationResources.getString("mergeView.column.resolution"));
+        resolutionColumn.setCellValueFactory(cellData -> cellData.getValue().resolutionProperty());
+        resolutionColumn.setCellFactory(ChoiceBoxTableCell.forTableColumn(new StringConverter<>() {
+            @Override
+            public String toString(MergeResolution resolution) {
+                return resolution == null
+                        ? ""
+                        : applicationResources.getString("mergeView.resolution." + resolution.getKey());
+            }
+
+            @Override
+            public MergeResolution fromString(String string) {
+                for (MergeResolution resolution: MergeResolution.values()) {
+                    if (toString(resolution).equals(string)) {
+                        return resolution;
+                    }
+                }
+                return MergeResolution.OURS;
+            }
+        }, MergeResolution.values()));
+        resolutionColumn.setEditable(true);
+        conflictsTableView.getColumns().add(resolutionColumn);
+    }
+
+    private TableColumn<MergeConflict, String> createColumn(String headerKey, Function<MergeConflict, String> value) {
+        TableColumn<MergeConflict, String> column = new TableColumn<>(applicationResources.getString(headerKey));
+        column.setCellValueFactory(cellData -> new ReadOnlyStringWrapper(value.apply(cellData.getValue())));
+        column.setEditable(false);
+        return column;
+    }
+
+    // the entry shown in the columns of week and day
+    private RunningPlanEntrySnapshot getEntry(MergeConflict conflict) {
+        return conflict.getOurs() != null ? conflict.getOurs() : conflict.getTheirs();
+    }
+
+    private String getConflictString(MergeConflict conflict) {
+        if (conflict.isRemoval()) {
+            return applicationResources.getString("mergeView.conflict.removal");
+        }
+        StringBuilder conflictString = new StringBuilder();
+        for (EntryAttribute attribute: conflict.getAttributes()) {
+            if (conflictString.length() > 0) {
+                conflictString.append(", ");
+            }
+            conflictString.append(applicationResources.getString("mergeView.attribute." + attribute.getKey()));
+        }
+        return conflictString.toString();
+    }
+
+    // the values of the attributes, all attributes if the entry was removed by the other side
+    private String describe(@Nullable RunningPlanEntrySnapshot entry, Set<EntryAttribute> attributes) {
+        if (entry == null) {
+            return applicationResources.getString("mergeView.removed");
+        }
+        StringBuilder description = new StringBuilder();
+        for (EntryAttribute attribute: EntryAttribute.values()) {
+            if (!attributes.isEmpty() && !attributes.contains(attribute)) {
+                continue;
+            }
+            if (description.length() > 0) {
+                description.append("; ");
+            }
+            switch (attribute) {
+                case WEEK:
+                    description.append(applicationResources.getString("misc.week")).append(" ").append(entry.getWeek());
+                    break;
+                case DAY:
+                    description.append(getDayString(entry.getDay()));
+                    break;
+                case RUNNING_UNITS:
+                    description.append(getRunningUnitsString(entry.getRunningUnits()));
+                    break;
+                case REMARKS:
+                    description.append(entry.getRemarks()
+                            .orElse(applicationResources.getString("runningplanentry.remarks.default")));
+                    break;
+            }
+        }
+        return description.toString();
+    }
+
+    private String getRunningUnitsString(List<RunningUnitSnapshot> runningUnits) {
+        StringBuilder runningUnitsString = new StringBuilder();
+        for (RunningUnitSnapshot runningUnit: runningUnits) {
+            if (runningUnitsString.length() > 0) {
+                runningUnitsString.append(", ");
+            }
+            runningUnitsString.append(runningUnit.getDuration()).append(" min");
+            if (runningUnit.getMovementType() != null) {
+                runningUnitsString.append(" ").append(runningUnit.getMovementType().getName());
+            }
+        }
+        return runningUnitsString.toString();
+    }
+
+    private String getDayString(int day) {
+        return day > 0 && day <= DAY_KEYS.length ? applicationResources.getString(DAY_KEYS[day - 1]) : "";
+    }
+
+    private long countChanges(List<EntryChange> changes, EntryChange.Type type) {
+        return changes.stream().filter(change -> change.getType() == type).count();
+    }
+
+    private void close() {
+        // get a handle to the stage
+        Stage stage = (Stage) closeButton.getScene().getWindow();
+        stage.close();
+    }
+}
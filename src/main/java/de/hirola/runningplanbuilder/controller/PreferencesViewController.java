@@ -42,6 +42,10 @@ public class PreferencesViewController {
     private CheckBox debugModeCheckBox;
     @FXML
     private Label debugModeCheckBoxInfoLabel;
+    @FXML
+    private Label fxThreadWatchdogCheckBoxLabel;
+    @FXML
+    private CheckBox fxThreadWatchdogCheckBox;
 
     // tab look & feel
     @FXML
@@ -81,6 +85,9 @@ public class PreferencesViewController {
         if (userPreferences != null) {
             debugModeCheckBox.setSelected(userPreferences.getBoolean(Global.UserPreferencesKeys.USE_DEBUG_MODE,
                     false));
+            // the watchdog is enabled by default in debug mode
+            fxThreadWatchdogCheckBox.setSelected(userPreferences.getBoolean(Global.UserPreferencesKeys.USE_FX_THREAD_WATCHDOG,
+                    debugModeCheckBox.isSelected()));
             useLastWindowValuesCheckBox.setSelected(userPreferences.getBoolean(Global.UserPreferencesKeys.USE_LAST_VIEW_VALUES,
                     false));
             useLastImportDirCheckBox.setSelected(userPreferences.getBoolean(Global.UserPreferencesKeys.USE_LAST_DIRECTORY,
@@ -116,6 +123,12 @@ public class PreferencesViewController {
                             .getString("preferencesView.debugModeCheckBoxInfoLabel.text"));
                 }
             }
+            if (event.getSource().equals(fxThreadWatchdogCheckBox)) {
+                userPreferences.putBoolean(Global.UserPreferencesKeys.USE_FX_THREAD_WATCHDOG,
+                        fxThreadWatchdogCheckBox.isSelected());
+                debugModeCheckBoxInfoLabel.setText(applicationResources
+                        .getString("preferencesView.fxThreadWatchdogCheckBoxInfoLabel.text"));
+            }
             if (event.getSource().equals(useLastWindowValuesCheckBox)) {
                 userPreferences.putBoolean(Global.UserPreferencesKeys.USE_LAST_VIEW_VALUES,
                         useLastWindowValuesCheckBox.isSelected());
@@ -130,6 +143,8 @@ public class PreferencesViewController {
     private void setLabel() {
         debugModeCheckBoxLabel.setText(applicationResources
                 .getString("preferencesView.debugModeCheckBoxLabel.text"));
+        fxThreadWatchdogCheckBoxLabel.setText(applicationResources
+                .getString("preferencesView.fxThreadWatchdogCheckBoxLabel.text"));
         localizationComboBoxLabel.setText(applicationResources
                 .getString("preferencesView.localizationComboBoxLabel.text"));
         useLastWindowValuesCheckBoxLabel.setText(applicationResources
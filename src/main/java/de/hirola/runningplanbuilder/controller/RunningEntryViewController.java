@@ -3,6 +3,7 @@ package de.hirola.runningplanbuilder.controller;
 import de.hirola.runningplanbuilder.Global;
 import de.hirola.runningplanbuilder.model.RunningUnitTableObject;
 import de.hirola.runningplanbuilder.util.ApplicationResources;
+import de.hirola.runningplanbuilder.util.CoalescingObservableList;
 import de.hirola.runningplanbuilder.view.RunningUnitView;
 import de.hirola.sportsapplications.SportsLibrary;
 import de.hirola.sportsapplications.model.RunningPlanEntry;
@@ -21,7 +22,9 @@ import org.jetbrains.annotations.Nullable;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.prefs.Preferences;
 
 /**
@@ -41,7 +44,9 @@ public class RunningEntryViewController {
             = Preferences.userRoot().node(Global.UserPreferencesKeys.USER_ROOT_NODE);
     private SportsLibrary sportsLibrary;
     private RunningPlanEntry runningPlanEntry; // the entry for the view
-    private List<RunningUnit> runningUnits; // list of all running units
+    private boolean isSaved; // the entry is returned only if the user has saved
+    private List<RunningUnit> runningUnits; // list of all running units, a copy of the list of the entry
+    private Map<RunningUnit, RunningUnit> originalRunningUnits; // the units of the entry by their copies
     private ObservableList<RunningUnitTableObject> runningUnitTableObjects; // list for the table view
     private int trainingDay, trainingWeek; // selected day and week
     private ContextMenu tableViewContextMenu;
@@ -112,15 +117,27 @@ public class RunningEntryViewController {
         this.sportsLibrary = sportsLibrary;
     }
 
+    /**
+     * Returns the created or edited entry.
+     *
+     * @return The entry or null, if the user has cancelled the dialog.
+     */
     @Nullable
     public RunningPlanEntry getRunningPlanEntry() {
-        return runningPlanEntry;
+        return isSaved ? runningPlanEntry : null;
     }
 
     public void setRunningPlanEntry(@Nullable RunningPlanEntry runningPlanEntry) {
         this.runningPlanEntry = runningPlanEntry;
         if (runningPlanEntry != null) {
-            runningUnits = runningPlanEntry.getRunningUnits();
+            // work on copies of the units, the entry and its units are changed only on save
+            runningUnits = new ArrayList<>(runningPlanEntry.getRunningUnits().size());
+            originalRunningUnits = new IdentityHashMap<>(runningPlanEntry.getRunningUnits().size());
+            for (RunningUnit runningUnit: runningPlanEntry.getRunningUnits()) {
+                RunningUnit copy = copyRunningUnit(runningUnit);
+                runningUnits.add(copy);
+                originalRunningUnits.put(copy, runningUnit);
+            }
             showRunningPlanEntryInView();
         }
     }
@@ -131,6 +148,10 @@ public class RunningEntryViewController {
         runningUnits = new ArrayList<>();
         // list to present running units in table view
         runningUnitTableObjects = FXCollections.observableArrayList();
+        // all changes of the table items in a pulse are sent as a single change
+        CoalescingObservableList<RunningUnitTableObject> tableItems = new CoalescingObservableList<>();
+        tableItems.attachTo(runningUnitsTableView);
+        runningUnitsTableView.setItems(tableItems);
         // localisation for texte
         setLabel();
         // fill combo boxes
@@ -301,7 +322,7 @@ public class RunningEntryViewController {
                 runningUnitTableObjects.add(new RunningUnitTableObject(runningUnit));
             }
             // add data to table view
-            runningUnitsTableView.getItems().addAll(runningUnitTableObjects);
+            refreshTableView();
             // add context menu to table view
             if (runningUnitTableObjects.size() > 0) {
                 runningUnitsTableView.setContextMenu(tableViewContextMenu);
@@ -317,22 +338,20 @@ public class RunningEntryViewController {
             // add to table object list
             runningUnitTableObjects.add(new RunningUnitTableObject(unit));
         } else {
-            // the unit can be updated - update the table objects
-            // using the easiest way
-            runningUnitsTableView.getItems().clear();
-            runningUnitTableObjects.clear();
-            for (RunningUnit unit1: runningUnits) {
-                runningUnitTableObjects.add(new RunningUnitTableObject(unit1));
-            }
-            runningUnitsTableView.getItems().addAll(runningUnitTableObjects);
+            // the unit is updated - replace the table object
+            int index = runningUnits.indexOf(unit);
+            runningUnitTableObjects.set(index, new RunningUnitTableObject(unit));
         }
         // add context menu to table view
         if (runningUnitTableObjects.size() == 1) {
             runningUnitsTableView.setContextMenu(tableViewContextMenu);
         }
-        // refresh the table view
-        runningUnitsTableView.getItems().clear();
-        runningUnitsTableView.getItems().addAll(runningUnitTableObjects);
+        refreshTableView();
+    }
+
+    // refresh the table view, with a single change of the items
+    private void refreshTableView() {
+        runningUnitsTableView.getItems().setAll(runningUnitTableObjects);
     }
 
     private void removeRunningUnitForIndex(int index) {
@@ -341,21 +360,44 @@ public class RunningEntryViewController {
             runningUnits.remove(index);
             runningUnitTableObjects.remove(index);
             // refresh the table view
-            runningUnitsTableView.getItems().clear();
-            runningUnitsTableView.getItems().addAll(runningUnitTableObjects);
+            refreshTableView();
         }
         if (runningUnitTableObjects.size() == 0) {
             runningUnitsTableView.setContextMenu(null);
         }
     }
 
+    // the unit dialog changes the copy, a cancelled dialog does not change the plan
+    private RunningUnit copyRunningUnit(RunningUnit runningUnit) {
+        RunningUnit copy = new RunningUnit();
+        copy.setDuration(runningUnit.getDuration());
+        copy.setMovementType(runningUnit.getMovementType());
+        return copy;
+    }
+
     private void saveRunningPlanEntry() {
         if (runningPlanEntry == null) {
             runningPlanEntry = new RunningPlanEntry();
         }
         runningPlanEntry.setDay(trainingDay);
         runningPlanEntry.setWeek(trainingWeek);
-        runningPlanEntry.setRunningUnits(runningUnits);
+        // the values are written back to the units of the entry, which keep their running infos
+        List<RunningUnit> savedRunningUnits = new ArrayList<>(runningUnits.size());
+        for (RunningUnit runningUnit: runningUnits) {
+            RunningUnit originalRunningUnit = originalRunningUnits == null
+                    ? null
+                    : originalRunningUnits.get(runningUnit);
+            if (originalRunningUnit == null) {
+                // added in the dialog
+                savedRunningUnits.add(runningUnit);
+            } else {
+                originalRunningUnit.setDuration(runningUnit.getDuration());
+                originalRunningUnit.setMovementType(runningUnit.getMovementType());
+                savedRunningUnits.add(originalRunningUnit);
+            }
+        }
+        runningPlanEntry.setRunningUnits(savedRunningUnits);
+        isSaved = true;
         close();
     }
 
@@ -0,0 +1,195 @@
+package de.hirola.runningplanbuilder.controller;
+
+import de.hirola.runningplanbuilder.Global;
+import de.hirola.runningplanbuilder.util.ApplicationMetrics;
+import de.hirola.runningplanbuilder.util.ApplicationResources;
+import de.hirola.runningplanbuilder.util.RunningPlanGenerator;
+import de.hirola.sportsapplications.SportsLibrary;
+import de.hirola.sportsapplications.model.RunningPlan;
+import javafx.event.ActionEvent;
+import javafx.fxml.FXML;
+import javafx.scene.control.*;
+import javafx.stage.Stage;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Copyright 2022 by Michael Schmidt, Hirola Consulting
+ * This software us licensed under the AGPL-3.0 or later.
+ *
+ * Controller for the view to generate a running plan using fxml.
+ *
+ * @author Michael Schmidt (Hirola)
+ * @since v0.1
+ */
+public class RunningPlanGeneratorViewController {
+    private SportsLibrary sportsLibrary;
+    private RunningPlan runningPlan; // the generated plan
+    private final ApplicationResources applicationResources
+            = ApplicationResources.getInstance(); // bundle for localization, ...
+
+    // created with SceneBuilder
+    @FXML
+    private Label infoLabel;
+    @FXML
+    private Label nameTextFieldLabel;
+    @FXML
+    private TextField nameTextField;
+    @FXML
+    private Label goalComboBoxLabel;
+    @FXML
+    private ComboBox<String> goalComboBox;
+    @FXML
+    private Label weeksComboBoxLabel;
+    @FXML
+    private ComboBox<String> weeksComboBox;
+    @FXML
+    private Label sessionsComboBoxLabel;
+    @FXML
+    private ComboBox<String> sessionsComboBox;
+    @FXML
+    private Label baseVolumeTextFieldLabel;
+    @FXML
+    private TextField baseVolumeTextField;
+    @FXML
+    private Label peakVolumeTextFieldLabel;
+    @FXML
+    private TextField peakVolumeTextField;
+    @FXML
+    private Label progressionCurveComboBoxLabel;
+    @FXML
+    private ComboBox<String> progressionCurveComboBox;
+    @FXML
+    private Button saveButton;
+    @FXML
+    private Button closeButton;
+
+    public RunningPlanGeneratorViewController() {}
+
+    public void setSportsLibrary(@NotNull SportsLibrary sportsLibrary) {
+        this.sportsLibrary = sportsLibrary;
+    }
+
+    /**
+     * Returns the generated plan.
+     *
+     * @return The plan or null, if the user has cancelled the dialog.
+     */
+    @Nullable
+    public RunningPlan getRunningPlan() {
+        return runningPlan;
+    }
+
+    @FXML
+    // when the FXML loader is done loading the FXML document, it calls this method of the controller
+    private void initialize() {
+        setLabel();
+        fillComboBoxes();
+        baseVolumeTextField.setText(String.valueOf(Global.GeneratorPreferences.DEFAULT_BASE_VOLUME));
+        peakVolumeTextField.setText(String.valueOf(Global.GeneratorPreferences.DEFAULT_PEAK_VOLUME));
+        // only numbers allowed in text fields
+        baseVolumeTextField.setTextFormatter(new TextFormatter<>(c -> c.getControlNewText().matches("\\d*") ? c : null));
+        peakVolumeTextField.setTextFormatter(new TextFormatter<>(c -> c.getControlNewText().matches("\\d*") ? c : null));
+    }
+
+    @FXML
+    // use for onAction by the FXML loader
+    private void onAction(ActionEvent event) {
+        if (event.getSource().equals(saveButton)) {
+            generateRunningPlan();
+        }
+        if (event.getSource().equals(closeButton)) {
+            close();
+        }
+    }
+
+    private void setLabel() {
+        infoLabel.setText(applicationResources.getString("generatorView.infoText"));
+        nameTextFieldLabel.setText(applicationResources.getString("templateView.nameLabelText"));
+        goalComboBoxLabel.setText(applicationResources.getString("generatorView.goalLabelText"));
+        weeksComboBoxLabel.setText(applicationResources.getString("generatorView.weeksLabelText"));
+        sessionsComboBoxLabel.setText(applicationResources.getString("generatorView.sessionsLabelText"));
+        baseVolumeTextFieldLabel.setText(applicationResources.getString("generatorView.baseVolumeLabelText"));
+        peakVolumeTextFieldLabel.setText(applicationResources.getString("generatorView.peakVolumeLabelText"));
+        progressionCurveComboBoxLabel.setText(applicationResources.getString("generatorView.progressionLabelText"));
+        saveButton.setText(applicationResources.getString("generatorView.generateButtonText"));
+        closeButton.setText(applicationResources.getString("action.cancel"));
+    }
+
+    private void fillComboBoxes() {
+        // the index of the items is the ordinal of the enum
+        for (RunningPlanGenerator.Goal goal: RunningPlanGenerator.Goal.values()) {
+            goalComboBox.getItems().add(applicationResources.getString("generatorView.goal." + goal.getKey()));
+        }
+        goalComboBox.getSelectionModel().select(RunningPlanGenerator.Goal.TEN_KILOMETERS.ordinal());
+        for (int i = 1; i <= Global.MAX_COUNT_OF_WEEKS; i++) {
+            weeksComboBox.getItems().add(String.valueOf(i));
+        }
+        weeksComboBox.getSelectionModel().select(Global.GeneratorPreferences.DEFAULT_WEEKS - 1);
+        for (int i = 1; i <= 7; i++) {
+            sessionsComboBox.getItems().add(String.valueOf(i));
+        }
+        sessionsComboBox.getSelectionModel().select(Global.GeneratorPreferences.DEFAULT_SESSIONS_PER_WEEK - 1);
+        for (RunningPlanGenerator.ProgressionCurve progressionCurve: RunningPlanGenerator.ProgressionCurve.values()) {
+            progressionCurveComboBox.getItems().add(applicationResources
+                    .getString("generatorView.progression." + progressionCurve.getKey()));
+        }
+        progressionCurveComboBox.getSelectionModel().select(0);
+    }
+
+    private void generateRunningPlan() {
+        if (nameTextField.getText().isEmpty()) {
+            showWarning("alert.template.emptyName");
+            return;
+        }
+        int baseVolume;
+        int peakVolume;
+        try {
+            baseVolume = Integer.parseInt(baseVolumeTextField.getText());
+            peakVolume = Integer.parseInt(peakVolumeTextField.getText());
+        } catch (NumberFormatException exception) {
+            showWarning("alert.generator.invalidVolume");
+            return;
+        }
+        if (baseVolume < 1 || peakVolume < baseVolume) {
+            showWarning("alert.generator.invalidVolume");
+            return;
+        }
+        long startNanos = System.nanoTime();
+        RunningPlanGenerator generator = new RunningPlanGenerator(
+                RunningPlanGenerator.Goal.values()[goalComboBox.getSelectionModel().getSelectedIndex()],
+                weeksComboBox.getSelectionModel().getSelectedIndex() + 1,
+                sessionsComboBox.getSelectionModel().getSelectedIndex() + 1,
+                baseVolume,
+                peakVolume,
+                RunningPlanGenerator.ProgressionCurve.values()[
+                        progressionCurveComboBox.getSelectionModel().getSelectedIndex()]);
+        try {
+            runningPlan = generator.generate(nameTextField.getText(), sportsLibrary.getMovementTypes());
+            runningPlan.setRemarks(goalComboBox.getSelectionModel().getSelectedItem());
+        } catch (IllegalArgumentException exception) {
+            showWarning("alert.generator.failed");
+            if (sportsLibrary.isDebugMode()) {
+                sportsLibrary.debug(exception, "Generating the running plan failed.");
+            }
+            return;
+        }
+        ApplicationMetrics.getInstance().record(ApplicationMetrics.Operation.GENERATE, System.nanoTime() - startNanos);
+        close();
+    }
+
+    private void showWarning(String headerKey) {
+        Alert alert = new Alert(Alert.AlertType.WARNING);
+        alert.setTitle(applicationResources.getString("app.name")
+                + " "
+                + applicationResources.getString("app.version"));
+        alert.setHeaderText(applicationResources.getString(headerKey));
+        alert.showAndWait();
+    }
+
+    private void close() {
+        // get a handle to the stage
+        Stage stage = (Stage) closeButton.getScene().getWindow();
+        stage.close();
+    }
+}
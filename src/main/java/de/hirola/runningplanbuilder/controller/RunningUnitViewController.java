@@ -162,16 +162,24 @@ public class RunningUnitViewController {
             alert.showAndWait();
             return;
         }
+        long duration;
+        try {
+            // only digits can be entered, the parsing fails only with a too large number
+            duration = Long.parseLong(durationString);
+        } catch (NumberFormatException exception) {
+            Alert alert = new Alert(Alert.AlertType.WARNING);
+            alert.setTitle(applicationResources.getString("app.name")
+                    + " "
+                    + applicationResources.getString("app.version"));
+            alert.setHeaderText(applicationResources.getString("alert.template.invalidDuration"));
+            alert.showAndWait();
+            return;
+        }
         // the dialog is open to add a new running unit to entry
         if (runningUnit == null) {
             runningUnit = new RunningUnit();
         }
-        try {
-            runningUnit.setDuration(Long.parseLong(durationString));
-        } catch (NumberFormatException exception) {
-            //TODO: alert to user
-            runningUnit.setDuration(0);
-        }
+        runningUnit.setDuration(duration);
         runningUnit.setMovementType(movementType);
         close();
     }
@@ -0,0 +1,306 @@
+package de.hirola.runningplanbuilder.controller;
+
+import de.hirola.runningplanbuilder.Global;
+import de.hirola.runningplanbuilder.model.RunningPlanSnapshot;
+import de.hirola.runningplanbuilder.model.SeriesPlanMetadata;
+import de.hirola.runningplanbuilder.util.ApplicationMetrics;
+import de.hirola.runningplanbuilder.util.ApplicationResources;
+import de.hirola.runningplanbuilder.util.PlanSeriesBundle;
+import de.hirola.sportsapplications.SportsLibrary;
+import de.hirola.sportsapplications.model.RunningPlan;
+import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.event.ActionEvent;
+import javafx.fxml.FXML;
+import javafx.scene.control.Alert;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.ProgressBar;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+import javafx.scene.control.TextField;
+import javafx.stage.FileChooser;
+import javafx.stage.Stage;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.tinylog.Logger;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Copyright 2022 by Michael Schmidt, Hirola Consulting
+ * This software us licensed under the AGPL-3.0 or later.
+ *
+ * Controller for the view to export or import a series of plans as a single file using fxml.
+ *
+ * @author Michael Schmidt (Hirola)
+ * @since v0.1
+ */
+public class SeriesViewController {
+    private List<RunningPlanSnapshot> series; // the sorted plans of the export, empty for the import
+    private SportsLibrary sportsLibrary;
+    private boolean isExport;
+    private File directory;
+    private File bundleFile; // the chosen file, null if no file was chosen
+    private List<RunningPlan> importedPlans = new ArrayList<>();
+    private final ApplicationResources applicationResources
+            = ApplicationResources.getInstance(); // bundle for localization, ...
+
+    // created with SceneBuilder
+    @FXML
+    private Label infoLabel;
+    @FXML
+    private TableView<SeriesPlanMetadata> plansTableView;
+    @FXML
+    private Label fileLabel;
+    @FXML
+    private TextField fileTextField;
+    @FXML
+    private Button fileButton;
+    @FXML
+    private ProgressBar progressBar;
+    @FXML
+    private Label statusLabel;
+    @FXML
+    private Button saveButton;
+    @FXML
+    private Button closeButton;
+
+    public SeriesViewController() {}
+
+    /**
+     * Sets the plans of the export or prepares the import, if the list of plans is empty.
+     *
+     * @param series the plans of the series, empty for the import
+     * @param directory for the file chooser
+     * @param sportsLibrary used by the import
+     */
+    public void setSeries(@NotNull List<RunningPlanSnapshot> series, @NotNull File directory,
+                          @NotNull SportsLibrary sportsLibrary) {
+        this.series = PlanSeriesBundle.sortSeries(series);
+        this.directory = directory;
+        this.sportsLibrary = sportsLibrary;
+        isExport = !series.isEmpty();
+        infoLabel.setText(applicationResources.getString(isExport
+                ? "seriesView.infoText.export"
+                : "seriesView.infoText.import"));
+        saveButton.setText(applicationResources.getString(isExport
+                ? "seriesView.exportButtonText"
+                : "seriesView.importButtonText"));
+        if (isExport) {
+            plansTableView.getItems().setAll(PlanSeriesBundle.createManifest(this.series));
+        }
+    }
+
+    /**
+     * Returns the plans of the imported series.
+     *
+     * @return The plans in the order of the series, empty if nothing was imported.
+     */
+    @NotNull
+    public List<RunningPlan> getImportedPlans() {
+        return importedPlans;
+    }
+
+    /**
+     * Returns the file of the series.
+     *
+     * @return The file or null, if the user has not chosen a file.
+     */
+    @Nullable
+    public File getBundleFile() {
+        return bundleFile;
+    }
+
+    @FXML
+    // when the FXML loader is done loading the FXML document, it calls this method of the controller
+    private void initialize() {
+        fileLabel.setText(applicationResources.getString("seriesView.file"));
+        fileButton.setText(applicationResources.getString("seriesView.chooseFile"));
+        closeButton.setText(applicationResources.getString("action.close"));
+        statusLabel.setText("");
+        plansTableView.setPlaceholder(new Label(applicationResources.getString("seriesView.noPlans")));
+        plansTableView.getColumns().add(createColumn("seriesView.column.orderNumber",
+                SeriesPlanMetadata::getOrderNumber));
+        plansTableView.getColumns().add(createColumn("seriesView.column.name", SeriesPlanMetadata::getName));
+        plansTableView.getColumns().add(createColumn("seriesView.column.entries",
+                SeriesPlanMetadata::getEntryCount));
+    }
+
+    @FXML
+    // use for onAction by the FXML loader
+    private void onAction(ActionEvent event) {
+        if (event.getSource().equals(fileButton)) {
+            chooseFile();
+        }
+        if (event.getSource().equals(saveButton)) {
+            if (bundleFile == null) {
+                statusLabel.setText(applicationResources.getString("seriesView.status.noFile"));
+            } else if (isExport) {
+                exportSeries();
+            } else {
+                importSeries();
+            }
+        }
+        if (event.getSource().equals(closeButton)) {
+            close();
+        }
+    }
+
+    private <T> TableColumn<SeriesPlanMetadata, T> createColumn(String headerKey,
+                                                                Function<SeriesPlanMetadata, T> value) {
+        TableColumn<SeriesPlanMetadata, T> column = new TableColumn<>(applicationResources.getString(headerKey));
+        column.setCellValueFactory(cellData -> new ReadOnlyObjectWrapper<>(value.apply(cellData.getValue())));
+        column.setSortable(false);
+        return column;
+    }
+
+    private void chooseFile() {
+        FileChooser fileChooser = new FileChooser();
+        if (directory.isDirectory()) {
+            fileChooser.setInitialDirectory(directory);
+        }
+        fileChooser.setSelectedExtensionFilter(Global.SERIES_FILE_EXTENSION_FILTER);
+        File chosenFile;
+        if (isExport) {
+            fileChooser.setInitialFileName(applicationResources.getString("seriesView.file.name")
+                    + Global.SERIES_FILE_EXTENSION);
+            chosenFile = fileChooser.showSaveDialog(fileButton.getScene().getWindow());
+        } else {
+            chosenFile = fileChooser.showOpenDialog(fileButton.getScene().getWindow());
+        }
+        if (chosenFile == null) {
+            return; // cancelled by the user
+        }
+        if (!isExport) {
+            // the plans of the series are shown before the import
+            try {
+                plansTableView.getItems().setAll(PlanSeriesBundle.readManifest(chosenFile.toPath()));
+            } catch (IOException exception) {
+                plansTableView.getItems().clear();
+                showFailed("alert.import.failed", exception);
+                return;
+            }
+        }
+        bundleFile = chosenFile;
+        fileTextField.setText(bundleFile.getAbsolutePath());
+        statusLabel.setText("");
+    }
+
+    // the plans are written on a background thread
+    private void exportSeries() {
+        File exportedFile = bundleFile;
+        setWorking(true);
+        progressBar.setProgress(0.0);
+        statusLabel.setText(applicationResources.getString("seriesView.status.exporting"));
+        long startNanos = System.nanoTime();
+        Thread exportThread = new Thread(() -> {
+            try (OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(exportedFile.toPath()),
+                    Global.CompressionPreferences.BUFFER_SIZE)) {
+                PlanSeriesBundle.exportSeries(series, outputStream,
+                        progress -> Platform.runLater(() -> progressBar.setProgress(progress)));
+            } catch (IOException exception) {
+                deleteIncompleteFile(exportedFile);
+                Platform.runLater(() -> {
+                    setWorking(false);
+                    showFailed("alert.export.failed", exception);
+                });
+                return;
+            }
+            long nanos = System.nanoTime() - startNanos;
+            Platform.runLater(() -> {
+                setWorking(false);
+                ApplicationMetrics.getInstance().record(ApplicationMetrics.Operation.EXPORT, nanos);
+                statusLabel.setText(series.size()
+                        + " "
+                        + applicationResources.getString("seriesView.status.exported")
+                        + " "
+                        + nanos / 1_000_000
+                        + " ms");
+            });
+        }, "plan-series-export");
+        exportThread.setDaemon(true);
+        exportThread.start();
+    }
+
+    // the plans are read on background threads, the dialog is closed after the import
+    private void importSeries() {
+        File importedFile = bundleFile;
+        setWorking(true);
+        progressBar.setProgress(0.0);
+        statusLabel.setText(applicationResources.getString("seriesView.status.importing"));
+        long startNanos = System.nanoTime();
+        Thread importThread = new Thread(() -> {
+            try {
+                List<RunningPlan> plans = PlanSeriesBundle.importSeries(importedFile.toPath(), sportsLibrary,
+                        progress -> Platform.runLater(() -> progressBar.setProgress(progress)));
+                long nanos = System.nanoTime() - startNanos;
+                Platform.runLater(() -> {
+                    setWorking(false);
+                    ApplicationMetrics.getInstance().record(ApplicationMetrics.Operation.IMPORT, nanos);
+                    importedPlans = plans;
+                    close();
+                });
+            } catch (ParseException exception) {
+                Platform.runLater(() -> {
+                    setWorking(false);
+                    statusLabel.setText("");
+                    // the malformed lines are shown to the user
+                    Alert alert = new Alert(Alert.AlertType.WARNING);
+                    alert.setTitle(applicationResources.getString("app.name")
+                            + " "
+                            + applicationResources.getString("app.version"));
+                    alert.setHeaderText(applicationResources.getString("alert.import.csv.malformed"));
+                    alert.setContentText(exception.getMessage());
+                    alert.showAndWait();
+                });
+            } catch (IOException | InterruptedException exception) {
+                Platform.runLater(() -> {
+                    setWorking(false);
+                    showFailed("alert.import.failed", exception);
+                });
+            }
+        }, "plan-series-import");
+        importThread.setDaemon(true);
+        importThread.start();
+    }
+
+    private void setWorking(boolean isWorking) {
+        saveButton.setDisable(isWorking);
+        closeButton.setDisable(isWorking);
+        fileButton.setDisable(isWorking);
+    }
+
+    private void deleteIncompleteFile(File file) {
+        try {
+            Files.deleteIfExists(file.toPath());
+        } catch (IOException exception) {
+            Logger.debug(exception, "The incomplete file {} could not be deleted.", file);
+        }
+    }
+
+    private void showFailed(String headerKey, Exception exception) {
+        statusLabel.setText("");
+        Alert alert = new Alert(Alert.AlertType.WARNING);
+        alert.setTitle(applicationResources.getString("app.name")
+                + " "
+                + applicationResources.getString("app.version"));
+        alert.setHeaderText(applicationResources.getString(headerKey));
+        alert.showAndWait();
+        Logger.warn(exception, "Export or import of the series failed.");
+    }
+
+    private void close() {
+        // get a handle to the stage
+        Stage stage = (Stage) closeButton.getScene().getWindow();
+        stage.close();
+    }
+}
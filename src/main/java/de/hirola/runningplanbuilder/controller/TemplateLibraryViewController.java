@@ -0,0 +1,320 @@
+package de.hirola.runningplanbuilder.controller;
+
+import de.hirola.runningplanbuilder.Global;
+import de.hirola.runningplanbuilder.model.TemplateMetadata;
+import de.hirola.runningplanbuilder.util.ApplicationResources;
+import de.hirola.runningplanbuilder.util.TemplateLibrary;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.collections.transformation.FilteredList;
+import javafx.event.ActionEvent;
+import javafx.fxml.FXML;
+import javafx.scene.control.Alert;
+import javafx.scene.control.Button;
+import javafx.scene.control.ButtonBar;
+import javafx.scene.control.ButtonType;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListView;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+import javafx.scene.control.TextField;
+import javafx.scene.input.MouseEvent;
+import javafx.stage.DirectoryChooser;
+import javafx.stage.Stage;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.tinylog.Logger;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.prefs.Preferences;
+
+/**
+ * Copyright 2022 by Michael Schmidt, Hirola Consulting
+ * This software us licensed under the AGPL-3.0 or later.
+ *
+ * Controller for the view to browse the template library using fxml.
+ *
+ * @author Michael Schmidt (Hirola)
+ * @since v0.1
+ */
+public class TemplateLibraryViewController {
+    private TemplateLibrary templateLibrary;
+    private Preferences userPreferences = null;
+    private File templateFile; // the selected template, null if the user has cancelled the dialog
+    private Set<Path> openFiles = Collections.emptySet(); // the files of the plans in the workspace
+    private final ObservableList<TemplateMetadata> templates = FXCollections.observableArrayList();
+    private final FilteredList<TemplateMetadata> filteredTemplates = new FilteredList<>(templates);
+    private final ApplicationResources applicationResources
+            = ApplicationResources.getInstance(); // bundle for localization, ...
+
+    // created with SceneBuilder
+    @FXML
+    private Label infoLabel;
+    @FXML
+    private Label directoriesListViewLabel;
+    @FXML
+    private ListView<String> directoriesListView;
+    @FXML
+    private Button addDirectoryButton;
+    @FXML
+    private Button removeDirectoryButton;
+    @FXML
+    private TextField filterTextField;
+    @FXML
+    private TableView<TemplateMetadata> templatesTableView;
+    @FXML
+    private Label statusLabel;
+    @FXML
+    private Button saveButton;
+    @FXML
+    private Button compressButton;
+    @FXML
+    private Button closeButton;
+
+    public TemplateLibraryViewController() {}
+
+    /**
+     * Shows the templates of the index and refreshes the index in background.
+     *
+     * @param templateLibrary of the app
+     */
+    public void setTemplateLibrary(@NotNull TemplateLibrary templateLibrary) {
+        this.templateLibrary = templateLibrary;
+        showTemplates(templateLibrary.getTemplates());
+        refreshTemplates();
+    }
+
+    /**
+     * Sets the files of the plans, which are open in the workspace. These files are not compressed.
+     *
+     * @param openFiles of the plans in the workspace
+     */
+    public void setOpenFiles(@NotNull Set<Path> openFiles) {
+        this.openFiles = openFiles;
+    }
+
+    /**
+     * Returns the template file, which was selected by the user.
+     *
+     * @return The file or null, if the user has cancelled the dialog.
+     */
+    @Nullable
+    public File getTemplateFile() {
+        return templateFile;
+    }
+
+    @FXML
+    // when the FXML loader is done loading the FXML document, it calls this method of the controller
+    private void initialize() {
+        try {
+            userPreferences = Preferences.userRoot().node(Global.UserPreferencesKeys.USER_ROOT_NODE);
+            String directories = userPreferences.get(Global.UserPreferencesKeys.TEMPLATE_LIBRARY_DIRECTORIES, "");
+            for (String directory: directories.split(File.pathSeparator)) {
+                if (!directory.isEmpty()) {
+                    directoriesListView.getItems().add(directory);
+                }
+            }
+        } catch (SecurityException exception) {
+            Logger.warn(exception, "Error while loading the directories of the template library.");
+        }
+        setLabel();
+        initializeTableView();
+        filterTextField.textProperty().addListener((observable, oldText, newText) -> {
+            String filter = newText.trim().toLowerCase(Locale.ROOT);
+            if (filter.isEmpty()) {
+                filteredTemplates.setPredicate(null);
+            } else {
+                filteredTemplates.setPredicate(template ->
+                        template.getName() != null && template.getName().toLowerCase(Locale.ROOT).contains(filter));
+            }
+        });
+    }
+
+    @FXML
+    // use for onAction by the FXML loader
+    private void onAction(ActionEvent event) {
+        if (event.getSource().equals(addDirectoryButton)) {
+            DirectoryChooser directoryChooser = new DirectoryChooser();
+            File directory = directoryChooser.showDialog(addDirectoryButton.getScene().getWindow());
+            if (directory != null && !directoriesListView.getItems().contains(directory.getAbsolutePath())) {
+                directoriesListView.getItems().add(directory.getAbsolutePath());
+                saveDirectories();
+                refreshTemplates();
+            }
+        }
+        if (event.getSource().equals(removeDirectoryButton)) {
+            int index = directoriesListView.getSelectionModel().getSelectedIndex();
+            if (index > -1) {
+                directoriesListView.getItems().remove(index);
+                saveDirectories();
+                refreshTemplates();
+            }
+        }
+        if (event.getSource().equals(saveButton)) {
+            openSelectedTemplate();
+        }
+        if (event.getSource().equals(compressButton)) {
+            compressTemplates();
+        }
+        if (event.getSource().equals(closeButton)) {
+            close();
+        }
+    }
+
+    @FXML
+    // use for onMouseClicked by the FXML loader
+    private void onMouseClicked(MouseEvent event) {
+        if (event.getClickCount() == 2) {
+            openSelectedTemplate();
+        }
+    }
+
+    private void setLabel() {
+        infoLabel.setText(applicationResources.getString("libraryView.infoText"));
+        directoriesListViewLabel.setText(applicationResources.getString("libraryView.directories"));
+        addDirectoryButton.setText(applicationResources.getString("libraryView.addDirectory"));
+        removeDirectoryButton.setText(applicationResources.getString("libraryView.removeDirectory"));
+        filterTextField.setPromptText(applicationResources.getString("libraryView.filter.promptText"));
+        saveButton.setText(applicationResources.getString("libraryView.openButtonText"));
+        compressButton.setText(applicationResources.getString("libraryView.compressButtonText"));
+        closeButton.setText(applicationResources.getString("action.cancel"));
+        statusLabel.setText("");
+    }
+
+    private void initializeTableView() {
+        templatesTableView.setPlaceholder(new Label(applicationResources.getString("libraryView.noTemplates")));
+        templatesTableView.getColumns().add(createColumn("libraryView.column.name", TemplateMetadata::getName));
+        templatesTableView.getColumns().add(createColumn("libraryView.column.orderNumber",
+                TemplateMetadata::getOrderNumber));
+        templatesTableView.getColumns().add(createColumn("libraryView.column.weeks", TemplateMetadata::getWeeks));
+        templatesTableView.getColumns().add(createColumn("libraryView.column.minutes",
+                TemplateMetadata::getTotalMinutes));
+        templatesTableView.getColumns().add(createColumn("libraryView.column.file",
+                template -> template.getPath().getFileName().toString()));
+        templatesTableView.setItems(filteredTemplates);
+    }
+
+    private <T> TableColumn<TemplateMetadata, T> createColumn(String headerKey, Function<TemplateMetadata, T> value) {
+        TableColumn<TemplateMetadata, T> column = new TableColumn<>(applicationResources.getString(headerKey));
+        column.setCellValueFactory(cellData -> new ReadOnlyObjectWrapper<>(value.apply(cellData.getValue())));
+        return column;
+    }
+
+    // the index is refreshed on a background thread, only new and changed files are read
+    private void refreshTemplates() {
+        statusLabel.setText(applicationResources.getString("libraryView.status.refreshing"));
+        templateLibrary.refreshLater(getDirectories(), refreshedTemplates -> {
+            showTemplates(refreshedTemplates);
+            statusLabel.setText(refreshedTemplates.size()
+                    + " "
+                    + applicationResources.getString("libraryView.status.templates")
+                    + ", "
+                    + templateLibrary.getLastReadCount()
+                    + " "
+                    + applicationResources.getString("libraryView.status.read"));
+        });
+    }
+
+    // the uncompressed templates are replaced by compressed files on a background thread
+    private void compressTemplates() {
+        if (!continueWithCompression()) {
+            return;
+        }
+        compressButton.setDisable(true);
+        statusLabel.setText(applicationResources.getString("libraryView.status.compressing"));
+        templateLibrary.compressLater(getDirectories(), openFiles, result -> {
+            compressButton.setDisable(false);
+            showTemplates(templateLibrary.getTemplates());
+            statusLabel.setText(result.getCompressedCount()
+                    + " "
+                    + applicationResources.getString("libraryView.status.compressed")
+                    + String.format(Locale.ROOT, " %.1f MB -> %.1f MB, %.1f MB/s",
+                            result.getUncompressedBytes() / (1024.0 * 1024.0),
+                            result.getCompressedBytes() / (1024.0 * 1024.0),
+                            result.getMegabytesPerSecond())
+                    + (result.getFailedCount() > 0
+                        ? ", " + result.getFailedCount() + " "
+                            + applicationResources.getString("libraryView.status.compressionFailed")
+                        : "")
+                    + (result.getSkippedCount() > 0
+                        ? ", " + result.getSkippedCount() + " "
+                            + applicationResources.getString("libraryView.status.compressionSkipped")
+                        : ""));
+        });
+    }
+
+    private boolean continueWithCompression() {
+        AtomicBoolean doAction = new AtomicBoolean(false);
+        Alert alert = new Alert(Alert.AlertType.CONFIRMATION);
+        alert.setTitle(applicationResources.getString("app.name")
+                + " "
+                + applicationResources.getString("app.version"));
+        alert.setHeaderText(applicationResources.getString("libraryView.alert.compress"));
+        ButtonType okButton = new ButtonType(applicationResources
+                .getString("action.yes"), ButtonBar.ButtonData.YES);
+        ButtonType cancelButton = new ButtonType(applicationResources
+                .getString("action.cancel"), ButtonBar.ButtonData.CANCEL_CLOSE);
+        alert.getButtonTypes().setAll(okButton, cancelButton);
+        alert.showAndWait().ifPresent(type -> {
+            if (type == okButton) {
+                doAction.set(true);
+            } else {
+                alert.close();
+            }
+        });
+        return doAction.get();
+    }
+
+    private List<Path> getDirectories() {
+        List<Path> directories = new ArrayList<>(directoriesListView.getItems().size());
+        for (String directory: directoriesListView.getItems()) {
+            directories.add(Paths.get(directory));
+        }
+        return directories;
+    }
+
+    private void showTemplates(@NotNull List<TemplateMetadata> newTemplates) {
+        TemplateMetadata selectedTemplate = templatesTableView.getSelectionModel().getSelectedItem();
+        // a single change of the list
+        templates.setAll(newTemplates);
+        if (selectedTemplate != null) {
+            for (TemplateMetadata template: filteredTemplates) {
+                if (template.getPath().equals(selectedTemplate.getPath())) {
+                    templatesTableView.getSelectionModel().select(template);
+                    break;
+                }
+            }
+        }
+    }
+
+    private void saveDirectories() {
+        if (userPreferences != null) {
+            userPreferences.put(Global.UserPreferencesKeys.TEMPLATE_LIBRARY_DIRECTORIES,
+                    String.join(File.pathSeparator, directoriesListView.getItems()));
+        }
+    }
+
+    private void openSelectedTemplate() {
+        TemplateMetadata template = templatesTableView.getSelectionModel().getSelectedItem();
+        if (template != null) {
+            templateFile = template.getPath().toFile();
+            close();
+        }
+    }
+
+    private void close() {
+        // get a handle to the stage
+        Stage stage = (Stage) closeButton.getScene().getWindow();
+        stage.close();
+    }
+}
@@ -0,0 +1,27 @@
+package de.hirola.runningplanbuilder.model;
+
+/**
+ * Copyright 2022 by Michael Schmidt, Hirola Consulting
+ * This software us licensed under the AGPL-3.0 or later.
+ *
+ * The attributes of an entry, which are compared by the diff and the merge of running plans.
+ *
+ * @author Michael Schmidt (Hirola)
+ * @since v0.1
+ */
+public enum EntryAttribute {
+    WEEK("week"),
+    DAY("day"),
+    RUNNING_UNITS("runningUnits"), // duration, movement type and infos of the units
+    REMARKS("remarks");
+
+    private final String key;
+
+    EntryAttribute(String key) {
+        this.key = key;
+    }
+
+    public String getKey() {
+        return key;
+    }
+}
@@ -0,0 +1,77 @@
+package de.hirola.runningplanbuilder.model;
+
+import de.hirola.sportsapplications.model.UUID;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Copyright 2022 by Michael Schmidt, Hirola Consulting
+ * This software us licensed under the AGPL-3.0 or later.
+ *
+ * A change of an entry between two snapshots of a running plan.
+ *
+ * @author Michael Schmidt (Hirola)
+ * @since v0.1
+ */
+public final class EntryChange {
+    private final Type type;
+    private final RunningPlanEntrySnapshot before;
+    private final RunningPlanEntrySnapshot after;
+    private final Set<EntryAttribute> attributes;
+
+    public enum Type {
+        ADDED,
+        REMOVED,
+        CHANGED
+    }
+
+    public EntryChange(@Nullable RunningPlanEntrySnapshot before, @Nullable RunningPlanEntrySnapshot after,
+                       @NotNull Set<EntryAttribute> attributes) {
+        if (before == null && after == null) {
+            throw new IllegalArgumentException("A change needs an entry.");
+        }
+        this.before = before;
+        this.after = after;
+        if (before == null) {
+            type = Type.ADDED;
+        } else if (after == null) {
+            type = Type.REMOVED;
+        } else {
+            type = Type.CHANGED;
+        }
+        this.attributes = attributes.isEmpty()
+                ? Collections.emptySet()
+                : Collections.unmodifiableSet(EnumSet.copyOf(attributes));
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public UUID getUUID() {
+        return before != null ? before.getUUID() : after.getUUID();
+    }
+
+    @Nullable
+    public RunningPlanEntrySnapshot getBefore() {
+        return before;
+    }
+
+    @Nullable
+    public RunningPlanEntrySnapshot getAfter() {
+        return after;
+    }
+
+    /**
+     * Returns the changed attributes.
+     *
+     * @return The changed attributes, empty if the entry was added or removed.
+     */
+    public Set<EntryAttribute> getAttributes() {
+        return attributes;
+    }
+}
@@ -0,0 +1,112 @@
+package de.hirola.runningplanbuilder.model;
+
+import de.hirola.sportsapplications.model.RunningPlanEntry;
+import de.hirola.sportsapplications.model.RunningUnit;
+import de.hirola.sportsapplications.model.UUID;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Copyright 2022 by Michael Schmidt, Hirola Consulting
+ * This software us licensed under the AGPL-3.0 or later.
+ *
+ * The three-way merge of an entry. For each attribute the side is stored, which provides the value.
+ * The attributes of a conflict are taken from the side chosen by the user.
+ *
+ * @author Michael Schmidt (Hirola)
+ * @since v0.1
+ */
+public final class EntryMerge {
+    private final RunningPlanEntrySnapshot ancestor;
+    private final RunningPlanEntrySnapshot ours;
+    private final RunningPlanEntrySnapshot theirs;
+    private final Map<EntryAttribute, MergeResolution> sides;
+    private final MergeConflict conflict;
+
+    /**
+     * Creates the merge of an entry.
+     *
+     * @param ancestor entry of the common ancestor, null if the entry was added
+     * @param ours entry of our plan, null if our plan removed or has not added the entry
+     * @param theirs entry of their plan, null if their plan removed or has not added the entry
+     * @param sides of the attributes without conflict, used if both plans contain the entry
+     * @param conflict of the entry or null
+     */
+    public EntryMerge(@Nullable RunningPlanEntrySnapshot ancestor, @Nullable RunningPlanEntrySnapshot ours,
+                      @Nullable RunningPlanEntrySnapshot theirs, @NotNull Map<EntryAttribute, MergeResolution> sides,
+                      @Nullable MergeConflict conflict) {
+        this.ancestor = ancestor;
+        this.ours = ours;
+        this.theirs = theirs;
+        this.sides = sides.isEmpty() ? new EnumMap<>(EntryAttribute.class) : new EnumMap<>(sides);
+        this.conflict = conflict;
+    }
+
+    @NotNull
+    public UUID getUUID() {
+        if (ancestor != null) {
+            return ancestor.getUUID();
+        }
+        return ours != null ? ours.getUUID() : theirs.getUUID();
+    }
+
+    @Nullable
+    public MergeConflict getConflict() {
+        return conflict;
+    }
+
+    /**
+     * Returns the side, which provides the value of the attribute.
+     *
+     * @param attribute of the entry
+     * @return The side chosen by the merge or by the user for a conflict.
+     */
+    public MergeResolution getSide(@NotNull EntryAttribute attribute) {
+        if (conflict != null && conflict.getAttributes().contains(attribute)) {
+            return conflict.getResolution();
+        }
+        return sides.getOrDefault(attribute, MergeResolution.OURS);
+    }
+
+    /**
+     * Creates the merged entry. The entry of the side with the chosen remarks is reused,
+     * the other attributes are written to this entry.
+     * Must be called on the JavaFX application thread.
+     *
+     * @return The merged entry or null, if the entry is removed by the merge.
+     */
+    @Nullable
+    public RunningPlanEntry restore() {
+        if (conflict != null && conflict.isRemoval()) {
+            RunningPlanEntrySnapshot chosen = conflict.getEntry(conflict.getResolution());
+            return chosen != null ? chosen.restore() : null;
+        }
+        if (ours == null || theirs == null) {
+            if (ancestor != null) {
+                // removed by one side, not changed by the other side
+                return null;
+            }
+            // added by one side
+            return ours != null ? ours.restore() : theirs.restore();
+        }
+        RunningPlanEntry entry = getEntry(getSide(EntryAttribute.REMARKS)).restore();
+        entry.setWeek(getEntry(getSide(EntryAttribute.WEEK)).getWeek());
+        entry.setDay(getEntry(getSide(EntryAttribute.DAY)).getDay());
+        List<RunningUnitSnapshot> runningUnitSnapshots = getEntry(getSide(EntryAttribute.RUNNING_UNITS)).getRunningUnits();
+        List<RunningUnit> runningUnits = new ArrayList<>(runningUnitSnapshots.size());
+        for (RunningUnitSnapshot runningUnit: runningUnitSnapshots) {
+            runningUnits.add(runningUnit.restore());
+        }
+        entry.setRunningUnits(runningUnits);
+        return entry;
+    }
+
+    private RunningPlanEntrySnapshot getEntry(MergeResolution side) {
+        return side == MergeResolution.OURS ? ours : theirs;
+    }
+}
@@ -0,0 +1,99 @@
+package de.hirola.runningplanbuilder.model;
+
+import de.hirola.sportsapplications.model.UUID;
+import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.SimpleObjectProperty;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Copyright 2022 by Michael Schmidt, Hirola Consulting
+ * This software us licensed under the AGPL-3.0 or later.
+ *
+ * A conflict of the three-way merge: both plans changed the same attributes of an entry
+ * in a different way, or one plan removed an entry, which the other plan changed.
+ * The user chooses the side, which is used for the merged entry. The default is our plan.
+ *
+ * @author Michael Schmidt (Hirola)
+ * @since v0.1
+ */
+public final class MergeConflict {
+    private final RunningPlanEntrySnapshot ancestor;
+    private final RunningPlanEntrySnapshot ours;
+    private final RunningPlanEntrySnapshot theirs;
+    private final Set<EntryAttribute> attributes;
+    private final ObjectProperty<MergeResolution> resolution;
+
+    public MergeConflict(@Nullable RunningPlanEntrySnapshot ancestor, @Nullable RunningPlanEntrySnapshot ours,
+                         @Nullable RunningPlanEntrySnapshot theirs, @NotNull Set<EntryAttribute> attributes) {
+        if (ours == null && theirs == null) {
+            throw new IllegalArgumentException("A conflict needs an entry.");
+        }
+        this.ancestor = ancestor;
+        this.ours = ours;
+        this.theirs = theirs;
+        this.attributes = attributes.isEmpty()
+                ? Collections.emptySet()
+                : Collections.unmodifiableSet(EnumSet.copyOf(attributes));
+        resolution = new SimpleObjectProperty<>(MergeResolution.OURS);
+    }
+
+    public UUID getUUID() {
+        return ours != null ? ours.getUUID() : theirs.getUUID();
+    }
+
+    @Nullable
+    public RunningPlanEntrySnapshot getAncestor() {
+        return ancestor;
+    }
+
+    @Nullable
+    public RunningPlanEntrySnapshot getOurs() {
+        return ours;
+    }
+
+    @Nullable
+    public RunningPlanEntrySnapshot getTheirs() {
+        return theirs;
+    }
+
+    /**
+     * Returns the entry of a side.
+     *
+     * @param side of the merge
+     * @return The entry or null, if the side removed the entry.
+     */
+    @Nullable
+    public RunningPlanEntrySnapshot getEntry(@NotNull MergeResolution side) {
+        return side == MergeResolution.OURS ? ours : theirs;
+    }
+
+    /**
+     * Returns the attributes, which were changed by both sides.
+     *
+     * @return The attributes or an empty set, if one side removed the entry.
+     */
+    public Set<EntryAttribute> getAttributes() {
+        return attributes;
+    }
+
+    public boolean isRemoval() {
+        return ours == null || theirs == null;
+    }
+
+    public MergeResolution getResolution() {
+        return resolution.get();
+    }
+
+    public void setResolution(@NotNull MergeResolution resolution) {
+        this.resolution.set(resolution);
+    }
+
+    public ObjectProperty<MergeResolution> resolutionProperty() {
+        return resolution;
+    }
+}
@@ -0,0 +1,25 @@
+package de.hirola.runningplanbuilder.model;
+
+/**
+ * Copyright 2022 by Michael Schmidt, Hirola Consulting
+ * This software us licensed under the AGPL-3.0 or later.
+ *
+ * The side of a merge, which provides the value of an attribute.
+ *
+ * @author Michael Schmidt (Hirola)
+ * @since v0.1
+ */
+public enum MergeResolution {
+    OURS("ours"), // the open plan
+    THEIRS("theirs"); // the plan of the other file
+
+    private final String key;
+
+    MergeResolution(String key) {
+        this.key = key;
+    }
+
+    public String getKey() {
+        return key;
+    }
+}
@@ -0,0 +1,108 @@
+package de.hirola.runningplanbuilder.model;
+
+import de.hirola.sportsapplications.model.RunningPlanEntry;
+import de.hirola.sportsapplications.model.UUID;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Copyright 2022 by Michael Schmidt, Hirola Consulting
+ * This software us licensed under the AGPL-3.0 or later.
+ *
+ * The result of the three-way merge of two running plans with a common ancestor.
+ *
+ * @author Michael Schmidt (Hirola)
+ * @since v0.1
+ */
+public final class MergeResult {
+    private final List<EntryMerge> entryMerges;
+    private final List<MergeConflict> conflicts;
+    private final List<EntryChange> ourChanges;
+    private final List<EntryChange> theirChanges;
+
+    public MergeResult(@NotNull List<EntryMerge> entryMerges, @NotNull List<EntryChange> ourChanges,
+                       @NotNull List<EntryChange> theirChanges) {
+        this.entryMerges = Collections.unmodifiableList(new ArrayList<>(entryMerges));
+        List<MergeConflict> entryConflicts = new ArrayList<>();
+        for (EntryMerge entryMerge: entryMerges) {
+            if (entryMerge.getConflict() != null) {
+                entryConflicts.add(entryMerge.getConflict());
+            }
+        }
+        conflicts = Collections.unmodifiableList(entryConflicts);
+        this.ourChanges = Collections.unmodifiableList(new ArrayList<>(ourChanges));
+        this.theirChanges = Collections.unmodifiableList(new ArrayList<>(theirChanges));
+    }
+
+    public List<MergeConflict> getConflicts() {
+        return conflicts;
+    }
+
+    /**
+     * Returns the changes of our plan against the common ancestor.
+     *
+     * @return The changes of our plan.
+     */
+    public List<EntryChange> getOurChanges() {
+        return ourChanges;
+    }
+
+    /**
+     * Returns the changes of their plan against the common ancestor.
+     *
+     * @return The changes of their plan.
+     */
+    public List<EntryChange> getTheirChanges() {
+        return theirChanges;
+    }
+
+    /**
+     * Creates the merged entries with the resolutions of the conflicts, sorted by week and day.
+     * Must be called on the JavaFX application thread.
+     *
+     * @return The entries of the merged plan.
+     */
+    @NotNull
+    public List<RunningPlanEntry> restoreEntries() {
+        List<RunningPlanEntry> entries = new ArrayList<>(entryMerges.size());
+        for (EntryMerge entryMerge: entryMerges) {
+            RunningPlanEntry entry = entryMerge.restore();
+            if (entry != null) {
+                entries.add(entry);
+            }
+        }
+        // stable, entries on the same day keep their order
+        entries.sort(Comparator.comparingInt(RunningPlanEntry::getWeek).thenComparingInt(RunningPlanEntry::getDay));
+        return entries;
+    }
+
+    /**
+     * Creates the merged entries, which are changed by their plan. The other entries
+     * are not touched, so the merge can be applied to our plan entry by entry.
+     * Must be called on the JavaFX application thread.
+     *
+     * @return The merged entries by UUID in the order of the merge, null for a removed entry.
+     */
+    @NotNull
+    public Map<UUID, RunningPlanEntry> restoreTheirChangedEntries() {
+        Set<UUID> changedUUIDs = new HashSet<>(theirChanges.size());
+        for (EntryChange change: theirChanges) {
+            changedUUIDs.add(change.getUUID());
+        }
+        Map<UUID, RunningPlanEntry> entries = new LinkedHashMap<>(changedUUIDs.size());
+        for (EntryMerge entryMerge: entryMerges) {
+            if (changedUUIDs.contains(entryMerge.getUUID())) {
+                entries.put(entryMerge.getUUID(), entryMerge.restore());
+            }
+        }
+        return entries;
+    }
+}
@@ -0,0 +1,193 @@
+package de.hirola.runningplanbuilder.model;
+
+import de.hirola.runningplanbuilder.util.PlanValidator;
+import de.hirola.sportsapplications.model.RunningPlan;
+import de.hirola.sportsapplications.model.RunningPlanEntry;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Copyright 2022 by Michael Schmidt, Hirola Consulting
+ * This software us licensed under the AGPL-3.0 or later.
+ *
+ * A running plan opened in a tab of the main view.
+ *
+ * Each document owns the model of its plan, the undo history, the publisher of its snapshots
+ * and the validation on a background thread. The views of the main window, the dialogs, the
+ * movement types and the localized strings are shared by all documents. Only the active document
+ * has table objects, so an open plan in another tab costs the memory of the model and the history.
+ *
+ * @author Michael Schmidt (Hirola)
+ * @since v0.1
+ */
+public final class RunningPlanDocument {
+    private final RunningPlanSnapshotPublisher publisher;
+    private final RunningPlanHistory history;
+    private final PlanValidator validator;
+    private RunningPlan runningPlan;
+    private List<RunningPlanEntry> runningPlanEntries;
+    private boolean icalMode;
+    private boolean loading; // the entries are added while the file is read
+    private ValidationResult validationResult; // the last findings of the validator
+    private File file; // the imported file, null for a new plan
+    private long fileLength;
+    private long fileLastModified;
+    private RunningPlanSnapshot fileSnapshot; // the plan as stored in the file, the ancestor of a reload
+
+    /**
+     * Creates a document without a plan.
+     *
+     * @param maxHistoryDepth maximum count of edits, which can be undone
+     * @param maxHistoryBytes maximum of estimated memory for the undo history
+     * @param validationListener called on the JavaFX application thread after each validation
+     */
+    public RunningPlanDocument(int maxHistoryDepth, long maxHistoryBytes,
+                               @NotNull Consumer<RunningPlanDocument> validationListener) {
+        publisher = new RunningPlanSnapshotPublisher();
+        history = new RunningPlanHistory(maxHistoryDepth, maxHistoryBytes, publisher);
+        validator = new PlanValidator(publisher, result -> {
+            validationResult = result;
+            validationListener.accept(this);
+        });
+        runningPlanEntries = new ArrayList<>();
+    }
+
+    /**
+     * Starts the validation of the document on its own thread.
+     */
+    public void open() {
+        validator.start();
+    }
+
+    /**
+     * Stops the validation. The document can not be used after closing.
+     */
+    public void close() {
+        validator.stop();
+    }
+
+    @NotNull
+    public RunningPlanSnapshotPublisher getPublisher() {
+        return publisher;
+    }
+
+    @NotNull
+    public RunningPlanHistory getHistory() {
+        return history;
+    }
+
+    @NotNull
+    public PlanValidator getValidator() {
+        return validator;
+    }
+
+    @Nullable
+    public RunningPlan getRunningPlan() {
+        return runningPlan;
+    }
+
+    public void setRunningPlan(@Nullable RunningPlan runningPlan) {
+        this.runningPlan = runningPlan;
+    }
+
+    @NotNull
+    public List<RunningPlanEntry> getRunningPlanEntries() {
+        return runningPlanEntries;
+    }
+
+    public void setRunningPlanEntries(@NotNull List<RunningPlanEntry> runningPlanEntries) {
+        this.runningPlanEntries = runningPlanEntries;
+    }
+
+    public boolean isIcalMode() {
+        return icalMode;
+    }
+
+    public void setIcalMode(boolean icalMode) {
+        this.icalMode = icalMode;
+    }
+
+    /**
+     * Checks, if the plan is still loaded. The entries read so far are shown,
+     * but the plan can not be edited or saved.
+     *
+     * @return True, if the file of the plan is still read.
+     */
+    public boolean isLoading() {
+        return loading;
+    }
+
+    public void setLoading(boolean loading) {
+        this.loading = loading;
+    }
+
+    @Nullable
+    public ValidationResult getValidationResult() {
+        return validationResult;
+    }
+
+    @Nullable
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * Remembers the file of the plan, so the same file is not loaded twice
+     * and changes of the file by other programs are detected.
+     *
+     * @param file of the imported or saved plan
+     * @param fileSnapshot of the plan as stored in the file
+     */
+    public void setFile(@NotNull File file, @NotNull RunningPlanSnapshot fileSnapshot) {
+        this.file = file;
+        this.fileSnapshot = fileSnapshot;
+        fileLength = file.length();
+        fileLastModified = file.lastModified();
+    }
+
+    /**
+     * Returns the plan as stored in the file at the last import, save or reload.
+     *
+     * @return The snapshot of the file or an empty snapshot, if the plan has no file.
+     */
+    @NotNull
+    public RunningPlanSnapshot getFileSnapshot() {
+        return fileSnapshot == null ? RunningPlanSnapshot.empty() : fileSnapshot;
+    }
+
+    /**
+     * Checks, if the file was changed by another program since the last import, save or reload.
+     *
+     * @return True, if the size or the time of the last modification of the file are changed.
+     */
+    public boolean isFileChanged() {
+        return file != null && (fileLength != file.length() || fileLastModified != file.lastModified());
+    }
+
+    /**
+     * Checks, if the plan was loaded from the file and the file is unchanged since.
+     *
+     * @param otherFile to be loaded
+     * @return True, if the file is the unchanged file of this document.
+     */
+    public boolean isLoadedFrom(@NotNull File otherFile) {
+        return file != null
+                && file.getAbsoluteFile().equals(otherFile.getAbsoluteFile())
+                && fileLength == otherFile.length()
+                && fileLastModified == otherFile.lastModified();
+    }
+
+    /**
+     * Returns the estimated memory of the snapshots of the document, not the memory of the model.
+     *
+     * @return The estimated memory of the actual snapshot and the undo history.
+     */
+    public long getEstimatedBytes() {
+        return history.getEstimatedBytes();
+    }
+}
@@ -0,0 +1,113 @@
+package de.hirola.runningplanbuilder.model;
+
+import de.hirola.sportsapplications.model.RunningPlanEntry;
+import de.hirola.sportsapplications.model.RunningUnit;
+import de.hirola.sportsapplications.model.UUID;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Copyright 2022 by Michael Schmidt, Hirola Consulting
+ * This software us licensed under the AGPL-3.0 or later.
+ *
+ * The values of a running plan entry at a point in time.
+ * The snapshot is immutable, the entry of the model can be edited after creating the snapshot.
+ *
+ * @author Michael Schmidt (Hirola)
+ * @since v0.1
+ */
+public final class RunningPlanEntrySnapshot {
+    // estimated size in bytes (header, fields, list of units)
+    static final int ESTIMATED_BYTES = 64;
+    private final RunningPlanEntry runningPlanEntry; // the entry in the model, only used to restore the values
+    private final UUID uuid;
+    private final int week;
+    private final int day;
+    private final String remarks;
+    private final List<RunningUnitSnapshot> runningUnits;
+
+    public RunningPlanEntrySnapshot(@NotNull RunningPlanEntry runningPlanEntry) {
+        this.runningPlanEntry = runningPlanEntry;
+        uuid = runningPlanEntry.getUUID();
+        week = runningPlanEntry.getWeek();
+        day = runningPlanEntry.getDay();
+        remarks = runningPlanEntry.getRemarks().orElse(null);
+        List<RunningUnitSnapshot> units = new ArrayList<>();
+        if (runningPlanEntry.getRunningUnits() != null) {
+            for (RunningUnit runningUnit: runningPlanEntry.getRunningUnits()) {
+                units.add(new RunningUnitSnapshot(runningUnit));
+            }
+        }
+        runningUnits = Collections.unmodifiableList(units);
+    }
+
+    public UUID getUUID() {
+        return uuid;
+    }
+
+    public int getWeek() {
+        return week;
+    }
+
+    public int getDay() {
+        return day;
+    }
+
+    public Optional<String> getRemarks() {
+        return Optional.ofNullable(remarks);
+    }
+
+    @NotNull
+    public List<RunningUnitSnapshot> getRunningUnits() {
+        return runningUnits;
+    }
+
+    /**
+     * Returns the sum of the durations of all units.
+     *
+     * @return The duration of the entry in minutes.
+     */
+    public long getDuration() {
+        long duration = 0;
+        for (RunningUnitSnapshot runningUnit: runningUnits) {
+            duration += runningUnit.getDuration();
+        }
+        return duration;
+    }
+
+    /**
+     * Checks if the snapshot was taken from the entry.
+     *
+     * @param entry of the model
+     * @return True, if the snapshot was taken from the entry.
+     */
+    public boolean isSnapshotOf(@NotNull RunningPlanEntry entry) {
+        return runningPlanEntry == entry;
+    }
+
+    public long estimateBytes() {
+        return ESTIMATED_BYTES + (long) runningUnits.size() * RunningUnitSnapshot.ESTIMATED_BYTES;
+    }
+
+    /**
+     * Writes the values back to the entry of the model.
+     * Must be called on the JavaFX application thread.
+     *
+     * @return The entry with the values of the snapshot.
+     */
+    @NotNull
+    public RunningPlanEntry restore() {
+        runningPlanEntry.setWeek(week);
+        runningPlanEntry.setDay(day);
+        List<RunningUnit> units = new ArrayList<>(runningUnits.size());
+        for (RunningUnitSnapshot runningUnit: runningUnits) {
+            units.add(runningUnit.restore());
+        }
+        runningPlanEntry.setRunningUnits(units);
+        return runningPlanEntry;
+    }
+}
@@ -42,6 +42,10 @@ public class RunningPlanEntryTableObject {
         runningUnitsString = buildRunningUnitsString(entry.getRunningUnits());
     }
 
+    public UUID getUUID() {
+        return uuid;
+    }
+
     public String getRemarksString() {
         return remarksString;
     }
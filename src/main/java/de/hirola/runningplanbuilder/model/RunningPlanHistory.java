@@ -0,0 +1,151 @@
+package de.hirola.runningplanbuilder.model;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Copyright 2022 by Michael Schmidt, Hirola Consulting
+ * This software us licensed under the AGPL-3.0 or later.
+ *
+ * Undo and redo of edits of the running plan.
+ *
+ * The history stores a snapshot of the plan after each edit. The snapshots share
+ * their unchanged entries, so each edit costs O(log n) memory. The history is limited
+ * by depth and by the estimated memory, the oldest snapshots are removed first.
+ * The history is not thread safe and must be used on the JavaFX application thread.
+ * Each new actual snapshot is published for readers on other threads.
+ *
+ * @author Michael Schmidt (Hirola)
+ * @since v0.1
+ */
+public final class RunningPlanHistory {
+    private final int maxDepth;
+    private final long maxBytes;
+    private final Deque<RunningPlanSnapshot> undoSnapshots; // first element is the last snapshot
+    private final Deque<RunningPlanSnapshot> redoSnapshots;
+    private final RunningPlanSnapshotPublisher publisher;
+    private RunningPlanSnapshot actualSnapshot;
+    private long estimatedBytes;
+
+    /**
+     * Creates an empty history.
+     *
+     * @param maxDepth maximum count of edits, which can be undone
+     * @param maxBytes maximum of estimated memory for the history
+     * @param publisher for the actual snapshot
+     */
+    public RunningPlanHistory(int maxDepth, long maxBytes, @NotNull RunningPlanSnapshotPublisher publisher) {
+        this.maxDepth = Math.max(maxDepth, 0);
+        this.maxBytes = maxBytes;
+        this.publisher = publisher;
+        undoSnapshots = new ArrayDeque<>();
+        redoSnapshots = new ArrayDeque<>();
+        reset(RunningPlanSnapshot.empty());
+    }
+
+    /**
+     * Removes all snapshots and starts a new history, e.g. after an import.
+     *
+     * @param snapshot the start of the history
+     */
+    public void reset(@NotNull RunningPlanSnapshot snapshot) {
+        undoSnapshots.clear();
+        redoSnapshots.clear();
+        estimatedBytes = snapshot.getEstimatedBytes();
+        setActualSnapshot(snapshot);
+    }
+
+    /**
+     * Adds the snapshot after an edit. All snapshots, which can be redone, are removed.
+     *
+     * @param snapshot after the edit
+     */
+    public void commit(@NotNull RunningPlanSnapshot snapshot) {
+        if (snapshot == actualSnapshot) {
+            // nothing changed
+            return;
+        }
+        for (RunningPlanSnapshot redoSnapshot: redoSnapshots) {
+            estimatedBytes -= redoSnapshot.getEstimatedBytes();
+        }
+        redoSnapshots.clear();
+        undoSnapshots.push(actualSnapshot);
+        estimatedBytes += snapshot.getEstimatedBytes();
+        // remove the oldest snapshots
+        while (!undoSnapshots.isEmpty() && (undoSnapshots.size() > maxDepth || estimatedBytes > maxBytes)) {
+            estimatedBytes -= undoSnapshots.removeLast().getEstimatedBytes();
+        }
+        setActualSnapshot(snapshot);
+    }
+
+    public boolean canUndo() {
+        return !undoSnapshots.isEmpty();
+    }
+
+    public boolean canRedo() {
+        return !redoSnapshots.isEmpty();
+    }
+
+    /**
+     * Returns the snapshot before the last edit, which must be restored by the caller.
+     *
+     * @return The snapshot before the last edit.
+     * @throws IllegalStateException if there is no edit to undo
+     */
+    @NotNull
+    public RunningPlanSnapshot undo() {
+        if (undoSnapshots.isEmpty()) {
+            throw new IllegalStateException("There is no edit to undo.");
+        }
+        redoSnapshots.push(actualSnapshot);
+        setActualSnapshot(undoSnapshots.pop());
+        return actualSnapshot;
+    }
+
+    /**
+     * Returns the snapshot after the last undone edit, which must be restored by the caller.
+     *
+     * @return The snapshot after the last undone edit.
+     * @throws IllegalStateException if there is no edit to redo
+     */
+    @NotNull
+    public RunningPlanSnapshot redo() {
+        if (redoSnapshots.isEmpty()) {
+            throw new IllegalStateException("There is no edit to redo.");
+        }
+        undoSnapshots.push(actualSnapshot);
+        setActualSnapshot(redoSnapshots.pop());
+        return actualSnapshot;
+    }
+
+    @NotNull
+    public RunningPlanSnapshot getActualSnapshot() {
+        return actualSnapshot;
+    }
+
+    /**
+     * Returns the count of all snapshots in the history, including the actual snapshot.
+     *
+     * @return The count of snapshots.
+     */
+    public int size() {
+        return undoSnapshots.size() + redoSnapshots.size() + 1;
+    }
+
+    /**
+     * Returns the estimated memory of the history, without the memory
+     * of the entries shared with the actual plan.
+     *
+     * @return The estimated memory in bytes.
+     */
+    public long getEstimatedBytes() {
+        return estimatedBytes;
+    }
+
+    private void setActualSnapshot(RunningPlanSnapshot snapshot) {
+        actualSnapshot = snapshot;
+        publisher.publish(snapshot);
+    }
+}
@@ -0,0 +1,214 @@
+package de.hirola.runningplanbuilder.model;
+
+import de.hirola.runningplanbuilder.util.PersistentList;
+import de.hirola.sportsapplications.model.RunningPlan;
+import de.hirola.sportsapplications.model.RunningPlanEntry;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Copyright 2022 by Michael Schmidt, Hirola Consulting
+ * This software us licensed under the AGPL-3.0 or later.
+ *
+ * The values of a running plan and its entries at a point in time.
+ *
+ * The snapshot is immutable. The entries are stored in a persistent list,
+ * so a snapshot derived from another shares all unchanged entries and
+ * an edit of a single entry costs O(log n) memory.
+ *
+ * @author Michael Schmidt (Hirola)
+ * @since v0.1
+ */
+public final class RunningPlanSnapshot {
+    private static final RunningPlanSnapshot EMPTY
+            = new RunningPlanSnapshot(null, PersistentList.empty(), 0);
+    private final RunningPlan runningPlan; // the plan in the model, only used to restore the values
+    private final String name;
+    private final String remarks;
+    private final int orderNumber;
+    private final PersistentList<RunningPlanEntrySnapshot> entries;
+    private final long estimatedBytes; // estimated memory, not shared with the previous snapshot
+
+    /**
+     * Creates a snapshot of the plan and all entries in O(n).
+     *
+     * @param runningPlan of the model, can be null
+     * @param entries of the model
+     * @return A snapshot of the plan and the entries.
+     */
+    public static RunningPlanSnapshot of(@Nullable RunningPlan runningPlan, @NotNull List<RunningPlanEntry> entries) {
+        List<RunningPlanEntrySnapshot> entrySnapshots = new ArrayList<>(entries.size());
+        long bytes = 0;
+        for (RunningPlanEntry entry: entries) {
+            RunningPlanEntrySnapshot entrySnapshot = new RunningPlanEntrySnapshot(entry);
+            entrySnapshots.add(entrySnapshot);
+            bytes += entrySnapshot.estimateBytes() + PersistentList.NODE_BYTES;
+        }
+        return new RunningPlanSnapshot(runningPlan, PersistentList.of(entrySnapshots), bytes);
+    }
+
+    public static RunningPlanSnapshot empty() {
+        return EMPTY;
+    }
+
+    @Nullable
+    public String getName() {
+        return name;
+    }
+
+    public Optional<String> getRemarks() {
+        return Optional.ofNullable(remarks);
+    }
+
+    public int getOrderNumber() {
+        return orderNumber;
+    }
+
+    public boolean hasRunningPlan() {
+        return runningPlan != null;
+    }
+
+    @NotNull
+    public PersistentList<RunningPlanEntrySnapshot> getEntries() {
+        return entries;
+    }
+
+    public long getEstimatedBytes() {
+        return estimatedBytes;
+    }
+
+    /**
+     * Returns the index of the snapshot, which was taken from the entry.
+     *
+     * @param entry of the model
+     * @return The index of the entry snapshot or -1, if no snapshot was taken from the entry.
+     */
+    public int indexOf(@NotNull RunningPlanEntry entry) {
+        int index = 0;
+        for (RunningPlanEntrySnapshot entrySnapshot: entries) {
+            if (entrySnapshot.isSnapshotOf(entry)) {
+                return index;
+            }
+            index++;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns a snapshot with the actual values of the plan.
+     *
+     * @param runningPlan of the model, can be null
+     * @return A new snapshot or this snapshot, if the values are not changed.
+     */
+    public RunningPlanSnapshot withRunningPlan(@Nullable RunningPlan runningPlan) {
+        if (runningPlan == this.runningPlan
+                && (runningPlan == null
+                    || (Objects.equals(runningPlan.getName(), name)
+                        && Objects.equals(runningPlan.getRemarks().orElse(null), remarks)
+                        && runningPlan.getOrderNumber() == orderNumber))) {
+            return this;
+        }
+        return new RunningPlanSnapshot(runningPlan, entries, 0);
+    }
+
+    /**
+     * Returns a snapshot with the entry added at the end.
+     *
+     * @param entry of the model
+     * @return A new snapshot, sharing all other entries.
+     */
+    public RunningPlanSnapshot withAddedEntry(@NotNull RunningPlanEntry entry) {
+        RunningPlanEntrySnapshot entrySnapshot = new RunningPlanEntrySnapshot(entry);
+        PersistentList<RunningPlanEntrySnapshot> newEntries = entries.add(entrySnapshot);
+        return new RunningPlanSnapshot(runningPlan, newEntries, estimateBytes(newEntries, entrySnapshot));
+    }
+
+    /**
+     * Returns a snapshot with the actual values of the entry at the index.
+     *
+     * @param index of the entry
+     * @param entry of the model
+     * @return A new snapshot, sharing all other entries.
+     */
+    public RunningPlanSnapshot withEntry(int index, @NotNull RunningPlanEntry entry) {
+        RunningPlanEntrySnapshot entrySnapshot = new RunningPlanEntrySnapshot(entry);
+        PersistentList<RunningPlanEntrySnapshot> newEntries = entries.set(index, entrySnapshot);
+        return new RunningPlanSnapshot(runningPlan, newEntries, estimateBytes(newEntries, entrySnapshot));
+    }
+
+    /**
+     * Returns a snapshot without the entry at the index.
+     *
+     * @param index of the entry
+     * @return A new snapshot, sharing all other entries.
+     */
+    public RunningPlanSnapshot withoutEntry(int index) {
+        PersistentList<RunningPlanEntrySnapshot> newEntries = entries.remove(index);
+        return new RunningPlanSnapshot(runningPlan, newEntries, estimateBytes(newEntries, null));
+    }
+
+    /**
+     * Writes the values back to the plan of the model.
+     * Must be called on the JavaFX application thread.
+     *
+     * @return The plan with the values of the snapshot or null, if the snapshot has no plan.
+     */
+    @Nullable
+    public RunningPlan restoreRunningPlan() {
+        if (runningPlan != null) {
+            runningPlan.setName(name);
+            if (!Objects.equals(runningPlan.getRemarks().orElse(null), remarks)) {
+                runningPlan.setRemarks(remarks == null ? "" : remarks);
+            }
+            runningPlan.setOrderNumber(orderNumber);
+        }
+        return runningPlan;
+    }
+
+    /**
+     * Writes the values back to the entries of the model.
+     * Must be called on the JavaFX application thread.
+     *
+     * @return A new list with the entries of the snapshot.
+     */
+    @NotNull
+    public List<RunningPlanEntry> restoreEntries() {
+        List<RunningPlanEntry> restoredEntries = new ArrayList<>(entries.size());
+        for (RunningPlanEntrySnapshot entrySnapshot: entries) {
+            restoredEntries.add(entrySnapshot.restore());
+        }
+        return restoredEntries;
+    }
+
+    private RunningPlanSnapshot(@Nullable RunningPlan runningPlan,
+                                @NotNull PersistentList<RunningPlanEntrySnapshot> entries,
+                                long estimatedBytes) {
+        this.runningPlan = runningPlan;
+        if (runningPlan != null) {
+            name = runningPlan.getName();
+            remarks = runningPlan.getRemarks().orElse(null);
+            orderNumber = runningPlan.getOrderNumber();
+        } else {
+            name = null;
+            remarks = null;
+            orderNumber = 0;
+        }
+        this.entries = entries;
+        this.estimatedBytes = estimatedBytes;
+    }
+
+    // a modification creates new nodes along the path in the tree
+    private static long estimateBytes(PersistentList<RunningPlanEntrySnapshot> entries,
+                                      @Nullable RunningPlanEntrySnapshot newEntry) {
+        long bytes = (long) (entries.height() + 1) * PersistentList.NODE_BYTES;
+        if (newEntry != null) {
+            bytes += newEntry.estimateBytes();
+        }
+        return bytes;
+    }
+}
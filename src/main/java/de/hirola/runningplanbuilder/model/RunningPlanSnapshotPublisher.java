@@ -0,0 +1,68 @@
+package de.hirola.runningplanbuilder.model;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Copyright 2022 by Michael Schmidt, Hirola Consulting
+ * This software us licensed under the AGPL-3.0 or later.
+ *
+ * Publishes the actual snapshot of the running plan for readers on other threads.
+ *
+ * The JavaFX application thread edits the plan and publishes a new immutable snapshot
+ * after each committed edit. Readers, e.g. an exporter or a validation, get the
+ * last published snapshot without locking and can use it as long as they need.
+ *
+ * @author Michael Schmidt (Hirola)
+ * @since v0.1
+ */
+public final class RunningPlanSnapshotPublisher {
+    private final AtomicReference<RunningPlanSnapshot> snapshot;
+    private final List<Consumer<RunningPlanSnapshot>> listeners;
+
+    public RunningPlanSnapshotPublisher() {
+        snapshot = new AtomicReference<>(RunningPlanSnapshot.empty());
+        listeners = new CopyOnWriteArrayList<>();
+    }
+
+    /**
+     * Returns the last published snapshot. Can be called from any thread.
+     *
+     * @return The last published snapshot.
+     */
+    @NotNull
+    public RunningPlanSnapshot getSnapshot() {
+        return snapshot.get();
+    }
+
+    /**
+     * Publishes the snapshot and informs the listeners, if the snapshot has changed.
+     *
+     * @param newSnapshot after an edit
+     */
+    public void publish(@NotNull RunningPlanSnapshot newSnapshot) {
+        if (snapshot.getAndSet(newSnapshot) != newSnapshot) {
+            for (Consumer<RunningPlanSnapshot> listener: listeners) {
+                listener.accept(newSnapshot);
+            }
+        }
+    }
+
+    /**
+     * Adds a listener for new snapshots. The listener is called on the thread,
+     * which publishes the snapshot, and must not block this thread.
+     *
+     * @param listener for new snapshots
+     */
+    public void addListener(@NotNull Consumer<RunningPlanSnapshot> listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(@NotNull Consumer<RunningPlanSnapshot> listener) {
+        listeners.remove(listener);
+    }
+}
@@ -0,0 +1,120 @@
+package de.hirola.runningplanbuilder.model;
+
+import de.hirola.runningplanbuilder.util.ApplicationResources;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+
+/**
+ * Copyright 2022 by Michael Schmidt, Hirola Consulting
+ * This software us licensed under the AGPL-3.0 or later.
+ *
+ * A helper class to view a week or an entry of a running plan in the tree table view.
+ * The row of a week shows the totals of the entries in the week.
+ *
+ * @author Michael Schmidt (Hirola)
+ * @since v0.1
+ */
+public class RunningPlanTreeTableObject {
+    private final RunningPlanEntrySnapshot entry;
+    private final String weekString;
+    private final String dayString;
+    private final String durationString;
+    private final String runningUnitsString;
+
+    /**
+     * Creates the row of a week.
+     *
+     * @param week of the entries
+     * @param entries of the week
+     * @return The row with the totals of the week.
+     */
+    public static RunningPlanTreeTableObject forWeek(int week, @NotNull List<RunningPlanEntrySnapshot> entries) {
+        ApplicationResources applicationResources = ApplicationResources.getInstance();
+        long duration = 0;
+        int runningUnits = 0;
+        for (RunningPlanEntrySnapshot entry: entries) {
+            duration += entry.getDuration();
+            runningUnits += entry.getRunningUnits().size();
+        }
+        return new RunningPlanTreeTableObject(null,
+                applicationResources.getString("misc.week") + " " + week,
+                entries.size() + " " + applicationResources.getString("mainView.tree.week.entries"),
+                duration + " min",
+                runningUnits + " " + applicationResources.getString("mainView.tree.week.runningUnits"));
+    }
+
+    /**
+     * Creates the row of an entry.
+     *
+     * @param entry of the plan
+     * @return The row of the entry.
+     */
+    public static RunningPlanTreeTableObject forEntry(@NotNull RunningPlanEntrySnapshot entry) {
+        ApplicationResources applicationResources = ApplicationResources.getInstance();
+        StringBuilder runningUnitsString = new StringBuilder();
+        for (RunningUnitSnapshot runningUnit: entry.getRunningUnits()) {
+            if (runningUnitsString.length() > 0) {
+                runningUnitsString.append(", ");
+            }
+            runningUnitsString
+                    .append(runningUnit.getDuration())
+                    .append(" min ")
+                    .append(runningUnit.getMovementType().getName());
+        }
+        return new RunningPlanTreeTableObject(entry,
+                String.valueOf(entry.getWeek()),
+                getWeekDayString(applicationResources, entry.getDay()),
+                entry.getDuration() + " min",
+                runningUnitsString.toString());
+    }
+
+    /**
+     * Returns the entry of the row.
+     *
+     * @return The entry or null, if the row shows a week.
+     */
+    @Nullable
+    public RunningPlanEntrySnapshot getEntry() {
+        return entry;
+    }
+
+    public String getWeekString() {
+        return weekString;
+    }
+
+    public String getDayString() {
+        return dayString;
+    }
+
+    public String getDurationString() {
+        return durationString;
+    }
+
+    public String getRunningUnitsString() {
+        return runningUnitsString;
+    }
+
+    private RunningPlanTreeTableObject(RunningPlanEntrySnapshot entry, String weekString, String dayString,
+                                       String durationString, String runningUnitsString) {
+        this.entry = entry;
+        this.weekString = weekString;
+        this.dayString = dayString;
+        this.durationString = durationString;
+        this.runningUnitsString = runningUnitsString;
+    }
+
+    private static String getWeekDayString(ApplicationResources applicationResources, int forDay) {
+        switch (forDay) {
+            case 1: return applicationResources.getString("monday");
+            case 2: return applicationResources.getString("tuesday");
+            case 3: return applicationResources.getString("wednesday");
+            case 4: return applicationResources.getString("thursday");
+            case 5: return applicationResources.getString("friday");
+            case 6: return applicationResources.getString("saturday");
+            case 7: return applicationResources.getString("sunday");
+        }
+        return "";
+    }
+}
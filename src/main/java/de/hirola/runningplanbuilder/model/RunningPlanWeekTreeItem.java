@@ -0,0 +1,78 @@
+package de.hirola.runningplanbuilder.model;
+
+import javafx.scene.control.TreeItem;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Copyright 2022 by Michael Schmidt, Hirola Consulting
+ * This software us licensed under the AGPL-3.0 or later.
+ *
+ * The tree item of a week in the tree table view.
+ *
+ * The items of the entries are created when the week is expanded and released when it is collapsed,
+ * so a collapsed plan needs only one item for each week.
+ *
+ * @author Michael Schmidt (Hirola)
+ * @since v0.1
+ */
+public class RunningPlanWeekTreeItem extends TreeItem<RunningPlanTreeTableObject> {
+    private final int week;
+    private final List<RunningPlanEntrySnapshot> entries;
+
+    public RunningPlanWeekTreeItem(int week, @NotNull List<RunningPlanEntrySnapshot> entries) {
+        super(RunningPlanTreeTableObject.forWeek(week, entries));
+        this.week = week;
+        this.entries = entries;
+        expandedProperty().addListener((observable, wasExpanded, isExpanded) -> {
+            if (isExpanded) {
+                createChildren();
+            } else {
+                getChildren().clear();
+            }
+        });
+    }
+
+    public int getWeek() {
+        return week;
+    }
+
+    public List<RunningPlanEntrySnapshot> getEntries() {
+        return entries;
+    }
+
+    /**
+     * Checks if the item shows the same entries, so the item can be kept for a new snapshot.
+     *
+     * @param week of the entries
+     * @param entries of the week
+     * @return True, if the item shows the same instances of the entries.
+     */
+    public boolean hasEntries(int week, @NotNull List<RunningPlanEntrySnapshot> entries) {
+        if (this.week != week || this.entries.size() != entries.size()) {
+            return false;
+        }
+        for (int i = 0; i < entries.size(); i++) {
+            if (this.entries.get(i) != entries.get(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean isLeaf() {
+        // the children of a collapsed week do not exist
+        return entries.isEmpty();
+    }
+
+    private void createChildren() {
+        List<TreeItem<RunningPlanTreeTableObject>> children = new ArrayList<>(entries.size());
+        for (RunningPlanEntrySnapshot entry: entries) {
+            children.add(new TreeItem<>(RunningPlanTreeTableObject.forEntry(entry)));
+        }
+        getChildren().setAll(children);
+    }
+}
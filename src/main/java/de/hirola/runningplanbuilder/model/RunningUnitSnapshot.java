@@ -0,0 +1,55 @@
+package de.hirola.runningplanbuilder.model;
+
+import de.hirola.sportsapplications.model.MovementType;
+import de.hirola.sportsapplications.model.RunningUnit;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Copyright 2022 by Michael Schmidt, Hirola Consulting
+ * This software us licensed under the AGPL-3.0 or later.
+ *
+ * The values of a running unit at a point in time.
+ *
+ * @author Michael Schmidt (Hirola)
+ * @since v0.1
+ */
+public final class RunningUnitSnapshot {
+    // estimated size in bytes (header, three fields)
+    static final int ESTIMATED_BYTES = 32;
+    private final RunningUnit runningUnit; // the unit in the model, only used to restore the values
+    private final long duration;
+    private final MovementType movementType;
+    private final String runningInfos;
+
+    public RunningUnitSnapshot(@NotNull RunningUnit runningUnit) {
+        this.runningUnit = runningUnit;
+        duration = runningUnit.getDuration();
+        movementType = runningUnit.getMovementType();
+        runningInfos = runningUnit.getRunningInfos();
+    }
+
+    public long getDuration() {
+        return duration;
+    }
+
+    public MovementType getMovementType() {
+        return movementType;
+    }
+
+    public String getRunningInfos() {
+        return runningInfos;
+    }
+
+    /**
+     * Writes the values back to the unit of the model.
+     * Must be called on the JavaFX application thread.
+     *
+     * @return The unit with the values of the snapshot.
+     */
+    @NotNull
+    public RunningUnit restore() {
+        runningUnit.setDuration(duration);
+        runningUnit.setMovementType(movementType);
+        return runningUnit;
+    }
+}
@@ -0,0 +1,58 @@
+package de.hirola.runningplanbuilder.model;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Optional;
+
+/**
+ * Copyright 2022 by Michael Schmidt, Hirola Consulting
+ * This software us licensed under the AGPL-3.0 or later.
+ *
+ * The values of a plan in the manifest of a series bundle.
+ *
+ * The plans of a series are chained by their order number. The manifest lists
+ * the plans in the order of the series, so the series is shown without reading
+ * the entries of the plans.
+ *
+ * @author Michael Schmidt (Hirola)
+ * @since v0.1
+ */
+public final class SeriesPlanMetadata {
+    private final String name;
+    private final int orderNumber;
+    private final String remarks; // null, if the plan has no remarks
+    private final int entryCount;
+    private final String fileName; // the file of the entries in the bundle
+
+    public SeriesPlanMetadata(@NotNull String name, int orderNumber, @Nullable String remarks,
+                              int entryCount, @NotNull String fileName) {
+        this.name = name;
+        this.orderNumber = orderNumber;
+        this.remarks = remarks;
+        this.entryCount = entryCount;
+        this.fileName = fileName;
+    }
+
+    @NotNull
+    public String getName() {
+        return name;
+    }
+
+    public int getOrderNumber() {
+        return orderNumber;
+    }
+
+    public Optional<String> getRemarks() {
+        return Optional.ofNullable(remarks);
+    }
+
+    public int getEntryCount() {
+        return entryCount;
+    }
+
+    @NotNull
+    public String getFileName() {
+        return fileName;
+    }
+}
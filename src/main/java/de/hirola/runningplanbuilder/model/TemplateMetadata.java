@@ -0,0 +1,90 @@
+package de.hirola.runningplanbuilder.model;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.file.Path;
+
+/**
+ * Copyright 2022 by Michael Schmidt, Hirola Consulting
+ * This software us licensed under the AGPL-3.0 or later.
+ *
+ * The values of a template file, shown in the template library.
+ *
+ * The values are read from the file without loading the plan. The size and
+ * the time of the last modification of the file are stored with the values,
+ * so a file is only read again, if it was changed.
+ *
+ * @author Michael Schmidt (Hirola)
+ * @since v0.1
+ */
+public final class TemplateMetadata {
+    private final Path path;
+    private final long size;
+    private final long lastModified;
+    private final String name; // null, if the file is not a template
+    private final int orderNumber;
+    private final int weeks;
+    private final long totalMinutes;
+
+    public TemplateMetadata(@NotNull Path path, long size, long lastModified,
+                            @Nullable String name, int orderNumber, int weeks, long totalMinutes) {
+        this.path = path;
+        this.size = size;
+        this.lastModified = lastModified;
+        this.name = name;
+        this.orderNumber = orderNumber;
+        this.weeks = weeks;
+        this.totalMinutes = totalMinutes;
+    }
+
+    @NotNull
+    public Path getPath() {
+        return path;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public long getLastModified() {
+        return lastModified;
+    }
+
+    /**
+     * Returns the name of the template.
+     *
+     * @return The name or null, if the file is not a template.
+     */
+    @Nullable
+    public String getName() {
+        return name;
+    }
+
+    public int getOrderNumber() {
+        return orderNumber;
+    }
+
+    public int getWeeks() {
+        return weeks;
+    }
+
+    public long getTotalMinutes() {
+        return totalMinutes;
+    }
+
+    public boolean isTemplate() {
+        return name != null;
+    }
+
+    /**
+     * Checks, if the values were read from the file in its actual version.
+     *
+     * @param actualSize of the file
+     * @param actualLastModified of the file
+     * @return True, if the file is unchanged.
+     */
+    public boolean isUpToDate(long actualSize, long actualLastModified) {
+        return size == actualSize && lastModified == actualLastModified;
+    }
+}
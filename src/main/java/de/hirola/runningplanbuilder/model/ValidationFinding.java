@@ -0,0 +1,44 @@
+package de.hirola.runningplanbuilder.model;
+
+import de.hirola.sportsapplications.model.UUID;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Copyright 2022 by Michael Schmidt, Hirola Consulting
+ * This software us licensed under the AGPL-3.0 or later.
+ *
+ * A violated rule of the validation, found in an entry of the running plan.
+ *
+ * @author Michael Schmidt (Hirola)
+ * @since v0.1
+ */
+public final class ValidationFinding {
+    private final ValidationRule rule;
+    private final UUID entryUUID;
+    private final int week;
+    private final int day;
+
+    public ValidationFinding(@NotNull ValidationRule rule, @NotNull RunningPlanEntrySnapshot entry) {
+        this.rule = rule;
+        entryUUID = entry.getUUID();
+        week = entry.getWeek();
+        day = entry.getDay();
+    }
+
+    @NotNull
+    public ValidationRule getRule() {
+        return rule;
+    }
+
+    public UUID getEntryUUID() {
+        return entryUUID;
+    }
+
+    public int getWeek() {
+        return week;
+    }
+
+    public int getDay() {
+        return day;
+    }
+}
@@ -0,0 +1,70 @@
+package de.hirola.runningplanbuilder.model;
+
+import de.hirola.sportsapplications.model.UUID;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Copyright 2022 by Michael Schmidt, Hirola Consulting
+ * This software us licensed under the AGPL-3.0 or later.
+ *
+ * The findings of the validation of a snapshot of the running plan.
+ * The result is immutable and can be passed between threads.
+ *
+ * @author Michael Schmidt (Hirola)
+ * @since v0.1
+ */
+public final class ValidationResult {
+    private final RunningPlanSnapshot snapshot;
+    private final List<ValidationFinding> findings;
+    private final Map<UUID, List<ValidationFinding>> findingsByEntry;
+
+    public ValidationResult(@NotNull RunningPlanSnapshot snapshot, @NotNull List<ValidationFinding> findings) {
+        this.snapshot = snapshot;
+        this.findings = Collections.unmodifiableList(new ArrayList<>(findings));
+        Map<UUID, List<ValidationFinding>> entryFindings = new HashMap<>();
+        for (ValidationFinding finding: findings) {
+            entryFindings.computeIfAbsent(finding.getEntryUUID(), uuid -> new ArrayList<>()).add(finding);
+        }
+        findingsByEntry = Collections.unmodifiableMap(entryFindings);
+    }
+
+    /**
+     * Returns the validated snapshot.
+     *
+     * @return The snapshot of the running plan.
+     */
+    @NotNull
+    public RunningPlanSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    @NotNull
+    public List<ValidationFinding> getFindings() {
+        return findings;
+    }
+
+    public boolean isValid() {
+        return findings.isEmpty();
+    }
+
+    /**
+     * Returns the findings of an entry.
+     *
+     * @param entryUUID of the entry
+     * @return The findings or an empty list, if the entry is valid.
+     */
+    @NotNull
+    public List<ValidationFinding> getFindings(UUID entryUUID) {
+        List<ValidationFinding> entryFindings = findingsByEntry.get(entryUUID);
+        if (entryFindings == null) {
+            return Collections.emptyList();
+        }
+        return Collections.unmodifiableList(entryFindings);
+    }
+}
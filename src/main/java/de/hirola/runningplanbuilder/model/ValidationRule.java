@@ -0,0 +1,27 @@
+package de.hirola.runningplanbuilder.model;
+
+/**
+ * Copyright 2022 by Michael Schmidt, Hirola Consulting
+ * This software us licensed under the AGPL-3.0 or later.
+ *
+ * The rules for the validation of a running plan.
+ *
+ * @author Michael Schmidt (Hirola)
+ * @since v0.1
+ */
+public enum ValidationRule {
+    EMPTY_ENTRY("emptyEntry"), // an entry without running units
+    ZERO_DURATION("zeroDuration"), // a running unit without duration
+    DUPLICATE_DAY("duplicateDay"), // more than one entry on a day
+    WEEK_GAP("weekGap"); // weeks without entries before the week of the entry
+
+    private final String key;
+
+    ValidationRule(String key) {
+        this.key = key;
+    }
+
+    public String getKey() {
+        return key;
+    }
+}
@@ -0,0 +1,154 @@
+package de.hirola.runningplanbuilder.util;
+
+import org.jetbrains.annotations.NotNull;
+import org.tinylog.Logger;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Copyright 2022 by Michael Schmidt, Hirola Consulting
+ * This software us licensed under the AGPL-3.0 or later.
+ *
+ * Counters and latency histograms of the app.
+ * The metrics are registered as MXBean and shown in the debug dialog.
+ *
+ * All counters are striped, so recording never contends on the FX thread.
+ *
+ * @author Michael Schmidt (Hirola)
+ * @since v0.1
+ */
+public final class ApplicationMetrics implements ApplicationMetricsMXBean {
+    public static final String OBJECT_NAME = "de.hirola.runningplanbuilder:type=Metrics";
+
+    public enum Operation {
+        IMPORT("import"),
+        EXPORT("export"),
+        ENTRY_EDIT("entryEdit"),
+        TABLE_REFRESH("tableRefresh"),
+        PREFERENCES_FLUSH("preferencesFlush"),
+        VALIDATION("validation"),
+        GENERATE("generate"),
+        BULK_EDIT("bulkEdit"),
+        CALENDAR_REDRAW("calendarRedraw"),
+        SEARCH("search"),
+        MERGE("merge"),
+        LIBRARY_SCAN("libraryScan"),
+        LIBRARY_COMPRESS("libraryCompress"),
+        RELOAD("reload");
+
+        private final String key;
+
+        Operation(String key) {
+            this.key = key;
+        }
+
+        public String getKey() {
+            return key;
+        }
+    }
+
+    public enum Counter {
+        CACHE_HIT("cacheHit"),
+        CACHE_MISS("cacheMiss"),
+        TABLE_CHANGE("tableChange"), // change events of the items of the tables
+        LAYOUT_PASS("layoutPass"); // layout passes of the main view
+
+        private final String key;
+
+        Counter(String key) {
+            this.key = key;
+        }
+
+        public String getKey() {
+            return key;
+        }
+    }
+
+    // created eager, the metrics are recorded from different threads
+    private static final ApplicationMetrics instance = new ApplicationMetrics();
+    // the maps are filled in the constructor and never changed
+    private final Map<Operation, LatencyHistogram> histograms;
+    private final Map<Counter, LongAdder> counters;
+
+    public static ApplicationMetrics getInstance() {
+        return instance;
+    }
+
+    /**
+     * Registers the metrics at the platform MBean server.
+     */
+    public void register() {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, new ObjectName(OBJECT_NAME));
+        } catch (InstanceAlreadyExistsException exception) {
+            // already registered
+        } catch (JMException | SecurityException exception) {
+            Logger.warn(exception, "The metrics could not be registered.");
+        }
+    }
+
+    /**
+     * Records the duration of an operation.
+     *
+     * @param operation of the app
+     * @param nanos duration in nanoseconds
+     */
+    public void record(@NotNull Operation operation, long nanos) {
+        histograms.get(operation).record(nanos);
+    }
+
+    public void increment(@NotNull Counter counter) {
+        counters.get(counter).increment();
+    }
+
+    @NotNull
+    public LatencySummary getLatency(@NotNull Operation operation) {
+        return new LatencySummary(histograms.get(operation));
+    }
+
+    public long getCount(@NotNull Counter counter) {
+        return counters.get(counter).sum();
+    }
+
+    @Override
+    public Map<String, Long> getCounters() {
+        Map<String, Long> values = new LinkedHashMap<>();
+        for (Counter counter: Counter.values()) {
+            values.put(counter.getKey(), getCount(counter));
+        }
+        return values;
+    }
+
+    @Override
+    public Map<String, LatencySummary> getLatencies() {
+        Map<String, LatencySummary> values = new LinkedHashMap<>();
+        for (Operation operation: Operation.values()) {
+            values.put(operation.getKey(), getLatency(operation));
+        }
+        return values;
+    }
+
+    @Override
+    public void reset() {
+        histograms.values().forEach(LatencyHistogram::reset);
+        counters.values().forEach(LongAdder::reset);
+    }
+
+    private ApplicationMetrics() {
+        histograms = new EnumMap<>(Operation.class);
+        for (Operation operation: Operation.values()) {
+            histograms.put(operation, new LatencyHistogram());
+        }
+        counters = new EnumMap<>(Counter.class);
+        for (Counter counter: Counter.values()) {
+            counters.put(counter, new LongAdder());
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package de.hirola.runningplanbuilder.util;
+
+import java.util.Map;
+
+/**
+ * Copyright 2022 by Michael Schmidt, Hirola Consulting
+ * This software us licensed under the AGPL-3.0 or later.
+ *
+ * Management interface of the app metrics, e.g. for JConsole or VisualVM.
+ *
+ * @author Michael Schmidt (Hirola)
+ * @since v0.1
+ */
+public interface ApplicationMetricsMXBean {
+
+    /**
+     * Returns the counters, e.g. cache hits and misses.
+     *
+     * @return The actual value for each counter.
+     */
+    Map<String, Long> getCounters();
+
+    /**
+     * Returns the latencies of the operations, e.g. imports and exports.
+     *
+     * @return The count and percentiles for each operation.
+     */
+    Map<String, LatencySummary> getLatencies();
+
+    /**
+     * Resets all counters and latencies.
+     */
+    void reset();
+}
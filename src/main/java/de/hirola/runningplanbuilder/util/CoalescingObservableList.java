@@ -0,0 +1,130 @@
+package de.hirola.runningplanbuilder.util;
+
+import javafx.application.Platform;
+import javafx.beans.value.ChangeListener;
+import javafx.collections.ModifiableObservableListBase;
+import javafx.scene.Node;
+import javafx.scene.Scene;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Copyright 2022 by Michael Schmidt, Hirola Consulting
+ * This software us licensed under the AGPL-3.0 or later.
+ *
+ * An observable list, which collects all changes until the next pulse.
+ *
+ * The items of a table view are replaced several times in a single action,
+ * e.g. clear and add for each refresh. Each change of a plain observable list
+ * updates the table and requests a new layout. If the list is attached to the table,
+ * the first change opens a change set, which is closed before the layout of the next pulse.
+ * So the listeners get all changes of the pulse as a single change event.
+ * The content of the list is always up to date, only the change event is delayed.
+ *
+ * The list must be used on the JavaFX application thread.
+ *
+ * @param <E> type of the elements
+ * @author Michael Schmidt (Hirola)
+ * @since v0.1
+ */
+public final class CoalescingObservableList<E> extends ModifiableObservableListBase<E> {
+    private final List<E> elements;
+    private final Runnable pulseListener;
+    private final ChangeListener<Scene> sceneListener;
+    private Scene scene; // the changes are collected, if the list is attached to a scene
+    private boolean changeSetOpen;
+    private int batchDepth;
+
+    public CoalescingObservableList() {
+        elements = new ArrayList<>();
+        pulseListener = this::flush;
+        sceneListener = (observable, oldScene, newScene) -> setScene(newScene);
+    }
+
+    /**
+     * Collects the changes until the next pulse of the scene of the node,
+     * usually the table view, which shows the list.
+     *
+     * @param node which shows the list
+     */
+    public void attachTo(@NotNull Node node) {
+        node.sceneProperty().addListener(sceneListener);
+        setScene(node.getScene());
+    }
+
+    /**
+     * Opens a change set. All changes until the matching {@link #endBatch()}
+     * are sent as a single change event, also without a scene.
+     */
+    public void beginBatch() {
+        batchDepth++;
+        beginChange();
+    }
+
+    public void endBatch() {
+        if (batchDepth > 0) {
+            batchDepth--;
+            endChange();
+        }
+    }
+
+    /**
+     * Sends the collected changes to the listeners.
+     */
+    public void flush() {
+        if (changeSetOpen) {
+            changeSetOpen = false;
+            endChange();
+        }
+    }
+
+    @Override
+    public E get(int index) {
+        return elements.get(index);
+    }
+
+    @Override
+    public int size() {
+        return elements.size();
+    }
+
+    @Override
+    protected void doAdd(int index, E element) {
+        openChangeSet();
+        elements.add(index, element);
+    }
+
+    @Override
+    protected E doSet(int index, E element) {
+        openChangeSet();
+        return elements.set(index, element);
+    }
+
+    @Override
+    protected E doRemove(int index) {
+        openChangeSet();
+        return elements.remove(index);
+    }
+
+    private void openChangeSet() {
+        if (scene != null && !changeSetOpen) {
+            changeSetOpen = true;
+            beginChange();
+            // the change set is closed in the pre layout listener
+            Platform.requestNextPulse();
+        }
+    }
+
+    private void setScene(Scene newScene) {
+        if (scene != null) {
+            scene.removePreLayoutPulseListener(pulseListener);
+            flush();
+        }
+        scene = newScene;
+        if (scene != null) {
+            scene.addPreLayoutPulseListener(pulseListener);
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package de.hirola.runningplanbuilder.util;
+
+import de.hirola.runningplanbuilder.Global;
+import org.jetbrains.annotations.NotNull;
+import org.tinylog.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Locale;
+import java.util.function.LongConsumer;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Copyright 2022 by Michael Schmidt, Hirola Consulting
+ * This software us licensed under the AGPL-3.0 or later.
+ *
+ * Reading and writing of plan files compressed with gzip, e.g. "plan.json.gz".
+ *
+ * Compressed files are detected by the header of the file, not by the name. The files are
+ * inflated and deflated as streams with a small buffer, a file is never read into the memory.
+ * The sports library reads and writes only uncompressed files, so for the library the file
+ * is streamed from or to a temporary file, which is deleted afterwards.
+ *
+ * @author Michael Schmidt (Hirola)
+ * @since v0.1
+ */
+public final class CompressedFiles {
+    // the first bytes of a gzip file
+    private static final int GZIP_MAGIC_FIRST_BYTE = 0x1f;
+    private static final int GZIP_MAGIC_SECOND_BYTE = 0x8b;
+
+    /**
+     * Reads an uncompressed file, e.g. with the sports library.
+     *
+     * @param <T> the type of the read object
+     * @param <E> the exception of the reader
+     */
+    public interface PlanFileReader<T, E extends Exception> {
+        T read(@NotNull File file) throws E;
+    }
+
+    /**
+     * Writes an uncompressed file, e.g. with the sports library.
+     *
+     * @param <E> the exception of the writer
+     */
+    public interface PlanFileWriter<E extends Exception> {
+        void write(@NotNull File file) throws E;
+    }
+
+    private CompressedFiles() {}
+
+    /**
+     * Checks the header of the file.
+     *
+     * @param file to check
+     * @return True, if the file is compressed with gzip.
+     * @throws IOException if the file can not be read
+     */
+    public static boolean isCompressed(@NotNull File file) throws IOException {
+        try (InputStream inputStream = Files.newInputStream(file.toPath())) {
+            return inputStream.read() == GZIP_MAGIC_FIRST_BYTE && inputStream.read() == GZIP_MAGIC_SECOND_BYTE;
+        }
+    }
+
+    /**
+     * Checks the name of the file, e.g. of a file which is not yet written.
+     *
+     * @param file to check
+     * @return True, if the file should be compressed with gzip.
+     */
+    public static boolean isCompressedName(@NotNull File file) {
+        return file.getName().toLowerCase(Locale.ROOT).endsWith(Global.GZIP_FILE_EXTENSION);
+    }
+
+    /**
+     * Opens a buffered stream of the file, a compressed file is inflated while reading.
+     *
+     * @param file to read
+     * @return The uncompressed content of the file.
+     * @throws IOException if the file can not be read
+     */
+    @NotNull
+    public static InputStream newInputStream(@NotNull Path file) throws IOException {
+        BufferedInputStream inputStream = new BufferedInputStream(Files.newInputStream(file),
+                Global.CompressionPreferences.BUFFER_SIZE);
+        try {
+            inputStream.mark(2);
+            boolean isCompressed = inputStream.read() == GZIP_MAGIC_FIRST_BYTE
+                    && inputStream.read() == GZIP_MAGIC_SECOND_BYTE;
+            inputStream.reset();
+            if (isCompressed) {
+                return new GZIPInputStream(inputStream, Global.CompressionPreferences.BUFFER_SIZE);
+            }
+            return inputStream;
+        } catch (IOException exception) {
+            inputStream.close();
+            throw exception;
+        }
+    }
+
+    /**
+     * Reads the file with a reader for uncompressed files. A compressed file is inflated
+     * to a temporary file for the reader.
+     *
+     * @param file to read, compressed or not
+     * @param reader for the uncompressed file
+     * @param <T> the type of the read object
+     * @param <E> the exception of the reader
+     * @return The object of the reader.
+     * @throws IOException if the file can not be inflated
+     * @throws E if the reader fails
+     */
+    public static <T, E extends Exception> T read(@NotNull File file, @NotNull PlanFileReader<T, E> reader)
+            throws IOException, E {
+        return read(file, reader, uncompressedBytes -> {});
+    }
+
+    /**
+     * Reads the file with a reader for uncompressed files and reports the uncompressed size,
+     * which is read by the reader. A compressed file is inflated to a temporary file for the reader.
+     *
+     * @param file to read, compressed or not
+     * @param reader for the uncompressed file
+     * @param uncompressedBytesListener called with the count of the uncompressed bytes, before the reader is called
+     * @param <T> the type of the read object
+     * @param <E> the exception of the reader
+     * @return The object of the reader.
+     * @throws IOException if the file can not be inflated
+     * @throws E if the reader fails
+     */
+    public static <T, E extends Exception> T read(@NotNull File file, @NotNull PlanFileReader<T, E> reader,
+                                                  @NotNull LongConsumer uncompressedBytesListener)
+            throws IOException, E {
+        if (!isCompressed(file)) {
+            // the reader reads the whole file
+            uncompressedBytesListener.accept(file.length());
+            return reader.read(file);
+        }
+        Path temporaryFile = Files.createTempFile("runningplan", getUncompressedExtension(file));
+        try {
+            try (CountingInputStream inputStream = new CountingInputStream(newInputStream(file.toPath()));
+                 OutputStream outputStream = Files.newOutputStream(temporaryFile)) {
+                copy(inputStream, outputStream);
+                uncompressedBytesListener.accept(inputStream.getCount());
+            }
+            return reader.read(temporaryFile.toFile());
+        } finally {
+            deleteQuietly(temporaryFile);
+        }
+    }
+
+    /**
+     * Writes the file with a writer for uncompressed files. If the name of the file ends with ".gz",
+     * the writer writes to a temporary file, which is compressed to the file.
+     *
+     * @param file to write
+     * @param writer for the uncompressed file
+     * @param <E> the exception of the writer
+     * @throws IOException if the file can not be compressed
+     * @throws E if the writer fails
+     */
+    public static <E extends Exception> void write(@NotNull File file, @NotNull PlanFileWriter<E> writer)
+            throws IOException, E {
+        if (!isCompressedName(file)) {
+            writer.write(file);
+            return;
+        }
+        Path temporaryFile = Files.createTempFile("runningplan", getUncompressedExtension(file));
+        try {
+            writer.write(temporaryFile.toFile());
+            compress(temporaryFile, file.toPath());
+        } finally {
+            deleteQuietly(temporaryFile);
+        }
+    }
+
+    /**
+     * Compresses the source to the target. The target is replaced, after the source is compressed completely.
+     *
+     * @param source to compress
+     * @param target of the compressed source
+     * @return The size of the compressed file.
+     * @throws IOException if the source can not be read or the target can not be written
+     */
+    public static long compress(@NotNull Path source, @NotNull Path target) throws IOException {
+        Path temporaryFile = target.resolveSibling(target.getFileName() + ".tmp");
+        try {
+            try (InputStream inputStream = Files.newInputStream(source);
+                 OutputStream outputStream = new GZIPOutputStream(Files.newOutputStream(temporaryFile),
+                         Global.CompressionPreferences.BUFFER_SIZE)) {
+                copy(inputStream, outputStream);
+            }
+            long compressedSize = Files.size(temporaryFile);
+            try {
+                Files.move(temporaryFile, target, StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException exception) {
+                Files.move(temporaryFile, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return compressedSize;
+        } finally {
+            deleteQuietly(temporaryFile);
+        }
+    }
+
+    private static void copy(InputStream inputStream, OutputStream outputStream) throws IOException {
+        byte[] buffer = new byte[Global.CompressionPreferences.BUFFER_SIZE];
+        int count;
+        while ((count = inputStream.read(buffer)) > -1) {
+            outputStream.write(buffer, 0, count);
+        }
+    }
+
+    // e.g. ".json" for "plan.json.gz", the reader of the library may check the extension
+    private static String getUncompressedExtension(File file) {
+        String name = file.getName();
+        if (isCompressedName(file)) {
+            name = name.substring(0, name.length() - Global.GZIP_FILE_EXTENSION.length());
+        }
+        int index = name.lastIndexOf('.');
+        return index > -1 ? name.substring(index) : "";
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException exception) {
+            Logger.debug(exception, "The temporary file {} could not be deleted.", file);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package de.hirola.runningplanbuilder.util;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Copyright 2022 by Michael Schmidt, Hirola Consulting
+ * This software us licensed under the AGPL-3.0 or later.
+ *
+ * Counts the bytes read from a stream, e.g. the uncompressed bytes of an imported file.
+ *
+ * @author Michael Schmidt (Hirola)
+ * @since v0.1
+ */
+public final class CountingInputStream extends FilterInputStream {
+    private long count;
+
+    public CountingInputStream(@NotNull InputStream inputStream) {
+        super(inputStream);
+    }
+
+    /**
+     * Returns the count of the bytes read or skipped.
+     *
+     * @return The count of the bytes.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int value = super.read();
+        if (value > -1) {
+            count++;
+        }
+        return value;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        int readCount = super.read(buffer, offset, length);
+        if (readCount > 0) {
+            count += readCount;
+        }
+        return readCount;
+    }
+
+    @Override
+    public long skip(long length) throws IOException {
+        long skipCount = super.skip(length);
+        count += skipCount;
+        return skipCount;
+    }
+
+    // the count can not be reset
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+}
@@ -0,0 +1,30 @@
+package de.hirola.runningplanbuilder.util;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Copyright 2022 by Michael Schmidt, Hirola Consulting
+ * This software us licensed under the AGPL-3.0 or later.
+ *
+ * Flight recorder event for opening a dialog.
+ * The duration covers loading the fxml until the dialog is shown,
+ * the time the user works with the dialog is not included.
+ *
+ * @author Michael Schmidt (Hirola)
+ * @since v0.1
+ */
+@Name("de.hirola.runningplanbuilder.DialogOpen")
+@Label("Dialog Open")
+@Category({"RunningPlanBuilder", "JavaFX"})
+public class DialogOpenEvent extends Event {
+    @Label("Dialog")
+    private final String dialog;
+
+    public DialogOpenEvent(@NotNull String dialog) {
+        this.dialog = dialog;
+    }
+}
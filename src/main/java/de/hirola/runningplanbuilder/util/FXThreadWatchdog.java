@@ -0,0 +1,142 @@
+package de.hirola.runningplanbuilder.util;
+
+import de.hirola.runningplanbuilder.Global;
+import javafx.application.Platform;
+import javafx.scene.Node;
+import javafx.scene.Scene;
+import javafx.scene.control.MenuItem;
+import org.jetbrains.annotations.NotNull;
+import org.tinylog.Logger;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Copyright 2022 by Michael Schmidt, Hirola Consulting
+ * This software us licensed under the AGPL-3.0 or later.
+ *
+ * Detects stalls of the JavaFX application thread.
+ *
+ * A daemon thread posts a heartbeat to the FX thread in a fixed interval.
+ * If the heartbeat is not processed within the threshold, the stack of the FX thread
+ * is logged together with the last user action. In addition, the duration of css and layout
+ * in each pulse of the monitored scenes is measured.
+ * Both measurements only need a few nanoTime calls, so the watchdog can be used in production.
+ *
+ * @author Michael Schmidt (Hirola)
+ * @since v0.1
+ */
+public final class FXThreadWatchdog {
+    private static FXThreadWatchdog instance = null;
+    private ScheduledExecutorService executorService;
+    private volatile Thread fxThread;
+    private volatile String lastAction = "none"; // the last action triggered by the user
+    private volatile long lastActionNanos;
+    private volatile long heartbeatPostedNanos; // 0, if no heartbeat is pending
+    private volatile boolean stallReported;
+    private long pulseStartNanos;
+
+    public static FXThreadWatchdog getInstance() {
+        if (instance == null) {
+            instance = new FXThreadWatchdog();
+        }
+        return instance;
+    }
+
+    /**
+     * Starts the watchdog. Must be called on the JavaFX application thread.
+     */
+    public void start() {
+        if (executorService != null) {
+            return;
+        }
+        fxThread = Thread.currentThread();
+        executorService = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "fx-thread-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executorService.scheduleWithFixedDelay(this::checkHeartbeat,
+                Global.FXThreadWatchdogPreferences.HEARTBEAT_INTERVAL_MILLIS,
+                Global.FXThreadWatchdogPreferences.HEARTBEAT_INTERVAL_MILLIS,
+                TimeUnit.MILLISECONDS);
+    }
+
+    public boolean isRunning() {
+        return executorService != null;
+    }
+
+    /**
+     * Measures the css and layout time of each pulse of the scene.
+     *
+     * @param scene to be monitored
+     */
+    public void monitorScene(@NotNull Scene scene) {
+        scene.addPreLayoutPulseListener(() -> pulseStartNanos = System.nanoTime());
+        scene.addPostLayoutPulseListener(() -> {
+            long pulseMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - pulseStartNanos);
+            if (pulseMillis > Global.FXThreadWatchdogPreferences.PULSE_THRESHOLD_MILLIS) {
+                Logger.warn("Slow pulse: css and layout took {} ms, last action: {}.", pulseMillis, lastAction);
+            }
+        });
+    }
+
+    /**
+     * Remembers the action triggered by the user, the source of an event handler.
+     * The action is logged if the FX thread stalls.
+     *
+     * @param source of the event
+     */
+    public void actionStarted(@NotNull Object source) {
+        String action = null;
+        if (source instanceof MenuItem) {
+            action = ((MenuItem) source).getId();
+            if (action == null) {
+                action = ((MenuItem) source).getText();
+            }
+        } else if (source instanceof Node) {
+            action = ((Node) source).getId();
+        }
+        lastAction = action != null ? action : source.getClass().getSimpleName();
+        lastActionNanos = System.nanoTime();
+    }
+
+    private FXThreadWatchdog() {}
+
+    // called from the watchdog thread
+    private void checkHeartbeat() {
+        long postedNanos = heartbeatPostedNanos;
+        if (postedNanos == 0) {
+            heartbeatPostedNanos = System.nanoTime();
+            Platform.runLater(this::onHeartbeat);
+            return;
+        }
+        long pendingMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - postedNanos);
+        if (pendingMillis > Global.FXThreadWatchdogPreferences.STALL_THRESHOLD_MILLIS && !stallReported) {
+            stallReported = true;
+            Logger.warn("The FX thread is blocked for {} ms, last action: {} (started {} ms ago).\n{}",
+                    pendingMillis, lastAction,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - lastActionNanos),
+                    stackTraceToString(fxThread.getStackTrace()));
+        }
+    }
+
+    // called on the FX thread
+    private void onHeartbeat() {
+        if (stallReported) {
+            Logger.warn("The FX thread was blocked for {} ms, last action: {}.",
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - heartbeatPostedNanos), lastAction);
+            stallReported = false;
+        }
+        heartbeatPostedNanos = 0;
+    }
+
+    private String stackTraceToString(StackTraceElement[] stackTrace) {
+        StringBuilder stackTraceString = new StringBuilder();
+        for (StackTraceElement element: stackTrace) {
+            stackTraceString.append("\tat ").append(element).append('\n');
+        }
+        return stackTraceString.toString();
+    }
+}
@@ -0,0 +1,89 @@
+package de.hirola.runningplanbuilder.util;
+
+import de.hirola.runningplanbuilder.Global;
+import de.hirola.runningplanbuilder.RunningPlanBuilder;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Copyright 2022 by Michael Schmidt, Hirola Consulting
+ * This software us licensed under the AGPL-3.0 or later.
+ *
+ * Starts and stops a flight recording from the app.
+ *
+ * The recording uses the default settings of the JDK and the settings of the app events
+ * from the JFC file, which can also be used on the command line.
+ *
+ * @author Michael Schmidt (Hirola)
+ * @since v0.1
+ */
+public final class FlightRecording {
+    private static FlightRecording instance = null;
+    private Recording recording;
+
+    public static FlightRecording getInstance() {
+        if (instance == null) {
+            instance = new FlightRecording();
+        }
+        return instance;
+    }
+
+    public boolean isRecording() {
+        return recording != null;
+    }
+
+    /**
+     * Starts a new recording, if not already started.
+     *
+     * @throws IOException if the settings could not be read
+     * @throws ParseException if the settings could not be parsed
+     */
+    public void start() throws IOException, ParseException {
+        if (recording != null) {
+            return;
+        }
+        Map<String, String> settings = new HashMap<>(Configuration.getConfiguration("default").getSettings());
+        InputStream inputStream = RunningPlanBuilder.class.getResourceAsStream(Global.JFR_SETTINGS);
+        if (inputStream == null) {
+            throw new IOException("The flight recorder settings are missing.");
+        }
+        try (Reader reader = new InputStreamReader(inputStream, StandardCharsets.UTF_8)) {
+            settings.putAll(Configuration.create(reader).getSettings());
+        }
+        recording = new Recording(settings);
+        recording.setName(RunningPlanBuilder.class.getSimpleName());
+        recording.start();
+    }
+
+    /**
+     * Stops the recording and saves it to the file.
+     *
+     * @param path of the recording file
+     * @throws IOException if the recording could not be saved
+     */
+    public void stop(@NotNull Path path) throws IOException {
+        if (recording == null) {
+            return;
+        }
+        try {
+            recording.stop();
+            recording.dump(path);
+        } finally {
+            recording.close();
+            recording = null;
+        }
+    }
+
+    private FlightRecording() {}
+}
@@ -0,0 +1,206 @@
+package de.hirola.runningplanbuilder.util;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+
+/**
+ * Copyright 2022 by Michael Schmidt, Hirola Consulting
+ * This software us licensed under the AGPL-3.0 or later.
+ *
+ * An in-memory inverted index of texts.
+ *
+ * The terms of the texts are mapped to the keys of the documents, which contain the term.
+ * The terms are sorted, so each term of a query matches all terms with the term as prefix.
+ * A document can be replaced or removed at any time, only the terms of the document are updated.
+ * The index is not thread safe.
+ *
+ * @param <K> type of the keys of the documents
+ * @author Michael Schmidt (Hirola)
+ * @since v0.1
+ */
+public final class FullTextIndex<K> {
+    private final TextTokenizer tokenizer;
+    private final NavigableMap<String, Set<K>> postings;
+    private final Map<K, Set<String>> termsOfDocuments;
+
+    public FullTextIndex(@NotNull TextTokenizer tokenizer) {
+        this.tokenizer = tokenizer;
+        postings = new TreeMap<>();
+        termsOfDocuments = new HashMap<>();
+    }
+
+    /**
+     * Adds a document or replaces the document with the same key.
+     *
+     * @param key of the document
+     * @param texts of the document
+     */
+    public void put(@NotNull K key, @NotNull Collection<String> texts) {
+        Set<String> terms = new HashSet<>();
+        for (String text: texts) {
+            terms.addAll(tokenizer.tokenize(text));
+        }
+        Set<String> oldTerms = termsOfDocuments.get(key);
+        if (terms.equals(oldTerms)) {
+            return;
+        }
+        remove(key);
+        if (terms.isEmpty()) {
+            return;
+        }
+        for (String term: terms) {
+            postings.computeIfAbsent(term, t -> new HashSet<>()).add(key);
+        }
+        termsOfDocuments.put(key, terms);
+    }
+
+    public void remove(@NotNull K key) {
+        Set<String> terms = termsOfDocuments.remove(key);
+        if (terms == null) {
+            return;
+        }
+        for (String term: terms) {
+            Set<K> keys = postings.get(term);
+            keys.remove(key);
+            if (keys.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+    }
+
+    public void clear() {
+        postings.clear();
+        termsOfDocuments.clear();
+    }
+
+    public boolean contains(@NotNull K key) {
+        return termsOfDocuments.containsKey(key);
+    }
+
+    /**
+     * Returns the count of documents with at least one term.
+     *
+     * @return The count of the indexed documents.
+     */
+    public int size() {
+        return termsOfDocuments.size();
+    }
+
+    public int getTermCount() {
+        return postings.size();
+    }
+
+    /**
+     * Searches the documents, which contain all terms of the query.
+     * Each term of the query matches the terms of the documents with the term as prefix.
+     * The documents of the term with the fewest documents are checked against the other terms,
+     * so the time depends on the rarest term and not on the size of the index.
+     *
+     * @param query of the user
+     * @return The keys of the found documents. A query without terms finds no documents.
+     */
+    @NotNull
+    public Set<K> search(@NotNull String query) {
+        List<List<Set<K>>> postingsOfQuery = findPostings(tokenizer.tokenize(query));
+        if (postingsOfQuery.isEmpty()) {
+            return Set.of();
+        }
+        // the term with the fewest documents drives the search
+        postingsOfQuery.sort(Comparator.comparingLong(FullTextIndex::countKeys));
+        Predicate<K> otherTerms = createMatcher(postingsOfQuery.subList(1, postingsOfQuery.size()));
+        Set<K> result = new HashSet<>();
+        for (Set<K> keys: postingsOfQuery.get(0)) {
+            for (K key: keys) {
+                if (otherTerms.test(key)) {
+                    result.add(key);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Creates a test for documents, which contain all terms of the query.
+     * The test does not collect the found documents, it checks a single document with a few lookups.
+     * So filtering a list of documents only depends on the size of the list.
+     * The test uses the sets of the index, so it must be created again after changes of the index.
+     *
+     * @param query of the user
+     * @return The test of the keys. A query without terms, e.g. a single letter while typing,
+     *         matches all documents.
+     */
+    @NotNull
+    public Predicate<K> createMatcher(@NotNull String query) {
+        List<String> queryTerms = tokenizer.tokenize(query);
+        if (queryTerms.isEmpty()) {
+            return key -> true;
+        }
+        List<List<Set<K>>> postingsOfQuery = findPostings(queryTerms);
+        if (postingsOfQuery.isEmpty()) {
+            return key -> false;
+        }
+        return createMatcher(postingsOfQuery);
+    }
+
+    // the sets of documents of the terms with a query term as prefix, empty if a query term has no documents
+    private List<List<Set<K>>> findPostings(List<String> queryTerms) {
+        List<List<Set<K>>> postingsOfQuery = new ArrayList<>(queryTerms.size());
+        for (String queryTerm: queryTerms) {
+            List<Set<K>> postingsOfTerm = new ArrayList<>(
+                    postings.subMap(queryTerm, true, queryTerm + Character.MAX_VALUE, false).values());
+            if (postingsOfTerm.isEmpty()) {
+                return List.of();
+            }
+            postingsOfQuery.add(postingsOfTerm);
+        }
+        return postingsOfQuery;
+    }
+
+    private static <K> Predicate<K> createMatcher(List<List<Set<K>>> postingsOfQuery) {
+        // terms with fewer prefix matches first, they need fewer lookups
+        List<List<Set<K>>> sortedPostingsOfQuery = new ArrayList<>(postingsOfQuery);
+        sortedPostingsOfQuery.sort(Comparator.comparingInt(List::size));
+        List<Predicate<K>> termMatchers = new ArrayList<>(sortedPostingsOfQuery.size());
+        for (List<Set<K>> postingsOfTerm: sortedPostingsOfQuery) {
+            if (postingsOfTerm.size() == 1) {
+                termMatchers.add(postingsOfTerm.get(0)::contains);
+            } else {
+                termMatchers.add(key -> {
+                    for (Set<K> keys: postingsOfTerm) {
+                        if (keys.contains(key)) {
+                            return true;
+                        }
+                    }
+                    return false;
+                });
+            }
+        }
+        return key -> {
+            for (Predicate<K> termMatcher: termMatchers) {
+                if (!termMatcher.test(key)) {
+                    return false;
+                }
+            }
+            return true;
+        };
+    }
+
+    private static <K> long countKeys(List<Set<K>> postingsOfTerm) {
+        long count = 0;
+        for (Set<K> keys: postingsOfTerm) {
+            count += keys.size();
+        }
+        return count;
+    }
+}
@@ -0,0 +1,122 @@
+package de.hirola.runningplanbuilder.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Copyright 2022 by Michael Schmidt, Hirola Consulting
+ * This software us licensed under the AGPL-3.0 or later.
+ *
+ * A latency histogram with log-linear buckets like the HdrHistogram.
+ *
+ * The values are recorded in microseconds. Each power of two is divided in 32 sub buckets,
+ * so the percentiles have a relative error of about 3 percent. Recording a value is lock free,
+ * the count and the sum are striped.
+ *
+ * @author Michael Schmidt (Hirola)
+ * @since v0.1
+ */
+public final class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_VALUE_BITS = 36; // about 19 hours in microseconds
+    private static final long MAX_VALUE = (1L << MAX_VALUE_BITS) - 1;
+    private final AtomicLongArray buckets;
+    private final LongAdder count;
+    private final LongAdder sum;
+    private final LongAccumulator max;
+
+    public LatencyHistogram() {
+        buckets = new AtomicLongArray(bucketIndex(MAX_VALUE) + 1);
+        count = new LongAdder();
+        sum = new LongAdder();
+        max = new LongAccumulator(Long::max, 0);
+    }
+
+    /**
+     * Records a duration.
+     *
+     * @param nanos duration in nanoseconds
+     */
+    public void record(long nanos) {
+        long micros = Math.min(Math.max(TimeUnit.NANOSECONDS.toMicros(nanos), 0), MAX_VALUE);
+        buckets.incrementAndGet(bucketIndex(micros));
+        count.increment();
+        sum.add(micros);
+        max.accumulate(micros);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Returns the mean of the recorded durations.
+     *
+     * @return The mean in milliseconds or 0, if no value was recorded.
+     */
+    public double getMeanMillis() {
+        long actualCount = count.sum();
+        return actualCount == 0 ? 0.0 : sum.sum() / (actualCount * 1000.0);
+    }
+
+    public double getMaxMillis() {
+        return max.get() / 1000.0;
+    }
+
+    /**
+     * Returns the value at the percentile.
+     * Buckets and count are not read atomically, so concurrent recordings
+     * can shift the result by the recorded values.
+     *
+     * @param percentile between 0 and 100
+     * @return The highest value of the bucket with the percentile in milliseconds.
+     */
+    public double getPercentileMillis(double percentile) {
+        long total = 0;
+        int length = buckets.length();
+        long[] counts = new long[length];
+        for (int i = 0; i < length; i++) {
+            counts[i] = buckets.get(i);
+            total += counts[i];
+        }
+        if (total == 0) {
+            return 0.0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(total * Math.min(Math.max(percentile, 0.0), 100.0) / 100.0));
+        long cumulated = 0;
+        for (int i = 0; i < length; i++) {
+            cumulated += counts[i];
+            if (cumulated >= rank) {
+                return Math.min(highestValueInBucket(i), max.get()) / 1000.0;
+            }
+        }
+        return getMaxMillis();
+    }
+
+    public void reset() {
+        for (int i = 0; i < buckets.length(); i++) {
+            buckets.set(i, 0);
+        }
+        count.reset();
+        sum.reset();
+        max.reset();
+    }
+
+    // values below 64 have their own bucket, above the buckets grow with the power of two
+    private static int bucketIndex(long value) {
+        int shift = Math.max(0, 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS);
+        return (int) (SUB_BUCKET_COUNT * shift + (value >>> shift));
+    }
+
+    private static long highestValueInBucket(int index) {
+        if (index < 2 * SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = index / SUB_BUCKET_COUNT - 1;
+        long subBucket = index % SUB_BUCKET_COUNT + SUB_BUCKET_COUNT;
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
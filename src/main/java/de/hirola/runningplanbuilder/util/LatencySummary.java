@@ -0,0 +1,82 @@
+package de.hirola.runningplanbuilder.util;
+
+import org.jetbrains.annotations.NotNull;
+
+import javax.management.openmbean.CompositeData;
+
+/**
+ * Copyright 2022 by Michael Schmidt, Hirola Consulting
+ * This software us licensed under the AGPL-3.0 or later.
+ *
+ * The percentiles of a latency histogram at a point in time.
+ * Used as composite data in the metrics MXBean.
+ *
+ * @author Michael Schmidt (Hirola)
+ * @since v0.1
+ */
+public final class LatencySummary {
+    private final long count;
+    private final double meanMillis;
+    private final double p50Millis;
+    private final double p90Millis;
+    private final double p99Millis;
+    private final double maxMillis;
+
+    public LatencySummary(@NotNull LatencyHistogram histogram) {
+        this(histogram.getCount(),
+                histogram.getMeanMillis(),
+                histogram.getPercentileMillis(50.0),
+                histogram.getPercentileMillis(90.0),
+                histogram.getPercentileMillis(99.0),
+                histogram.getMaxMillis());
+    }
+
+    private LatencySummary(long count, double meanMillis, double p50Millis,
+                           double p90Millis, double p99Millis, double maxMillis) {
+        this.count = count;
+        this.meanMillis = meanMillis;
+        this.p50Millis = p50Millis;
+        this.p90Millis = p90Millis;
+        this.p99Millis = p99Millis;
+        this.maxMillis = maxMillis;
+    }
+
+    /**
+     * Reconstructs the summary from the composite data of the MXBean.
+     *
+     * @param compositeData of the MXBean
+     * @return The summary from the data.
+     */
+    public static LatencySummary from(@NotNull CompositeData compositeData) {
+        return new LatencySummary((Long) compositeData.get("count"),
+                (Double) compositeData.get("meanMillis"),
+                (Double) compositeData.get("p50Millis"),
+                (Double) compositeData.get("p90Millis"),
+                (Double) compositeData.get("p99Millis"),
+                (Double) compositeData.get("maxMillis"));
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMeanMillis() {
+        return meanMillis;
+    }
+
+    public double getP50Millis() {
+        return p50Millis;
+    }
+
+    public double getP90Millis() {
+        return p90Millis;
+    }
+
+    public double getP99Millis() {
+        return p99Millis;
+    }
+
+    public double getMaxMillis() {
+        return maxMillis;
+    }
+}
@@ -0,0 +1,54 @@
+package de.hirola.runningplanbuilder.util;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.File;
+
+/**
+ * Copyright 2022 by Michael Schmidt, Hirola Consulting
+ * This software us licensed under the AGPL-3.0 or later.
+ *
+ * Flight recorder event for the export of a running plan.
+ *
+ * @author Michael Schmidt (Hirola)
+ * @since v0.1
+ */
+@Name("de.hirola.runningplanbuilder.PlanExport")
+@Label("Running Plan Export")
+@Category({"RunningPlanBuilder", "I/O"})
+public class PlanExportEvent extends Event {
+    @Label("Format")
+    private final String format;
+    @Label("File")
+    private final String file;
+    @Label("Plan Size")
+    @Description("Count of the exported running plan entries")
+    private final int planSize;
+    @Label("File Size")
+    @DataAmount
+    private long fileSize;
+    @Label("Succeeded")
+    private boolean succeeded;
+
+    public PlanExportEvent(@NotNull String format, @NotNull File file, int planSize) {
+        this.format = format;
+        this.file = file.getAbsolutePath();
+        this.planSize = planSize;
+    }
+
+    /**
+     * Sets the values of a successful export.
+     *
+     * @param fileSize of the written file
+     */
+    public void setExported(long fileSize) {
+        this.fileSize = fileSize;
+        succeeded = true;
+    }
+}
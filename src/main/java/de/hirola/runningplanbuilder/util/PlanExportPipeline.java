@@ -0,0 +1,204 @@
+package de.hirola.runningplanbuilder.util;
+
+import de.hirola.runningplanbuilder.Global;
+import de.hirola.runningplanbuilder.model.RunningPlanEntrySnapshot;
+import de.hirola.runningplanbuilder.model.RunningPlanSnapshot;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.DoubleConsumer;
+import java.util.function.IntConsumer;
+
+/**
+ * Copyright 2022 by Michael Schmidt, Hirola Consulting
+ * This software us licensed under the AGPL-3.0 or later.
+ *
+ * Exports a running plan to several formats at once.
+ *
+ * The entries of the snapshot are read once and passed to a thread for each format
+ * through a bounded queue, in batches to reduce the hand-over between the threads.
+ * A slow format blocks the reading of the snapshot, so the memory of the export is
+ * limited by the size of the queues. All formats report their written entries to a
+ * single progress.
+ *
+ * @author Michael Schmidt (Hirola)
+ * @since v0.1
+ */
+public final class PlanExportPipeline {
+    // marks the end of the entries in the queues
+    private static final List<RunningPlanEntrySnapshot> END_OF_ENTRIES = new ArrayList<>(0);
+
+    /**
+     * A format of the export. The methods are called on the thread of the format.
+     */
+    public interface FormatWriter extends Closeable {
+
+        /**
+         * Called before the first entry.
+         *
+         * @param snapshot of the exported plan
+         * @throws IOException if the format can not be written
+         */
+        void begin(@NotNull RunningPlanSnapshot snapshot) throws IOException;
+
+        void write(@NotNull RunningPlanEntrySnapshot entry) throws IOException;
+
+        /**
+         * Called after the last entry, before the writer is closed.
+         *
+         * @throws IOException if the format can not be written
+         */
+        void end() throws IOException;
+    }
+
+    private final List<FormatWriter> writers;
+
+    /**
+     * Creates the export to the formats. The writers are closed by the export.
+     *
+     * @param writers of the formats
+     */
+    public PlanExportPipeline(@NotNull List<FormatWriter> writers) {
+        this.writers = new ArrayList<>(writers);
+    }
+
+    /**
+     * Exports the snapshot to all formats and waits for the end of the export.
+     * Can be called from any thread, except the JavaFX application thread.
+     *
+     * @param snapshot of the plan
+     * @param progressListener for the progress from 0 to 1, called on the threads of the formats
+     * @throws IOException if a format can not be written, the other formats are written
+     * @throws InterruptedException if the export was interrupted
+     */
+    public void export(@NotNull RunningPlanSnapshot snapshot, @NotNull DoubleConsumer progressListener)
+            throws IOException, InterruptedException {
+        if (writers.isEmpty()) {
+            return;
+        }
+        long totalWrites = Math.max(1L, (long) snapshot.getEntries().size() * writers.size());
+        // the progress is reported in steps of a percent
+        long progressStep = Math.max(1L, totalWrites / 100);
+        AtomicLong writes = new AtomicLong();
+        ExecutorService executorService = Executors.newFixedThreadPool(writers.size(), runnable -> {
+            Thread thread = new Thread(runnable, "plan-export");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            int batchSize = Global.ExportPreferences.BATCH_SIZE;
+            int queueCapacity = Math.max(1, Global.ExportPreferences.QUEUE_CAPACITY / batchSize);
+            List<BlockingQueue<List<RunningPlanEntrySnapshot>>> queues = new ArrayList<>(writers.size());
+            List<Future<?>> formats = new ArrayList<>(writers.size());
+            for (FormatWriter writer: writers) {
+                BlockingQueue<List<RunningPlanEntrySnapshot>> queue = new ArrayBlockingQueue<>(queueCapacity);
+                queues.add(queue);
+                formats.add(executorService.submit(() -> {
+                    writeFormat(writer, snapshot, queue, count -> {
+                        long written = writes.addAndGet(count);
+                        // reported, if a step of the progress is passed
+                        if (written / progressStep != (written - count) / progressStep) {
+                            progressListener.accept((double) written / totalWrites);
+                        }
+                    });
+                    return null;
+                }));
+            }
+            // the snapshot is read once for all formats, the batches are shared by the formats
+            List<RunningPlanEntrySnapshot> batch = new ArrayList<>(batchSize);
+            for (RunningPlanEntrySnapshot entry: snapshot.getEntries()) {
+                batch.add(entry);
+                if (batch.size() == batchSize) {
+                    for (BlockingQueue<List<RunningPlanEntrySnapshot>> queue: queues) {
+                        queue.put(batch);
+                    }
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            for (BlockingQueue<List<RunningPlanEntrySnapshot>> queue: queues) {
+                if (!batch.isEmpty()) {
+                    queue.put(batch);
+                }
+                queue.put(END_OF_ENTRIES);
+            }
+            IOException exportException = null;
+            for (Future<?> format: formats) {
+                try {
+                    format.get();
+                } catch (ExecutionException exception) {
+                    IOException formatException = exception.getCause() instanceof IOException
+                            ? (IOException) exception.getCause()
+                            : new IOException(exception.getCause());
+                    if (exportException == null) {
+                        exportException = formatException;
+                    } else {
+                        exportException.addSuppressed(formatException);
+                    }
+                }
+            }
+            if (exportException != null) {
+                throw exportException;
+            }
+            progressListener.accept(1.0);
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    // called on the thread of the format, the queue is taken to the end after an error
+    private static void writeFormat(FormatWriter writer, RunningPlanSnapshot snapshot,
+                                    BlockingQueue<List<RunningPlanEntrySnapshot>> queue, IntConsumer written)
+            throws IOException, InterruptedException {
+        IOException writeException = null;
+        try {
+            writer.begin(snapshot);
+        } catch (IOException | RuntimeException exception) {
+            writeException = toIOException(exception);
+        }
+        List<RunningPlanEntrySnapshot> batch;
+        while ((batch = queue.take()) != END_OF_ENTRIES) {
+            if (writeException == null) {
+                try {
+                    for (RunningPlanEntrySnapshot entry: batch) {
+                        writer.write(entry);
+                    }
+                } catch (IOException | RuntimeException exception) {
+                    writeException = toIOException(exception);
+                }
+            }
+            written.accept(batch.size());
+        }
+        try {
+            if (writeException == null) {
+                writer.end();
+            }
+        } catch (IOException | RuntimeException exception) {
+            writeException = toIOException(exception);
+        } finally {
+            try {
+                writer.close();
+            } catch (IOException exception) {
+                if (writeException == null) {
+                    writeException = exception;
+                }
+            }
+        }
+        if (writeException != null) {
+            throw writeException;
+        }
+    }
+
+    private static IOException toIOException(Exception exception) {
+        return exception instanceof IOException ? (IOException) exception : new IOException(exception);
+    }
+}
@@ -0,0 +1,221 @@
+package de.hirola.runningplanbuilder.util;
+
+import de.hirola.runningplanbuilder.Global;
+import org.jetbrains.annotations.NotNull;
+import org.tinylog.Logger;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Copyright 2022 by Michael Schmidt, Hirola Consulting
+ * This software us licensed under the AGPL-3.0 or later.
+ *
+ * Watches the files of the open plans for changes by other programs.
+ *
+ * The directories of the files are registered at a watch service. An editor writes a file
+ * in several steps, so the events of a file are collected and the listener is called once
+ * after a short delay without further events. The listener is called on a background thread,
+ * one file after the other, and can read the changed file there.
+ *
+ * @author Michael Schmidt (Hirola)
+ * @since v0.1
+ */
+public final class PlanFileWatcher {
+    private final Consumer<Path> changeListener; // called on the watcher thread
+    // state of the watched files, guarded by this
+    private final Map<Path, Integer> watchedFiles; // count of the documents of each file
+    private final Map<Path, WatchKey> watchedDirectories;
+    private final Map<Path, ScheduledFuture<?>> pendingChanges;
+    private WatchService watchService;
+    private ScheduledExecutorService executorService;
+
+    /**
+     * Creates a watcher for the files of the plans.
+     *
+     * @param changeListener for the changed files, called on a background thread
+     */
+    public PlanFileWatcher(@NotNull Consumer<Path> changeListener) {
+        this.changeListener = changeListener;
+        watchedFiles = new HashMap<>();
+        watchedDirectories = new HashMap<>();
+        pendingChanges = new HashMap<>();
+    }
+
+    /**
+     * Starts the watch service on its own thread.
+     *
+     * @throws IOException if the file system has no watch service
+     */
+    public synchronized void start() throws IOException {
+        if (watchService != null) {
+            return;
+        }
+        watchService = FileSystems.getDefault().newWatchService();
+        executorService = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "plan-file-watcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        WatchService service = watchService;
+        Thread thread = new Thread(() -> processEvents(service), "plan-file-watch-service");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public synchronized void stop() {
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException exception) {
+                Logger.warn(exception, "Error while closing the watch service.");
+            }
+            executorService.shutdownNow();
+            watchService = null;
+            executorService = null;
+            watchedFiles.clear();
+            watchedDirectories.clear();
+            pendingChanges.clear();
+        }
+    }
+
+    /**
+     * Watches the file for changes. A file can be watched for more than one document.
+     *
+     * @param file of a plan
+     */
+    public synchronized void watch(@NotNull Path file) {
+        if (watchService == null) {
+            return;
+        }
+        Path watchedFile = file.toAbsolutePath().normalize();
+        Path directory = watchedFile.getParent();
+        if (directory == null) {
+            return;
+        }
+        if (!watchedDirectories.containsKey(directory)) {
+            try {
+                watchedDirectories.put(directory, directory.register(watchService,
+                        StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY));
+            } catch (IOException exception) {
+                Logger.warn(exception, "The directory {} can not be watched.", directory);
+                return;
+            }
+        }
+        watchedFiles.merge(watchedFile, 1, Integer::sum);
+    }
+
+    /**
+     * Stops watching the file, if no other document watches the file.
+     *
+     * @param file of a plan
+     */
+    public synchronized void unwatch(@NotNull Path file) {
+        Path watchedFile = file.toAbsolutePath().normalize();
+        Integer count = watchedFiles.get(watchedFile);
+        if (count == null) {
+            return;
+        }
+        if (count > 1) {
+            watchedFiles.put(watchedFile, count - 1);
+            return;
+        }
+        watchedFiles.remove(watchedFile);
+        ScheduledFuture<?> pendingChange = pendingChanges.remove(watchedFile);
+        if (pendingChange != null) {
+            pendingChange.cancel(false);
+        }
+        // the directory is watched, as long as a file in the directory is watched
+        Path directory = watchedFile.getParent();
+        for (Path otherFile: watchedFiles.keySet()) {
+            if (otherFile.getParent().equals(directory)) {
+                return;
+            }
+        }
+        WatchKey watchKey = watchedDirectories.remove(directory);
+        if (watchKey != null) {
+            watchKey.cancel();
+        }
+    }
+
+    // called on the thread of the watch service
+    private void processEvents(WatchService service) {
+        try {
+            while (true) {
+                WatchKey watchKey = service.take();
+                Path directory = (Path) watchKey.watchable();
+                List<Path> changedFiles = new ArrayList<>();
+                for (WatchEvent<?> event: watchKey.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        // events are lost, all files of the directory could be changed
+                        changedFiles.addAll(getWatchedFiles(directory));
+                    } else {
+                        changedFiles.add(directory.resolve((Path) event.context()));
+                    }
+                }
+                watchKey.reset();
+                for (Path changedFile: changedFiles) {
+                    scheduleChange(changedFile);
+                }
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException exception) {
+            // the watcher was stopped
+        }
+    }
+
+    private synchronized List<Path> getWatchedFiles(Path directory) {
+        List<Path> files = new ArrayList<>();
+        for (Path file: watchedFiles.keySet()) {
+            if (file.getParent().equals(directory)) {
+                files.add(file);
+            }
+        }
+        return files;
+    }
+
+    private synchronized void scheduleChange(Path file) {
+        if (executorService == null || !watchedFiles.containsKey(file)) {
+            return;
+        }
+        // a new event of the file replaces the pending change
+        AtomicReference<ScheduledFuture<?>> change = new AtomicReference<>();
+        change.set(executorService.schedule(() -> notifyChange(file, change),
+                Global.FileWatcherPreferences.DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS));
+        ScheduledFuture<?> previousChange = pendingChanges.put(file, change.get());
+        if (previousChange != null) {
+            previousChange.cancel(false);
+        }
+    }
+
+    // called on the watcher thread, a replaced change does not remove the pending change of a newer event
+    private void notifyChange(Path file, AtomicReference<ScheduledFuture<?>> change) {
+        synchronized (this) {
+            if (!pendingChanges.remove(file, change.get()) || !watchedFiles.containsKey(file)) {
+                return;
+            }
+        }
+        try {
+            changeListener.accept(file);
+        } catch (RuntimeException exception) {
+            Logger.error(exception, "Reload of the changed file {} failed.", file);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package de.hirola.runningplanbuilder.util;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.File;
+
+/**
+ * Copyright 2022 by Michael Schmidt, Hirola Consulting
+ * This software us licensed under the AGPL-3.0 or later.
+ *
+ * Flight recorder event for the import of a running plan from JSON or iCAL.
+ * The duration covers loading the file and filling the table.
+ *
+ * @author Michael Schmidt (Hirola)
+ * @since v0.1
+ */
+@Name("de.hirola.runningplanbuilder.PlanImport")
+@Label("Running Plan Import")
+@Category({"RunningPlanBuilder", "I/O"})
+public class PlanImportEvent extends Event {
+    @Label("Format")
+    private final String format;
+    @Label("File")
+    private final String file;
+    @Label("File Size")
+    @DataAmount
+    private final long fileSize;
+    @Label("Bytes Read")
+    @Description("Uncompressed bytes read by the parser of the format")
+    @DataAmount
+    private long bytesRead;
+    @Label("Plan Size")
+    @Description("Count of the imported running plan entries")
+    private int planSize;
+    @Label("Succeeded")
+    private boolean succeeded;
+
+    public PlanImportEvent(@NotNull String format, @NotNull File file) {
+        this.format = format;
+        this.file = file.getAbsolutePath();
+        fileSize = file.length();
+    }
+
+    /**
+     * Sets the values of a successful import.
+     *
+     * @param bytesRead count of the uncompressed bytes, which are read by the parser
+     * @param planSize count of the imported entries
+     */
+    public void setImported(long bytesRead, int planSize) {
+        this.bytesRead = bytesRead;
+        this.planSize = planSize;
+        succeeded = true;
+    }
+}
@@ -0,0 +1,354 @@
+package de.hirola.runningplanbuilder.util;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import de.hirola.runningplanbuilder.Global;
+import de.hirola.runningplanbuilder.model.RunningPlanEntrySnapshot;
+import de.hirola.runningplanbuilder.model.RunningPlanSnapshot;
+import de.hirola.runningplanbuilder.model.SeriesPlanMetadata;
+import de.hirola.sportsapplications.SportsLibrary;
+import de.hirola.sportsapplications.SportsLibraryException;
+import de.hirola.sportsapplications.model.MovementType;
+import de.hirola.sportsapplications.model.RunningPlan;
+import de.hirola.sportsapplications.util.TemplateLoader;
+import org.jetbrains.annotations.NotNull;
+import org.tinylog.Logger;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.DoubleConsumer;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Copyright 2022 by Michael Schmidt, Hirola Consulting
+ * This software us licensed under the AGPL-3.0 or later.
+ *
+ * Export and import of a series of plans as a single ZIP file.
+ *
+ * The bundle starts with a manifest, which lists the plans in the order of the series
+ * with their name, order number and remarks. Each plan is stored as JSON in the layout of
+ * the templates in its own file of the bundle, with the UUIDs and the remarks of the entries.
+ * The files are written directly to the ZIP stream, without temporary files. The import
+ * reads the files of the plans in parallel, each file is extracted to a temporary file
+ * for the template loader. The plans of bundles of the first version are stored as CSV.
+ *
+ * @author Michael Schmidt (Hirola)
+ * @since v0.1
+ */
+public final class PlanSeriesBundle {
+    private static final JsonFactory JSON_FACTORY = new JsonFactory()
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+            .disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+    private static final int MANIFEST_VERSION = 2; // the plans are stored as JSON since version 2
+    private static final String MANIFEST_FILE_NAME = "manifest.json";
+    private static final String PLANS_DIRECTORY = "plans/";
+    // the fields of the manifest
+    private static final String VERSION_FIELD = "version";
+    private static final String PLANS_FIELD = "plans";
+    private static final String NAME_FIELD = "name";
+    private static final String ORDER_NUMBER_FIELD = "orderNumber";
+    private static final String REMARKS_FIELD = "remarks";
+    private static final String ENTRIES_FIELD = "entries";
+    private static final String FILE_FIELD = "file";
+
+    private PlanSeriesBundle() {}
+
+    /**
+     * Sorts the plans in the order of the series, by order number and name.
+     *
+     * @param snapshots of the plans
+     * @return The sorted plans.
+     */
+    @NotNull
+    public static List<RunningPlanSnapshot> sortSeries(@NotNull List<RunningPlanSnapshot> snapshots) {
+        List<RunningPlanSnapshot> series = new ArrayList<>(snapshots);
+        series.sort(Comparator.comparingInt(RunningPlanSnapshot::getOrderNumber)
+                .thenComparing(snapshot -> snapshot.getName() == null ? "" : snapshot.getName(),
+                        String.CASE_INSENSITIVE_ORDER));
+        return series;
+    }
+
+    /**
+     * Writes the plans as a bundle in the order of the list.
+     *
+     * @param series the sorted plans of the series
+     * @param outputStream for the bundle, not closed by the export
+     * @param progressListener for the progress from 0 to 1, called on the thread of the export
+     * @throws IOException if the bundle can not be written
+     */
+    public static void exportSeries(@NotNull List<RunningPlanSnapshot> series, @NotNull OutputStream outputStream,
+                                    @NotNull DoubleConsumer progressListener) throws IOException {
+        List<SeriesPlanMetadata> manifest = createManifest(series);
+        long totalEntries = Math.max(1L, series.stream().mapToLong(snapshot -> snapshot.getEntries().size()).sum());
+        // the progress is reported in steps of a percent
+        long progressStep = Math.max(1L, totalEntries / 100);
+        long writtenEntries = 0;
+        ZipOutputStream zipOutputStream = new ZipOutputStream(outputStream, StandardCharsets.UTF_8);
+        zipOutputStream.putNextEntry(new ZipEntry(MANIFEST_FILE_NAME));
+        writeManifest(manifest, zipOutputStream);
+        zipOutputStream.closeEntry();
+        for (int index = 0; index < series.size(); index++) {
+            RunningPlanSnapshot snapshot = series.get(index);
+            zipOutputStream.putNextEntry(new ZipEntry(manifest.get(index).getFileName()));
+            // the writer is not closed, this would close the ZIP stream
+            PlanExportPipeline.FormatWriter jsonWriter = RunningPlanJSON.createFormatWriter(zipOutputStream);
+            jsonWriter.begin(snapshot);
+            for (RunningPlanEntrySnapshot entry: snapshot.getEntries()) {
+                jsonWriter.write(entry);
+                writtenEntries++;
+                if (writtenEntries % progressStep == 0) {
+                    progressListener.accept((double) writtenEntries / totalEntries);
+                }
+            }
+            // flushes the writer into the entry of the plan
+            jsonWriter.end();
+            zipOutputStream.closeEntry();
+        }
+        zipOutputStream.finish();
+        progressListener.accept(1.0);
+    }
+
+    /**
+     * Reads the manifest of the bundle, the plans are not read.
+     *
+     * @param bundle file of the series
+     * @return The plans of the series in the order of the series.
+     * @throws IOException if the bundle can not be read or is not a bundle of a series
+     */
+    @NotNull
+    public static List<SeriesPlanMetadata> readManifest(@NotNull Path bundle) throws IOException {
+        try (ZipFile zipFile = new ZipFile(bundle.toFile(), StandardCharsets.UTF_8)) {
+            return readManifest(zipFile);
+        }
+    }
+
+    /**
+     * Reads the plans of the bundle. The files of the plans are read in parallel.
+     *
+     * @param bundle file of the series
+     * @param sportsLibrary for the template loader
+     * @param progressListener for the progress from 0 to 1, called on the threads of the import
+     * @return The plans in the order of the series.
+     * @throws IOException if the bundle can not be read or is not a bundle of a series
+     * @throws ParseException if the CSV file of a plan contains malformed lines
+     * @throws InterruptedException if the import was interrupted
+     */
+    @NotNull
+    public static List<RunningPlan> importSeries(@NotNull Path bundle, @NotNull SportsLibrary sportsLibrary,
+                                                 @NotNull DoubleConsumer progressListener)
+            throws IOException, ParseException, InterruptedException {
+        try (ZipFile zipFile = new ZipFile(bundle.toFile(), StandardCharsets.UTF_8)) {
+            List<SeriesPlanMetadata> manifest = readManifest(zipFile);
+            if (manifest.isEmpty()) {
+                return new ArrayList<>();
+            }
+            long totalEntries = Math.max(1L, manifest.stream().mapToLong(SeriesPlanMetadata::getEntryCount).sum());
+            AtomicLong readEntries = new AtomicLong();
+            int threadCount = Math.min(manifest.size(), Runtime.getRuntime().availableProcessors());
+            ExecutorService executorService = Executors.newFixedThreadPool(threadCount, runnable -> {
+                Thread thread = new Thread(runnable, "plan-series-import");
+                thread.setDaemon(true);
+                return thread;
+            });
+            try {
+                List<Future<RunningPlan>> plans = new ArrayList<>(manifest.size());
+                for (SeriesPlanMetadata metadata: manifest) {
+                    ZipEntry zipEntry = zipFile.getEntry(metadata.getFileName());
+                    if (zipEntry == null) {
+                        throw new IOException("The file " + metadata.getFileName() + " is missing in the bundle.");
+                    }
+                    plans.add(executorService.submit(() -> {
+                        RunningPlan runningPlan = readPlan(zipFile, zipEntry, metadata, sportsLibrary);
+                        long read = readEntries.addAndGet(metadata.getEntryCount());
+                        progressListener.accept(Math.min(1.0, (double) read / totalEntries));
+                        return runningPlan;
+                    }));
+                }
+                List<RunningPlan> series = new ArrayList<>(plans.size());
+                for (Future<RunningPlan> plan: plans) {
+                    try {
+                        series.add(plan.get());
+                    } catch (ExecutionException exception) {
+                        Throwable cause = exception.getCause();
+                        if (cause instanceof ParseException) {
+                            throw (ParseException) cause;
+                        }
+                        if (cause instanceof IOException) {
+                            throw (IOException) cause;
+                        }
+                        throw new IOException(cause);
+                    }
+                }
+                progressListener.accept(1.0);
+                return series;
+            } finally {
+                executorService.shutdownNow();
+            }
+        }
+    }
+
+    // called on a thread of the import
+    private static RunningPlan readPlan(ZipFile zipFile, ZipEntry zipEntry, SeriesPlanMetadata metadata,
+                                        SportsLibrary sportsLibrary) throws IOException, ParseException {
+        RunningPlan runningPlan = metadata.getFileName().endsWith(Global.CSV_FILE_EXTENSION)
+                ? readCSVPlan(zipFile, zipEntry, metadata, sportsLibrary.getMovementTypes())
+                : readJSONPlan(zipFile, zipEntry, metadata, sportsLibrary);
+        runningPlan.setOrderNumber(metadata.getOrderNumber());
+        metadata.getRemarks().ifPresent(runningPlan::setRemarks);
+        return runningPlan;
+    }
+
+    // the template loader reads only files, the plan is extracted to a temporary file
+    private static RunningPlan readJSONPlan(ZipFile zipFile, ZipEntry zipEntry, SeriesPlanMetadata metadata,
+                                            SportsLibrary sportsLibrary) throws IOException {
+        Path temporaryFile = Files.createTempFile("runningplan", Global.JSON_FILE_EXTENSION);
+        try {
+            try (InputStream inputStream = zipFile.getInputStream(zipEntry)) {
+                Files.copy(inputStream, temporaryFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return new TemplateLoader(sportsLibrary).loadRunningPlanFromJSON(temporaryFile.toFile());
+        } catch (SportsLibraryException exception) {
+            throw new IOException("The plan " + metadata.getName() + " can not be read.", exception);
+        } finally {
+            try {
+                Files.deleteIfExists(temporaryFile);
+            } catch (IOException exception) {
+                Logger.debug(exception, "The temporary file {} could not be deleted.", temporaryFile);
+            }
+        }
+    }
+
+    // the plans of a bundle of the first version
+    private static RunningPlan readCSVPlan(ZipFile zipFile, ZipEntry zipEntry, SeriesPlanMetadata metadata,
+                                           List<MovementType> movementTypes) throws IOException, ParseException {
+        try (InputStream inputStream = zipFile.getInputStream(zipEntry);
+             BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8),
+                     Global.CSVPreferences.BUFFER_SIZE)) {
+            return RunningPlanCSV.importRunningPlan(reader, metadata.getName(), movementTypes);
+        } catch (ParseException exception) {
+            // the lines of the message are lines of the plan in the bundle
+            throw new ParseException(metadata.getName() + "\n" + exception.getMessage(), exception.getErrorOffset());
+        }
+    }
+
+    /**
+     * Creates the manifest of the series. The file names are unique by the position
+     * in the series, e.g. "plans/01-Beginner.json".
+     *
+     * @param series the sorted plans of the series
+     * @return The plans of the manifest in the order of the series.
+     */
+    @NotNull
+    public static List<SeriesPlanMetadata> createManifest(@NotNull List<RunningPlanSnapshot> series) {
+        List<SeriesPlanMetadata> manifest = new ArrayList<>(series.size());
+        int digits = Math.max(2, String.valueOf(series.size()).length());
+        for (int index = 0; index < series.size(); index++) {
+            RunningPlanSnapshot snapshot = series.get(index);
+            String name = snapshot.getName() == null ? "" : snapshot.getName();
+            String fileName = PLANS_DIRECTORY
+                    + String.format(Locale.ROOT, "%0" + digits + "d", index + 1)
+                    + "-"
+                    + name.replaceAll("[^\\p{L}\\p{N}_-]", "")
+                    + Global.JSON_FILE_EXTENSION;
+            manifest.add(new SeriesPlanMetadata(name, snapshot.getOrderNumber(),
+                    snapshot.getRemarks().orElse(null), snapshot.getEntries().size(), fileName));
+        }
+        return manifest;
+    }
+
+    private static void writeManifest(List<SeriesPlanMetadata> manifest, OutputStream outputStream)
+            throws IOException {
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(outputStream)) {
+            generator.writeStartObject();
+            generator.writeNumberField(VERSION_FIELD, MANIFEST_VERSION);
+            generator.writeArrayFieldStart(PLANS_FIELD);
+            for (SeriesPlanMetadata metadata: manifest) {
+                generator.writeStartObject();
+                generator.writeStringField(NAME_FIELD, metadata.getName());
+                generator.writeNumberField(ORDER_NUMBER_FIELD, metadata.getOrderNumber());
+                if (metadata.getRemarks().isPresent()) {
+                    generator.writeStringField(REMARKS_FIELD, metadata.getRemarks().get());
+                }
+                generator.writeNumberField(ENTRIES_FIELD, metadata.getEntryCount());
+                generator.writeStringField(FILE_FIELD, metadata.getFileName());
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+    }
+
+    private static List<SeriesPlanMetadata> readManifest(ZipFile zipFile) throws IOException {
+        ZipEntry manifestEntry = zipFile.getEntry(MANIFEST_FILE_NAME);
+        if (manifestEntry == null) {
+            throw new IOException("The file is not a bundle of a series, the manifest is missing.");
+        }
+        List<SeriesPlanMetadata> manifest = new ArrayList<>();
+        try (InputStream inputStream = zipFile.getInputStream(manifestEntry);
+             JsonParser parser = JSON_FACTORY.createParser(inputStream)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("The manifest of the bundle is damaged.");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken token = parser.nextToken();
+                if (VERSION_FIELD.equals(field) && parser.getIntValue() > MANIFEST_VERSION) {
+                    throw new IOException("The bundle was written by a newer version of the app.");
+                } else if (PLANS_FIELD.equals(field) && token == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        manifest.add(readManifestEntry(parser));
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        return manifest;
+    }
+
+    private static SeriesPlanMetadata readManifestEntry(JsonParser parser) throws IOException {
+        String name = "";
+        int orderNumber = 1;
+        String remarks = null;
+        int entryCount = 0;
+        String fileName = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            parser.nextToken();
+            switch (field) {
+                case NAME_FIELD: name = parser.getValueAsString(""); break;
+                case ORDER_NUMBER_FIELD: orderNumber = parser.getValueAsInt(1); break;
+                case REMARKS_FIELD: remarks = parser.getValueAsString(); break;
+                case ENTRIES_FIELD: entryCount = parser.getValueAsInt(); break;
+                case FILE_FIELD: fileName = parser.getValueAsString(); break;
+                default: parser.skipChildren();
+            }
+        }
+        if (fileName == null) {
+            throw new IOException("The manifest of the bundle is damaged, the file of the plan " + name
+                    + " is missing.");
+        }
+        return new SeriesPlanMetadata(name, orderNumber, remarks, entryCount, fileName);
+    }
+}
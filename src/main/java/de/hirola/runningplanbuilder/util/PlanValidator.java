@@ -0,0 +1,297 @@
+package de.hirola.runningplanbuilder.util;
+
+import de.hirola.runningplanbuilder.Global;
+import de.hirola.runningplanbuilder.model.RunningPlanEntrySnapshot;
+import de.hirola.runningplanbuilder.model.RunningPlanSnapshot;
+import de.hirola.runningplanbuilder.model.RunningPlanSnapshotPublisher;
+import de.hirola.runningplanbuilder.model.RunningUnitSnapshot;
+import de.hirola.runningplanbuilder.model.ValidationFinding;
+import de.hirola.runningplanbuilder.model.ValidationResult;
+import de.hirola.runningplanbuilder.model.ValidationRule;
+import javafx.application.Platform;
+import org.jetbrains.annotations.NotNull;
+import org.tinylog.Logger;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Copyright 2022 by Michael Schmidt, Hirola Consulting
+ * This software us licensed under the AGPL-3.0 or later.
+ *
+ * Validates the running plan on a background thread.
+ *
+ * Each published snapshot of the plan starts the validation after a short delay,
+ * so a series of edits is validated only once. The findings of the entries are cached
+ * by the snapshots of the entries. Unchanged entries are shared between the snapshots,
+ * so only the changed entries and the days of their weeks are checked again.
+ * The first validation of a plan checks the weeks in parallel.
+ *
+ * @author Michael Schmidt (Hirola)
+ * @since v0.1
+ */
+public final class PlanValidator {
+    private final RunningPlanSnapshotPublisher publisher;
+    private final Consumer<ValidationResult> resultConsumer; // called on the FX thread
+    private final Consumer<RunningPlanSnapshot> snapshotListener;
+    private final AtomicReference<ScheduledFuture<?>> pendingValidation;
+    private ScheduledExecutorService executorService;
+    // state of the last validation, guarded by this
+    private final Map<RunningPlanEntrySnapshot, List<ValidationFinding>> entryFindings;
+    private final Map<Integer, List<ValidationFinding>> dayFindings;
+    private RunningPlanSnapshot lastSnapshot;
+    private ValidationResult lastResult;
+
+    /**
+     * Creates a validator for the published snapshots of the running plan.
+     *
+     * @param publisher of the snapshots
+     * @param resultConsumer for the results, called on the JavaFX application thread
+     */
+    public PlanValidator(@NotNull RunningPlanSnapshotPublisher publisher,
+                         @NotNull Consumer<ValidationResult> resultConsumer) {
+        this.publisher = publisher;
+        this.resultConsumer = resultConsumer;
+        snapshotListener = snapshot -> scheduleValidation();
+        pendingValidation = new AtomicReference<>();
+        entryFindings = new IdentityHashMap<>();
+        dayFindings = new HashMap<>();
+    }
+
+    /**
+     * Starts the validation of the published snapshots.
+     */
+    public void start() {
+        if (executorService != null) {
+            return;
+        }
+        executorService = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "plan-validator");
+            thread.setDaemon(true);
+            return thread;
+        });
+        publisher.addListener(snapshotListener);
+        scheduleValidation();
+    }
+
+    public void stop() {
+        if (executorService != null) {
+            publisher.removeListener(snapshotListener);
+            executorService.shutdownNow();
+            executorService = null;
+        }
+    }
+
+    /**
+     * Validates the snapshot. Only the entries, which are changed since the last validation,
+     * are checked again. Can be called from any thread.
+     *
+     * @param snapshot of the running plan
+     * @return The findings of the validation.
+     */
+    @NotNull
+    public synchronized ValidationResult validate(@NotNull RunningPlanSnapshot snapshot) {
+        if (snapshot == lastSnapshot) {
+            return lastResult;
+        }
+        long startNanos = System.nanoTime();
+        // the entries of the plan, grouped by week
+        Map<Integer, List<RunningPlanEntrySnapshot>> weeks = new TreeMap<>();
+        Set<RunningPlanEntrySnapshot> entries = Collections.newSetFromMap(new IdentityHashMap<>());
+        int changedEntries = 0;
+        for (RunningPlanEntrySnapshot entry: snapshot.getEntries()) {
+            weeks.computeIfAbsent(entry.getWeek(), week -> new ArrayList<>()).add(entry);
+            entries.add(entry);
+            if (!entryFindings.containsKey(entry)) {
+                changedEntries++;
+            }
+        }
+        if (lastSnapshot == null || changedEntries > entries.size() / 2) {
+            validateAll(weeks);
+        } else {
+            validateChanged(weeks, entries);
+        }
+        // the gaps between the weeks are checked with the first entry of each week
+        List<ValidationFinding> findings = new ArrayList<>();
+        int previousWeek = 0;
+        for (Map.Entry<Integer, List<RunningPlanEntrySnapshot>> week: weeks.entrySet()) {
+            if (week.getKey() > previousWeek + 1) {
+                findings.add(new ValidationFinding(ValidationRule.WEEK_GAP, week.getValue().get(0)));
+            }
+            previousWeek = week.getKey();
+        }
+        for (RunningPlanEntrySnapshot entry: snapshot.getEntries()) {
+            findings.addAll(entryFindings.get(entry));
+        }
+        for (List<ValidationFinding> weekFindings: dayFindings.values()) {
+            findings.addAll(weekFindings);
+        }
+        lastSnapshot = snapshot;
+        lastResult = new ValidationResult(snapshot, findings);
+        ApplicationMetrics.getInstance().record(ApplicationMetrics.Operation.VALIDATION,
+                System.nanoTime() - startNanos);
+        return lastResult;
+    }
+
+    /**
+     * Validates the snapshot on the thread of the validator, e.g. before the plan is saved.
+     * The JavaFX application thread is not blocked by a running validation.
+     *
+     * @param snapshot of the running plan
+     * @param consumer for the result, called on the JavaFX application thread
+     */
+    public void validateLater(@NotNull RunningPlanSnapshot snapshot, @NotNull Consumer<ValidationResult> consumer) {
+        ScheduledExecutorService executor = executorService;
+        if (executor == null) {
+            // the validator is not started
+            consumer.accept(validate(snapshot));
+            return;
+        }
+        executor.execute(() -> {
+            try {
+                ValidationResult result = validate(snapshot);
+                Platform.runLater(() -> consumer.accept(result));
+            } catch (RuntimeException exception) {
+                Logger.error(exception, "Validation of the running plan failed.");
+            }
+        });
+    }
+
+    // the results of the rules for a single week
+    private static final class WeekValidation {
+        final int week;
+        final Map<RunningPlanEntrySnapshot, List<ValidationFinding>> entryFindings = new IdentityHashMap<>();
+        final List<ValidationFinding> dayFindings;
+
+        WeekValidation(int week, List<RunningPlanEntrySnapshot> entries) {
+            this.week = week;
+            for (RunningPlanEntrySnapshot entry: entries) {
+                entryFindings.put(entry, validateEntry(entry));
+            }
+            dayFindings = validateDays(entries);
+        }
+    }
+
+    // validates all weeks in parallel
+    private void validateAll(Map<Integer, List<RunningPlanEntrySnapshot>> weeks) {
+        List<WeekValidation> weekValidations = weeks.entrySet()
+                .parallelStream()
+                .map(week -> new WeekValidation(week.getKey(), week.getValue()))
+                .collect(Collectors.toList());
+        entryFindings.clear();
+        dayFindings.clear();
+        for (WeekValidation weekValidation: weekValidations) {
+            entryFindings.putAll(weekValidation.entryFindings);
+            if (!weekValidation.dayFindings.isEmpty()) {
+                dayFindings.put(weekValidation.week, weekValidation.dayFindings);
+            }
+        }
+    }
+
+    // validates the changed entries and the days of their weeks
+    private void validateChanged(Map<Integer, List<RunningPlanEntrySnapshot>> weeks,
+                                 Set<RunningPlanEntrySnapshot> entries) {
+        Set<Integer> changedWeeks = new HashSet<>();
+        // removed or changed entries
+        Iterator<RunningPlanEntrySnapshot> iterator = entryFindings.keySet().iterator();
+        while (iterator.hasNext()) {
+            RunningPlanEntrySnapshot entry = iterator.next();
+            if (!entries.contains(entry)) {
+                changedWeeks.add(entry.getWeek());
+                iterator.remove();
+            }
+        }
+        // added or changed entries
+        for (RunningPlanEntrySnapshot entry: entries) {
+            if (!entryFindings.containsKey(entry)) {
+                changedWeeks.add(entry.getWeek());
+                entryFindings.put(entry, validateEntry(entry));
+            }
+        }
+        for (Integer week: changedWeeks) {
+            List<ValidationFinding> weekFindings = Collections.emptyList();
+            if (weeks.containsKey(week)) {
+                weekFindings = validateDays(weeks.get(week));
+            }
+            if (weekFindings.isEmpty()) {
+                dayFindings.remove(week);
+            } else {
+                dayFindings.put(week, weekFindings);
+            }
+        }
+    }
+
+    // the rules for a single entry
+    private static List<ValidationFinding> validateEntry(RunningPlanEntrySnapshot entry) {
+        List<RunningUnitSnapshot> runningUnits = entry.getRunningUnits();
+        if (runningUnits.isEmpty()) {
+            return Collections.singletonList(new ValidationFinding(ValidationRule.EMPTY_ENTRY, entry));
+        }
+        for (RunningUnitSnapshot runningUnit: runningUnits) {
+            if (runningUnit.getDuration() <= 0) {
+                return Collections.singletonList(new ValidationFinding(ValidationRule.ZERO_DURATION, entry));
+            }
+        }
+        return Collections.emptyList();
+    }
+
+    // the rules for the entries of a week
+    private static List<ValidationFinding> validateDays(List<RunningPlanEntrySnapshot> weekEntries) {
+        List<ValidationFinding> findings = new ArrayList<>();
+        Map<Integer, RunningPlanEntrySnapshot> days = new HashMap<>();
+        Set<Integer> duplicateDays = new HashSet<>();
+        for (RunningPlanEntrySnapshot entry: weekEntries) {
+            RunningPlanEntrySnapshot otherEntry = days.putIfAbsent(entry.getDay(), entry);
+            if (otherEntry != null) {
+                // mark all entries of the day
+                if (duplicateDays.add(entry.getDay())) {
+                    findings.add(new ValidationFinding(ValidationRule.DUPLICATE_DAY, otherEntry));
+                }
+                findings.add(new ValidationFinding(ValidationRule.DUPLICATE_DAY, entry));
+            }
+        }
+        return findings;
+    }
+
+    private void scheduleValidation() {
+        ScheduledExecutorService executor = executorService;
+        if (executor == null) {
+            return;
+        }
+        // a new snapshot replaces the pending validation
+        ScheduledFuture<?> validation = executor.schedule(this::validatePublishedSnapshot,
+                Global.ValidationPreferences.DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS);
+        ScheduledFuture<?> previousValidation = pendingValidation.getAndSet(validation);
+        if (previousValidation != null) {
+            previousValidation.cancel(false);
+        }
+    }
+
+    // called on the validator thread
+    private void validatePublishedSnapshot() {
+        try {
+            ValidationResult result = validate(publisher.getSnapshot());
+            // a newer snapshot is validated next
+            if (result.getSnapshot() == publisher.getSnapshot()) {
+                Platform.runLater(() -> resultConsumer.accept(result));
+            }
+        } catch (RuntimeException exception) {
+            Logger.error(exception, "Validation of the running plan failed.");
+        }
+    }
+}
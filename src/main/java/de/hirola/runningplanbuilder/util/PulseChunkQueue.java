@@ -0,0 +1,80 @@
+package de.hirola.runningplanbuilder.util;
+
+import javafx.application.Platform;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Copyright 2022 by Michael Schmidt, Hirola Consulting
+ * This software us licensed under the AGPL-3.0 or later.
+ *
+ * Passes chunks of elements from a background thread to the JavaFX application thread.
+ *
+ * A background import creates the entries of a plan faster than the table can show them.
+ * The chunks are collected in a queue, only one task is waiting on the JavaFX application thread.
+ * The task passes all chunks of the queue at once in the order of publishing,
+ * so the consumer is called once and not for each chunk.
+ *
+ * @param <E> type of the elements
+ * @author Michael Schmidt (Hirola)
+ * @since v0.1
+ */
+public final class PulseChunkQueue<E> {
+    private final Consumer<List<E>> consumer;
+    private final ConcurrentLinkedQueue<List<E>> chunks;
+    private final AtomicBoolean drainScheduled;
+
+    /**
+     * Creates a queue for the consumer.
+     *
+     * @param consumer called on the JavaFX application thread with the elements of all waiting chunks
+     */
+    public PulseChunkQueue(@NotNull Consumer<List<E>> consumer) {
+        this.consumer = consumer;
+        chunks = new ConcurrentLinkedQueue<>();
+        drainScheduled = new AtomicBoolean(false);
+    }
+
+    /**
+     * Adds a chunk to the queue, can be called on any thread.
+     * The chunk must not be changed afterwards.
+     *
+     * @param chunk of elements
+     */
+    public void publish(@NotNull List<E> chunk) {
+        chunks.add(chunk);
+        if (drainScheduled.compareAndSet(false, true)) {
+            Platform.runLater(this::flush);
+        }
+    }
+
+    /**
+     * Passes the waiting chunks to the consumer, e.g. before the result of the import is shown.
+     * Must be called on the JavaFX application thread.
+     */
+    public void flush() {
+        // chunks published from now on schedule a new task
+        drainScheduled.set(false);
+        List<E> elements = new ArrayList<>();
+        List<E> chunk;
+        while ((chunk = chunks.poll()) != null) {
+            elements.addAll(chunk);
+        }
+        if (!elements.isEmpty()) {
+            consumer.accept(elements);
+        }
+    }
+
+    /**
+     * Removes the waiting chunks, e.g. after the import failed.
+     * Must be called on the JavaFX application thread.
+     */
+    public void clear() {
+        chunks.clear();
+    }
+}
@@ -0,0 +1,105 @@
+package de.hirola.runningplanbuilder.util;
+
+import de.hirola.runningplanbuilder.Global;
+import de.hirola.sportsapplications.model.RunningPlanEntry;
+import de.hirola.sportsapplications.model.RunningUnit;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Copyright 2022 by Michael Schmidt, Hirola Consulting
+ * This software us licensed under the AGPL-3.0 or later.
+ *
+ * Edits of many entries of a running plan at once.
+ *
+ * The parameters are checked before an entry is changed,
+ * so an edit is either applied to all entries or to none.
+ *
+ * @author Michael Schmidt (Hirola)
+ * @since v0.1
+ */
+public final class RunningPlanBulkEdit {
+
+    /**
+     * Moves the entries by a count of weeks.
+     *
+     * @param entries to be moved
+     * @param weeks to add, negative to move the entries to earlier weeks
+     * @throws IllegalArgumentException if an entry would be moved out of the plan
+     */
+    public static void shiftWeeks(@NotNull List<RunningPlanEntry> entries, int weeks) {
+        for (RunningPlanEntry entry: entries) {
+            checkWeek(entry.getWeek() + weeks);
+        }
+        for (RunningPlanEntry entry: entries) {
+            entry.setWeek(entry.getWeek() + weeks);
+        }
+    }
+
+    /**
+     * Changes the duration of all running units of the entries.
+     *
+     * @param entries to be changed
+     * @param percent of the actual duration
+     * @throws IllegalArgumentException if the percent is not greater than 0
+     */
+    public static void scaleDurations(@NotNull List<RunningPlanEntry> entries, int percent) {
+        if (percent < 1) {
+            throw new IllegalArgumentException("The percent must be greater than 0.");
+        }
+        for (RunningPlanEntry entry: entries) {
+            for (RunningUnit runningUnit: entry.getRunningUnits()) {
+                // a unit keeps at least one minute
+                runningUnit.setDuration(Math.max(1, Math.round(runningUnit.getDuration() * percent / 100.0)));
+            }
+        }
+    }
+
+    /**
+     * Copies the entries of a range of weeks.
+     *
+     * @param entries of the plan
+     * @param fromWeek first week of the range
+     * @param toWeek last week of the range
+     * @param targetWeek week of the first copied week
+     * @return The new entries, with copies of the running units.
+     * @throws IllegalArgumentException if a copied week would be out of the plan
+     */
+    @NotNull
+    public static List<RunningPlanEntry> copyWeeks(@NotNull List<RunningPlanEntry> entries,
+                                                   int fromWeek, int toWeek, int targetWeek) {
+        if (fromWeek > toWeek) {
+            throw new IllegalArgumentException("The first week must not be after the last week.");
+        }
+        checkWeek(targetWeek);
+        checkWeek(targetWeek + toWeek - fromWeek);
+        List<RunningPlanEntry> copiedEntries = new ArrayList<>();
+        for (RunningPlanEntry entry: entries) {
+            if (entry.getWeek() >= fromWeek && entry.getWeek() <= toWeek) {
+                List<RunningUnit> runningUnits = new ArrayList<>(entry.getRunningUnits().size());
+                for (RunningUnit runningUnit: entry.getRunningUnits()) {
+                    RunningUnit copiedRunningUnit = new RunningUnit();
+                    copiedRunningUnit.setDuration(runningUnit.getDuration());
+                    copiedRunningUnit.setMovementType(runningUnit.getMovementType());
+                    runningUnits.add(copiedRunningUnit);
+                }
+                RunningPlanEntry copiedEntry = new RunningPlanEntry();
+                copiedEntry.setWeek(entry.getWeek() - fromWeek + targetWeek);
+                copiedEntry.setDay(entry.getDay());
+                copiedEntry.setRunningUnits(runningUnits);
+                copiedEntries.add(copiedEntry);
+            }
+        }
+        return copiedEntries;
+    }
+
+    private static void checkWeek(int week) {
+        if (week < 1 || week > Global.MAX_COUNT_OF_WEEKS) {
+            throw new IllegalArgumentException("The week " + week + " is out of the plan.");
+        }
+    }
+
+    private RunningPlanBulkEdit() {}
+}
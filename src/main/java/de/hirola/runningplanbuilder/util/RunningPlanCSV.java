@@ -0,0 +1,563 @@
+package de.hirola.runningplanbuilder.util;
+
+import de.hirola.runningplanbuilder.Global;
+import de.hirola.runningplanbuilder.model.RunningPlanEntrySnapshot;
+import de.hirola.runningplanbuilder.model.RunningPlanSnapshot;
+import de.hirola.runningplanbuilder.model.RunningUnitSnapshot;
+import de.hirola.sportsapplications.model.MovementType;
+import de.hirola.sportsapplications.model.RunningPlan;
+import de.hirola.sportsapplications.model.RunningPlanEntry;
+import de.hirola.sportsapplications.model.RunningUnit;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Copyright 2022 by Michael Schmidt, Hirola Consulting
+ * This software us licensed under the AGPL-3.0 or later.
+ *
+ * Import and export of running plans as CSV, for drafts in spreadsheets.
+ *
+ * Each row contains a running unit with the columns week, day, movement type key, duration,
+ * remarks and entry. The rows of an entry follow each other, the remarks of the entry are in its
+ * first row. An entry without running units has a row with empty movement type and duration.
+ * The delimiter is a comma or a semicolon, as detected in the first line.
+ *
+ * The entry column numbers the entries in ascending order, so two entries of the same day
+ * are kept apart. In a draft without the entry column, the rows of the same week and day
+ * are an entry. These rows must follow each other, otherwise the draft is rejected.
+ *
+ * The file is read in a single pass with a fixed buffer. The fields are parsed from reused
+ * buffers, so a row creates no objects except the running unit. The entries are created while
+ * reading, the memory of the import is the memory of the plan.
+ *
+ * @author Michael Schmidt (Hirola)
+ * @since v0.1
+ */
+public final class RunningPlanCSV {
+    private static final String[] COLUMNS = {"week", "day", "movementType", "duration", "remarks", "entry"};
+    private static final int MIN_COLUMNS = 4; // the remarks and the entry are optional
+    private static final int ENTRY_COLUMN = 5;
+    private static final int DAYS_OF_WEEK = 7;
+    private static final char BYTE_ORDER_MARK = '\uFEFF';
+
+    private RunningPlanCSV() {}
+
+    /**
+     * Reads a running plan from CSV. All rows are checked, the malformed lines
+     * are reported together.
+     *
+     * The remarks of the entries are exported, but not imported, the entries of the
+     * sports library can not be changed in this way.
+     *
+     * @param reader of the CSV
+     * @param name of the new plan
+     * @param movementTypes of the sports library, found by their keys
+     * @return A new running plan with the entries of the rows.
+     * @throws IOException if the CSV can not be read
+     * @throws ParseException if lines are malformed, the error offset is the number of the first malformed line
+     */
+    @NotNull
+    public static RunningPlan importRunningPlan(@NotNull Reader reader, @NotNull String name,
+                                               @NotNull List<MovementType> movementTypes)
+            throws IOException, ParseException {
+        return importRunningPlan(reader, name, movementTypes, chunk -> {});
+    }
+
+    /**
+     * Reads a running plan from CSV and passes the entries in chunks while reading,
+     * e.g. to show the first weeks before the whole file is read.
+     *
+     * The chunks follow the order of the rows, an entry is passed after its last row.
+     * The first chunk is small, the following chunks grow up to a maximum size.
+     * After the first malformed line no more chunks are passed, the chunks passed before
+     * must be discarded by the consumer.
+     *
+     * @param reader of the CSV
+     * @param name of the new plan
+     * @param movementTypes of the sports library, found by their keys
+     * @param chunkConsumer called on the reading thread with the next completed entries
+     * @return A new running plan with the entries of the rows.
+     * @throws IOException if the CSV can not be read
+     * @throws ParseException if lines are malformed, the error offset is the number of the first malformed line
+     */
+    @NotNull
+    public static RunningPlan importRunningPlan(@NotNull Reader reader, @NotNull String name,
+                                               @NotNull List<MovementType> movementTypes,
+                                               @NotNull Consumer<List<RunningPlanEntry>> chunkConsumer)
+            throws IOException, ParseException {
+        ApplicationResources applicationResources = ApplicationResources.getInstance();
+        CSVReader csvReader = new CSVReader(reader);
+        List<RunningPlanEntry> entries = new ArrayList<>();
+        List<RunningPlanEntry> chunk = new ArrayList<>();
+        int chunkSize = Global.CSVPreferences.FIRST_CHUNK_SIZE;
+        StringBuilder errors = new StringBuilder();
+        int errorCount = 0;
+        int firstErrorLine = 0;
+        RunningPlanEntry entry = null;
+        List<RunningUnit> runningUnits = null;
+        // the grouping of the rows is checked for all lines, also after a malformed line
+        boolean isGroupingKnown = false;
+        boolean isNumberedRows = false;
+        int lastEntryNumber = 0;
+        int lastWeek = 0;
+        int lastDay = 0;
+        Set<Long> daysOfEntries = new HashSet<>();
+        boolean isFirstRecord = true;
+        while (csvReader.readRecord()) {
+            if (csvReader.isEmptyRecord()) {
+                continue;
+            }
+            if (isFirstRecord) {
+                isFirstRecord = false;
+                if (!isNumber(csvReader.getField(0))) {
+                    continue; // the header
+                }
+            }
+            if (!isGroupingKnown) {
+                // the first row decides whether the entries are numbered
+                isGroupingKnown = true;
+                isNumberedRows = csvReader.getField(ENTRY_COLUMN).length() > 0;
+            }
+            String error = null;
+            int week = parseInt(csvReader.getField(0));
+            int day = parseInt(csvReader.getField(1));
+            MovementType movementType = null;
+            long duration = 0;
+            boolean hasRunningUnit = csvReader.getFieldCount() >= MIN_COLUMNS
+                    && (csvReader.getField(2).length() > 0 || csvReader.getField(3).length() > 0);
+            if (csvReader.getFieldCount() < MIN_COLUMNS || csvReader.getFieldCount() > COLUMNS.length) {
+                error = applicationResources.getString("csv.error.columns") + " " + String.join(", ", COLUMNS);
+            } else if (week < 1) {
+                error = applicationResources.getString("csv.error.week");
+            } else if (day < 1 || day > DAYS_OF_WEEK) {
+                error = applicationResources.getString("csv.error.day");
+            } else if (hasRunningUnit) {
+                movementType = findMovementType(movementTypes, csvReader.getField(2));
+                duration = parseLong(csvReader.getField(3));
+                if (movementType == null) {
+                    error = applicationResources.getString("csv.error.movementType");
+                } else if (duration < 0) {
+                    error = applicationResources.getString("csv.error.duration");
+                }
+            }
+            boolean isNewEntry = false;
+            if (error == null) {
+                if (isNumberedRows) {
+                    int entryNumber = parseInt(csvReader.getField(ENTRY_COLUMN));
+                    if (entryNumber < 1) {
+                        error = applicationResources.getString("csv.error.entry");
+                    } else if (entryNumber < lastEntryNumber) {
+                        error = applicationResources.getString("csv.error.entryOrder");
+                    } else if (entryNumber == lastEntryNumber && (week != lastWeek || day != lastDay)) {
+                        error = applicationResources.getString("csv.error.entryDay");
+                    } else {
+                        isNewEntry = entryNumber > lastEntryNumber;
+                        lastEntryNumber = entryNumber;
+                    }
+                } else if (csvReader.getField(ENTRY_COLUMN).length() > 0) {
+                    error = applicationResources.getString("csv.error.entry");
+                } else {
+                    isNewEntry = week != lastWeek || day != lastDay;
+                    // an entry per day, the rows of a day must not be split
+                    if (isNewEntry && !daysOfEntries.add(((long) week << 3) | day)) {
+                        error = applicationResources.getString("csv.error.ambiguous");
+                    }
+                }
+                if (error == null) {
+                    lastWeek = week;
+                    lastDay = day;
+                }
+            }
+            if (error != null) {
+                errorCount++;
+                if (errorCount == 1) {
+                    firstErrorLine = csvReader.getRecordLine();
+                }
+                if (errorCount <= Global.CSVPreferences.MAX_REPORTED_ERRORS) {
+                    appendError(errors, csvReader.getRecordLine(), error);
+                }
+                continue;
+            }
+            if (errorCount > 0) {
+                continue; // the plan is not created, only the lines are checked
+            }
+            if (isNewEntry) {
+                if (entry != null) {
+                    entry.setRunningUnits(runningUnits);
+                    // the entry is complete
+                    chunk.add(entry);
+                    if (chunk.size() >= chunkSize) {
+                        chunkConsumer.accept(chunk);
+                        chunk = new ArrayList<>();
+                        chunkSize = Math.min(chunkSize * 2, Global.CSVPreferences.MAX_CHUNK_SIZE);
+                    }
+                }
+                entry = new RunningPlanEntry();
+                entry.setWeek(week);
+                entry.setDay(day);
+                runningUnits = new ArrayList<>(2);
+                entries.add(entry);
+            }
+            if (hasRunningUnit) {
+                RunningUnit runningUnit = new RunningUnit();
+                runningUnit.setDuration(duration);
+                runningUnit.setMovementType(movementType);
+                runningUnits.add(runningUnit);
+            }
+        }
+        if (csvReader.isUnterminatedQuote()) {
+            errorCount++;
+            if (errorCount == 1) {
+                firstErrorLine = csvReader.getRecordLine();
+            }
+            appendError(errors, csvReader.getRecordLine(), applicationResources.getString("csv.error.quote"));
+        }
+        if (errorCount > 0) {
+            if (errorCount > Global.CSVPreferences.MAX_REPORTED_ERRORS) {
+                errors.append('\n')
+                        .append(errorCount - Global.CSVPreferences.MAX_REPORTED_ERRORS)
+                        .append(" ")
+                        .append(applicationResources.getString("csv.error.more"));
+            }
+            throw new ParseException(errors.toString(), firstErrorLine);
+        }
+        if (entry != null) {
+            entry.setRunningUnits(runningUnits);
+            chunk.add(entry);
+        }
+        if (!chunk.isEmpty()) {
+            chunkConsumer.accept(chunk);
+        }
+        RunningPlan runningPlan = new RunningPlan();
+        runningPlan.setName(name);
+        runningPlan.setOrderNumber(1);
+        runningPlan.setEntries(entries);
+        return runningPlan;
+    }
+
+    /**
+     * Writes the entries as CSV, a row for each running unit. The entries are numbered in their order.
+     *
+     * @param entries of the plan
+     * @param writer for the CSV, should be buffered
+     * @throws IOException if the CSV can not be written
+     */
+    public static void exportRunningPlan(@NotNull List<RunningPlanEntry> entries, @NotNull Writer writer)
+            throws IOException {
+        writeHeader(writer);
+        int entryNumber = 0;
+        for (RunningPlanEntry entry: entries) {
+            entryNumber++;
+            String remarks = entry.getRemarks().orElse("");
+            List<RunningUnit> runningUnits = entry.getRunningUnits();
+            if (runningUnits.isEmpty()) {
+                writeRow(writer, entry.getWeek(), entry.getDay(), null, 0, remarks, entryNumber);
+            }
+            for (RunningUnit runningUnit: runningUnits) {
+                writeRow(writer, entry.getWeek(), entry.getDay(), runningUnit.getMovementType(),
+                        runningUnit.getDuration(), remarks, entryNumber);
+                remarks = ""; // the remarks are written in the first row of the entry
+            }
+        }
+        writer.flush();
+    }
+
+    /**
+     * Creates the CSV format for the export of a snapshot with other formats.
+     *
+     * @param writer for the CSV, should be buffered, closed at the end of the export
+     * @return The format for the export pipeline.
+     */
+    @NotNull
+    public static PlanExportPipeline.FormatWriter createFormatWriter(@NotNull Writer writer) {
+        return new PlanExportPipeline.FormatWriter() {
+            private int entryNumber;
+
+            @Override
+            public void begin(@NotNull RunningPlanSnapshot snapshot) throws IOException {
+                entryNumber = 0;
+                writeHeader(writer);
+            }
+
+            @Override
+            public void write(@NotNull RunningPlanEntrySnapshot entry) throws IOException {
+                entryNumber++;
+                String remarks = entry.getRemarks().orElse("");
+                if (entry.getRunningUnits().isEmpty()) {
+                    writeRow(writer, entry.getWeek(), entry.getDay(), null, 0, remarks, entryNumber);
+                }
+                for (RunningUnitSnapshot runningUnit: entry.getRunningUnits()) {
+                    writeRow(writer, entry.getWeek(), entry.getDay(), runningUnit.getMovementType(),
+                            runningUnit.getDuration(), remarks, entryNumber);
+                    remarks = "";
+                }
+            }
+
+            @Override
+            public void end() throws IOException {
+                writer.flush();
+            }
+
+            @Override
+            public void close() throws IOException {
+                writer.close();
+            }
+        };
+    }
+
+    private static void writeHeader(Writer writer) throws IOException {
+        writer.write(String.join(",", COLUMNS));
+        writer.write("\r\n");
+    }
+
+    // a row without movement type and duration for an entry without running units
+    private static void writeRow(Writer writer, int week, int day, @Nullable MovementType movementType,
+                                 long duration, String remarks, int entryNumber) throws IOException {
+        writer.write(Integer.toString(week));
+        writer.write(',');
+        writer.write(Integer.toString(day));
+        writer.write(',');
+        if (movementType != null) {
+            writeField(writer, movementType.getKey());
+        }
+        writer.write(',');
+        if (movementType != null || duration > 0) {
+            writer.write(Long.toString(duration));
+        }
+        writer.write(',');
+        writeField(writer, remarks);
+        writer.write(',');
+        writer.write(Integer.toString(entryNumber));
+        writer.write("\r\n");
+    }
+
+    // fields with a delimiter, a quote or a line break are quoted
+    private static void writeField(Writer writer, String field) throws IOException {
+        boolean isQuoted = false;
+        for (int index = 0; index < field.length() && !isQuoted; index++) {
+            char character = field.charAt(index);
+            isQuoted = character == ',' || character == ';' || character == '"'
+                    || character == '\n' || character == '\r';
+        }
+        if (!isQuoted) {
+            writer.write(field);
+            return;
+        }
+        writer.write('"');
+        for (int index = 0; index < field.length(); index++) {
+            char character = field.charAt(index);
+            if (character == '"') {
+                writer.write('"');
+            }
+            writer.write(character);
+        }
+        writer.write('"');
+    }
+
+    private static void appendError(StringBuilder errors, int line, String error) {
+        if (errors.length() > 0) {
+            errors.append('\n');
+        }
+        errors.append(ApplicationResources.getInstance().getString("csv.error.line"))
+                .append(" ")
+                .append(line)
+                .append(": ")
+                .append(error);
+    }
+
+    // the keys are compared with the buffer of the field, without creating a string
+    @Nullable
+    private static MovementType findMovementType(List<MovementType> movementTypes, CharSequence key) {
+        for (MovementType movementType: movementTypes) {
+            if (movementType.getKey().contentEquals(key)) {
+                return movementType;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isNumber(CharSequence field) {
+        return parseLong(field) >= 0;
+    }
+
+    // -1 if the field is not a number
+    private static int parseInt(CharSequence field) {
+        long value = parseLong(field);
+        return value > Integer.MAX_VALUE ? -1 : (int) value;
+    }
+
+    // -1 if the field is not a number, blanks around the number are ignored
+    private static long parseLong(CharSequence field) {
+        int start = 0;
+        int end = field.length();
+        while (start < end && field.charAt(start) == ' ') {
+            start++;
+        }
+        while (end > start && field.charAt(end - 1) == ' ') {
+            end--;
+        }
+        if (start == end || end - start > 18) {
+            return -1;
+        }
+        long value = 0;
+        for (int index = start; index < end; index++) {
+            char character = field.charAt(index);
+            if (character < '0' || character > '9') {
+                return -1;
+            }
+            value = value * 10 + (character - '0');
+        }
+        return value;
+    }
+
+    // reads the records of the CSV with a fixed buffer, the fields are reused for each record
+    private static final class CSVReader {
+        private final Reader reader;
+        private final char[] buffer;
+        private final StringBuilder[] fields;
+        private final StringBuilder ignoredField; // the fields after the last column
+        private int position;
+        private int limit;
+        private char delimiter;
+        private int fieldCount;
+        private int line; // the number of the actual line
+        private int recordLine; // the number of the first line of the record
+        private boolean isUnterminatedQuote;
+
+        CSVReader(Reader reader) {
+            this.reader = reader;
+            buffer = new char[Global.CSVPreferences.BUFFER_SIZE];
+            fields = new StringBuilder[COLUMNS.length];
+            for (int index = 0; index < fields.length; index++) {
+                fields[index] = new StringBuilder();
+            }
+            ignoredField = new StringBuilder();
+            line = 1;
+        }
+
+        int getFieldCount() {
+            return fieldCount;
+        }
+
+        // an empty string for a missing field
+        CharSequence getField(int index) {
+            return index < fieldCount && index < fields.length ? fields[index] : "";
+        }
+
+        int getRecordLine() {
+            return recordLine;
+        }
+
+        boolean isEmptyRecord() {
+            return fieldCount == 1 && fields[0].length() == 0;
+        }
+
+        boolean isUnterminatedQuote() {
+            return isUnterminatedQuote;
+        }
+
+        // false at the end of the CSV
+        boolean readRecord() throws IOException {
+            if (delimiter == 0) {
+                detectDelimiter();
+            }
+            int character = read();
+            if (character == -1) {
+                return false;
+            }
+            recordLine = line;
+            fieldCount = 0;
+            StringBuilder field = nextField();
+            boolean isQuoted = false;
+            while (true) {
+                if (isQuoted) {
+                    if (character == -1) {
+                        isUnterminatedQuote = true;
+                        return true;
+                    }
+                    if (character == '"') {
+                        if (peek() == '"') {
+                            read();
+                            field.append('"');
+                        } else {
+                            isQuoted = false;
+                        }
+                    } else {
+                        if (character == '\n') {
+                            line++;
+                        }
+                        field.append((char) character);
+                    }
+                } else if (character == '"' && field.length() == 0) {
+                    isQuoted = true;
+                } else if (character == delimiter) {
+                    field = nextField();
+                } else if (character == '\r' || character == '\n') {
+                    if (character == '\r' && peek() == '\n') {
+                        read();
+                    }
+                    line++;
+                    return true;
+                } else if (character == -1) {
+                    return true;
+                } else {
+                    field.append((char) character);
+                }
+                character = read();
+            }
+        }
+
+        private StringBuilder nextField() {
+            StringBuilder field = fieldCount < fields.length ? fields[fieldCount] : ignoredField;
+            field.setLength(0);
+            fieldCount++;
+            return field;
+        }
+
+        // the delimiter of the first line, a comma if the first line has none
+        private void detectDelimiter() throws IOException {
+            fill();
+            if (limit > 0 && buffer[0] == BYTE_ORDER_MARK) {
+                position = 1;
+            }
+            delimiter = ',';
+            for (int index = position; index < limit && buffer[index] != '\n' && buffer[index] != '\r'; index++) {
+                if (buffer[index] == ',' || buffer[index] == ';') {
+                    delimiter = buffer[index];
+                    return;
+                }
+            }
+        }
+
+        private int read() throws IOException {
+            if (position == limit && !fill()) {
+                return -1;
+            }
+            return buffer[position++];
+        }
+
+        private int peek() throws IOException {
+            if (position == limit && !fill()) {
+                return -1;
+            }
+            return buffer[position];
+        }
+
+        private boolean fill() throws IOException {
+            int count = reader.read(buffer, 0, buffer.length);
+            position = 0;
+            limit = Math.max(count, 0);
+            return count > 0;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package de.hirola.runningplanbuilder.util;
+
+import de.hirola.runningplanbuilder.model.EntryAttribute;
+import de.hirola.runningplanbuilder.model.EntryChange;
+import de.hirola.runningplanbuilder.model.RunningPlanEntrySnapshot;
+import de.hirola.runningplanbuilder.model.RunningPlanSnapshot;
+import de.hirola.runningplanbuilder.model.RunningUnitSnapshot;
+import de.hirola.sportsapplications.model.MovementType;
+import de.hirola.sportsapplications.model.UUID;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Copyright 2022 by Michael Schmidt, Hirola Consulting
+ * This software us licensed under the AGPL-3.0 or later.
+ *
+ * Compares two snapshots of a running plan.
+ *
+ * The entries are joined by their UUID with a hash map, so the diff needs O(n) time.
+ * Entries of the same snapshot instance are not compared.
+ *
+ * @author Michael Schmidt (Hirola)
+ * @since v0.1
+ */
+public final class RunningPlanDiff {
+
+    /**
+     * Returns the changes of the entries from the first to the second snapshot.
+     * The changes are in the order of the second snapshot, followed by the removed entries.
+     *
+     * @param before the older snapshot
+     * @param after the newer snapshot
+     * @return The added, removed and changed entries.
+     */
+    @NotNull
+    public static List<EntryChange> diff(@NotNull RunningPlanSnapshot before, @NotNull RunningPlanSnapshot after) {
+        Map<UUID, RunningPlanEntrySnapshot> entriesBefore = mapByUUID(before);
+        List<EntryChange> changes = new ArrayList<>();
+        for (RunningPlanEntrySnapshot entryAfter: after.getEntries()) {
+            RunningPlanEntrySnapshot entryBefore = entriesBefore.remove(entryAfter.getUUID());
+            if (entryBefore == null) {
+                changes.add(new EntryChange(null, entryAfter, Set.of()));
+            } else {
+                Set<EntryAttribute> attributes = getChangedAttributes(entryBefore, entryAfter);
+                if (!attributes.isEmpty()) {
+                    changes.add(new EntryChange(entryBefore, entryAfter, attributes));
+                }
+            }
+        }
+        for (RunningPlanEntrySnapshot entryBefore: before.getEntries()) {
+            if (entriesBefore.containsKey(entryBefore.getUUID())) {
+                changes.add(new EntryChange(entryBefore, null, Set.of()));
+            }
+        }
+        return changes;
+    }
+
+    /**
+     * Compares the attributes of two entries.
+     *
+     * @param first entry
+     * @param second entry
+     * @return The attributes with different values, empty if the entries are equal.
+     */
+    @NotNull
+    public static Set<EntryAttribute> getChangedAttributes(@NotNull RunningPlanEntrySnapshot first,
+                                                           @NotNull RunningPlanEntrySnapshot second) {
+        Set<EntryAttribute> attributes = EnumSet.noneOf(EntryAttribute.class);
+        if (first == second) {
+            return attributes;
+        }
+        if (first.getWeek() != second.getWeek()) {
+            attributes.add(EntryAttribute.WEEK);
+        }
+        if (first.getDay() != second.getDay()) {
+            attributes.add(EntryAttribute.DAY);
+        }
+        if (!first.getRemarks().equals(second.getRemarks())) {
+            attributes.add(EntryAttribute.REMARKS);
+        }
+        if (!isEqual(first.getRunningUnits(), second.getRunningUnits())) {
+            attributes.add(EntryAttribute.RUNNING_UNITS);
+        }
+        return attributes;
+    }
+
+    static Map<UUID, RunningPlanEntrySnapshot> mapByUUID(@NotNull RunningPlanSnapshot snapshot) {
+        Map<UUID, RunningPlanEntrySnapshot> entries = new HashMap<>(snapshot.getEntries().size() * 4 / 3 + 1);
+        for (RunningPlanEntrySnapshot entry: snapshot.getEntries()) {
+            entries.put(entry.getUUID(), entry);
+        }
+        return entries;
+    }
+
+    private static boolean isEqual(List<RunningUnitSnapshot> first, List<RunningUnitSnapshot> second) {
+        if (first.size() != second.size()) {
+            return false;
+        }
+        for (int i = 0; i < first.size(); i++) {
+            RunningUnitSnapshot firstUnit = first.get(i);
+            RunningUnitSnapshot secondUnit = second.get(i);
+            if (firstUnit.getDuration() != secondUnit.getDuration()
+                    || !Objects.equals(getKey(firstUnit.getMovementType()), getKey(secondUnit.getMovementType()))
+                    || !Objects.equals(firstUnit.getRunningInfos(), secondUnit.getRunningInfos())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String getKey(@Nullable MovementType movementType) {
+        return movementType != null ? movementType.getKey() : null;
+    }
+
+    private RunningPlanDiff() {}
+}
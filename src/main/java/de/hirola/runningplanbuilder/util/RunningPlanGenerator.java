@@ -0,0 +1,207 @@
+package de.hirola.runningplanbuilder.util;
+
+import de.hirola.sportsapplications.model.MovementType;
+import de.hirola.sportsapplications.model.RunningPlan;
+import de.hirola.sportsapplications.model.RunningPlanEntry;
+import de.hirola.sportsapplications.model.RunningUnit;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Copyright 2022 by Michael Schmidt, Hirola Consulting
+ * This software us licensed under the AGPL-3.0 or later.
+ *
+ * Generates a running plan with a progressive weekly volume.
+ *
+ * The volume increases from the base to the peak volume by the progression curve,
+ * followed by the taper weeks of the goal. The sessions are spread over the week,
+ * the last session of a week is the long run. Each session starts with a warm-up
+ * in the slowest movement type.
+ *
+ * @author Michael Schmidt (Hirola)
+ * @since v0.1
+ */
+public final class RunningPlanGenerator {
+    private static final int DAYS_OF_WEEK = 7;
+    private static final int WARM_UP_MINUTES = 5;
+    private static final int ROUND_MINUTES = 5; // the main units are rounded to 5 minutes
+    private static final double LONG_RUN_SHARE = 0.35; // of the weekly volume
+    private static final double RECOVERY_WEEK_FACTOR = 0.7; // of the previous week
+    private static final double TAPER_FACTOR = 0.6; // each taper week reduces the volume
+
+    public enum Goal {
+        FIVE_KILOMETERS("5k", 1),
+        TEN_KILOMETERS("10k", 1),
+        HALF_MARATHON("halfMarathon", 2),
+        MARATHON("marathon", 3);
+
+        private final String key;
+        private final int taperWeeks;
+
+        Goal(String key, int taperWeeks) {
+            this.key = key;
+            this.taperWeeks = taperWeeks;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public int getTaperWeeks() {
+            return taperWeeks;
+        }
+    }
+
+    public enum ProgressionCurve {
+        LINEAR("linear"), // the same increase each week
+        EXPONENTIAL("exponential"), // the same percentage increase each week
+        STEPPED("stepped"); // like linear, but each 4th week is a recovery week
+
+        private final String key;
+
+        ProgressionCurve(String key) {
+            this.key = key;
+        }
+
+        public String getKey() {
+            return key;
+        }
+    }
+
+    private final Goal goal;
+    private final int weeks;
+    private final int sessionsPerWeek;
+    private final int baseVolume;
+    private final int peakVolume;
+    private final ProgressionCurve progressionCurve;
+
+    /**
+     * Creates a generator for the parameters.
+     *
+     * @param goal of the plan
+     * @param weeks of the plan
+     * @param sessionsPerWeek between 1 and 7
+     * @param baseVolume of the first week in minutes
+     * @param peakVolume of the week before the taper weeks in minutes
+     * @param progressionCurve of the weekly volume
+     * @throws IllegalArgumentException if a parameter is out of range
+     */
+    public RunningPlanGenerator(@NotNull Goal goal, int weeks, int sessionsPerWeek,
+                                int baseVolume, int peakVolume, @NotNull ProgressionCurve progressionCurve) {
+        if (weeks < 1) {
+            throw new IllegalArgumentException("The plan needs at least one week.");
+        }
+        if (sessionsPerWeek < 1 || sessionsPerWeek > DAYS_OF_WEEK) {
+            throw new IllegalArgumentException("The sessions per week must be between 1 and 7.");
+        }
+        if (baseVolume < 1 || peakVolume < baseVolume) {
+            throw new IllegalArgumentException("The peak volume must be greater than the base volume.");
+        }
+        this.goal = goal;
+        this.weeks = weeks;
+        this.sessionsPerWeek = sessionsPerWeek;
+        this.baseVolume = baseVolume;
+        this.peakVolume = peakVolume;
+        this.progressionCurve = progressionCurve;
+    }
+
+    /**
+     * Returns the volume of the week.
+     *
+     * @param week of the plan, starting with 1
+     * @return The planned volume of the week in minutes.
+     */
+    public double getWeeklyVolume(int week) {
+        int taperWeeks = Math.min(goal.getTaperWeeks(), weeks - 1);
+        int buildWeeks = weeks - taperWeeks;
+        if (week > buildWeeks) {
+            return peakVolume * Math.pow(TAPER_FACTOR, week - buildWeeks);
+        }
+        double progress = buildWeeks > 1 ? (double) (week - 1) / (buildWeeks - 1) : 1.0;
+        switch (progressionCurve) {
+            case EXPONENTIAL:
+                return baseVolume * Math.pow((double) peakVolume / baseVolume, progress);
+            case STEPPED:
+                double volume = baseVolume + (peakVolume - baseVolume) * progress;
+                if (week % 4 == 0 && week < buildWeeks) {
+                    return volume * RECOVERY_WEEK_FACTOR;
+                }
+                return volume;
+            default:
+                return baseVolume + (peakVolume - baseVolume) * progress;
+        }
+    }
+
+    /**
+     * Generates the entries and running units of the plan in one batch.
+     *
+     * @param name of the plan
+     * @param movementTypes of the sports library
+     * @return A new running plan with all entries.
+     * @throws IllegalArgumentException if no movement types are available
+     */
+    @NotNull
+    public RunningPlan generate(@NotNull String name, @NotNull List<MovementType> movementTypes) {
+        if (movementTypes.isEmpty()) {
+            throw new IllegalArgumentException("The running units need a movement type.");
+        }
+        // the types with a pace, from slow to fast
+        List<MovementType> typesByPace = new ArrayList<>();
+        for (MovementType movementType: movementTypes) {
+            if (movementType.getPace() > 0.0) {
+                typesByPace.add(movementType);
+            }
+        }
+        typesByPace.sort(Comparator.comparingDouble(MovementType::getPace).reversed());
+        MovementType warmUpType = typesByPace.isEmpty() ? movementTypes.get(0) : typesByPace.get(0);
+        MovementType mainType = typesByPace.isEmpty() ? movementTypes.get(0) : typesByPace.get(typesByPace.size() / 2);
+        int[] days = sessionDays(sessionsPerWeek);
+        List<RunningPlanEntry> entries = new ArrayList<>(weeks * sessionsPerWeek);
+        for (int week = 1; week <= weeks; week++) {
+            double weeklyVolume = getWeeklyVolume(week);
+            double longRunVolume = sessionsPerWeek > 1 ? weeklyVolume * LONG_RUN_SHARE : weeklyVolume;
+            double sessionVolume = sessionsPerWeek > 1
+                    ? (weeklyVolume - longRunVolume) / (sessionsPerWeek - 1) : weeklyVolume;
+            for (int session = 0; session < sessionsPerWeek; session++) {
+                boolean isLongRun = session == sessionsPerWeek - 1;
+                long mainMinutes = roundMinutes((isLongRun ? longRunVolume : sessionVolume) - WARM_UP_MINUTES);
+                List<RunningUnit> runningUnits = new ArrayList<>(2);
+                runningUnits.add(runningUnit(WARM_UP_MINUTES, warmUpType));
+                runningUnits.add(runningUnit(mainMinutes, mainType));
+                RunningPlanEntry entry = new RunningPlanEntry();
+                entry.setWeek(week);
+                entry.setDay(days[session]);
+                entry.setRunningUnits(runningUnits);
+                entries.add(entry);
+            }
+        }
+        RunningPlan runningPlan = new RunningPlan();
+        runningPlan.setName(name);
+        runningPlan.setOrderNumber(1);
+        runningPlan.setEntries(entries);
+        return runningPlan;
+    }
+
+    // the sessions are spread over the week, the last session is on sunday
+    private static int[] sessionDays(int sessions) {
+        int[] days = new int[sessions];
+        for (int session = 0; session < sessions; session++) {
+            days[session] = DAYS_OF_WEEK - (sessions - 1 - session) * DAYS_OF_WEEK / sessions;
+        }
+        return days;
+    }
+
+    private static long roundMinutes(double minutes) {
+        return Math.max(ROUND_MINUTES, Math.round(minutes / ROUND_MINUTES) * ROUND_MINUTES);
+    }
+
+    private static RunningUnit runningUnit(long duration, MovementType movementType) {
+        RunningUnit runningUnit = new RunningUnit();
+        runningUnit.setDuration(duration);
+        runningUnit.setMovementType(movementType);
+        return runningUnit;
+    }
+}
@@ -0,0 +1,155 @@
+package de.hirola.runningplanbuilder.util;
+
+import de.hirola.runningplanbuilder.model.RunningPlanEntrySnapshot;
+import de.hirola.runningplanbuilder.model.RunningPlanSnapshot;
+import de.hirola.runningplanbuilder.model.RunningUnitSnapshot;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Copyright 2022 by Michael Schmidt, Hirola Consulting
+ * This software us licensed under the AGPL-3.0 or later.
+ *
+ * Export of running plans as iCalendar (RFC 5545), to show the trainings in a calendar app.
+ *
+ * Each entry is an event for the whole day. The weeks of the plan start on the monday of the
+ * week with the start date, day 1 of a week is the monday. The summary of an event contains
+ * the running units, the description contains the remarks of the entry.
+ *
+ * @author Michael Schmidt (Hirola)
+ * @since v0.1
+ */
+public final class RunningPlanICS {
+    private static final int MAX_LINE_OCTETS = 75; // without the line break
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.BASIC_ISO_DATE;
+    private static final DateTimeFormatter TIMESTAMP_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'");
+
+    private RunningPlanICS() {}
+
+    /**
+     * Creates the iCalendar format for the export of a snapshot with other formats.
+     *
+     * @param writer for the calendar, should be buffered and use UTF-8, closed at the end of the export
+     * @param startDate of the plan, the first week is the week of the date
+     * @return The format for the export pipeline.
+     */
+    @NotNull
+    public static PlanExportPipeline.FormatWriter createFormatWriter(@NotNull Writer writer,
+                                                                     @NotNull LocalDate startDate) {
+        LocalDate firstMonday = startDate.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        String timestamp = ZonedDateTime.now(ZoneOffset.UTC).format(TIMESTAMP_FORMATTER);
+        return new PlanExportPipeline.FormatWriter() {
+            @Override
+            public void begin(@NotNull RunningPlanSnapshot snapshot) throws IOException {
+                writeLine(writer, "BEGIN:VCALENDAR");
+                writeLine(writer, "VERSION:2.0");
+                writeLine(writer, "PRODID:-//Hirola Consulting//RunningPlanBuilder//EN");
+                writeLine(writer, "CALSCALE:GREGORIAN");
+                if (snapshot.getName() != null) {
+                    writeLine(writer, "X-WR-CALNAME:" + escape(snapshot.getName()));
+                }
+            }
+
+            @Override
+            public void write(@NotNull RunningPlanEntrySnapshot entry) throws IOException {
+                LocalDate date = firstMonday.plusDays((entry.getWeek() - 1) * 7L + entry.getDay() - 1);
+                writeLine(writer, "BEGIN:VEVENT");
+                writeLine(writer, "UID:" + entry.getUUID() + "@runningplanbuilder");
+                writeLine(writer, "DTSTAMP:" + timestamp);
+                writeLine(writer, "DTSTART;VALUE=DATE:" + date.format(DATE_FORMATTER));
+                writeLine(writer, "DTEND;VALUE=DATE:" + date.plusDays(1).format(DATE_FORMATTER));
+                writeLine(writer, "SUMMARY:" + escape(getSummary(entry)));
+                if (entry.getRemarks().isPresent()) {
+                    writeLine(writer, "DESCRIPTION:" + escape(entry.getRemarks().get()));
+                }
+                writeLine(writer, "END:VEVENT");
+            }
+
+            @Override
+            public void end() throws IOException {
+                writeLine(writer, "END:VCALENDAR");
+                writer.flush();
+            }
+
+            @Override
+            public void close() throws IOException {
+                writer.close();
+            }
+        };
+    }
+
+    // e.g. "40 min: 10 min Walking, 30 min Running"
+    private static String getSummary(RunningPlanEntrySnapshot entry) {
+        StringBuilder summary = new StringBuilder();
+        summary.append(entry.getDuration()).append(" min");
+        String separator = ": ";
+        for (RunningUnitSnapshot runningUnit: entry.getRunningUnits()) {
+            summary.append(separator).append(runningUnit.getDuration()).append(" min");
+            if (runningUnit.getMovementType() != null) {
+                summary.append(" ").append(runningUnit.getMovementType().getName());
+            }
+            separator = ", ";
+        }
+        return summary.toString();
+    }
+
+    private static String escape(String text) {
+        StringBuilder escapedText = new StringBuilder(text.length() + 8);
+        for (int index = 0; index < text.length(); index++) {
+            char character = text.charAt(index);
+            switch (character) {
+                case '\\':
+                case ';':
+                case ',':
+                    escapedText.append('\\').append(character);
+                    break;
+                case '\n':
+                    escapedText.append("\\n");
+                    break;
+                case '\r':
+                    break;
+                default:
+                    escapedText.append(character);
+            }
+        }
+        return escapedText.toString();
+    }
+
+    // long lines are folded after 75 octets of UTF-8, the next line starts with a space
+    private static void writeLine(Writer writer, String line) throws IOException {
+        int octets = 0;
+        int start = 0;
+        for (int index = 0; index < line.length(); index++) {
+            char character = line.charAt(index);
+            int characterOctets;
+            if (character < 0x80) {
+                characterOctets = 1;
+            } else if (character < 0x800) {
+                characterOctets = 2;
+            } else if (Character.isHighSurrogate(character)) {
+                characterOctets = 4; // with the low surrogate, both are written to the same line
+            } else if (Character.isLowSurrogate(character)) {
+                continue;
+            } else {
+                characterOctets = 3;
+            }
+            if (octets + characterOctets > MAX_LINE_OCTETS) {
+                writer.write(line, start, index - start);
+                writer.write("\r\n ");
+                start = index;
+                octets = 1; // the space
+            }
+            octets += characterOctets;
+        }
+        writer.write(line, start, line.length() - start);
+        writer.write("\r\n");
+    }
+}
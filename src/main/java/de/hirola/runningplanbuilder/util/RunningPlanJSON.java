@@ -0,0 +1,114 @@
+package de.hirola.runningplanbuilder.util;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import de.hirola.runningplanbuilder.model.RunningPlanEntrySnapshot;
+import de.hirola.runningplanbuilder.model.RunningPlanSnapshot;
+import de.hirola.runningplanbuilder.model.RunningUnitSnapshot;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Optional;
+
+/**
+ * Copyright 2022 by Michael Schmidt, Hirola Consulting
+ * This software us licensed under the AGPL-3.0 or later.
+ *
+ * Export of a running plan as JSON in the layout of the templates of the sports library.
+ *
+ * The JSON is written from a snapshot of the plan, entry by entry, so the export does not
+ * read the model of the plan and needs no memory for the whole file. The file can be loaded
+ * with the template loader of the sports library and indexed by the {@link TemplateOffsetIndex}.
+ *
+ * @author Michael Schmidt (Hirola)
+ * @since v0.1
+ */
+public final class RunningPlanJSON {
+    private static final JsonFactory JSON_FACTORY = new JsonFactory()
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    // the fields of a template file
+    private static final String NAME_FIELD = "name";
+    private static final String ORDER_NUMBER_FIELD = "orderNumber";
+    private static final String REMARKS_FIELD = "remarks";
+    private static final String ENTRIES_FIELD = "entries";
+    private static final String UUID_FIELD = "uuid";
+    private static final String WEEK_FIELD = "week";
+    private static final String DAY_FIELD = "day";
+    private static final String RUNNING_UNITS_FIELD = "runningUnits";
+    private static final String DURATION_FIELD = "duration";
+    private static final String MOVEMENT_TYPE_FIELD = "movementType";
+
+    private RunningPlanJSON() {}
+
+    /**
+     * Creates the JSON format for the export of a snapshot with other formats.
+     *
+     * @param outputStream for the JSON, should be buffered, closed at the end of the export
+     * @return The format for the export pipeline.
+     */
+    @NotNull
+    public static PlanExportPipeline.FormatWriter createFormatWriter(@NotNull OutputStream outputStream) {
+        return new PlanExportPipeline.FormatWriter() {
+            private JsonGenerator generator;
+
+            @Override
+            public void begin(@NotNull RunningPlanSnapshot snapshot) throws IOException {
+                generator = JSON_FACTORY.createGenerator(outputStream, JsonEncoding.UTF8);
+                generator.writeStartObject();
+                generator.writeStringField(NAME_FIELD, snapshot.getName() == null ? "" : snapshot.getName());
+                generator.writeNumberField(ORDER_NUMBER_FIELD, snapshot.getOrderNumber());
+                writeRemarks(generator, snapshot.getRemarks());
+                generator.writeArrayFieldStart(ENTRIES_FIELD);
+            }
+
+            @Override
+            public void write(@NotNull RunningPlanEntrySnapshot entry) throws IOException {
+                generator.writeStartObject();
+                generator.writeStringField(UUID_FIELD, entry.getUUID().toString());
+                generator.writeNumberField(WEEK_FIELD, entry.getWeek());
+                generator.writeNumberField(DAY_FIELD, entry.getDay());
+                if (entry.getRemarks().isPresent()) {
+                    // the remarks of an entry are optional in the templates
+                    writeRemarks(generator, entry.getRemarks());
+                }
+                generator.writeArrayFieldStart(RUNNING_UNITS_FIELD);
+                for (RunningUnitSnapshot runningUnit: entry.getRunningUnits()) {
+                    generator.writeStartObject();
+                    generator.writeNumberField(DURATION_FIELD, runningUnit.getDuration());
+                    if (runningUnit.getMovementType() == null) {
+                        generator.writeNullField(MOVEMENT_TYPE_FIELD);
+                    } else {
+                        generator.writeStringField(MOVEMENT_TYPE_FIELD, runningUnit.getMovementType().getKey());
+                    }
+                    generator.writeEndObject();
+                }
+                generator.writeEndArray();
+                generator.writeEndObject();
+            }
+
+            @Override
+            public void end() throws IOException {
+                generator.writeEndArray();
+                generator.writeEndObject();
+                // flushes the generator, the stream is not closed
+                generator.close();
+                outputStream.flush();
+            }
+
+            @Override
+            public void close() throws IOException {
+                outputStream.close();
+            }
+        };
+    }
+
+    private static void writeRemarks(JsonGenerator generator, Optional<String> remarks) throws IOException {
+        if (remarks.isPresent()) {
+            generator.writeStringField(REMARKS_FIELD, remarks.get());
+        } else {
+            generator.writeNullField(REMARKS_FIELD);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package de.hirola.runningplanbuilder.util;
+
+import de.hirola.runningplanbuilder.model.EntryAttribute;
+import de.hirola.runningplanbuilder.model.EntryMerge;
+import de.hirola.runningplanbuilder.model.MergeConflict;
+import de.hirola.runningplanbuilder.model.MergeResolution;
+import de.hirola.runningplanbuilder.model.MergeResult;
+import de.hirola.runningplanbuilder.model.RunningPlanEntrySnapshot;
+import de.hirola.runningplanbuilder.model.RunningPlanSnapshot;
+import de.hirola.sportsapplications.model.UUID;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Copyright 2022 by Michael Schmidt, Hirola Consulting
+ * This software us licensed under the AGPL-3.0 or later.
+ *
+ * The three-way merge of two running plans, which were edited from a common ancestor.
+ *
+ * The entries of the three plans are joined by their UUID. For each attribute of an entry
+ * the value of the side, which changed the attribute, is used. If both sides changed an attribute
+ * to different values, or one side removed an entry which the other side changed, the entry
+ * has a conflict and the user chooses the side.
+ *
+ * @author Michael Schmidt (Hirola)
+ * @since v0.1
+ */
+public final class RunningPlanMerge {
+
+    /**
+     * Merges the plans.
+     *
+     * @param ancestor the common ancestor of both plans
+     * @param ours the open plan
+     * @param theirs the other plan
+     * @return The merge with the conflicts, which must be resolved by the user.
+     */
+    @NotNull
+    public static MergeResult merge(@NotNull RunningPlanSnapshot ancestor, @NotNull RunningPlanSnapshot ours,
+                                    @NotNull RunningPlanSnapshot theirs) {
+        Map<UUID, RunningPlanEntrySnapshot> ancestorEntries = RunningPlanDiff.mapByUUID(ancestor);
+        Map<UUID, RunningPlanEntrySnapshot> theirEntries = RunningPlanDiff.mapByUUID(theirs);
+        List<EntryMerge> entryMerges = new ArrayList<>(Math.max(ours.getEntries().size(), theirs.getEntries().size()));
+        for (RunningPlanEntrySnapshot ourEntry: ours.getEntries()) {
+            RunningPlanEntrySnapshot ancestorEntry = ancestorEntries.get(ourEntry.getUUID());
+            RunningPlanEntrySnapshot theirEntry = theirEntries.remove(ourEntry.getUUID());
+            entryMerges.add(mergeEntry(ancestorEntry, ourEntry, theirEntry));
+        }
+        // added or kept only by their plan
+        for (RunningPlanEntrySnapshot theirEntry: theirs.getEntries()) {
+            if (theirEntries.containsKey(theirEntry.getUUID())) {
+                entryMerges.add(mergeEntry(ancestorEntries.get(theirEntry.getUUID()), null, theirEntry));
+            }
+        }
+        // entries removed by both plans are not part of the merge
+        return new MergeResult(entryMerges, RunningPlanDiff.diff(ancestor, ours), RunningPlanDiff.diff(ancestor, theirs));
+    }
+
+    private static EntryMerge mergeEntry(RunningPlanEntrySnapshot ancestor, RunningPlanEntrySnapshot ours,
+                                         RunningPlanEntrySnapshot theirs) {
+        Map<EntryAttribute, MergeResolution> sides = new EnumMap<>(EntryAttribute.class);
+        if (ours == null || theirs == null) {
+            // removed by one side, a conflict if the other side changed the entry
+            RunningPlanEntrySnapshot kept = ours != null ? ours : theirs;
+            if (ancestor != null && !RunningPlanDiff.getChangedAttributes(ancestor, kept).isEmpty()) {
+                return new EntryMerge(ancestor, ours, theirs, sides, new MergeConflict(ancestor, ours, theirs, Set.of()));
+            }
+            return new EntryMerge(ancestor, ours, theirs, sides, null);
+        }
+        Set<EntryAttribute> ourChanges = ancestor != null
+                ? RunningPlanDiff.getChangedAttributes(ancestor, ours)
+                : EnumSet.allOf(EntryAttribute.class);
+        Set<EntryAttribute> theirChanges = ancestor != null
+                ? RunningPlanDiff.getChangedAttributes(ancestor, theirs)
+                : EnumSet.allOf(EntryAttribute.class);
+        Set<EntryAttribute> differences = RunningPlanDiff.getChangedAttributes(ours, theirs);
+        Set<EntryAttribute> conflictAttributes = EnumSet.noneOf(EntryAttribute.class);
+        for (EntryAttribute attribute: EntryAttribute.values()) {
+            if (!differences.contains(attribute) || !theirChanges.contains(attribute)) {
+                // equal values or only changed by our plan
+                sides.put(attribute, MergeResolution.OURS);
+            } else if (!ourChanges.contains(attribute)) {
+                sides.put(attribute, MergeResolution.THEIRS);
+            } else {
+                conflictAttributes.add(attribute);
+            }
+        }
+        MergeConflict conflict = conflictAttributes.isEmpty()
+                ? null
+                : new MergeConflict(ancestor, ours, theirs, conflictAttributes);
+        return new EntryMerge(ancestor, ours, theirs, sides, conflict);
+    }
+
+    private RunningPlanMerge() {}
+}
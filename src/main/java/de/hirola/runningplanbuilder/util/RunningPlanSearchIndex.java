@@ -0,0 +1,99 @@
+package de.hirola.runningplanbuilder.util;
+
+import de.hirola.runningplanbuilder.model.RunningPlanEntrySnapshot;
+import de.hirola.runningplanbuilder.model.RunningPlanSnapshot;
+import de.hirola.runningplanbuilder.model.RunningUnitSnapshot;
+import de.hirola.sportsapplications.model.UUID;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Copyright 2022 by Michael Schmidt, Hirola Consulting
+ * This software us licensed under the AGPL-3.0 or later.
+ *
+ * The full-text index of the remarks of a running plan, the remarks of the entries
+ * and the infos of the running units.
+ *
+ * The index is updated with each new snapshot of the plan. Only entries with a new snapshot
+ * are tokenized again, so an edit costs one lookup for each entry and the tokenizing of the edited entry.
+ *
+ * @author Michael Schmidt (Hirola)
+ * @since v0.1
+ */
+public final class RunningPlanSearchIndex {
+    private final FullTextIndex<UUID> entryIndex;
+    private final FullTextIndex<Boolean> planIndex; // a single document with the remarks of the plan
+    private final Map<UUID, RunningPlanEntrySnapshot> indexedEntries;
+    private RunningPlanSnapshot indexedSnapshot;
+
+    public RunningPlanSearchIndex(@NotNull Locale locale) {
+        TextTokenizer tokenizer = TextTokenizer.forLocale(locale);
+        entryIndex = new FullTextIndex<>(tokenizer);
+        planIndex = new FullTextIndex<>(tokenizer);
+        indexedEntries = new HashMap<>();
+    }
+
+    /**
+     * Updates the index with the changed entries of the snapshot.
+     *
+     * @param snapshot of the plan
+     */
+    public void update(@NotNull RunningPlanSnapshot snapshot) {
+        if (snapshot == indexedSnapshot) {
+            return;
+        }
+        indexedSnapshot = snapshot;
+        planIndex.put(Boolean.TRUE, List.of(snapshot.getRemarks().orElse("")));
+        Map<UUID, RunningPlanEntrySnapshot> entries = new HashMap<>();
+        for (RunningPlanEntrySnapshot entry: snapshot.getEntries()) {
+            entries.put(entry.getUUID(), entry);
+            if (indexedEntries.get(entry.getUUID()) != entry) {
+                entryIndex.put(entry.getUUID(), getTexts(entry));
+                indexedEntries.put(entry.getUUID(), entry);
+            }
+        }
+        // removed entries
+        Iterator<Map.Entry<UUID, RunningPlanEntrySnapshot>> iterator = indexedEntries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            UUID uuid = iterator.next().getKey();
+            if (!entries.containsKey(uuid)) {
+                entryIndex.remove(uuid);
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Creates a filter of the entries for the query.
+     * If the remarks of the plan contain the query, all entries are accepted.
+     *
+     * @param query of the user
+     * @return A filter, which accepts the entries found by the query or all entries
+     *         for a query without terms, e.g. a single letter.
+     */
+    @NotNull
+    public Predicate<UUID> createFilter(@NotNull String query) {
+        if (query.isBlank() || planIndex.createMatcher(query).test(Boolean.TRUE)) {
+            return uuid -> true;
+        }
+        return entryIndex.createMatcher(query);
+    }
+
+    private List<String> getTexts(RunningPlanEntrySnapshot entry) {
+        List<String> texts = new ArrayList<>(entry.getRunningUnits().size() + 1);
+        entry.getRemarks().ifPresent(texts::add);
+        for (RunningUnitSnapshot runningUnit: entry.getRunningUnits()) {
+            if (runningUnit.getRunningInfos() != null) {
+                texts.add(runningUnit.getRunningInfos());
+            }
+        }
+        return texts;
+    }
+}
@@ -0,0 +1,36 @@
+package de.hirola.runningplanbuilder.util;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Copyright 2022 by Michael Schmidt, Hirola Consulting
+ * This software us licensed under the AGPL-3.0 or later.
+ *
+ * Flight recorder event for rebuilding the rows of a table view.
+ *
+ * @author Michael Schmidt (Hirola)
+ * @since v0.1
+ */
+@Name("de.hirola.runningplanbuilder.TableRefresh")
+@Label("Table Refresh")
+@Category({"RunningPlanBuilder", "JavaFX"})
+public class TableRefreshEvent extends Event {
+    @Label("Table")
+    private final String table;
+    @Label("Rows")
+    @Description("Count of the rows after the refresh")
+    private int rows;
+
+    public TableRefreshEvent(@NotNull String table) {
+        this.table = table;
+    }
+
+    public void setRows(int rows) {
+        this.rows = rows;
+    }
+}
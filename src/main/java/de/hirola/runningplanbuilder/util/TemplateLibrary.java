@@ -0,0 +1,609 @@
+package de.hirola.runningplanbuilder.util;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import de.hirola.runningplanbuilder.Global;
+import de.hirola.runningplanbuilder.model.TemplateMetadata;
+import javafx.application.Platform;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.tinylog.Logger;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Copyright 2022 by Michael Schmidt, Hirola Consulting
+ * This software us licensed under the AGPL-3.0 or later.
+ *
+ * The templates in the directories of the template library.
+ *
+ * The directories are walked in parallel, each subdirectory is a task of the common fork join pool.
+ * Of each template file only the name, the order number, the count of weeks and the total minutes
+ * are read with a streaming parser, without creating the plan. The values are stored in an index file,
+ * so the templates are listed without reading the files. A refresh reads only new files and files,
+ * whose size or time of the last modification has changed.
+ *
+ * The template files can be compressed with gzip, to save space in the archive. Compressed files
+ * are read as a stream, like uncompressed files.
+ *
+ * @author Michael Schmidt (Hirola)
+ * @since v0.1
+ */
+public final class TemplateLibrary {
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final int INDEX_VERSION = 1;
+    // the fields of a template file
+    private static final String NAME_FIELD = "name";
+    private static final String ORDER_NUMBER_FIELD = "orderNumber";
+    private static final String WEEK_FIELD = "week";
+    private static final String DURATION_FIELD = "duration";
+    // the fields of the index file
+    private static final String VERSION_FIELD = "version";
+    private static final String TEMPLATES_FIELD = "templates";
+    private static final String PATH_FIELD = "path";
+    private static final String SIZE_FIELD = "size";
+    private static final String LAST_MODIFIED_FIELD = "lastModified";
+    private static final String WEEKS_FIELD = "weeks";
+    private static final String TOTAL_MINUTES_FIELD = "totalMinutes";
+    private final Path indexFile;
+    private final ExecutorService executorService;
+    private Map<Path, TemplateMetadata> index; // guarded by this
+    private boolean isIndexLoaded; // guarded by this
+    private int lastReadCount; // guarded by this
+
+    /**
+     * Creates a library with the values stored in the index file.
+     * The index is loaded with the first call of {@link #getTemplates()}.
+     *
+     * @param indexFile of the library, created with the first refresh
+     */
+    public TemplateLibrary(@NotNull Path indexFile) {
+        this.indexFile = indexFile;
+        index = new HashMap<>();
+        executorService = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "template-library");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Returns the templates of the last refresh, sorted by order number and name.
+     *
+     * @return The templates of the index.
+     */
+    @NotNull
+    public synchronized List<TemplateMetadata> getTemplates() {
+        if (!isIndexLoaded) {
+            isIndexLoaded = true;
+            index = loadIndex(indexFile);
+        }
+        return index.values().stream()
+                .filter(TemplateMetadata::isTemplate)
+                .sorted(Comparator.comparingInt(TemplateMetadata::getOrderNumber)
+                        .thenComparing(TemplateMetadata::getName, String.CASE_INSENSITIVE_ORDER))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Returns the count of files, which were read by the last refresh.
+     *
+     * @return The count of new or changed files.
+     */
+    public synchronized int getLastReadCount() {
+        return lastReadCount;
+    }
+
+    /**
+     * Refreshes the index on a background thread.
+     *
+     * @param directories of the library
+     * @param templatesConsumer for the templates after the refresh, called on the JavaFX application thread
+     */
+    public void refreshLater(@NotNull List<Path> directories,
+                             @NotNull Consumer<List<TemplateMetadata>> templatesConsumer) {
+        executorService.execute(() -> {
+            try {
+                List<TemplateMetadata> templates = refresh(directories);
+                Platform.runLater(() -> templatesConsumer.accept(templates));
+            } catch (RuntimeException exception) {
+                Logger.error(exception, "Refresh of the template library failed.");
+            }
+        });
+    }
+
+    /**
+     * Compresses the templates of the library on a background thread.
+     *
+     * @param directories of the library
+     * @param openFiles the files of the plans, which are open in the workspace and not compressed
+     * @param resultConsumer for the result of the compression, called on the JavaFX application thread
+     */
+    public void compressLater(@NotNull List<Path> directories, @NotNull Set<Path> openFiles,
+                              @NotNull Consumer<CompressionResult> resultConsumer) {
+        executorService.execute(() -> {
+            try {
+                CompressionResult result = compress(directories, openFiles);
+                Platform.runLater(() -> resultConsumer.accept(result));
+            } catch (RuntimeException exception) {
+                Logger.error(exception, "Compression of the template library failed.");
+            }
+        });
+    }
+
+    /**
+     * Compresses the uncompressed templates of the library with gzip, e.g. "plan.json" to "plan.json.gz".
+     * The files are compressed in parallel. An uncompressed file and its offset index are deleted,
+     * after the compressed file is written completely. The index is updated with the compressed files,
+     * they are not read again. The files, which are open in the workspace, are skipped, because the file
+     * of an open plan is watched and saved again.
+     *
+     * @param directories of the library
+     * @param openFiles the files of the plans, which are open in the workspace
+     * @return The count and the sizes of the compressed files.
+     */
+    @NotNull
+    public CompressionResult compress(@NotNull List<Path> directories, @NotNull Set<Path> openFiles) {
+        refresh(directories);
+        long startNanos = System.nanoTime();
+        Set<Path> skippedFiles = openFiles.stream()
+                .map(file -> file.toAbsolutePath().normalize())
+                .collect(Collectors.toSet());
+        List<TemplateMetadata> templates;
+        int skippedCount;
+        synchronized (this) {
+            List<TemplateMetadata> uncompressedTemplates = index.values().stream()
+                    .filter(TemplateMetadata::isTemplate)
+                    .filter(template -> !template.getPath().getFileName().toString().toLowerCase(Locale.ROOT)
+                            .endsWith(Global.GZIP_FILE_EXTENSION))
+                    .collect(Collectors.toList());
+            templates = uncompressedTemplates.stream()
+                    .filter(template -> !skippedFiles.contains(template.getPath().toAbsolutePath().normalize()))
+                    .collect(Collectors.toList());
+            skippedCount = uncompressedTemplates.size() - templates.size();
+        }
+        // the compressed templates by the path of the uncompressed file
+        Map<Path, TemplateMetadata> compressedTemplates = new ConcurrentHashMap<>();
+        AtomicInteger failedCount = new AtomicInteger();
+        templates.parallelStream().forEach(template -> {
+            Path file = template.getPath();
+            Path compressedFile = file.resolveSibling(file.getFileName() + Global.GZIP_FILE_EXTENSION);
+            try {
+                long compressedSize = CompressedFiles.compress(file, compressedFile);
+                long lastModified = Files.getLastModifiedTime(compressedFile).toMillis();
+                Files.delete(file);
+                deleteOffsetIndex(file);
+                compressedTemplates.put(file, new TemplateMetadata(compressedFile, compressedSize, lastModified,
+                        template.getName(), template.getOrderNumber(), template.getWeeks(),
+                        template.getTotalMinutes()));
+            } catch (IOException exception) {
+                Logger.warn(exception, "The template file {} could not be compressed.", file);
+                failedCount.incrementAndGet();
+            }
+        });
+        long uncompressedBytes = 0;
+        long compressedBytes = 0;
+        Map<Path, TemplateMetadata> newIndex;
+        synchronized (this) {
+            newIndex = new HashMap<>(index);
+            for (Map.Entry<Path, TemplateMetadata> compressedTemplate: compressedTemplates.entrySet()) {
+                TemplateMetadata template = newIndex.remove(compressedTemplate.getKey());
+                if (template != null) {
+                    uncompressedBytes += template.getSize();
+                }
+                compressedBytes += compressedTemplate.getValue().getSize();
+                newIndex.put(compressedTemplate.getValue().getPath(), compressedTemplate.getValue());
+            }
+            index = newIndex;
+        }
+        if (!compressedTemplates.isEmpty()) {
+            saveIndex(indexFile, newIndex);
+        }
+        long nanos = System.nanoTime() - startNanos;
+        ApplicationMetrics.getInstance().record(ApplicationMetrics.Operation.LIBRARY_COMPRESS, nanos);
+        Logger.debug("Template library: {} files compressed from {} to {} bytes in {} ms.",
+                compressedTemplates.size(), uncompressedBytes, compressedBytes, nanos / 1_000_000);
+        return new CompressionResult(compressedTemplates.size(), failedCount.get(), skippedCount,
+                uncompressedBytes, compressedBytes, nanos);
+    }
+
+    // the offset index of the uncompressed file, the compressed file is read without an index
+    private static void deleteOffsetIndex(Path file) {
+        try {
+            Files.deleteIfExists(TemplateOffsetIndex.getIndexFile(file));
+        } catch (IOException exception) {
+            Logger.warn(exception, "The offset index of the template file {} could not be deleted.", file);
+        }
+    }
+
+    /**
+     * Walks the directories and reads the new and changed template files.
+     * The index file is written, if a file was added, changed or removed.
+     *
+     * @param directories of the library
+     * @return The templates after the refresh, sorted by order number and name.
+     */
+    @NotNull
+    public List<TemplateMetadata> refresh(@NotNull List<Path> directories) {
+        long startNanos = System.nanoTime();
+        Map<Path, TemplateMetadata> actualIndex;
+        synchronized (this) {
+            if (!isIndexLoaded) {
+                isIndexLoaded = true;
+                index = loadIndex(indexFile);
+            }
+            actualIndex = index;
+        }
+        List<DirectoryScan> scans = new ArrayList<>(directories.size());
+        for (Path directory: directories) {
+            // each directory and subdirectory is walked by a task of the common pool
+            scans.add(new DirectoryScan(directory, 0));
+        }
+        for (DirectoryScan scan: scans) {
+            scan.fork();
+        }
+        List<Path> files = new ArrayList<>();
+        for (DirectoryScan scan: scans) {
+            files.addAll(scan.join());
+        }
+        // only new and changed files are read
+        AtomicInteger readCount = new AtomicInteger();
+        Map<Path, TemplateMetadata> newIndex = files.parallelStream()
+                .distinct()
+                .map(file -> {
+                    try {
+                        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                        long lastModified = attributes.lastModifiedTime().toMillis();
+                        TemplateMetadata metadata = actualIndex.get(file);
+                        if (metadata != null && metadata.isUpToDate(attributes.size(), lastModified)) {
+                            return metadata;
+                        }
+                        readCount.incrementAndGet();
+                        return readMetadata(file, attributes.size(), lastModified);
+                    } catch (IOException exception) {
+                        Logger.debug(exception, "The template file {} could not be read.", file);
+                        return null;
+                    }
+                })
+                .filter(Objects::nonNull)
+                .collect(Collectors.toMap(TemplateMetadata::getPath, metadata -> metadata));
+        boolean isChanged = readCount.get() > 0 || !newIndex.keySet().equals(actualIndex.keySet());
+        synchronized (this) {
+            index = newIndex;
+            lastReadCount = readCount.get();
+        }
+        if (isChanged) {
+            saveIndex(indexFile, newIndex);
+        }
+        ApplicationMetrics.getInstance().record(ApplicationMetrics.Operation.LIBRARY_SCAN,
+                System.nanoTime() - startNanos);
+        Logger.debug("Template library: {} files, {} read in {} ms.",
+                newIndex.size(), readCount.get(), (System.nanoTime() - startNanos) / 1_000_000);
+        return getTemplates();
+    }
+
+    /**
+     * Reads the values of the template file with a streaming parser. No objects of the plan are created,
+     * the values of the entries are skipped except week and duration. The parser stops at the end of
+     * the plan, values after the plan are not read. A file, which does not start with an object, is not read.
+     *
+     * @param file of the template
+     * @param size of the file
+     * @param lastModified time of the file in milliseconds
+     * @return The values of the template. The name is null, if the file is not a template.
+     * @throws IOException if the file could not be read
+     */
+    @NotNull
+    public static TemplateMetadata readMetadata(@NotNull Path file, long size, long lastModified) throws IOException {
+        String name = null;
+        int orderNumber = 0;
+        int weeks = 0;
+        long totalMinutes = 0;
+        try (JsonParser parser = JSON_FACTORY.createParser(CompressedFiles.newInputStream(file))) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                // e.g. an export of another app
+                return new TemplateMetadata(file, size, lastModified, null, 0, 0, 0);
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken token = parser.nextToken();
+                if (NAME_FIELD.equals(field) && token == JsonToken.VALUE_STRING) {
+                    name = parser.getText();
+                } else if (ORDER_NUMBER_FIELD.equals(field) && token == JsonToken.VALUE_NUMBER_INT) {
+                    orderNumber = parser.getIntValue();
+                } else if (token == JsonToken.START_ARRAY) {
+                    // the entries of the plan
+                    while (nextElement(parser)) {
+                        if (parser.currentToken() == JsonToken.START_OBJECT) {
+                            long[] entryValues = readEntry(parser);
+                            weeks = Math.max(weeks, (int) entryValues[0]);
+                            totalMinutes += entryValues[1];
+                        } else {
+                            parser.skipChildren();
+                        }
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        } catch (JsonProcessingException exception) {
+            // not a JSON file
+            return new TemplateMetadata(file, size, lastModified, null, 0, 0, 0);
+        }
+        return new TemplateMetadata(file, size, lastModified, name, orderNumber, weeks, totalMinutes);
+    }
+
+    // the week and the minutes of the running units of an entry
+    private static long[] readEntry(JsonParser parser) throws IOException {
+        long[] values = new long[2];
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken token = parser.nextToken();
+            if (WEEK_FIELD.equals(field) && token == JsonToken.VALUE_NUMBER_INT) {
+                values[0] = parser.getIntValue();
+            } else if (token == JsonToken.START_ARRAY) {
+                // the running units of the entry
+                while (nextElement(parser)) {
+                    if (parser.currentToken() != JsonToken.START_OBJECT) {
+                        parser.skipChildren();
+                        continue;
+                    }
+                    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                        String unitField = parser.getCurrentName();
+                        JsonToken unitToken = parser.nextToken();
+                        if (DURATION_FIELD.equals(unitField) && unitToken == JsonToken.VALUE_NUMBER_INT) {
+                            values[1] += parser.getLongValue();
+                        } else {
+                            parser.skipChildren();
+                        }
+                    }
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return values;
+    }
+
+    // moves to the next element of an array, false at the end of the array
+    private static boolean nextElement(JsonParser parser) throws IOException {
+        JsonToken token = parser.nextToken();
+        if (token == null) {
+            throw new JsonParseException(parser, "Unexpected end of the file.");
+        }
+        return token != JsonToken.END_ARRAY;
+    }
+
+    // the values of the last refresh, an empty index if the file is missing or damaged
+    private static Map<Path, TemplateMetadata> loadIndex(Path indexFile) {
+        Map<Path, TemplateMetadata> loadedIndex = new HashMap<>();
+        if (!Files.isRegularFile(indexFile)) {
+            return loadedIndex;
+        }
+        try (JsonParser parser = JSON_FACTORY.createParser(indexFile.toFile())) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return loadedIndex;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken token = parser.nextToken();
+                if (VERSION_FIELD.equals(field) && parser.getIntValue() != INDEX_VERSION) {
+                    // the values of another version are read again
+                    return new HashMap<>();
+                } else if (TEMPLATES_FIELD.equals(field) && token == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        TemplateMetadata metadata = readIndexEntry(parser);
+                        if (metadata != null) {
+                            loadedIndex.put(metadata.getPath(), metadata);
+                        }
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        } catch (IOException | RuntimeException exception) {
+            Logger.warn(exception, "The index of the template library could not be read.");
+            return new HashMap<>();
+        }
+        return loadedIndex;
+    }
+
+    @Nullable
+    private static TemplateMetadata readIndexEntry(JsonParser parser) throws IOException {
+        String path = null;
+        String name = null;
+        long size = -1;
+        long lastModified = -1;
+        int orderNumber = 0;
+        int weeks = 0;
+        long totalMinutes = 0;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            parser.nextToken();
+            switch (field) {
+                case PATH_FIELD: path = parser.getValueAsString(); break;
+                case NAME_FIELD: name = parser.getValueAsString(); break;
+                case SIZE_FIELD: size = parser.getValueAsLong(); break;
+                case LAST_MODIFIED_FIELD: lastModified = parser.getValueAsLong(); break;
+                case ORDER_NUMBER_FIELD: orderNumber = parser.getValueAsInt(); break;
+                case WEEKS_FIELD: weeks = parser.getValueAsInt(); break;
+                case TOTAL_MINUTES_FIELD: totalMinutes = parser.getValueAsLong(); break;
+                default: parser.skipChildren();
+            }
+        }
+        if (path == null) {
+            return null;
+        }
+        return new TemplateMetadata(Paths.get(path), size, lastModified, name, orderNumber, weeks, totalMinutes);
+    }
+
+    // writes a new index and replaces the old index, the old index is kept if the write fails
+    private static void saveIndex(Path indexFile, Map<Path, TemplateMetadata> index) {
+        Path temporaryFile = indexFile.resolveSibling(indexFile.getFileName() + ".tmp");
+        try {
+            try (JsonGenerator generator = JSON_FACTORY.createGenerator(temporaryFile.toFile(), JsonEncoding.UTF8)) {
+                generator.writeStartObject();
+                generator.writeNumberField(VERSION_FIELD, INDEX_VERSION);
+                generator.writeArrayFieldStart(TEMPLATES_FIELD);
+                for (TemplateMetadata metadata: index.values()) {
+                    generator.writeStartObject();
+                    generator.writeStringField(PATH_FIELD, metadata.getPath().toString());
+                    generator.writeNumberField(SIZE_FIELD, metadata.getSize());
+                    generator.writeNumberField(LAST_MODIFIED_FIELD, metadata.getLastModified());
+                    if (metadata.isTemplate()) {
+                        generator.writeStringField(NAME_FIELD, metadata.getName());
+                        generator.writeNumberField(ORDER_NUMBER_FIELD, metadata.getOrderNumber());
+                        generator.writeNumberField(WEEKS_FIELD, metadata.getWeeks());
+                        generator.writeNumberField(TOTAL_MINUTES_FIELD, metadata.getTotalMinutes());
+                    }
+                    generator.writeEndObject();
+                }
+                generator.writeEndArray();
+                generator.writeEndObject();
+            }
+            try {
+                Files.move(temporaryFile, indexFile, StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException exception) {
+                Files.move(temporaryFile, indexFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException exception) {
+            Logger.warn(exception, "The index of the template library could not be saved.");
+        }
+    }
+
+    // e.g. "plan.json" or the compressed "plan.json.gz"
+    private static boolean isTemplateFileName(Path file) {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        return name.endsWith(Global.JSON_FILE_EXTENSION)
+                || name.endsWith(Global.JSON_FILE_EXTENSION + Global.GZIP_FILE_EXTENSION);
+    }
+
+    /**
+     * The result of the compression of the library.
+     */
+    public static final class CompressionResult {
+        private final int compressedCount;
+        private final int failedCount;
+        private final int skippedCount;
+        private final long uncompressedBytes;
+        private final long compressedBytes;
+        private final long nanos;
+
+        CompressionResult(int compressedCount, int failedCount, int skippedCount, long uncompressedBytes,
+                          long compressedBytes, long nanos) {
+            this.compressedCount = compressedCount;
+            this.failedCount = failedCount;
+            this.skippedCount = skippedCount;
+            this.uncompressedBytes = uncompressedBytes;
+            this.compressedBytes = compressedBytes;
+            this.nanos = nanos;
+        }
+
+        public int getCompressedCount() {
+            return compressedCount;
+        }
+
+        public int getFailedCount() {
+            return failedCount;
+        }
+
+        /**
+         * Returns the count of the uncompressed templates, which are open in the workspace.
+         *
+         * @return The count of the skipped templates.
+         */
+        public int getSkippedCount() {
+            return skippedCount;
+        }
+
+        public long getUncompressedBytes() {
+            return uncompressedBytes;
+        }
+
+        public long getCompressedBytes() {
+            return compressedBytes;
+        }
+
+        public long getNanos() {
+            return nanos;
+        }
+
+        /**
+         * Returns the throughput of the compression.
+         *
+         * @return The uncompressed megabytes per second.
+         */
+        public double getMegabytesPerSecond() {
+            if (nanos == 0) {
+                return 0.0;
+            }
+            return uncompressedBytes / (1024.0 * 1024.0) / (nanos / 1_000_000_000.0);
+        }
+    }
+
+    // the template files of a directory, the subdirectories are walked by forked tasks
+    private static final class DirectoryScan extends RecursiveTask<List<Path>> {
+        private static final long serialVersionUID = 1L;
+        private final Path directory;
+        private final int depth;
+
+        DirectoryScan(Path directory, int depth) {
+            this.directory = directory;
+            this.depth = depth;
+        }
+
+        @Override
+        protected List<Path> compute() {
+            List<Path> files = new ArrayList<>();
+            List<DirectoryScan> subdirectoryScans = new ArrayList<>();
+            try (DirectoryStream<Path> directoryStream = Files.newDirectoryStream(directory)) {
+                for (Path path: directoryStream) {
+                    if (Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS)) {
+                        if (depth < Global.TemplateLibraryPreferences.MAX_DIRECTORY_DEPTH) {
+                            DirectoryScan subdirectoryScan = new DirectoryScan(path, depth + 1);
+                            subdirectoryScan.fork();
+                            subdirectoryScans.add(subdirectoryScan);
+                        }
+                    } else if (isTemplateFileName(path)) {
+                        files.add(path);
+                    }
+                }
+            } catch (IOException | SecurityException exception) {
+                Logger.debug(exception, "The directory {} could not be read.", directory);
+            }
+            for (DirectoryScan subdirectoryScan: subdirectoryScans) {
+                files.addAll(subdirectoryScan.join());
+            }
+            return files;
+        }
+    }
+}
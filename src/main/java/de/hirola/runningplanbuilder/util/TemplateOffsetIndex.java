@@ -0,0 +1,503 @@
+package de.hirola.runningplanbuilder.util;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import de.hirola.runningplanbuilder.Global;
+import de.hirola.sportsapplications.model.MovementType;
+import de.hirola.sportsapplications.model.RunningPlan;
+import de.hirola.sportsapplications.model.RunningPlanEntry;
+import de.hirola.sportsapplications.model.RunningUnit;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.tinylog.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.LongConsumer;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.Checksum;
+
+/**
+ * Copyright 2022 by Michael Schmidt, Hirola Consulting
+ * This software us licensed under the AGPL-3.0 or later.
+ *
+ * An index of the weeks of a large JSON template, stored beside the template, e.g. "plan.json.idx".
+ *
+ * The index contains the name, the order number and the remarks of the plan and the byte ranges
+ * of the entries of each week in the file. Consecutive entries of the same week are a single range.
+ * To load some weeks of the plan, only the ranges of these weeks are read and parsed. The index
+ * is stale, if the size or the checksum of the template differs from the values in the index,
+ * e.g. after the template was changed by another program. The caller parses the whole file then.
+ *
+ * Only the layout of the templates exported by the sports library is indexed. The entries of the
+ * indexed weeks must be loaded exactly as by the template loader. A field, which is not known,
+ * the remarks of an entry or a movement type, which can not be found, make the index stale,
+ * so the whole file is parsed by the template loader.
+ *
+ * @author Michael Schmidt (Hirola)
+ * @since v0.1
+ */
+public final class TemplateOffsetIndex {
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final int MAGIC = 0x52504249; // "RPBI"
+    private static final int INDEX_VERSION = 1;
+    // the fields of a template file
+    private static final String NAME_FIELD = "name";
+    private static final String ORDER_NUMBER_FIELD = "orderNumber";
+    private static final String REMARKS_FIELD = "remarks";
+    private static final String ENTRIES_FIELD = "entries";
+    private static final String UUID_FIELD = "uuid";
+    private static final String WEEK_FIELD = "week";
+    private static final String DAY_FIELD = "day";
+    private static final String RUNNING_UNITS_FIELD = "runningUnits";
+    private static final String DURATION_FIELD = "duration";
+    private static final String MOVEMENT_TYPE_FIELD = "movementType";
+    private static final String KEY_FIELD = "key";
+
+    private TemplateOffsetIndex() {}
+
+    /**
+     * Returns the file of the index beside the template.
+     *
+     * @param jsonFile of the template
+     * @return The file of the index, which may not exist.
+     */
+    @NotNull
+    public static Path getIndexFile(@NotNull Path jsonFile) {
+        return jsonFile.resolveSibling(jsonFile.getFileName() + Global.OFFSET_INDEX_FILE_EXTENSION);
+    }
+
+    /**
+     * Writes the index of a large template after the export. The index of a small template
+     * is removed, a small template is parsed fast enough.
+     *
+     * @param jsonFile of the template, not compressed
+     * @return True, if the index was written.
+     */
+    public static boolean update(@NotNull Path jsonFile) {
+        return update(jsonFile, Global.OffsetIndexPreferences.MIN_FILE_SIZE);
+    }
+
+    // the minimum size can be changed for tests
+    static boolean update(@NotNull Path jsonFile, long minFileSize) {
+        Path indexFile = getIndexFile(jsonFile);
+        try {
+            if (Files.size(jsonFile) < minFileSize || !write(jsonFile, indexFile)) {
+                Files.deleteIfExists(indexFile);
+                return false;
+            }
+            return true;
+        } catch (IOException exception) {
+            // without the index the whole template is parsed
+            Logger.warn(exception, "The index of the template {} could not be written.", jsonFile);
+            try {
+                Files.deleteIfExists(indexFile);
+            } catch (IOException deleteException) {
+                Logger.debug(deleteException, "The stale index {} could not be deleted.", indexFile);
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Loads the entries of the weeks with the index of the template.
+     *
+     * @param jsonFile of the template
+     * @param fromWeek first loaded week
+     * @param toWeek last loaded week
+     * @param movementTypes of the sports library
+     * @return The plan with the entries of the weeks or empty, if the template has no index
+     *         or the index is stale.
+     * @throws IOException if the template can not be read
+     */
+    public static Optional<RunningPlan> loadWeeks(@NotNull Path jsonFile, int fromWeek, int toWeek,
+                                                  @NotNull List<MovementType> movementTypes) throws IOException {
+        return loadWeeks(jsonFile, fromWeek, toWeek, movementTypes, parsedBytes -> {});
+    }
+
+    /**
+     * Loads the entries of the weeks with the index of the template and reports the parsed bytes.
+     *
+     * @param jsonFile of the template
+     * @param fromWeek first loaded week
+     * @param toWeek last loaded week
+     * @param movementTypes of the sports library
+     * @param parsedBytesListener called with the count of the parsed bytes of the weeks, if the weeks are loaded
+     * @return The plan with the entries of the weeks or empty, if the template has no index
+     *         or the index is stale.
+     * @throws IOException if the template can not be read
+     */
+    public static Optional<RunningPlan> loadWeeks(@NotNull Path jsonFile, int fromWeek, int toWeek,
+                                                  @NotNull List<MovementType> movementTypes,
+                                                  @NotNull LongConsumer parsedBytesListener) throws IOException {
+        Index index = readIndex(getIndexFile(jsonFile));
+        if (index == null) {
+            return Optional.empty();
+        }
+        try (FileChannel channel = FileChannel.open(jsonFile, StandardOpenOption.READ)) {
+            // the size is checked first, the checksum reads the whole file
+            if (channel.size() != index.fileSize || checksum(channel) != index.checksum) {
+                Logger.debug("The index of the template {} is stale.", jsonFile);
+                return Optional.empty();
+            }
+            List<RunningPlanEntry> entries = new ArrayList<>();
+            long parsedBytes = 0;
+            for (WeekRange range: index.ranges) {
+                if (range.week < fromWeek || range.week > toWeek) {
+                    continue;
+                }
+                // the entries of the range are parsed as an array
+                byte[] bytes = new byte[range.length + 2];
+                bytes[0] = '[';
+                bytes[bytes.length - 1] = ']';
+                ByteBuffer buffer = ByteBuffer.wrap(bytes, 1, range.length);
+                channel.position(range.offset);
+                while (buffer.hasRemaining()) {
+                    if (channel.read(buffer) < 0) {
+                        return Optional.empty();
+                    }
+                }
+                if (!readEntries(bytes, range.week, movementTypes, entries)) {
+                    Logger.debug("The index of the template {} does not match the file.", jsonFile);
+                    return Optional.empty();
+                }
+                parsedBytes += range.length;
+            }
+            parsedBytesListener.accept(parsedBytes);
+            RunningPlan runningPlan = new RunningPlan();
+            runningPlan.setName(index.name);
+            runningPlan.setOrderNumber(index.orderNumber);
+            if (index.remarks != null) {
+                runningPlan.setRemarks(index.remarks);
+            }
+            runningPlan.setEntries(entries);
+            return Optional.of(runningPlan);
+        }
+    }
+
+    // the file is read once, for the ranges of the weeks and the checksum
+    // false, if the file has not the layout of an exported template
+    private static boolean write(Path jsonFile, Path indexFile) throws IOException {
+        Checksum checksum = new CRC32C();
+        String name = "";
+        int orderNumber = 1;
+        String remarks = null;
+        List<WeekRange> ranges = new ArrayList<>();
+        try (InputStream inputStream = new CheckedInputStream(new BufferedInputStream(Files.newInputStream(jsonFile),
+                Global.CompressionPreferences.BUFFER_SIZE), checksum);
+             JsonParser parser = JSON_FACTORY.createParser(inputStream)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new JsonParseException(parser, "The file is not a template.");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken token = parser.nextToken();
+                if (NAME_FIELD.equals(field) && token == JsonToken.VALUE_STRING) {
+                    name = parser.getText();
+                } else if (ORDER_NUMBER_FIELD.equals(field) && token == JsonToken.VALUE_NUMBER_INT) {
+                    orderNumber = parser.getIntValue();
+                } else if (REMARKS_FIELD.equals(field) && token == JsonToken.VALUE_STRING) {
+                    remarks = parser.getText();
+                } else if (REMARKS_FIELD.equals(field) && token == JsonToken.VALUE_NULL) {
+                    remarks = null;
+                } else if (ENTRIES_FIELD.equals(field) && token == JsonToken.START_ARRAY) {
+                    WeekRange range = null;
+                    while (nextElement(parser)) {
+                        if (parser.currentToken() != JsonToken.START_OBJECT) {
+                            return false;
+                        }
+                        long startOffset = parser.getTokenLocation().getByteOffset();
+                        int week = readWeek(parser);
+                        if (week < 1) {
+                            return false;
+                        }
+                        long endOffset = parser.getTokenLocation().getByteOffset() + 1;
+                        if (range != null && range.week == week) {
+                            // the same week as the entry before, the range contains the comma between
+                            range.length = (int) (endOffset - range.offset);
+                        } else {
+                            range = new WeekRange(week, startOffset, (int) (endOffset - startOffset));
+                            ranges.add(range);
+                        }
+                    }
+                } else {
+                    // an unknown layout, e.g. of another version of the sports library
+                    return false;
+                }
+            }
+            // the checksum of the whole file
+            byte[] buffer = new byte[Global.CompressionPreferences.BUFFER_SIZE];
+            while (inputStream.read(buffer) > -1) {
+                // read to the end
+            }
+        }
+        long fileSize = Files.size(jsonFile);
+        Path temporaryFile = indexFile.resolveSibling(indexFile.getFileName() + ".tmp");
+        try (DataOutputStream outputStream = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(temporaryFile)))) {
+            outputStream.writeInt(MAGIC);
+            outputStream.writeInt(INDEX_VERSION);
+            outputStream.writeLong(fileSize);
+            outputStream.writeLong(checksum.getValue());
+            writeString(outputStream, name);
+            outputStream.writeInt(orderNumber);
+            outputStream.writeBoolean(remarks != null);
+            if (remarks != null) {
+                writeString(outputStream, remarks);
+            }
+            outputStream.writeInt(ranges.size());
+            for (WeekRange range: ranges) {
+                outputStream.writeInt(range.week);
+                outputStream.writeLong(range.offset);
+                outputStream.writeInt(range.length);
+            }
+        }
+        try {
+            Files.move(temporaryFile, indexFile, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException exception) {
+            Files.move(temporaryFile, indexFile, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return true;
+    }
+
+    // null, if the index is missing or damaged
+    @Nullable
+    private static Index readIndex(Path indexFile) {
+        if (!Files.isRegularFile(indexFile)) {
+            return null;
+        }
+        try (DataInputStream inputStream = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(indexFile)))) {
+            if (inputStream.readInt() != MAGIC || inputStream.readInt() != INDEX_VERSION) {
+                return null;
+            }
+            Index index = new Index();
+            index.fileSize = inputStream.readLong();
+            index.checksum = inputStream.readLong();
+            index.name = readString(inputStream);
+            index.orderNumber = inputStream.readInt();
+            index.remarks = inputStream.readBoolean() ? readString(inputStream) : null;
+            int rangeCount = inputStream.readInt();
+            index.ranges = new ArrayList<>(Math.min(rangeCount, 1024));
+            for (int i = 0; i < rangeCount; i++) {
+                index.ranges.add(new WeekRange(inputStream.readInt(), inputStream.readLong(), inputStream.readInt()));
+            }
+            // the ranges are read in the order of the file
+            index.ranges.sort(Comparator.comparingLong(range -> range.offset));
+            return index;
+        } catch (IOException exception) {
+            Logger.debug(exception, "The index {} could not be read.", indexFile);
+            return null;
+        }
+    }
+
+    // false, if the bytes are not the entries of the week
+    private static boolean readEntries(byte[] bytes, int week, List<MovementType> movementTypes,
+                                       List<RunningPlanEntry> entries) {
+        try (JsonParser parser = JSON_FACTORY.createParser(bytes)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                return false;
+            }
+            while (nextElement(parser)) {
+                if (parser.currentToken() != JsonToken.START_OBJECT) {
+                    return false;
+                }
+                RunningPlanEntry entry = readEntry(parser, movementTypes);
+                if (entry == null || entry.getWeek() != week) {
+                    return false;
+                }
+                entries.add(entry);
+            }
+            return parser.nextToken() == null;
+        } catch (IOException exception) {
+            return false;
+        }
+    }
+
+    // the week of an entry or 0, the parser is at the end of the entry
+    private static int readWeek(JsonParser parser) throws IOException {
+        int week = 0;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken token = parser.nextToken();
+            if (WEEK_FIELD.equals(field) && token == JsonToken.VALUE_NUMBER_INT) {
+                week = parser.getIntValue();
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return week;
+    }
+
+    // null, if the entry can not be loaded as by the template loader
+    @Nullable
+    private static RunningPlanEntry readEntry(JsonParser parser, List<MovementType> movementTypes)
+            throws IOException {
+        RunningPlanEntry entry = new RunningPlanEntry();
+        List<RunningUnit> runningUnits = new ArrayList<>();
+        boolean hasWeek = false;
+        boolean hasDay = false;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken token = parser.nextToken();
+            if (WEEK_FIELD.equals(field) && token == JsonToken.VALUE_NUMBER_INT) {
+                entry.setWeek(parser.getIntValue());
+                hasWeek = true;
+            } else if (DAY_FIELD.equals(field) && token == JsonToken.VALUE_NUMBER_INT) {
+                entry.setDay(parser.getIntValue());
+                hasDay = true;
+            } else if (RUNNING_UNITS_FIELD.equals(field) && token == JsonToken.START_ARRAY) {
+                while (nextElement(parser)) {
+                    RunningUnit runningUnit = parser.currentToken() == JsonToken.START_OBJECT
+                            ? readRunningUnit(parser, movementTypes) : null;
+                    if (runningUnit == null) {
+                        return null;
+                    }
+                    runningUnits.add(runningUnit);
+                }
+            } else if (!isIgnoredField(field, token)) {
+                // e.g. the remarks of the entry, which can only be loaded by the template loader
+                return null;
+            }
+        }
+        if (!hasWeek || !hasDay) {
+            return null;
+        }
+        entry.setRunningUnits(runningUnits);
+        return entry;
+    }
+
+    // null, if the unit can not be loaded as by the template loader
+    @Nullable
+    private static RunningUnit readRunningUnit(JsonParser parser, List<MovementType> movementTypes)
+            throws IOException {
+        RunningUnit runningUnit = new RunningUnit();
+        boolean hasDuration = false;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken token = parser.nextToken();
+            if (DURATION_FIELD.equals(field) && token == JsonToken.VALUE_NUMBER_INT) {
+                runningUnit.setDuration(parser.getLongValue());
+                hasDuration = true;
+            } else if (MOVEMENT_TYPE_FIELD.equals(field) && token == JsonToken.VALUE_STRING) {
+                runningUnit.setMovementType(findMovementType(movementTypes, parser.getText()));
+            } else if (MOVEMENT_TYPE_FIELD.equals(field) && token == JsonToken.START_OBJECT) {
+                // the movement type with all values, only the key is used
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String movementTypeField = parser.getCurrentName();
+                    if (parser.nextToken() == JsonToken.VALUE_STRING && KEY_FIELD.equals(movementTypeField)) {
+                        runningUnit.setMovementType(findMovementType(movementTypes, parser.getText()));
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            } else if (!isIgnoredField(field, token)) {
+                return null;
+            }
+        }
+        // a movement type, which is not in the sports library, is handled by the template loader
+        if (!hasDuration || runningUnit.getMovementType() == null) {
+            return null;
+        }
+        return runningUnit;
+    }
+
+    // the identity and missing remarks do not change the loaded plan
+    private static boolean isIgnoredField(String field, JsonToken token) {
+        return (UUID_FIELD.equals(field) && token == JsonToken.VALUE_STRING)
+                || (REMARKS_FIELD.equals(field) && token == JsonToken.VALUE_NULL);
+    }
+
+    @Nullable
+    private static MovementType findMovementType(List<MovementType> movementTypes, String key) {
+        for (MovementType movementType: movementTypes) {
+            if (movementType.getKey().equals(key)) {
+                return movementType;
+            }
+        }
+        return null;
+    }
+
+    // moves to the next element of an array, false at the end of the array
+    private static boolean nextElement(JsonParser parser) throws IOException {
+        JsonToken token = parser.nextToken();
+        if (token == null) {
+            throw new JsonParseException(parser, "Unexpected end of the file.");
+        }
+        return token != JsonToken.END_ARRAY;
+    }
+
+    private static long checksum(FileChannel channel) throws IOException {
+        Checksum checksum = new CRC32C();
+        ByteBuffer buffer = ByteBuffer.allocate(Global.CompressionPreferences.BUFFER_SIZE);
+        channel.position(0);
+        while (channel.read(buffer) > -1) {
+            buffer.flip();
+            checksum.update(buffer.array(), 0, buffer.limit());
+            buffer.clear();
+        }
+        return checksum.getValue();
+    }
+
+    private static void writeString(DataOutputStream outputStream, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        outputStream.writeInt(bytes.length);
+        outputStream.write(bytes);
+    }
+
+    private static String readString(DataInputStream inputStream) throws IOException {
+        int length = inputStream.readInt();
+        if (length < 0) {
+            throw new EOFException("Invalid length of a string.");
+        }
+        byte[] bytes = inputStream.readNBytes(length);
+        if (bytes.length != length) {
+            throw new EOFException("Unexpected end of the index.");
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // the values of the index file
+    private static final class Index {
+        private long fileSize;
+        private long checksum;
+        private String name;
+        private int orderNumber;
+        private String remarks;
+        private List<WeekRange> ranges;
+    }
+
+    // consecutive entries of a week in the template
+    private static final class WeekRange {
+        private final int week;
+        private final long offset;
+        private int length;
+
+        WeekRange(int week, long offset, int length) {
+            this.week = week;
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package de.hirola.runningplanbuilder.util;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Copyright 2022 by Michael Schmidt, Hirola Consulting
+ * This software us licensed under the AGPL-3.0 or later.
+ *
+ * Splits a text in terms for the full-text search.
+ *
+ * The terms are lower case, umlauts and sharp s are folded to ae, oe, ue and ss and
+ * other diacritics are removed. Stop words and common suffixes of the language
+ * (German or English, the localizations of the app) are removed, so "Intervalle" finds "Intervall".
+ * The same tokenizer must be used for the index and the query.
+ *
+ * @author Michael Schmidt (Hirola)
+ * @since v0.1
+ */
+public final class TextTokenizer {
+    private static final int MIN_TERM_LENGTH = 2;
+    private static final int MIN_STEM_LENGTH = 3;
+    private static final Set<String> GERMAN_STOP_WORDS = Set.of(
+            "der", "die", "das", "den", "dem", "des", "ein", "eine", "einen", "einem", "einer", "eines",
+            "und", "oder", "aber", "mit", "von", "vom", "zum", "zur", "im", "in", "am", "an", "auf", "aus",
+            "bei", "bis", "fuer", "ueber", "nach", "ist", "sind", "wird", "werden", "es", "sie", "er", "wir", "ihr",
+            "du", "ich", "nicht", "auch", "als", "wie", "so", "zu", "noch", "nur", "dann", "danach");
+    private static final Set<String> ENGLISH_STOP_WORDS = Set.of(
+            "the", "a", "an", "and", "or", "but", "with", "of", "to", "in", "on", "at", "by", "for", "from",
+            "is", "are", "be", "was", "were", "it", "its", "you", "your", "we", "this", "that", "as",
+            "not", "no", "then", "after", "before", "into", "than");
+    private static final String[] GERMAN_SUFFIXES = {"ern", "em", "en", "er", "es", "e", "n", "s"};
+    private static final String[] ENGLISH_SUFFIXES = {"ing", "ed", "es", "s"};
+    private final Locale locale;
+    private final Set<String> stopWords;
+    private final String[] suffixes;
+
+    /**
+     * Creates a tokenizer for the language of the locale.
+     * Languages without rules only use the normalization.
+     *
+     * @param locale of the texts
+     * @return The tokenizer for the language.
+     */
+    public static TextTokenizer forLocale(@NotNull Locale locale) {
+        switch (locale.getLanguage()) {
+            case "de": return new TextTokenizer(locale, GERMAN_STOP_WORDS, GERMAN_SUFFIXES);
+            case "en": return new TextTokenizer(locale, ENGLISH_STOP_WORDS, ENGLISH_SUFFIXES);
+            default: return new TextTokenizer(locale, Set.of(), new String[0]);
+        }
+    }
+
+    /**
+     * Returns the terms of the text in the order of the text.
+     *
+     * @param text to be split, can be null
+     * @return The terms of the text, can be empty.
+     */
+    @NotNull
+    public List<String> tokenize(@Nullable String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return terms;
+        }
+        String normalizedText = normalize(text);
+        int start = -1;
+        for (int i = 0; i <= normalizedText.length(); i++) {
+            boolean isTermChar = i < normalizedText.length() && Character.isLetterOrDigit(normalizedText.charAt(i));
+            if (isTermChar && start < 0) {
+                start = i;
+            } else if (!isTermChar && start > -1) {
+                String term = normalizedText.substring(start, i);
+                if (term.length() >= MIN_TERM_LENGTH && !stopWords.contains(term)) {
+                    terms.add(stem(term));
+                }
+                start = -1;
+            }
+        }
+        return terms;
+    }
+
+    private TextTokenizer(Locale locale, Set<String> stopWords, String[] suffixes) {
+        this.locale = locale;
+        this.stopWords = stopWords;
+        this.suffixes = suffixes;
+    }
+
+    private String normalize(String text) {
+        String lowerCaseText = text.toLowerCase(locale)
+                .replace("\u00e4", "ae")
+                .replace("\u00f6", "oe")
+                .replace("\u00fc", "ue")
+                .replace("\u00df", "ss");
+        // remove the other diacritics, e.g. the accent of an e
+        return Normalizer.normalize(lowerCaseText, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+    }
+
+    // removes the first matching suffix, the stem keeps a minimum length
+    private String stem(String term) {
+        if (Character.isDigit(term.charAt(0))) {
+            return term;
+        }
+        String stem = term;
+        for (String suffix: suffixes) {
+            if (term.endsWith(suffix) && term.length() - suffix.length() >= MIN_STEM_LENGTH) {
+                stem = term.substring(0, term.length() - suffix.length());
+                break;
+            }
+        }
+        // running = run, intervall = interval
+        int length = stem.length();
+        if (length > MIN_STEM_LENGTH && stem.charAt(length - 1) == stem.charAt(length - 2)) {
+            stem = stem.substring(0, length - 1);
+        }
+        return stem;
+    }
+}
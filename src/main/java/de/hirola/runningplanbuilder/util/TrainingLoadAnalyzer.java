@@ -0,0 +1,220 @@
+package de.hirola.runningplanbuilder.util;
+
+import de.hirola.runningplanbuilder.Global;
+import de.hirola.runningplanbuilder.model.RunningPlanEntrySnapshot;
+import de.hirola.runningplanbuilder.model.RunningPlanSnapshot;
+import de.hirola.runningplanbuilder.model.RunningUnitSnapshot;
+import de.hirola.sportsapplications.model.MovementType;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Copyright 2022 by Michael Schmidt, Hirola Consulting
+ * This software us licensed under the AGPL-3.0 or later.
+ *
+ * Calculates the training load of the running plan.
+ *
+ * The load of a day is the duration of the running units, weighted by the movement type.
+ * The acute load is the sum of the last 7 days, the chronic load the sum of the last 28 days.
+ * A high acute:chronic ratio shows a load jump with a high risk of injury.
+ *
+ * The loads are stored in arrays, indexed by the day of the plan. After an edit,
+ * only the days of the changed entries and the following windows are calculated again.
+ * The analyzer is not thread safe and must be used on the JavaFX application thread.
+ *
+ * @author Michael Schmidt (Hirola)
+ * @since v0.1
+ */
+public final class TrainingLoadAnalyzer {
+    private static final int DAYS_OF_WEEK = 7;
+    private static final int ACUTE_DAYS = 7;
+    private static final int CHRONIC_DAYS = 28;
+    // the load of each entry, subtracted if the entry is changed or removed
+    private final Map<RunningPlanEntrySnapshot, Long> entryLoads;
+    private long[] dailyLoad;
+    private long[] acuteLoad; // sum of the last 7 days
+    private long[] chronicLoad; // sum of the last 28 days
+    private RunningPlanSnapshot lastSnapshot;
+
+    public TrainingLoadAnalyzer() {
+        entryLoads = new IdentityHashMap<>();
+        dailyLoad = new long[0];
+        acuteLoad = new long[0];
+        chronicLoad = new long[0];
+    }
+
+    /**
+     * Calculates the load of the changed entries.
+     *
+     * @param snapshot of the running plan
+     * @return True, if the loads are changed.
+     */
+    public boolean update(@NotNull RunningPlanSnapshot snapshot) {
+        if (snapshot == lastSnapshot) {
+            return false;
+        }
+        lastSnapshot = snapshot;
+        Set<RunningPlanEntrySnapshot> entries = Collections.newSetFromMap(new IdentityHashMap<>());
+        int weeks = 0;
+        for (RunningPlanEntrySnapshot entry: snapshot.getEntries()) {
+            if (dayIndex(entry) > -1) {
+                entries.add(entry);
+                weeks = Math.max(weeks, entry.getWeek());
+            }
+        }
+        if (weeks * DAYS_OF_WEEK != dailyLoad.length) {
+            // the count of weeks has changed
+            dailyLoad = new long[weeks * DAYS_OF_WEEK];
+            acuteLoad = new long[dailyLoad.length];
+            chronicLoad = new long[dailyLoad.length];
+            entryLoads.clear();
+            for (RunningPlanEntrySnapshot entry: entries) {
+                addEntry(entry);
+            }
+            updateWindows(0, dailyLoad.length - 1);
+            return true;
+        }
+        int firstChangedDay = Integer.MAX_VALUE;
+        int lastChangedDay = -1;
+        Iterator<Map.Entry<RunningPlanEntrySnapshot, Long>> iterator = entryLoads.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<RunningPlanEntrySnapshot, Long> entryLoad = iterator.next();
+            if (!entries.contains(entryLoad.getKey())) {
+                int day = dayIndex(entryLoad.getKey());
+                dailyLoad[day] -= entryLoad.getValue();
+                firstChangedDay = Math.min(firstChangedDay, day);
+                lastChangedDay = Math.max(lastChangedDay, day);
+                iterator.remove();
+            }
+        }
+        for (RunningPlanEntrySnapshot entry: entries) {
+            if (!entryLoads.containsKey(entry)) {
+                int day = addEntry(entry);
+                firstChangedDay = Math.min(firstChangedDay, day);
+                lastChangedDay = Math.max(lastChangedDay, day);
+            }
+        }
+        if (lastChangedDay < 0) {
+            return false;
+        }
+        // the change is part of the windows of the following days
+        updateWindows(firstChangedDay, Math.min(lastChangedDay + CHRONIC_DAYS - 1, dailyLoad.length - 1));
+        return true;
+    }
+
+    public int getWeekCount() {
+        return dailyLoad.length / DAYS_OF_WEEK;
+    }
+
+    /**
+     * Returns the load of the week.
+     *
+     * @param week of the plan, starting with 1
+     * @return The sum of the weighted durations of the week in minutes.
+     */
+    public long getWeeklyLoad(int week) {
+        return acuteLoad[week * DAYS_OF_WEEK - 1];
+    }
+
+    /**
+     * Returns the average load of the week and the 3 previous weeks.
+     *
+     * @param week of the plan, starting with 1
+     * @return The average of the weekly loads in minutes.
+     */
+    public double getChronicWeeklyLoad(int week) {
+        return (double) chronicLoad[week * DAYS_OF_WEEK - 1] * ACUTE_DAYS / CHRONIC_DAYS;
+    }
+
+    /**
+     * Returns the highest acute:chronic ratio of the days in the week.
+     * The ratio is calculated from the 4th week, if the chronic window is complete.
+     *
+     * @param week of the plan, starting with 1
+     * @return The highest ratio or 0, if the ratio can not be calculated.
+     */
+    public double getMaxRatio(int week) {
+        double maxRatio = 0.0;
+        for (int day = Math.max((week - 1) * DAYS_OF_WEEK, CHRONIC_DAYS - 1); day < week * DAYS_OF_WEEK; day++) {
+            if (chronicLoad[day] > 0) {
+                maxRatio = Math.max(maxRatio, (double) acuteLoad[day] * CHRONIC_DAYS / ACUTE_DAYS / chronicLoad[day]);
+            }
+        }
+        return maxRatio;
+    }
+
+    // returns the index of the day in the plan or -1 for an invalid week or day
+    private static int dayIndex(RunningPlanEntrySnapshot entry) {
+        if (entry.getWeek() < 1 || entry.getDay() < 1 || entry.getDay() > DAYS_OF_WEEK) {
+            return -1;
+        }
+        return (entry.getWeek() - 1) * DAYS_OF_WEEK + entry.getDay() - 1;
+    }
+
+    /**
+     * Returns the load of an entry.
+     *
+     * @param entry of the plan
+     * @return The sum of the weighted durations of the running units in minutes.
+     */
+    public static long getLoad(@NotNull RunningPlanEntrySnapshot entry) {
+        long load = 0;
+        for (RunningUnitSnapshot runningUnit: entry.getRunningUnits()) {
+            load += Math.round(runningUnit.getDuration() * weight(runningUnit.getMovementType()));
+        }
+        return load;
+    }
+
+    private int addEntry(RunningPlanEntrySnapshot entry) {
+        long load = getLoad(entry);
+        int day = dayIndex(entry);
+        dailyLoad[day] += load;
+        entryLoads.put(entry, load);
+        return day;
+    }
+
+    // a faster pace gives a higher load per minute
+    private static double weight(@Nullable MovementType movementType) {
+        if (movementType == null || movementType.getPace() <= 0.0) {
+            return 1.0;
+        }
+        double weight = Global.TrainingLoadPreferences.REFERENCE_PACE / movementType.getPace();
+        return Math.max(Global.TrainingLoadPreferences.MIN_WEIGHT,
+                Math.min(weight, Global.TrainingLoadPreferences.MAX_WEIGHT));
+    }
+
+    // sliding windows, the sums of the first day are calculated completely
+    private void updateWindows(int fromDay, int toDay) {
+        if (fromDay > toDay) {
+            return;
+        }
+        long acute = 0;
+        long chronic = 0;
+        for (int day = Math.max(fromDay - CHRONIC_DAYS + 1, 0); day <= fromDay; day++) {
+            chronic += dailyLoad[day];
+            if (day > fromDay - ACUTE_DAYS) {
+                acute += dailyLoad[day];
+            }
+        }
+        acuteLoad[fromDay] = acute;
+        chronicLoad[fromDay] = chronic;
+        for (int day = fromDay + 1; day <= toDay; day++) {
+            acute += dailyLoad[day];
+            chronic += dailyLoad[day];
+            if (day >= ACUTE_DAYS) {
+                acute -= dailyLoad[day - ACUTE_DAYS];
+            }
+            if (day >= CHRONIC_DAYS) {
+                chronic -= dailyLoad[day - CHRONIC_DAYS];
+            }
+            acuteLoad[day] = acute;
+            chronicLoad[day] = chronic;
+        }
+    }
+}
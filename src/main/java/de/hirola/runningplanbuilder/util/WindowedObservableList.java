@@ -0,0 +1,225 @@
+package de.hirola.runningplanbuilder.util;
+
+import javafx.application.Platform;
+import javafx.beans.value.ChangeListener;
+import javafx.collections.ObservableListBase;
+import javafx.scene.Node;
+import javafx.scene.Scene;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Copyright 2022 by Michael Schmidt, Hirola Consulting
+ * This software us licensed under the AGPL-3.0 or later.
+ *
+ * A read-only observable list, which creates its elements from a source list only when they are read.
+ *
+ * The elements of a table view are needed only for the visible rows. The list creates the
+ * elements in windows of consecutive rows, e.g. the formatted strings of the entries of a plan.
+ * If the windows exceed the maximum count, the window farthest from the last read row is removed,
+ * so the memory of the list does not depend on the size of the source.
+ * After a change of the source, {@link #setSource(List)} must be called. The loaded windows are removed
+ * and the listeners get a single change for all rows. Like the {@link CoalescingObservableList}, all
+ * changes until the next pulse are sent as a single change event, if the list is attached to a table.
+ * The removed rows of the change, which were never loaded, are reported as null.
+ *
+ * The list must be used on the JavaFX application thread.
+ *
+ * @param <S> type of the elements of the source
+ * @param <E> type of the elements
+ * @author Michael Schmidt (Hirola)
+ * @since v0.1
+ */
+public final class WindowedObservableList<S, E> extends ObservableListBase<E> {
+    private final Function<S, E> elementFactory;
+    private final int windowSize;
+    private final int maxWindowCount;
+    private final Map<Integer, List<E>> windows; // the loaded windows by the index of the window
+    private final Runnable pulseListener;
+    private final ChangeListener<Scene> sceneListener;
+    private List<S> source;
+    private Scene scene; // the changes are collected, if the list is attached to a scene
+    private boolean changeSetOpen;
+    private long loadedWindowCount;
+
+    /**
+     * Creates an empty list.
+     *
+     * @param elementFactory creates the element of a row from the element of the source
+     * @param windowSize count of rows, which are loaded together
+     * @param memoryBudget maximum memory of the loaded elements in bytes
+     * @param estimatedElementSize estimated memory of an element in bytes
+     */
+    public WindowedObservableList(@NotNull Function<S, E> elementFactory, int windowSize,
+                                  long memoryBudget, int estimatedElementSize) {
+        if (windowSize < 1 || estimatedElementSize < 1) {
+            throw new IllegalArgumentException("The window size and the element size must be positive.");
+        }
+        this.elementFactory = elementFactory;
+        this.windowSize = windowSize;
+        // at least the visible rows at the border of two windows
+        maxWindowCount = (int) Math.max(2, memoryBudget / ((long) windowSize * estimatedElementSize));
+        windows = new HashMap<>();
+        source = Collections.emptyList();
+        pulseListener = this::flush;
+        sceneListener = (observable, oldScene, newScene) -> setScene(newScene);
+    }
+
+    /**
+     * Collects the changes until the next pulse of the scene of the node,
+     * usually the table view, which shows the list.
+     *
+     * @param node which shows the list
+     */
+    public void attachTo(@NotNull Node node) {
+        node.sceneProperty().addListener(sceneListener);
+        setScene(node.getScene());
+    }
+
+    /**
+     * Replaces the source or reloads the changed source. The list keeps the reference
+     * of the source, the source must not be changed without calling this method again.
+     *
+     * @param newSource of the elements
+     */
+    public void setSource(@NotNull List<S> newSource) {
+        int oldSize = source.size();
+        // the loaded elements are reported as removed, the other rows were never shown
+        Map<Integer, List<E>> oldWindows = new HashMap<>(windows);
+        List<E> removed = new AbstractList<>() {
+            @Override
+            public E get(int index) {
+                List<E> window = oldWindows.get(index / windowSize);
+                return window == null ? null : window.get(index % windowSize);
+            }
+
+            @Override
+            public int size() {
+                return oldSize;
+            }
+        };
+        windows.clear();
+        source = newSource;
+        boolean isSingleChange = openChangeSet();
+        if (oldSize > 0) {
+            nextRemove(0, removed);
+        }
+        if (!source.isEmpty()) {
+            nextAdd(0, source.size());
+        }
+        if (isSingleChange) {
+            endChange();
+        }
+    }
+
+    /**
+     * Sends the collected changes to the listeners.
+     */
+    public void flush() {
+        if (changeSetOpen) {
+            changeSetOpen = false;
+            endChange();
+        }
+    }
+
+    /**
+     * Returns the count of windows, which were loaded since the list was created.
+     *
+     * @return The count of loaded windows.
+     */
+    public long getLoadedWindowCount() {
+        return loadedWindowCount;
+    }
+
+    /**
+     * Returns the count of elements, which are actually in the memory.
+     *
+     * @return The count of the elements of the loaded windows.
+     */
+    public int getLoadedElementCount() {
+        int count = 0;
+        for (List<E> window: windows.values()) {
+            count += window.size();
+        }
+        return count;
+    }
+
+    @Override
+    public E get(int index) {
+        if (index < 0 || index >= source.size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + source.size());
+        }
+        int windowIndex = index / windowSize;
+        List<E> window = windows.get(windowIndex);
+        if (window == null) {
+            window = loadWindow(windowIndex);
+        }
+        return window.get(index % windowSize);
+    }
+
+    @Override
+    public int size() {
+        return source.size();
+    }
+
+    private List<E> loadWindow(int windowIndex) {
+        if (windows.size() >= maxWindowCount) {
+            evictFarthestWindow(windowIndex);
+        }
+        int from = windowIndex * windowSize;
+        int to = Math.min(from + windowSize, source.size());
+        List<E> window = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            window.add(elementFactory.apply(source.get(i)));
+        }
+        windows.put(windowIndex, window);
+        loadedWindowCount++;
+        return window;
+    }
+
+    // the window farthest from the read row is not visible
+    private void evictFarthestWindow(int windowIndex) {
+        Integer farthestWindowIndex = null;
+        for (Integer loadedWindowIndex: windows.keySet()) {
+            if (farthestWindowIndex == null
+                    || Math.abs(loadedWindowIndex - windowIndex) > Math.abs(farthestWindowIndex - windowIndex)) {
+                farthestWindowIndex = loadedWindowIndex;
+            }
+        }
+        windows.remove(farthestWindowIndex);
+    }
+
+    // true, if the change must be closed by the caller
+    private boolean openChangeSet() {
+        if (scene == null) {
+            beginChange();
+            return true;
+        }
+        if (!changeSetOpen) {
+            changeSetOpen = true;
+            beginChange();
+            // the change set is closed in the pre layout listener
+            Platform.requestNextPulse();
+        }
+        return false;
+    }
+
+    private void setScene(@Nullable Scene newScene) {
+        if (scene != null) {
+            scene.removePreLayoutPulseListener(pulseListener);
+            flush();
+        }
+        scene = newScene;
+        if (scene != null) {
+            scene.addPreLayoutPulseListener(pulseListener);
+        }
+    }
+}
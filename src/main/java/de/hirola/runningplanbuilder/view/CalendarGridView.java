@@ -0,0 +1,412 @@
+package de.hirola.runningplanbuilder.view;
+
+import de.hirola.runningplanbuilder.Global;
+import de.hirola.runningplanbuilder.model.RunningPlanEntrySnapshot;
+import de.hirola.runningplanbuilder.model.RunningPlanSnapshot;
+import de.hirola.runningplanbuilder.util.ApplicationMetrics;
+import de.hirola.runningplanbuilder.util.ApplicationResources;
+import de.hirola.runningplanbuilder.util.TrainingLoadAnalyzer;
+import javafx.geometry.Orientation;
+import javafx.geometry.VPos;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.control.ScrollBar;
+import javafx.scene.input.MouseButton;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.input.ScrollEvent;
+import javafx.scene.layout.Region;
+import javafx.scene.paint.Color;
+import javafx.scene.text.TextAlignment;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Copyright 2022 by Michael Schmidt, Hirola Consulting
+ * This software us licensed under the AGPL-3.0 or later.
+ *
+ * A week x day calendar grid of one or more running plans, rendered on a single canvas.
+ *
+ * Each plan is shown as a header row with the name and a row for each week.
+ * The color of a cell shows the load of the day relative to the highest load of all plans,
+ * the size of the inner rectangle the duration. The canvas has the size of the viewport,
+ * so scrolling only draws the visible rows. If a plan changes, only the changed cells are drawn.
+ * The grid and the scale of the colors are drawn again, if the count of weeks or the highest load changes.
+ *
+ * @author Michael Schmidt (Hirola)
+ * @since v0.1
+ */
+public class CalendarGridView extends Region {
+    private static final int DAYS_OF_WEEK = 7;
+    private final ApplicationMetrics applicationMetrics;
+    private final Canvas canvas;
+    private final ScrollBar scrollBar;
+    private final String weekText;
+    private final String[] dayNames;
+    private List<PlanCells> plans;
+    private int rowCount;
+    private long maxLoad;
+    private long maxDuration;
+    private Consumer<RunningPlanEntrySnapshot> onEntryClicked;
+
+    public CalendarGridView() {
+        ApplicationResources applicationResources = ApplicationResources.getInstance();
+        applicationMetrics = ApplicationMetrics.getInstance();
+        weekText = applicationResources.getString("mainView.table.column.week.headerText");
+        dayNames = new String[] {
+                applicationResources.getString("monday"),
+                applicationResources.getString("tuesday"),
+                applicationResources.getString("wednesday"),
+                applicationResources.getString("thursday"),
+                applicationResources.getString("friday"),
+                applicationResources.getString("saturday"),
+                applicationResources.getString("sunday")};
+        plans = new ArrayList<>();
+        canvas = new Canvas();
+        scrollBar = new ScrollBar();
+        scrollBar.setOrientation(Orientation.VERTICAL);
+        scrollBar.setUnitIncrement(Global.CalendarGridPreferences.ROW_HEIGHT);
+        scrollBar.valueProperty().addListener((observable, oldValue, newValue) -> redraw());
+        getChildren().addAll(canvas, scrollBar);
+        canvas.addEventHandler(MouseEvent.MOUSE_CLICKED, this::onMouseClicked);
+        addEventHandler(ScrollEvent.SCROLL, event -> {
+            scrollBar.setValue(clamp(scrollBar.getValue() - event.getDeltaY(), 0, scrollBar.getMax()));
+            event.consume();
+        });
+    }
+
+    /**
+     * Sets the action for a click on a cell with an entry.
+     *
+     * @param onEntryClicked called with the first entry of the day
+     */
+    public void setOnEntryClicked(@Nullable Consumer<RunningPlanEntrySnapshot> onEntryClicked) {
+        this.onEntryClicked = onEntryClicked;
+    }
+
+    /**
+     * Shows the plans. Plans with the same snapshot as before are not compared again.
+     *
+     * @param snapshots of the plans to be shown
+     */
+    public void setPlans(@NotNull List<RunningPlanSnapshot> snapshots) {
+        List<PlanCells> newPlans = new ArrayList<>(snapshots.size());
+        int row = 0;
+        boolean layoutChanged = snapshots.size() != plans.size();
+        long newMaxLoad = 0;
+        long newMaxDuration = 0;
+        for (int i = 0; i < snapshots.size(); i++) {
+            RunningPlanSnapshot snapshot = snapshots.get(i);
+            PlanCells cells = i < plans.size() ? plans.get(i) : null;
+            if (cells == null || cells.snapshot != snapshot || cells.firstRow != row) {
+                cells = new PlanCells(snapshot, row);
+            }
+            layoutChanged |= i >= plans.size() || plans.get(i).weeks != cells.weeks;
+            newPlans.add(cells);
+            row += cells.weeks + 1;
+            newMaxLoad = Math.max(newMaxLoad, cells.maxLoad);
+            newMaxDuration = Math.max(newMaxDuration, cells.maxDuration);
+        }
+        List<PlanCells> oldPlans = plans;
+        layoutChanged |= newMaxLoad != maxLoad || newMaxDuration != maxDuration;
+        plans = newPlans;
+        rowCount = row;
+        maxLoad = newMaxLoad;
+        maxDuration = newMaxDuration;
+        if (layoutChanged) {
+            updateScrollBar();
+            redraw();
+            return;
+        }
+        // draw only the changed cells
+        long startNanos = System.nanoTime();
+        GraphicsContext graphicsContext = canvas.getGraphicsContext2D();
+        for (int i = 0; i < newPlans.size(); i++) {
+            PlanCells oldCells = oldPlans.get(i);
+            PlanCells newCells = newPlans.get(i);
+            if (oldCells == newCells) {
+                continue;
+            }
+            if (!oldCells.name.equals(newCells.name)) {
+                drawPlanHeader(graphicsContext, newCells);
+            }
+            for (int cell = 0; cell < newCells.entries.length; cell++) {
+                if (oldCells.entries[cell] != newCells.entries[cell]
+                        || oldCells.load[cell] != newCells.load[cell]
+                        || oldCells.duration[cell] != newCells.duration[cell]) {
+                    drawCell(graphicsContext, newCells, cell);
+                }
+            }
+        }
+        applicationMetrics.record(ApplicationMetrics.Operation.CALENDAR_REDRAW, System.nanoTime() - startNanos);
+    }
+
+    @Override
+    protected void layoutChildren() {
+        double scrollBarWidth = scrollBar.prefWidth(-1);
+        double width = Math.max(0, getWidth() - scrollBarWidth);
+        double height = getHeight();
+        scrollBar.resizeRelocate(width, 0, scrollBarWidth, height);
+        if (canvas.getWidth() != width || canvas.getHeight() != height) {
+            canvas.setWidth(width);
+            canvas.setHeight(height);
+            updateScrollBar();
+            redraw();
+        }
+    }
+
+    @Override
+    protected double computePrefWidth(double height) {
+        return Global.CalendarGridPreferences.WEEK_COLUMN_WIDTH
+                + DAYS_OF_WEEK * Global.CalendarGridPreferences.MIN_CELL_WIDTH;
+    }
+
+    @Override
+    protected double computePrefHeight(double width) {
+        return Global.CalendarGridPreferences.HEADER_HEIGHT + 10 * Global.CalendarGridPreferences.ROW_HEIGHT;
+    }
+
+    private void updateScrollBar() {
+        double viewportHeight = Math.max(0, canvas.getHeight() - Global.CalendarGridPreferences.HEADER_HEIGHT);
+        double contentHeight = rowCount * Global.CalendarGridPreferences.ROW_HEIGHT;
+        double max = Math.max(0, contentHeight - viewportHeight);
+        scrollBar.setMax(max);
+        scrollBar.setVisibleAmount(Math.min(viewportHeight, max));
+        scrollBar.setBlockIncrement(viewportHeight);
+        if (scrollBar.getValue() > max) {
+            // the listener of the value draws the grid
+            scrollBar.setValue(max);
+        }
+    }
+
+    // draws the visible rows
+    private void redraw() {
+        long startNanos = System.nanoTime();
+        GraphicsContext graphicsContext = canvas.getGraphicsContext2D();
+        double width = canvas.getWidth();
+        double height = canvas.getHeight();
+        graphicsContext.setFill(Color.WHITE);
+        graphicsContext.fillRect(0, 0, width, height);
+        drawDayHeader(graphicsContext);
+        int firstRow = (int) (scrollBar.getValue() / Global.CalendarGridPreferences.ROW_HEIGHT);
+        int lastRow = (int) ((scrollBar.getValue() + height - Global.CalendarGridPreferences.HEADER_HEIGHT)
+                / Global.CalendarGridPreferences.ROW_HEIGHT);
+        int planIndex = planIndexOfRow(firstRow);
+        for (int i = Math.max(planIndex, 0); i < plans.size(); i++) {
+            PlanCells cells = plans.get(i);
+            if (cells.firstRow > lastRow) {
+                break;
+            }
+            drawPlanHeader(graphicsContext, cells);
+            int firstWeek = Math.max(1, firstRow - cells.firstRow);
+            int lastWeek = Math.min(cells.weeks, lastRow - cells.firstRow);
+            for (int week = firstWeek; week <= lastWeek; week++) {
+                drawWeekLabel(graphicsContext, cells, week);
+                for (int day = 0; day < DAYS_OF_WEEK; day++) {
+                    drawCell(graphicsContext, cells, (week - 1) * DAYS_OF_WEEK + day);
+                }
+            }
+        }
+        applicationMetrics.record(ApplicationMetrics.Operation.CALENDAR_REDRAW, System.nanoTime() - startNanos);
+    }
+
+    private void drawDayHeader(GraphicsContext graphicsContext) {
+        double cellWidth = cellWidth();
+        graphicsContext.setFill(Global.CalendarGridPreferences.HEADER_COLOR);
+        graphicsContext.fillRect(0, 0, canvas.getWidth(), Global.CalendarGridPreferences.HEADER_HEIGHT);
+        graphicsContext.setFill(Color.BLACK);
+        graphicsContext.setTextAlign(TextAlignment.CENTER);
+        graphicsContext.setTextBaseline(VPos.CENTER);
+        for (int day = 0; day < DAYS_OF_WEEK; day++) {
+            graphicsContext.fillText(dayNames[day],
+                    Global.CalendarGridPreferences.WEEK_COLUMN_WIDTH + (day + 0.5) * cellWidth,
+                    Global.CalendarGridPreferences.HEADER_HEIGHT / 2, cellWidth);
+        }
+    }
+
+    private void drawPlanHeader(GraphicsContext graphicsContext, PlanCells cells) {
+        double y = rowY(cells.firstRow);
+        if (!isVisible(y)) {
+            return;
+        }
+        graphicsContext.save();
+        clipToRows(graphicsContext);
+        graphicsContext.setFill(Global.CalendarGridPreferences.HEADER_COLOR);
+        graphicsContext.fillRect(0, y, canvas.getWidth(), Global.CalendarGridPreferences.ROW_HEIGHT);
+        graphicsContext.setFill(Color.BLACK);
+        graphicsContext.setTextAlign(TextAlignment.LEFT);
+        graphicsContext.setTextBaseline(VPos.CENTER);
+        graphicsContext.fillText(cells.name, Global.CalendarGridPreferences.CELL_GAP,
+                y + Global.CalendarGridPreferences.ROW_HEIGHT / 2);
+        graphicsContext.restore();
+    }
+
+    private void drawWeekLabel(GraphicsContext graphicsContext, PlanCells cells, int week) {
+        double y = rowY(cells.firstRow + week);
+        graphicsContext.save();
+        clipToRows(graphicsContext);
+        graphicsContext.setFill(Color.BLACK);
+        graphicsContext.setTextAlign(TextAlignment.LEFT);
+        graphicsContext.setTextBaseline(VPos.CENTER);
+        graphicsContext.fillText(weekText + " " + week, Global.CalendarGridPreferences.CELL_GAP,
+                y + Global.CalendarGridPreferences.ROW_HEIGHT / 2,
+                Global.CalendarGridPreferences.WEEK_COLUMN_WIDTH - 2 * Global.CalendarGridPreferences.CELL_GAP);
+        graphicsContext.restore();
+    }
+
+    private void drawCell(GraphicsContext graphicsContext, PlanCells cells, int cell) {
+        int week = cell / DAYS_OF_WEEK + 1;
+        double y = rowY(cells.firstRow + week);
+        if (!isVisible(y)) {
+            return;
+        }
+        double cellWidth = cellWidth();
+        double gap = Global.CalendarGridPreferences.CELL_GAP;
+        double x = Global.CalendarGridPreferences.WEEK_COLUMN_WIDTH + (cell % DAYS_OF_WEEK) * cellWidth;
+        double width = cellWidth - gap;
+        double height = Global.CalendarGridPreferences.ROW_HEIGHT - gap;
+        graphicsContext.save();
+        clipToRows(graphicsContext);
+        graphicsContext.setFill(Global.CalendarGridPreferences.EMPTY_CELL_COLOR);
+        graphicsContext.fillRect(x, y, width, height);
+        if (cells.entries[cell] != null && cells.duration[cell] > 0) {
+            // the area of the inner rectangle is proportional to the duration
+            double scale = maxDuration > 0 ? Math.sqrt((double) cells.duration[cell] / maxDuration) : 1.0;
+            double innerWidth = width * scale;
+            double innerHeight = height * scale;
+            double ratio = maxLoad > 0 ? (double) cells.load[cell] / maxLoad : 0.0;
+            graphicsContext.setFill(loadColor(ratio));
+            graphicsContext.fillRect(x + (width - innerWidth) / 2, y + (height - innerHeight) / 2,
+                    innerWidth, innerHeight);
+        } else if (cells.entries[cell] != null) {
+            // entry without duration
+            graphicsContext.setStroke(Color.GRAY);
+            graphicsContext.strokeRect(x + 0.5, y + 0.5, width - 1, height - 1);
+        }
+        graphicsContext.restore();
+    }
+
+    // from green (low load) to red (highest load)
+    private Color loadColor(double ratio) {
+        return Color.hsb(120.0 * (1.0 - Math.min(1.0, ratio)), 0.6, 0.9);
+    }
+
+    // the rows must not be drawn over the header with the days
+    private void clipToRows(GraphicsContext graphicsContext) {
+        graphicsContext.beginPath();
+        graphicsContext.rect(0, Global.CalendarGridPreferences.HEADER_HEIGHT,
+                canvas.getWidth(), canvas.getHeight() - Global.CalendarGridPreferences.HEADER_HEIGHT);
+        graphicsContext.clip();
+    }
+
+    private void onMouseClicked(MouseEvent event) {
+        if (onEntryClicked == null || event.getButton() != MouseButton.PRIMARY
+                || event.getY() < Global.CalendarGridPreferences.HEADER_HEIGHT
+                || event.getX() < Global.CalendarGridPreferences.WEEK_COLUMN_WIDTH) {
+            return;
+        }
+        int row = (int) ((event.getY() - Global.CalendarGridPreferences.HEADER_HEIGHT + scrollBar.getValue())
+                / Global.CalendarGridPreferences.ROW_HEIGHT);
+        int day = (int) ((event.getX() - Global.CalendarGridPreferences.WEEK_COLUMN_WIDTH) / cellWidth());
+        int planIndex = planIndexOfRow(row);
+        if (planIndex < 0 || day >= DAYS_OF_WEEK) {
+            return;
+        }
+        PlanCells cells = plans.get(planIndex);
+        int week = row - cells.firstRow;
+        if (week < 1 || week > cells.weeks) {
+            return;
+        }
+        RunningPlanEntrySnapshot entry = cells.entries[(week - 1) * DAYS_OF_WEEK + day];
+        if (entry != null) {
+            onEntryClicked.accept(entry);
+        }
+    }
+
+    // binary search of the plan, which contains the row
+    private int planIndexOfRow(int row) {
+        int low = 0;
+        int high = plans.size() - 1;
+        int index = -1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (plans.get(middle).firstRow <= row) {
+                index = middle;
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        if (index > -1 && row > plans.get(index).firstRow + plans.get(index).weeks) {
+            return -1;
+        }
+        return index;
+    }
+
+    private double cellWidth() {
+        return Math.max(0, canvas.getWidth() - Global.CalendarGridPreferences.WEEK_COLUMN_WIDTH) / DAYS_OF_WEEK;
+    }
+
+    private double rowY(int row) {
+        return Global.CalendarGridPreferences.HEADER_HEIGHT
+                + row * Global.CalendarGridPreferences.ROW_HEIGHT - scrollBar.getValue();
+    }
+
+    private boolean isVisible(double y) {
+        return y + Global.CalendarGridPreferences.ROW_HEIGHT > Global.CalendarGridPreferences.HEADER_HEIGHT
+                && y < canvas.getHeight();
+    }
+
+    private static double clamp(double value, double min, double max) {
+        return Math.max(min, Math.min(max, value));
+    }
+
+    // the cells of a plan, an entry, a load and a duration for each day
+    private static final class PlanCells {
+        final RunningPlanSnapshot snapshot;
+        final String name;
+        final int firstRow; // row of the header
+        final int weeks;
+        final RunningPlanEntrySnapshot[] entries; // the first entry of the day
+        final long[] load;
+        final long[] duration;
+        long maxLoad;
+        long maxDuration;
+
+        PlanCells(RunningPlanSnapshot snapshot, int firstRow) {
+            this.snapshot = snapshot;
+            this.firstRow = firstRow;
+            name = snapshot.getName() != null ? snapshot.getName() : "";
+            int maxWeek = 0;
+            for (RunningPlanEntrySnapshot entry: snapshot.getEntries()) {
+                if (isInGrid(entry)) {
+                    maxWeek = Math.max(maxWeek, entry.getWeek());
+                }
+            }
+            weeks = maxWeek;
+            entries = new RunningPlanEntrySnapshot[weeks * DAYS_OF_WEEK];
+            load = new long[entries.length];
+            duration = new long[entries.length];
+            for (RunningPlanEntrySnapshot entry: snapshot.getEntries()) {
+                if (!isInGrid(entry)) {
+                    continue;
+                }
+                int cell = (entry.getWeek() - 1) * DAYS_OF_WEEK + entry.getDay() - 1;
+                if (entries[cell] == null) {
+                    entries[cell] = entry;
+                }
+                load[cell] += TrainingLoadAnalyzer.getLoad(entry);
+                duration[cell] += entry.getDuration();
+                maxLoad = Math.max(maxLoad, load[cell]);
+                maxDuration = Math.max(maxDuration, duration[cell]);
+            }
+        }
+
+        private static boolean isInGrid(RunningPlanEntrySnapshot entry) {
+            return entry.getWeek() > 0 && entry.getDay() > 0 && entry.getDay() <= DAYS_OF_WEEK;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package de.hirola.runningplanbuilder.view;
+
+import de.hirola.runningplanbuilder.controller.ExportViewController;
+import de.hirola.runningplanbuilder.model.RunningPlanSnapshot;
+import de.hirola.runningplanbuilder.util.ApplicationResources;
+import de.hirola.runningplanbuilder.util.DialogOpenEvent;
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Node;
+import javafx.scene.Scene;
+import javafx.stage.Modality;
+import javafx.stage.Stage;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+
+/**
+ * Copyright 2022 by Michael Schmidt, Hirola Consulting
+ * This software us licensed under the AGPL-3.0 or later.
+ *
+ * A view to export the running plan to several formats at once.
+ * This dialog is opened modal and waits for the user to close it.
+ *
+ * The view is created by SceneBuilder and using fxml.
+ *
+ * @author Michael Schmidt (Hirola)
+ * @since v0.1
+ */
+public class ExportView {
+
+    private final ApplicationResources applicationResources;
+
+    public ExportView() {
+        applicationResources = ApplicationResources.getInstance();
+    }
+
+    public ExportViewController showViewModal(Node parent, RunningPlanSnapshot snapshot, String fileName,
+                                              File directory) throws IOException {
+        // measures the time until the dialog is shown
+        DialogOpenEvent dialogOpenEvent = new DialogOpenEvent(ExportView.class.getSimpleName());
+        dialogOpenEvent.begin();
+        URL fxmlURL = getClass()
+                .getClassLoader()
+                .getResource("export-view.fxml");
+        FXMLLoader fxmlLoader = new FXMLLoader(fxmlURL);
+        Stage stage = new Stage();
+        Scene scene = new Scene(fxmlLoader.load());
+        // transfer of parameters to the view controller
+        ExportViewController exportViewController = fxmlLoader.getController();
+        exportViewController.setExport(snapshot, fileName, directory);
+        stage.setTitle(applicationResources.getString("app.name")
+                + " - "
+                + applicationResources.getString("exportView.title"));
+        stage.initOwner(parent.getScene().getWindow());
+        stage.initModality(Modality.APPLICATION_MODAL);
+        stage.setScene(scene);
+        stage.setOnShown(event -> dialogOpenEvent.commit());
+        // the files are closed by the thread of the export
+        stage.setOnCloseRequest(event -> {
+            if (exportViewController.isExporting()) {
+                event.consume();
+            }
+        });
+        stage.showAndWait(); // wait until user closed the dialog
+
+        return exportViewController; // return the controller back to caller
+    }
+}
@@ -3,8 +3,11 @@ package de.hirola.runningplanbuilder.view;
 import de.hirola.runningplanbuilder.Global;
 import de.hirola.runningplanbuilder.RunningPlanBuilder;
 import de.hirola.runningplanbuilder.controller.MainViewController;
+import de.hirola.runningplanbuilder.util.ApplicationMetrics;
 import de.hirola.runningplanbuilder.util.ApplicationResources;
+import de.hirola.runningplanbuilder.util.FXThreadWatchdog;
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.fxml.FXMLLoader;
 import javafx.geometry.Rectangle2D;
 import javafx.scene.Scene;
@@ -15,6 +18,8 @@ import javafx.stage.Stage;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.prefs.Preferences;
 
 /**
@@ -76,6 +81,30 @@ public class MainView {
             stage.getIcons().add(appIcon);
         }
         stage.setScene(scene);
+        // count the layout passes, shown with the table changes in the debug dialog
+        ApplicationMetrics applicationMetrics = ApplicationMetrics.getInstance();
+        scene.addPostLayoutPulseListener(() -> applicationMetrics.increment(ApplicationMetrics.Counter.LAYOUT_PASS));
+        // detect stalls of the FX thread, enabled by default in debug mode
+        boolean debugMode = userPreferences.getBoolean(Global.UserPreferencesKeys.USE_DEBUG_MODE, false);
+        if (userPreferences.getBoolean(Global.UserPreferencesKeys.USE_FX_THREAD_WATCHDOG, debugMode)) {
+            FXThreadWatchdog fxThreadWatchdog = FXThreadWatchdog.getInstance();
+            fxThreadWatchdog.start();
+            fxThreadWatchdog.monitorScene(scene);
+        }
+        // the first pulse after showing the stage is the first frame
+        // used by the startup benchmark and the training run of the class data sharing archive
+        if (Boolean.getBoolean(Global.SystemPropertyKeys.EXIT_AFTER_FIRST_FRAME)) {
+            scene.addPostLayoutPulseListener(new Runnable() {
+                @Override
+                public void run() {
+                    scene.removePostLayoutPulseListener(this);
+                    ProcessHandle.current().info().startInstant().ifPresent(startInstant ->
+                            System.out.println(Global.SystemPropertyKeys.FIRST_FRAME_OUTPUT_PREFIX
+                                    + Duration.between(startInstant, Instant.now()).toMillis()));
+                    Platform.exit();
+                }
+            });
+        }
         stage.show();
     }
 }
@@ -0,0 +1,60 @@
+package de.hirola.runningplanbuilder.view;
+
+import de.hirola.runningplanbuilder.controller.MergeViewController;
+import de.hirola.runningplanbuilder.model.MergeResult;
+import de.hirola.runningplanbuilder.util.ApplicationResources;
+import de.hirola.runningplanbuilder.util.DialogOpenEvent;
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Node;
+import javafx.scene.Scene;
+import javafx.stage.Modality;
+import javafx.stage.Stage;
+
+import java.io.IOException;
+import java.net.URL;
+
+/**
+ * Copyright 2022 by Michael Schmidt, Hirola Consulting
+ * This software us licensed under the AGPL-3.0 or later.
+ *
+ * A view to preview the merge of two running plans and to resolve the conflicts.
+ * This dialog is opened modal and waits for the user to close it.
+ *
+ * The view is created by SceneBuilder and using fxml.
+ *
+ * @author Michael Schmidt (Hirola)
+ * @since v0.1
+ */
+public class MergeView {
+
+    private final ApplicationResources applicationResources;
+
+    public MergeView() {
+        applicationResources = ApplicationResources.getInstance();
+    }
+
+    public MergeViewController showViewModal(Node parent, MergeResult mergeResult) throws IOException {
+        // measures the time until the dialog is shown
+        DialogOpenEvent dialogOpenEvent = new DialogOpenEvent(MergeView.class.getSimpleName());
+        dialogOpenEvent.begin();
+        URL fxmlURL = getClass()
+                .getClassLoader()
+                .getResource("merge-view.fxml");
+        FXMLLoader fxmlLoader = new FXMLLoader(fxmlURL);
+        Stage stage = new Stage();
+        Scene scene = new Scene(fxmlLoader.load());
+        // transfer of parameters to the view controller
+        MergeViewController mergeViewController = fxmlLoader.getController();
+        mergeViewController.setMergeResult(mergeResult);
+        stage.setTitle(applicationResources.getString("app.name")
+                + " - "
+                + applicationResources.getString("mergeView.title"));
+        stage.initOwner(parent.getScene().getWindow());
+        stage.initModality(Modality.APPLICATION_MODAL);
+        stage.setScene(scene);
+        stage.setOnShown(event -> dialogOpenEvent.commit());
+        stage.showAndWait(); // wait until user closed the dialog
+
+        return mergeViewController; // return the controller back to caller
+    }
+}
@@ -2,6 +2,7 @@ package de.hirola.runningplanbuilder.view;
 
 import de.hirola.runningplanbuilder.controller.PreferencesViewController;
 import de.hirola.runningplanbuilder.util.ApplicationResources;
+import de.hirola.runningplanbuilder.util.DialogOpenEvent;
 import de.hirola.sportsapplications.SportsLibrary;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Node;
@@ -34,6 +35,9 @@ public class PreferencesView {
 
     public PreferencesViewController showViewModal(@NotNull Node parent, @NotNull SportsLibrary sportsLibrary)
             throws IOException {
+        // measures the time until the dialog is shown
+        DialogOpenEvent dialogOpenEvent = new DialogOpenEvent(PreferencesView.class.getSimpleName());
+        dialogOpenEvent.begin();
         URL fxmlURL = getClass()
                 .getClassLoader()
                 .getResource("preferences-view.fxml");
@@ -51,6 +55,7 @@ public class PreferencesView {
         stage.initModality(Modality.APPLICATION_MODAL);
         stage.setResizable(false);
         stage.setScene(scene);
+        stage.setOnShown(event -> dialogOpenEvent.commit());
         stage.showAndWait(); // wait until user closed the dialog
 
         return preferencesViewController; // Return the controller back to caller
@@ -2,6 +2,7 @@ package de.hirola.runningplanbuilder.view;
 
 import de.hirola.runningplanbuilder.controller.RunningEntryViewController;
 import de.hirola.runningplanbuilder.util.ApplicationResources;
+import de.hirola.runningplanbuilder.util.DialogOpenEvent;
 import de.hirola.sportsapplications.SportsLibrary;
 import de.hirola.sportsapplications.model.RunningPlanEntry;
 import javafx.fxml.FXMLLoader;
@@ -37,6 +38,9 @@ public class RunningEntryView {
     }
 
     public RunningEntryViewController showViewModal(Node parent, @Nullable RunningPlanEntry runningPlanEntry) throws IOException {
+        // measures the time until the dialog is shown
+        DialogOpenEvent dialogOpenEvent = new DialogOpenEvent(RunningEntryView.class.getSimpleName());
+        dialogOpenEvent.begin();
         URL fxmlURL = getClass()
                 .getClassLoader()
                 .getResource("running-entry-view.fxml");
@@ -54,6 +58,7 @@ public class RunningEntryView {
         stage.initModality(Modality.APPLICATION_MODAL);
         stage.setResizable(false);
         stage.setScene(scene);
+        stage.setOnShown(event -> dialogOpenEvent.commit());
         stage.showAndWait(); // wait until user closed the dialog
 
         return runningEntryViewController; // return the controller back to caller
@@ -0,0 +1,63 @@
+package de.hirola.runningplanbuilder.view;
+
+import de.hirola.runningplanbuilder.controller.RunningPlanGeneratorViewController;
+import de.hirola.runningplanbuilder.util.ApplicationResources;
+import de.hirola.runningplanbuilder.util.DialogOpenEvent;
+import de.hirola.sportsapplications.SportsLibrary;
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Node;
+import javafx.scene.Scene;
+import javafx.stage.Modality;
+import javafx.stage.Stage;
+
+import java.io.IOException;
+import java.net.URL;
+
+/**
+ * Copyright 2022 by Michael Schmidt, Hirola Consulting
+ * This software us licensed under the AGPL-3.0 or later.
+ *
+ * A view to generate a running plan from a few parameters.
+ * This dialog is opened modal and waits for the user to close it.
+ *
+ * The view is created by SceneBuilder and using fxml.
+ *
+ * @author Michael Schmidt (Hirola)
+ * @since v0.1
+ */
+public class RunningPlanGeneratorView {
+
+    private final SportsLibrary sportsLibrary;
+    private final ApplicationResources applicationResources;
+
+    public RunningPlanGeneratorView(SportsLibrary sportsLibrary) {
+        this.sportsLibrary = sportsLibrary;
+        applicationResources = ApplicationResources.getInstance();
+    }
+
+    public RunningPlanGeneratorViewController showViewModal(Node parent) throws IOException {
+        // measures the time until the dialog is shown
+        DialogOpenEvent dialogOpenEvent = new DialogOpenEvent(RunningPlanGeneratorView.class.getSimpleName());
+        dialogOpenEvent.begin();
+        URL fxmlURL = getClass()
+                .getClassLoader()
+                .getResource("running-plan-generator-view.fxml");
+        FXMLLoader fxmlLoader = new FXMLLoader(fxmlURL);
+        Stage stage = new Stage();
+        Scene scene = new Scene(fxmlLoader.load());
+        // transfer of parameters to the view controller
+        RunningPlanGeneratorViewController runningPlanGeneratorViewController = fxmlLoader.getController();
+        runningPlanGeneratorViewController.setSportsLibrary(sportsLibrary);
+        stage.setTitle(applicationResources.getString("app.name")
+                + " - "
+                + applicationResources.getString("generatorView.title"));
+        stage.initOwner(parent.getScene().getWindow());
+        stage.initModality(Modality.APPLICATION_MODAL);
+        stage.setResizable(false);
+        stage.setScene(scene);
+        stage.setOnShown(event -> dialogOpenEvent.commit());
+        stage.showAndWait(); // wait until user closed the dialog
+
+        return runningPlanGeneratorViewController; // return the controller back to caller
+    }
+}
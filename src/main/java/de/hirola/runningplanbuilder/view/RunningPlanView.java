@@ -2,6 +2,7 @@ package de.hirola.runningplanbuilder.view;
 
 import de.hirola.runningplanbuilder.controller.RunningPlanViewController;
 import de.hirola.runningplanbuilder.util.ApplicationResources;
+import de.hirola.runningplanbuilder.util.DialogOpenEvent;
 import de.hirola.sportsapplications.model.RunningPlan;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Node;
@@ -32,6 +33,9 @@ public class RunningPlanView {
     }
 
     public RunningPlanViewController showView(Node parent, @Nullable RunningPlan runningPlan) throws IOException {
+        // measures the time until the dialog is shown
+        DialogOpenEvent dialogOpenEvent = new DialogOpenEvent(RunningPlanView.class.getSimpleName());
+        dialogOpenEvent.begin();
         URL fxmlURL = getClass()
                 .getClassLoader()
                 .getResource("running-plan-view.fxml");
@@ -49,6 +53,7 @@ public class RunningPlanView {
         stage.initModality(Modality.APPLICATION_MODAL);
         stage.setResizable(false);
         stage.setScene(scene);
+        stage.setOnShown(event -> dialogOpenEvent.commit());
         stage.showAndWait(); // wait until user closed the dialog
 
         return runningPlanViewController; // return the controller back to caller
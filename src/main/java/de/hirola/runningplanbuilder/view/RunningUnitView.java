@@ -2,6 +2,7 @@ package de.hirola.runningplanbuilder.view;
 
 import de.hirola.runningplanbuilder.controller.RunningUnitViewController;
 import de.hirola.runningplanbuilder.util.ApplicationResources;
+import de.hirola.runningplanbuilder.util.DialogOpenEvent;
 import de.hirola.sportsapplications.SportsLibrary;
 import de.hirola.sportsapplications.model.RunningUnit;
 import javafx.fxml.FXMLLoader;
@@ -37,6 +38,9 @@ public class RunningUnitView {
     }
 
     public RunningUnitViewController showViewModal(Node parent, @Nullable RunningUnit runningUnit) throws IOException {
+        // measures the time until the dialog is shown
+        DialogOpenEvent dialogOpenEvent = new DialogOpenEvent(RunningUnitView.class.getSimpleName());
+        dialogOpenEvent.begin();
         URL fxmlURL = getClass()
                 .getClassLoader()
                 .getResource("running-unit-view.fxml");
@@ -55,6 +59,7 @@ public class RunningUnitView {
         stage.initModality(Modality.APPLICATION_MODAL);
         stage.setResizable(false);
         stage.setScene(scene);
+        stage.setOnShown(event -> dialogOpenEvent.commit());
         stage.showAndWait(); // wait until user closed the dialog
 
         return runningUnitViewController; // Return the controller back to caller
@@ -0,0 +1,64 @@
+package de.hirola.runningplanbuilder.view;
+
+import de.hirola.runningplanbuilder.controller.SeriesViewController;
+import de.hirola.runningplanbuilder.model.RunningPlanSnapshot;
+import de.hirola.runningplanbuilder.util.ApplicationResources;
+import de.hirola.runningplanbuilder.util.DialogOpenEvent;
+import de.hirola.sportsapplications.SportsLibrary;
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Node;
+import javafx.scene.Scene;
+import javafx.stage.Modality;
+import javafx.stage.Stage;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.util.List;
+
+/**
+ * Copyright 2022 by Michael Schmidt, Hirola Consulting
+ * This software us licensed under the AGPL-3.0 or later.
+ *
+ * A view to export or import a series of plans as a single file.
+ * This dialog is opened modal and waits for the user to close it.
+ *
+ * The view is created by SceneBuilder and using fxml.
+ *
+ * @author Michael Schmidt (Hirola)
+ * @since v0.1
+ */
+public class SeriesView {
+
+    private final ApplicationResources applicationResources;
+
+    public SeriesView() {
+        applicationResources = ApplicationResources.getInstance();
+    }
+
+    public SeriesViewController showViewModal(Node parent, List<RunningPlanSnapshot> series, File directory,
+                                              SportsLibrary sportsLibrary) throws IOException {
+        // measures the time until the dialog is shown
+        DialogOpenEvent dialogOpenEvent = new DialogOpenEvent(SeriesView.class.getSimpleName());
+        dialogOpenEvent.begin();
+        URL fxmlURL = getClass()
+                .getClassLoader()
+                .getResource("series-view.fxml");
+        FXMLLoader fxmlLoader = new FXMLLoader(fxmlURL);
+        Stage stage = new Stage();
+        Scene scene = new Scene(fxmlLoader.load());
+        // transfer of parameters to the view controller
+        SeriesViewController seriesViewController = fxmlLoader.getController();
+        seriesViewController.setSeries(series, directory, sportsLibrary);
+        stage.setTitle(applicationResources.getString("app.name")
+                + " - "
+                + applicationResources.getString("seriesView.title"));
+        stage.initOwner(parent.getScene().getWindow());
+        stage.initModality(Modality.APPLICATION_MODAL);
+        stage.setScene(scene);
+        stage.setOnShown(event -> dialogOpenEvent.commit());
+        stage.showAndWait(); // wait until user closed the dialog
+
+        return seriesViewController; // return the controller back to caller
+    }
+}
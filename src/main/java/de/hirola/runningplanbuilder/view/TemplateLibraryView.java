@@ -0,0 +1,65 @@
+package de.hirola.runningplanbuilder.view;
+
+import de.hirola.runningplanbuilder.controller.TemplateLibraryViewController;
+import de.hirola.runningplanbuilder.util.ApplicationResources;
+import de.hirola.runningplanbuilder.util.DialogOpenEvent;
+import de.hirola.runningplanbuilder.util.TemplateLibrary;
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Node;
+import javafx.scene.Scene;
+import javafx.stage.Modality;
+import javafx.stage.Stage;
+
+import java.io.IOException;
+import java.net.URL;
+import java.nio.file.Path;
+import java.util.Set;
+
+/**
+ * Copyright 2022 by Michael Schmidt, Hirola Consulting
+ * This software us licensed under the AGPL-3.0 or later.
+ *
+ * A view to browse the templates in the directories of the template library.
+ * This dialog is opened modal and waits for the user to close it.
+ *
+ * The view is created by SceneBuilder and using fxml.
+ *
+ * @author Michael Schmidt (Hirola)
+ * @since v0.1
+ */
+public class TemplateLibraryView {
+
+    private final TemplateLibrary templateLibrary;
+    private final ApplicationResources applicationResources;
+
+    public TemplateLibraryView(TemplateLibrary templateLibrary) {
+        this.templateLibrary = templateLibrary;
+        applicationResources = ApplicationResources.getInstance();
+    }
+
+    public TemplateLibraryViewController showViewModal(Node parent, Set<Path> openFiles) throws IOException {
+        // measures the time until the dialog is shown
+        DialogOpenEvent dialogOpenEvent = new DialogOpenEvent(TemplateLibraryView.class.getSimpleName());
+        dialogOpenEvent.begin();
+        URL fxmlURL = getClass()
+                .getClassLoader()
+                .getResource("template-library-view.fxml");
+        FXMLLoader fxmlLoader = new FXMLLoader(fxmlURL);
+        Stage stage = new Stage();
+        Scene scene = new Scene(fxmlLoader.load());
+        // transfer of parameters to the view controller
+        TemplateLibraryViewController templateLibraryViewController = fxmlLoader.getController();
+        templateLibraryViewController.setOpenFiles(openFiles);
+        templateLibraryViewController.setTemplateLibrary(templateLibrary);
+        stage.setTitle(applicationResources.getString("app.name")
+                + " - "
+                + applicationResources.getString("libraryView.title"));
+        stage.initOwner(parent.getScene().getWindow());
+        stage.initModality(Modality.APPLICATION_MODAL);
+        stage.setScene(scene);
+        stage.setOnShown(event -> dialogOpenEvent.commit());
+        stage.showAndWait(); // wait until user closed the dialog
+
+        return templateLibraryViewController; // return the controller back to caller
+    }
+}
@@ -11,10 +11,13 @@ module de.hirola.runningplanbuilder {
     requires org.tinylog.api;
     requires org.tinylog.impl;
     requires java.prefs;
+    requires java.management;
+    requires jdk.jfr;
 
     opens de.hirola.runningplanbuilder.model to javafx.base;
     opens de.hirola.runningplanbuilder to javafx.fxml;
     opens de.hirola.runningplanbuilder.controller to javafx.fxml;
 
     exports de.hirola.runningplanbuilder;
+    exports de.hirola.runningplanbuilder.util to jdk.jfr, java.management;
 }
\ No newline at end of file
@@ -0,0 +1,136 @@
+package de.hirola.runningplanbuilder.model;
+
+import de.hirola.sportsapplications.model.MovementType;
+import de.hirola.sportsapplications.model.RunningPlan;
+import de.hirola.sportsapplications.model.RunningPlanEntry;
+import de.hirola.sportsapplications.model.RunningUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Copyright 2022 by Michael Schmidt, Hirola Consulting
+ * This software us licensed under the AGPL-3.0 or later.
+ *
+ * Tests the undo history and the heap retained by its snapshots.
+ *
+ * @author Michael Schmidt (Hirola)
+ * @since v0.1
+ */
+class RunningPlanHistoryTest {
+
+    private static final int ENTRY_COUNT = 1000;
+    private static final int EDIT_COUNT = 1000;
+
+    private RunningPlan runningPlan;
+    private List<RunningPlanEntry> entries;
+
+    @BeforeEach
+    void setUp() {
+        entries = new ArrayList<>();
+        for (int index = 0; index < ENTRY_COUNT; index++) {
+            RunningUnit runningUnit = new RunningUnit();
+            runningUnit.setDuration(30);
+            runningUnit.setMovementType(new MovementType());
+            RunningPlanEntry entry = new RunningPlanEntry();
+            entry.setWeek(index / 7 + 1);
+            entry.setDay(index % 7 + 1);
+            entry.setRunningUnits(new ArrayList<>(List.of(runningUnit)));
+            entries.add(entry);
+        }
+        runningPlan = new RunningPlan();
+        runningPlan.setName("Test");
+        runningPlan.setEntries(entries);
+    }
+
+    @Test
+    void testMemoryOfThousandEditsIsSharedWithThePlan() {
+        RunningPlanHistory history = new RunningPlanHistory(EDIT_COUNT, Long.MAX_VALUE,
+                new RunningPlanSnapshotPublisher());
+        long usedBytes = getUsedHeapBytes();
+        // the memory of a copy of the whole plan
+        RunningPlanSnapshot planSnapshot = RunningPlanSnapshot.of(runningPlan, entries);
+        long planBytes = getUsedHeapBytes() - usedBytes;
+        history.reset(planSnapshot);
+        usedBytes = getUsedHeapBytes();
+
+        for (int edit = 0; edit < EDIT_COUNT; edit++) {
+            int index = (edit * 7919) % ENTRY_COUNT;
+            entries.get(index).getRunningUnits().get(0).setDuration(31 + edit);
+            history.commit(history.getActualSnapshot().withEntry(index, entries.get(index)));
+        }
+
+        // the heap retained by the snapshots of the edits, the history is still referenced
+        long editBytes = getUsedHeapBytes() - usedBytes;
+        long estimatedEditBytes = history.getEstimatedBytes() - planSnapshot.getEstimatedBytes();
+        assertEquals(EDIT_COUNT + 1, history.size());
+        System.out.printf(Locale.ROOT, "Heap of a copy of the plan: %d bytes, of 1,000 edits: %d bytes"
+                + " (estimated by the history: %d bytes)%n", planBytes, editBytes, estimatedEditBytes);
+        // the limit of the history is based on the estimate
+        assertTrue(estimatedEditBytes * 2 > editBytes && estimatedEditBytes < editBytes * 2,
+                "Heap of 1,000 edits: " + editBytes + " bytes, estimated: " + estimatedEditBytes + " bytes");
+        // a changed entry and the path to it in the tree, about 500 bytes for a plan of 1,000 entries
+        assertTrue(editBytes < EDIT_COUNT * 2048L, "Heap of 1,000 edits: " + editBytes + " bytes");
+        // a deep copy of the plan for each edit
+        assertTrue(editBytes * 20 < planBytes * EDIT_COUNT,
+                "Heap of 1,000 edits: " + editBytes + " bytes, of the plan: " + planBytes + " bytes");
+    }
+
+    @Test
+    void testUndoAndRedoRestoreTheValues() {
+        RunningPlanHistory history = new RunningPlanHistory(10, Long.MAX_VALUE, new RunningPlanSnapshotPublisher());
+        history.reset(RunningPlanSnapshot.of(runningPlan, entries));
+        RunningUnit runningUnit = entries.get(3).getRunningUnits().get(0);
+        runningUnit.setDuration(45);
+        history.commit(history.getActualSnapshot().withEntry(3, entries.get(3)));
+
+        List<RunningPlanEntry> restoredEntries = history.undo().restoreEntries();
+        assertEquals(30, restoredEntries.get(3).getRunningUnits().get(0).getDuration());
+        assertTrue(history.canRedo());
+
+        restoredEntries = history.redo().restoreEntries();
+        assertEquals(45, restoredEntries.get(3).getRunningUnits().get(0).getDuration());
+        assertFalse(history.canRedo());
+    }
+
+    @Test
+    void testOldestSnapshotsAreRemovedAtTheLimits() {
+        RunningPlanHistory history = new RunningPlanHistory(5, Long.MAX_VALUE, new RunningPlanSnapshotPublisher());
+        history.reset(RunningPlanSnapshot.of(runningPlan, entries));
+        for (int edit = 0; edit < 20; edit++) {
+            entries.get(edit).getRunningUnits().get(0).setDuration(40);
+            history.commit(history.getActualSnapshot().withEntry(edit, entries.get(edit)));
+        }
+        assertEquals(6, history.size());
+
+        RunningPlanSnapshot planSnapshot = RunningPlanSnapshot.of(runningPlan, entries);
+        history = new RunningPlanHistory(EDIT_COUNT, planSnapshot.getEstimatedBytes() + 4096,
+                new RunningPlanSnapshotPublisher());
+        history.reset(planSnapshot);
+        for (int edit = 0; edit < EDIT_COUNT; edit++) {
+            history.commit(history.getActualSnapshot().withEntry(edit, entries.get(edit)));
+        }
+        assertTrue(history.getEstimatedBytes() <= planSnapshot.getEstimatedBytes() + 4096);
+        assertTrue(history.size() < EDIT_COUNT);
+    }
+
+    // the used heap after the garbage collection, repeated until the value is stable
+    private static long getUsedHeapBytes() {
+        Runtime runtime = Runtime.getRuntime();
+        long usedBytes = Long.MAX_VALUE;
+        for (int run = 0; run < 10; run++) {
+            System.gc();
+            long newUsedBytes = runtime.totalMemory() - runtime.freeMemory();
+            if (Math.abs(usedBytes - newUsedBytes) < 1024) {
+                return newUsedBytes;
+            }
+            usedBytes = newUsedBytes;
+        }
+        return usedBytes;
+    }
+}
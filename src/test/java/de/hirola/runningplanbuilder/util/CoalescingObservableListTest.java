@@ -0,0 +1,182 @@
+package de.hirola.runningplanbuilder.util;
+
+import javafx.application.Platform;
+import javafx.collections.ListChangeListener;
+import javafx.scene.Scene;
+import javafx.scene.layout.Region;
+import javafx.stage.Stage;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Copyright 2022 by Michael Schmidt, Hirola Consulting
+ * This software us licensed under the AGPL-3.0 or later.
+ *
+ * Tests the change events of the coalescing list, without and with a scene.
+ * The test with the scene needs the JavaFX toolkit and is skipped, if the toolkit
+ * can not be started, e.g. without a display.
+ *
+ * @author Michael Schmidt (Hirola)
+ * @since v0.1
+ */
+class CoalescingObservableListTest {
+
+    private static final int ENTRY_COUNT = 1000;
+
+    private static boolean isToolkitStarted;
+    private static Stage stage;
+
+    @BeforeAll
+    static void startToolkit() throws InterruptedException {
+        CountDownLatch startLatch = new CountDownLatch(1);
+        try {
+            Platform.startup(startLatch::countDown);
+            isToolkitStarted = startLatch.await(10, TimeUnit.SECONDS);
+        } catch (IllegalStateException exception) {
+            isToolkitStarted = true; // already started
+        } catch (RuntimeException | LinkageError exception) {
+            isToolkitStarted = false; // e.g. no display
+        }
+    }
+
+    @AfterAll
+    static void closeStage() throws Exception {
+        if (stage != null) {
+            runOnFXThread(() -> {
+                stage.close();
+                return null;
+            });
+        }
+    }
+
+    @Test
+    void testBatchIsASingleChange() {
+        CoalescingObservableList<Integer> list = new CoalescingObservableList<>();
+        AtomicInteger changeCount = new AtomicInteger();
+        AtomicInteger addedCount = new AtomicInteger();
+        list.addListener((ListChangeListener<Integer>) change -> {
+            changeCount.incrementAndGet();
+            while (change.next()) {
+                addedCount.addAndGet(change.getAddedSize());
+            }
+        });
+
+        list.beginBatch();
+        for (int index = 0; index < ENTRY_COUNT; index++) {
+            list.add(index);
+        }
+        assertEquals(0, changeCount.get());
+        list.endBatch();
+
+        assertEquals(1, changeCount.get());
+        assertEquals(ENTRY_COUNT, addedCount.get());
+        assertEquals(ENTRY_COUNT, list.size());
+    }
+
+    @Test
+    void testNestedBatchesAreASingleChange() {
+        CoalescingObservableList<Integer> list = new CoalescingObservableList<>();
+        list.addAll(1, 2, 3);
+        AtomicInteger changeCount = new AtomicInteger();
+        list.addListener((ListChangeListener<Integer>) change -> changeCount.incrementAndGet());
+
+        list.beginBatch();
+        list.clear();
+        list.beginBatch();
+        for (int index = 0; index < ENTRY_COUNT; index++) {
+            list.add(index);
+        }
+        list.endBatch();
+        list.set(0, -1);
+        list.remove(1);
+        list.endBatch();
+
+        assertEquals(1, changeCount.get());
+        assertEquals(ENTRY_COUNT - 1, list.size());
+        assertEquals(-1, list.get(0));
+        assertEquals(2, list.get(1));
+    }
+
+    @Test
+    void testChangesOfAPulseAreASingleLayoutOfTheView() throws Exception {
+        assumeTrue(isToolkitStarted, "The JavaFX toolkit can not be started.");
+        AtomicInteger changeCount = new AtomicInteger();
+        AtomicInteger layoutCount = new AtomicInteger();
+        AtomicInteger pulseCount = new AtomicInteger();
+        CoalescingObservableList<Integer> list = runOnFXThread(() -> {
+            CoalescingObservableList<Integer> items = new CoalescingObservableList<>();
+            // like a table view, the view requests a layout for each change of the items
+            Region view = new Region() {
+                @Override
+                protected void layoutChildren() {
+                    layoutCount.incrementAndGet();
+                    super.layoutChildren();
+                }
+            };
+            items.attachTo(view);
+            items.addListener((ListChangeListener<Integer>) change -> {
+                changeCount.incrementAndGet();
+                view.requestLayout();
+            });
+            Scene scene = new Scene(view, 300, 400);
+            scene.addPreLayoutPulseListener(pulseCount::incrementAndGet);
+            stage = new Stage();
+            stage.setScene(scene);
+            stage.show();
+            return items;
+        });
+        waitForPulse(pulseCount);
+
+        int layoutsBefore = runOnFXThread(() -> {
+            // a refresh of a table, which clears the items and adds each entry
+            list.clear();
+            for (int index = 0; index < ENTRY_COUNT; index++) {
+                list.add(index);
+            }
+            // the change is sent before the layout of the next pulse
+            assertEquals(0, changeCount.get());
+            return layoutCount.get();
+        });
+        int pulsesBefore = pulseCount.get();
+        waitForPulse(pulseCount);
+        int layouts = runOnFXThread(() -> layoutCount.get() - layoutsBefore);
+        int pulses = pulseCount.get() - pulsesBefore;
+
+        assertEquals(1, changeCount.get());
+        assertEquals(ENTRY_COUNT, list.size());
+        // a single layout in the pulse of the change, not one for each added entry
+        assertTrue(layouts >= 1 && layouts <= pulses, layouts + " layouts of the view in " + pulses + " pulses");
+    }
+
+    // waits until the pre layout listeners of the next pulse were called
+    private static void waitForPulse(AtomicInteger pulseCount) throws Exception {
+        int pulses = pulseCount.get();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (pulseCount.get() < pulses + 2 && System.nanoTime() < deadline) {
+            runOnFXThread(() -> {
+                Platform.requestNextPulse();
+                return null;
+            });
+            Thread.sleep(20);
+        }
+        // the layout of the last pulse is done, when a task after the pulse is run
+        runOnFXThread(() -> null);
+        assertTrue(pulseCount.get() >= pulses + 2, "No pulse of the scene.");
+    }
+
+    private static <T> T runOnFXThread(Callable<T> task) throws Exception {
+        FutureTask<T> futureTask = new FutureTask<>(task);
+        Platform.runLater(futureTask);
+        return futureTask.get(10, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,166 @@
+package de.hirola.runningplanbuilder.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Copyright 2022 by Michael Schmidt, Hirola Consulting
+ * This software us licensed under the AGPL-3.0 or later.
+ *
+ * Tests the detection, reading and writing of compressed plan files.
+ *
+ * @author Michael Schmidt (Hirola)
+ * @since v0.1
+ */
+class CompressedFilesTest {
+
+    private static final String CONTENT = "{\"name\": \"Plan\", \"entries\": []}";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testCompressedFilesAreDetectedByTheHeader() throws IOException {
+        // the name does not matter
+        Path compressedFile = directory.resolve("plan.json");
+        writeCompressed(compressedFile, CONTENT);
+        assertTrue(CompressedFiles.isCompressed(compressedFile.toFile()));
+
+        Path plainFile = directory.resolve("plan.json.gz");
+        Files.writeString(plainFile, CONTENT);
+        assertFalse(CompressedFiles.isCompressed(plainFile.toFile()));
+
+        Path emptyFile = Files.createFile(directory.resolve("empty.json"));
+        assertFalse(CompressedFiles.isCompressed(emptyFile.toFile()));
+
+        // only the first byte of the header
+        Path shortFile = directory.resolve("short.json");
+        Files.write(shortFile, new byte[] {0x1f});
+        assertFalse(CompressedFiles.isCompressed(shortFile.toFile()));
+        assertArrayEquals(new byte[] {0x1f}, readAll(shortFile));
+    }
+
+    @Test
+    void testCompressedNamesAreDetectedByTheExtension() {
+        assertTrue(CompressedFiles.isCompressedName(new File("plan.json.gz")));
+        assertTrue(CompressedFiles.isCompressedName(new File("PLAN.JSON.GZ")));
+        assertFalse(CompressedFiles.isCompressedName(new File("plan.json")));
+        assertFalse(CompressedFiles.isCompressedName(new File("plan.gzip")));
+    }
+
+    @Test
+    void testInputStreamInflatesOnlyCompressedFiles() throws IOException {
+        Path compressedFile = directory.resolve("plan.json.gz");
+        writeCompressed(compressedFile, CONTENT);
+        Path plainFile = directory.resolve("plan.json");
+        Files.writeString(plainFile, CONTENT);
+
+        assertEquals(CONTENT, new String(readAll(compressedFile), StandardCharsets.UTF_8));
+        assertEquals(CONTENT, new String(readAll(plainFile), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testWriteAndReadOfACompressedFile() throws IOException {
+        File file = directory.resolve("plan.json.gz").toFile();
+        List<File> libraryFiles = new ArrayList<>();
+
+        CompressedFiles.write(file, uncompressedFile -> {
+            libraryFiles.add(uncompressedFile);
+            Files.writeString(uncompressedFile.toPath(), CONTENT);
+        });
+        assertTrue(CompressedFiles.isCompressed(file));
+        assertFalse(Files.exists(directory.resolve("plan.json.gz.tmp")));
+
+        String content = CompressedFiles.read(file, uncompressedFile -> {
+            libraryFiles.add(uncompressedFile);
+            return Files.readString(uncompressedFile.toPath());
+        });
+        assertEquals(CONTENT, content);
+
+        // the library reads and writes temporary files with the uncompressed extension
+        assertEquals(2, libraryFiles.size());
+        for (File libraryFile: libraryFiles) {
+            assertNotEquals(file, libraryFile);
+            assertTrue(libraryFile.getName().endsWith(".json"), libraryFile.getName());
+            assertFalse(libraryFile.exists());
+        }
+    }
+
+    @Test
+    void testUncompressedFilesArePassedToTheLibrary() throws IOException {
+        File file = directory.resolve("plan.json").toFile();
+
+        CompressedFiles.write(file, uncompressedFile -> {
+            assertEquals(file, uncompressedFile);
+            Files.writeString(uncompressedFile.toPath(), CONTENT);
+        });
+        assertFalse(CompressedFiles.isCompressed(file));
+
+        File readFile = CompressedFiles.read(file, uncompressedFile -> uncompressedFile);
+        assertEquals(file, readFile);
+        assertEquals(CONTENT, Files.readString(file.toPath()));
+    }
+
+    @Test
+    void testUncompressedBytesAreReported() throws IOException {
+        String content = CONTENT.repeat(100);
+        Path compressedFile = directory.resolve("plan.json.gz");
+        writeCompressed(compressedFile, content);
+        Path plainFile = directory.resolve("plan.json");
+        Files.writeString(plainFile, content);
+        int uncompressedSize = content.getBytes(StandardCharsets.UTF_8).length;
+        assertTrue(Files.size(compressedFile) < uncompressedSize);
+
+        for (Path file: List.of(compressedFile, plainFile)) {
+            AtomicLong uncompressedBytes = new AtomicLong();
+            CompressedFiles.read(file.toFile(), uncompressedFile -> uncompressedFile, uncompressedBytes::set);
+            assertEquals(uncompressedSize, uncompressedBytes.get(), file.toString());
+            try (CountingInputStream inputStream = new CountingInputStream(CompressedFiles.newInputStream(file))) {
+                assertEquals(1, inputStream.skip(1));
+                inputStream.read();
+                inputStream.readAllBytes();
+                assertEquals(uncompressedSize, inputStream.getCount(), file.toString());
+            }
+        }
+    }
+
+    @Test
+    void testCompressReplacesTheTarget() throws IOException {
+        Path source = directory.resolve("plan.json");
+        Files.writeString(source, CONTENT.repeat(100));
+        Path target = directory.resolve("plan.json.gz");
+        Files.writeString(target, "old");
+
+        long compressedSize = CompressedFiles.compress(source, target);
+        assertEquals(Files.size(target), compressedSize);
+        assertTrue(compressedSize < Files.size(source));
+        assertEquals(CONTENT.repeat(100), new String(readAll(target), StandardCharsets.UTF_8));
+        assertFalse(Files.exists(directory.resolve("plan.json.gz.tmp")));
+    }
+
+    private static void writeCompressed(Path file, String content) throws IOException {
+        try (OutputStream outputStream = new GZIPOutputStream(Files.newOutputStream(file))) {
+            outputStream.write(content.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private static byte[] readAll(Path file) throws IOException {
+        try (InputStream inputStream = CompressedFiles.newInputStream(file)) {
+            return inputStream.readAllBytes();
+        }
+    }
+}
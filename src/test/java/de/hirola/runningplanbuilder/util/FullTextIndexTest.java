@@ -0,0 +1,79 @@
+package de.hirola.runningplanbuilder.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Copyright 2022 by Michael Schmidt, Hirola Consulting
+ * This software us licensed under the AGPL-3.0 or later.
+ *
+ * Tests the search and the matchers of the full-text index.
+ *
+ * @author Michael Schmidt (Hirola)
+ * @since v0.1
+ */
+class FullTextIndexTest {
+
+    private FullTextIndex<Integer> index;
+
+    @BeforeEach
+    void setUp() {
+        index = new FullTextIndex<>(TextTokenizer.forLocale(Locale.GERMAN));
+        index.put(1, List.of("Lockerer Dauerlauf im Grundlagenbereich"));
+        index.put(2, List.of("Intervalle auf der Bahn", "Danach auslaufen"));
+        index.put(3, List.of("Ruhetag, über die Brücke gehen"));
+    }
+
+    @Test
+    void testAllTermsOfTheQueryMustBeFound() {
+        assertEquals(Set.of(2), index.search("Bahn Intervalle"));
+        assertEquals(Set.of(), index.search("Bahn Ruhetag"));
+    }
+
+    @Test
+    void testTermsAreFoundByPrefixAndStem() {
+        assertEquals(Set.of(1), index.search("dauer"));
+        assertEquals(Set.of(2), index.search("Intervall"));
+        // the umlauts are folded for the index and the query
+        assertEquals(Set.of(3), index.search("Bruecke"));
+    }
+
+    @Test
+    void testMatcherAcceptsTheDocumentsOfTheSearch() {
+        Predicate<Integer> matcher = index.createMatcher("auslaufen bahn");
+        assertFalse(matcher.test(1));
+        assertTrue(matcher.test(2));
+        assertFalse(matcher.test(3));
+        assertFalse(index.createMatcher("Schwimmen").test(1));
+    }
+
+    @Test
+    void testQueryWithoutTermsMatchesAllDocuments() {
+        // a single letter while typing or only stop words
+        for (String query: List.of("", "I", "der und")) {
+            Predicate<Integer> matcher = index.createMatcher(query);
+            assertTrue(matcher.test(1), query);
+            assertTrue(matcher.test(2), query);
+            assertTrue(matcher.test(3), query);
+            assertEquals(Set.of(), index.search(query), query);
+        }
+    }
+
+    @Test
+    void testChangedDocumentsAreFoundWithTheNewTexts() {
+        index.put(1, List.of("Tempolauf"));
+        index.remove(2);
+
+        assertEquals(Set.of(), index.search("Dauerlauf"));
+        assertEquals(Set.of(1), index.search("Tempo"));
+        assertEquals(Set.of(), index.search("Intervalle"));
+        assertEquals(2, index.size());
+    }
+}
@@ -0,0 +1,137 @@
+package de.hirola.runningplanbuilder.util;
+
+import de.hirola.runningplanbuilder.model.RunningPlanEntrySnapshot;
+import de.hirola.runningplanbuilder.model.RunningPlanSnapshot;
+import de.hirola.sportsapplications.SportsLibrary;
+import de.hirola.sportsapplications.model.MovementType;
+import de.hirola.sportsapplications.model.RunningPlan;
+import de.hirola.sportsapplications.model.RunningPlanEntry;
+import de.hirola.sportsapplications.model.RunningUnit;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Copyright 2022 by Michael Schmidt, Hirola Consulting
+ * This software us licensed under the AGPL-3.0 or later.
+ *
+ * Compares the export to JSON, iCAL and CSV one format after the other with the export pipeline.
+ * Run with "gradle benchmark".
+ *
+ * @author Michael Schmidt (Hirola)
+ * @since v0.1
+ */
+@Tag("benchmark")
+class PlanExportBenchmarkTest {
+
+    private static final int ENTRY_COUNT = 50_000;
+    private static final int WARM_UP_RUNS = 3;
+    private static final int RUNS = 10;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testPipelineAgainstSequentialExport() throws Exception {
+        File appDirectory = SportsLibrary.initializeAppDirectory("RunningPlanBuilderTest");
+        SportsLibrary sportsLibrary = SportsLibrary.getInstance(true, Locale.ENGLISH, appDirectory, null);
+        RunningPlanSnapshot snapshot = createSnapshot(sportsLibrary.getMovementTypes());
+        Path sequentialDirectory = Files.createDirectory(directory.resolve("sequential"));
+        Path pipelineDirectory = Files.createDirectory(directory.resolve("pipeline"));
+
+        for (int run = 0; run < WARM_UP_RUNS; run++) {
+            exportSequential(snapshot, sequentialDirectory);
+            exportPipeline(snapshot, pipelineDirectory);
+        }
+        long[] sequentialNanos = new long[RUNS];
+        long[] pipelineNanos = new long[RUNS];
+        for (int run = 0; run < RUNS; run++) {
+            long startNanos = System.nanoTime();
+            exportSequential(snapshot, sequentialDirectory);
+            sequentialNanos[run] = System.nanoTime() - startNanos;
+            startNanos = System.nanoTime();
+            exportPipeline(snapshot, pipelineDirectory);
+            pipelineNanos[run] = System.nanoTime() - startNanos;
+        }
+
+        // both exports write the same files
+        for (String fileName: List.of("plan.json", "plan.csv")) {
+            assertArrayEquals(Files.readAllBytes(sequentialDirectory.resolve(fileName)),
+                    Files.readAllBytes(pipelineDirectory.resolve(fileName)), fileName);
+        }
+        System.out.printf(Locale.ROOT, "Export of %d entries to JSON, iCAL and CSV (median of %d runs):%n",
+                ENTRY_COUNT, RUNS);
+        System.out.printf(Locale.ROOT, "  one format after the other %6d ms%n", median(sequentialNanos) / 1_000_000);
+        System.out.printf(Locale.ROOT, "  export pipeline            %6d ms%n", median(pipelineNanos) / 1_000_000);
+    }
+
+    private static void exportSequential(RunningPlanSnapshot snapshot, Path directory) throws IOException {
+        for (PlanExportPipeline.FormatWriter writer: createWriters(directory)) {
+            try (writer) {
+                writer.begin(snapshot);
+                for (RunningPlanEntrySnapshot entry: snapshot.getEntries()) {
+                    writer.write(entry);
+                }
+                writer.end();
+            }
+        }
+    }
+
+    private static void exportPipeline(RunningPlanSnapshot snapshot, Path directory)
+            throws IOException, InterruptedException {
+        new PlanExportPipeline(createWriters(directory)).export(snapshot, progress -> {});
+    }
+
+    private static List<PlanExportPipeline.FormatWriter> createWriters(Path directory) throws IOException {
+        return List.of(
+                RunningPlanJSON.createFormatWriter(
+                        new BufferedOutputStream(Files.newOutputStream(directory.resolve("plan.json")))),
+                RunningPlanICS.createFormatWriter(
+                        Files.newBufferedWriter(directory.resolve("plan.ics"), StandardCharsets.UTF_8),
+                        LocalDate.of(2022, 1, 3)),
+                RunningPlanCSV.createFormatWriter(
+                        Files.newBufferedWriter(directory.resolve("plan.csv"), StandardCharsets.UTF_8)));
+    }
+
+    private static RunningPlanSnapshot createSnapshot(List<MovementType> movementTypes) {
+        List<RunningPlanEntry> entries = new ArrayList<>(ENTRY_COUNT);
+        for (int index = 0; index < ENTRY_COUNT; index++) {
+            List<RunningUnit> runningUnits = new ArrayList<>();
+            for (int unitIndex = 0; unitIndex < 3; unitIndex++) {
+                RunningUnit runningUnit = new RunningUnit();
+                runningUnit.setDuration(5 + unitIndex);
+                runningUnit.setMovementType(movementTypes.get(unitIndex % movementTypes.size()));
+                runningUnits.add(runningUnit);
+            }
+            RunningPlanEntry entry = new RunningPlanEntry();
+            entry.setWeek(index / 7 + 1);
+            entry.setDay(index % 7 + 1);
+            entry.setRunningUnits(runningUnits);
+            entries.add(entry);
+        }
+        RunningPlan runningPlan = new RunningPlan();
+        runningPlan.setName("Benchmark");
+        runningPlan.setEntries(entries);
+        return RunningPlanSnapshot.of(runningPlan, entries);
+    }
+
+    private static long median(long[] nanos) {
+        long[] sortedNanos = nanos.clone();
+        Arrays.sort(sortedNanos);
+        return sortedNanos[sortedNanos.length / 2];
+    }
+}
@@ -0,0 +1,152 @@
+package de.hirola.runningplanbuilder.util;
+
+import de.hirola.runningplanbuilder.model.RunningPlanEntrySnapshot;
+import de.hirola.runningplanbuilder.model.RunningPlanSnapshot;
+import de.hirola.sportsapplications.model.MovementType;
+import de.hirola.sportsapplications.model.RunningPlan;
+import de.hirola.sportsapplications.model.RunningPlanEntry;
+import de.hirola.sportsapplications.model.RunningUnit;
+import de.hirola.sportsapplications.model.UUID;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Copyright 2022 by Michael Schmidt, Hirola Consulting
+ * This software us licensed under the AGPL-3.0 or later.
+ *
+ * Tests the export to several formats at once.
+ *
+ * @author Michael Schmidt (Hirola)
+ * @since v0.1
+ */
+class PlanExportPipelineTest {
+
+    // more entries than the queues of the formats can read ahead
+    private static final int ENTRY_COUNT = 1000;
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private RunningPlanSnapshot snapshot;
+
+    @BeforeEach
+    void setUp() {
+        List<RunningPlanEntry> entries = new ArrayList<>();
+        for (int index = 0; index < ENTRY_COUNT; index++) {
+            RunningUnit runningUnit = new RunningUnit();
+            runningUnit.setDuration(30);
+            runningUnit.setMovementType(new MovementType());
+            RunningPlanEntry entry = new RunningPlanEntry();
+            entry.setWeek(index / 7 + 1);
+            entry.setDay(index % 7 + 1);
+            entry.setRunningUnits(new ArrayList<>(List.of(runningUnit)));
+            entries.add(entry);
+        }
+        RunningPlan runningPlan = new RunningPlan();
+        runningPlan.setName("Test");
+        runningPlan.setEntries(entries);
+        snapshot = RunningPlanSnapshot.of(runningPlan, entries);
+    }
+
+    @Test
+    void testAllFormatsAreWrittenInTheOrderOfTheEntries() {
+        RecordingWriter first = new RecordingWriter(-1);
+        RecordingWriter second = new RecordingWriter(-1);
+        List<Double> progress = Collections.synchronizedList(new ArrayList<>());
+
+        assertTimeoutPreemptively(TIMEOUT,
+                () -> new PlanExportPipeline(List.of(first, second)).export(snapshot, progress::add));
+
+        List<UUID> expectedUUIDs = new ArrayList<>(ENTRY_COUNT);
+        for (RunningPlanEntrySnapshot entry: snapshot.getEntries()) {
+            expectedUUIDs.add(entry.getUUID());
+        }
+        for (RecordingWriter writer: List.of(first, second)) {
+            assertTrue(writer.isBegun);
+            assertTrue(writer.isEnded);
+            assertTrue(writer.isClosed);
+            assertEquals(expectedUUIDs, writer.writtenUUIDs);
+        }
+        assertFalse(progress.isEmpty());
+        assertEquals(1.0, progress.get(progress.size() - 1));
+        // reported in steps of a percent
+        assertTrue(progress.size() <= 101, "Count of progress reports: " + progress.size());
+    }
+
+    @Test
+    void testFailingWriterDoesNotStopTheOtherFormats() {
+        RecordingWriter failingWriter = new RecordingWriter(100);
+        RecordingWriter writer = new RecordingWriter(-1);
+        PlanExportPipeline exportPipeline = new PlanExportPipeline(List.of(failingWriter, writer));
+
+        IOException exception = assertThrows(IOException.class,
+                () -> assertTimeoutPreemptively(TIMEOUT, () -> exportPipeline.export(snapshot, progress -> {})));
+        assertEquals("Write of entry 100 failed.", exception.getMessage());
+
+        assertEquals(100, failingWriter.writtenUUIDs.size());
+        assertFalse(failingWriter.isEnded);
+        assertTrue(failingWriter.isClosed);
+        assertEquals(ENTRY_COUNT, writer.writtenUUIDs.size());
+        assertTrue(writer.isEnded);
+        assertTrue(writer.isClosed);
+    }
+
+    @Test
+    void testErrorsOfAllFormatsAreReported() {
+        RecordingWriter first = new RecordingWriter(10);
+        RecordingWriter second = new RecordingWriter(20);
+        PlanExportPipeline exportPipeline = new PlanExportPipeline(List.of(first, second));
+
+        IOException exception = assertThrows(IOException.class,
+                () -> assertTimeoutPreemptively(TIMEOUT, () -> exportPipeline.export(snapshot, progress -> {})));
+        assertEquals("Write of entry 10 failed.", exception.getMessage());
+        assertEquals(1, exception.getSuppressed().length);
+        assertEquals("Write of entry 20 failed.", exception.getSuppressed()[0].getMessage());
+        assertTrue(first.isClosed);
+        assertTrue(second.isClosed);
+    }
+
+    // fails at the write of the entry with the index, if the index is not negative
+    private static final class RecordingWriter implements PlanExportPipeline.FormatWriter {
+        private final int failingIndex;
+        private final List<UUID> writtenUUIDs;
+        private boolean isBegun;
+        private boolean isEnded;
+        private boolean isClosed;
+
+        RecordingWriter(int failingIndex) {
+            this.failingIndex = failingIndex;
+            writtenUUIDs = new ArrayList<>();
+        }
+
+        @Override
+        public void begin(@NotNull RunningPlanSnapshot snapshot) {
+            isBegun = true;
+        }
+
+        @Override
+        public void write(@NotNull RunningPlanEntrySnapshot entry) throws IOException {
+            if (writtenUUIDs.size() == failingIndex) {
+                throw new IOException("Write of entry " + failingIndex + " failed.");
+            }
+            writtenUUIDs.add(entry.getUUID());
+        }
+
+        @Override
+        public void end() {
+            isEnded = true;
+        }
+
+        @Override
+        public void close() {
+            isClosed = true;
+        }
+    }
+}
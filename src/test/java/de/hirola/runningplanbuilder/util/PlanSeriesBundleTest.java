@@ -0,0 +1,197 @@
+package de.hirola.runningplanbuilder.util;
+
+import de.hirola.runningplanbuilder.model.RunningPlanSnapshot;
+import de.hirola.runningplanbuilder.model.SeriesPlanMetadata;
+import de.hirola.sportsapplications.SportsLibrary;
+import de.hirola.sportsapplications.model.MovementType;
+import de.hirola.sportsapplications.model.RunningPlan;
+import de.hirola.sportsapplications.model.RunningPlanEntry;
+import de.hirola.sportsapplications.model.RunningUnit;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Copyright 2022 by Michael Schmidt, Hirola Consulting
+ * This software us licensed under the AGPL-3.0 or later.
+ *
+ * Tests the export and import of a series of plans as a bundle.
+ *
+ * @author Michael Schmidt (Hirola)
+ * @since v0.1
+ */
+class PlanSeriesBundleTest {
+
+    private static SportsLibrary sportsLibrary;
+    private static List<MovementType> movementTypes;
+
+    @TempDir
+    Path directory;
+
+    @BeforeAll
+    static void setUp() throws Exception {
+        File appDirectory = SportsLibrary.initializeAppDirectory("RunningPlanBuilderTest");
+        sportsLibrary = SportsLibrary.getInstance(true, Locale.ENGLISH, appDirectory, null);
+        movementTypes = sportsLibrary.getMovementTypes();
+        assertTrue(movementTypes.size() >= 2, "The tests need two movement types.");
+    }
+
+    @Test
+    void testRoundTripKeepsTheOrderAndTheValuesOfThePlans() throws Exception {
+        List<RunningPlanSnapshot> snapshots = new ArrayList<>();
+        snapshots.add(createSnapshot("Beginner", 2, "Für Einsteiger", 3));
+        snapshots.add(createSnapshot("Advanced", 3, null, 5));
+        snapshots.add(createSnapshot("Intro", 1, null, 1));
+        List<RunningPlanSnapshot> series = PlanSeriesBundle.sortSeries(snapshots);
+        assertEquals(List.of("Intro", "Beginner", "Advanced"), getNames(series));
+
+        Path bundle = directory.resolve("series.zip");
+        List<Double> exportProgress = new ArrayList<>();
+        try (OutputStream outputStream = Files.newOutputStream(bundle)) {
+            PlanSeriesBundle.exportSeries(series, outputStream, exportProgress::add);
+        }
+        assertEquals(1.0, exportProgress.get(exportProgress.size() - 1));
+
+        List<SeriesPlanMetadata> manifest = PlanSeriesBundle.readManifest(bundle);
+        assertEquals(3, manifest.size());
+        assertEquals("plans/01-Intro.json", manifest.get(0).getFileName());
+        assertEquals(2, manifest.get(1).getOrderNumber());
+        assertEquals(Optional.of("Für Einsteiger"), manifest.get(1).getRemarks());
+        assertEquals(5, manifest.get(2).getEntryCount());
+
+        List<Double> importProgress = Collections.synchronizedList(new ArrayList<>());
+        List<RunningPlan> importedPlans = PlanSeriesBundle.importSeries(bundle, sportsLibrary, importProgress::add);
+        assertEquals(1.0, importProgress.get(importProgress.size() - 1));
+        assertEquals(series.size(), importedPlans.size());
+        for (int index = 0; index < series.size(); index++) {
+            RunningPlanSnapshot snapshot = series.get(index);
+            RunningPlan importedPlan = importedPlans.get(index);
+            assertEquals(snapshot.getName(), importedPlan.getName());
+            assertEquals(snapshot.getOrderNumber(), importedPlan.getOrderNumber());
+            assertEquals(snapshot.getRemarks(), importedPlan.getRemarks());
+            List<RunningPlanEntry> entries = snapshot.restoreEntries();
+            List<RunningPlanEntry> importedEntries = importedPlan.getEntries();
+            assertEquals(entries.size(), importedEntries.size());
+            for (int entryIndex = 0; entryIndex < entries.size(); entryIndex++) {
+                RunningPlanEntry entry = entries.get(entryIndex);
+                RunningPlanEntry importedEntry = importedEntries.get(entryIndex);
+                assertEquals(entry.getWeek(), importedEntry.getWeek());
+                assertEquals(entry.getDay(), importedEntry.getDay());
+                RunningUnit runningUnit = entry.getRunningUnits().get(0);
+                RunningUnit importedRunningUnit = importedEntry.getRunningUnits().get(0);
+                assertEquals(runningUnit.getDuration(), importedRunningUnit.getDuration());
+                assertEquals(runningUnit.getMovementType().getKey(), importedRunningUnit.getMovementType().getKey());
+            }
+        }
+    }
+
+    @Test
+    void testFileNamesAreUniqueByThePosition() {
+        List<RunningPlanSnapshot> series = new ArrayList<>();
+        series.add(createSnapshot("Plan 5/10 km", 1, null, 1));
+        series.add(createSnapshot("Plan 5/10 km", 1, null, 1));
+        List<SeriesPlanMetadata> manifest = PlanSeriesBundle.createManifest(series);
+        assertEquals("plans/01-Plan510km.json", manifest.get(0).getFileName());
+        assertEquals("plans/02-Plan510km.json", manifest.get(1).getFileName());
+    }
+
+    @Test
+    void testDamagedBundlesAreRejected() throws IOException {
+        Path withoutManifest = directory.resolve("without-manifest.zip");
+        writeBundle(withoutManifest, null);
+        assertThrows(IOException.class, () -> PlanSeriesBundle.readManifest(withoutManifest));
+
+        Path newerVersion = directory.resolve("newer-version.zip");
+        writeBundle(newerVersion, "{\"version\": 3, \"plans\": []}");
+        assertThrows(IOException.class, () -> PlanSeriesBundle.readManifest(newerVersion));
+
+        Path missingPlan = directory.resolve("missing-plan.zip");
+        writeBundle(missingPlan,
+                "{\"version\": 1, \"plans\": [{\"name\": \"Intro\", \"entries\": 1, \"file\": \"plans/01-Intro.csv\"}]}");
+        assertEquals(1, PlanSeriesBundle.readManifest(missingPlan).size());
+        assertThrows(IOException.class,
+                () -> PlanSeriesBundle.importSeries(missingPlan, sportsLibrary, progress -> {}));
+    }
+
+    @Test
+    void testPlansOfTheFirstVersionAreReadAsCSV() throws Exception {
+        String key = movementTypes.get(0).getKey();
+        Path bundle = directory.resolve("first-version.zip");
+        try (ZipOutputStream zipOutputStream = new ZipOutputStream(Files.newOutputStream(bundle),
+                StandardCharsets.UTF_8)) {
+            zipOutputStream.putNextEntry(new ZipEntry("manifest.json"));
+            zipOutputStream.write(("{\"version\": 1, \"plans\": [{\"name\": \"Intro\", \"orderNumber\": 4, "
+                    + "\"entries\": 2, \"file\": \"plans/01-Intro.csv\"}]}").getBytes(StandardCharsets.UTF_8));
+            zipOutputStream.closeEntry();
+            zipOutputStream.putNextEntry(new ZipEntry("plans/01-Intro.csv"));
+            zipOutputStream.write(("week,day,movementType,duration\n1,1," + key + ",10\n1,2," + key + ",20\n")
+                    .getBytes(StandardCharsets.UTF_8));
+            zipOutputStream.closeEntry();
+        }
+
+        List<RunningPlan> importedPlans = PlanSeriesBundle.importSeries(bundle, sportsLibrary, progress -> {});
+        assertEquals(1, importedPlans.size());
+        assertEquals("Intro", importedPlans.get(0).getName());
+        assertEquals(4, importedPlans.get(0).getOrderNumber());
+        assertEquals(2, importedPlans.get(0).getEntries().size());
+        assertEquals(20, importedPlans.get(0).getEntries().get(1).getRunningUnits().get(0).getDuration());
+    }
+
+    private RunningPlanSnapshot createSnapshot(String name, int orderNumber, String remarks, int entryCount) {
+        List<RunningPlanEntry> entries = new ArrayList<>();
+        for (int index = 0; index < entryCount; index++) {
+            RunningUnit runningUnit = new RunningUnit();
+            runningUnit.setDuration(10 + index);
+            runningUnit.setMovementType(movementTypes.get(index % 2));
+            RunningPlanEntry entry = new RunningPlanEntry();
+            entry.setWeek(index / 7 + 1);
+            entry.setDay(index % 7 + 1);
+            entry.setRunningUnits(new ArrayList<>(List.of(runningUnit)));
+            entries.add(entry);
+        }
+        RunningPlan runningPlan = new RunningPlan();
+        runningPlan.setName(name);
+        runningPlan.setOrderNumber(orderNumber);
+        if (remarks != null) {
+            runningPlan.setRemarks(remarks);
+        }
+        runningPlan.setEntries(entries);
+        return RunningPlanSnapshot.of(runningPlan, entries);
+    }
+
+    private static List<String> getNames(List<RunningPlanSnapshot> series) {
+        List<String> names = new ArrayList<>(series.size());
+        for (RunningPlanSnapshot snapshot: series) {
+            names.add(snapshot.getName());
+        }
+        return names;
+    }
+
+    // a bundle with only the manifest, or with only the file of a plan if the manifest is null
+    private static void writeBundle(Path bundle, String manifest) throws IOException {
+        try (ZipOutputStream zipOutputStream = new ZipOutputStream(Files.newOutputStream(bundle),
+                StandardCharsets.UTF_8)) {
+            zipOutputStream.putNextEntry(new ZipEntry(manifest == null ? "plans/01-Intro.csv" : "manifest.json"));
+            if (manifest != null) {
+                zipOutputStream.write(manifest.getBytes(StandardCharsets.UTF_8));
+            }
+            zipOutputStream.closeEntry();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package de.hirola.runningplanbuilder.util;
+
+import de.hirola.runningplanbuilder.model.RunningPlanSnapshot;
+import de.hirola.runningplanbuilder.model.RunningPlanSnapshotPublisher;
+import de.hirola.sportsapplications.model.MovementType;
+import de.hirola.sportsapplications.model.RunningPlan;
+import de.hirola.sportsapplications.model.RunningPlanEntry;
+import de.hirola.sportsapplications.model.RunningUnit;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Copyright 2022 by Michael Schmidt, Hirola Consulting
+ * This software us licensed under the AGPL-3.0 or later.
+ *
+ * Measures the first validation of a plan of 52 weeks and the validation after a single edit.
+ * Run with "gradle benchmark".
+ *
+ * @author Michael Schmidt (Hirola)
+ * @since v0.1
+ */
+@Tag("benchmark")
+class PlanValidatorBenchmarkTest {
+
+    private static final int WEEK_COUNT = 52;
+    private static final int WARM_UP_RUNS = 20;
+    private static final int RUNS = 50;
+
+    @Test
+    void testValidationOfAPlanOfAYear() {
+        List<RunningPlanEntry> entries = new ArrayList<>(WEEK_COUNT * 7);
+        for (int index = 0; index < WEEK_COUNT * 7; index++) {
+            List<RunningUnit> runningUnits = new ArrayList<>();
+            for (int unitIndex = 0; unitIndex < 3; unitIndex++) {
+                RunningUnit runningUnit = new RunningUnit();
+                runningUnit.setDuration(index % 10 == 0 ? 0 : 5 + unitIndex);
+                runningUnit.setMovementType(new MovementType());
+                runningUnits.add(runningUnit);
+            }
+            RunningPlanEntry entry = new RunningPlanEntry();
+            entry.setWeek(index / 7 + 1);
+            entry.setDay(index % 7 + 1);
+            entry.setRunningUnits(runningUnits);
+            entries.add(entry);
+        }
+        RunningPlan runningPlan = new RunningPlan();
+        runningPlan.setName("Benchmark");
+        runningPlan.setEntries(entries);
+        RunningPlanSnapshot snapshot = RunningPlanSnapshot.of(runningPlan, entries);
+
+        long[] firstNanos = new long[RUNS];
+        long[] editNanos = new long[RUNS];
+        for (int run = -WARM_UP_RUNS; run < RUNS; run++) {
+            // a new validator has no findings of the entries
+            PlanValidator planValidator = new PlanValidator(new RunningPlanSnapshotPublisher(), result -> {});
+            long startNanos = System.nanoTime();
+            planValidator.validate(snapshot);
+            long firstValidationNanos = System.nanoTime() - startNanos;
+            int index = (run + WARM_UP_RUNS) * 7 % entries.size();
+            entries.get(index).getRunningUnits().get(0).setDuration(run + 100);
+            RunningPlanSnapshot editedSnapshot = snapshot.withEntry(index, entries.get(index));
+            startNanos = System.nanoTime();
+            planValidator.validate(editedSnapshot);
+            if (run >= 0) {
+                firstNanos[run] = firstValidationNanos;
+                editNanos[run] = System.nanoTime() - startNanos;
+            }
+        }
+
+        assertTrue(median(editNanos) < median(firstNanos),
+                "A single edit is not validated faster than the whole plan.");
+        System.out.printf(Locale.ROOT, "Validation of %d weeks with %d entries (median of %d runs):%n",
+                WEEK_COUNT, entries.size(), RUNS);
+        System.out.printf(Locale.ROOT, "  first validation        %8.3f ms%n", median(firstNanos) / 1e6);
+        System.out.printf(Locale.ROOT, "  after a single edit     %8.3f ms%n", median(editNanos) / 1e6);
+    }
+
+    private static long median(long[] nanos) {
+        long[] sortedNanos = nanos.clone();
+        Arrays.sort(sortedNanos);
+        return sortedNanos[sortedNanos.length / 2];
+    }
+}
@@ -0,0 +1,154 @@
+package de.hirola.runningplanbuilder.util;
+
+import de.hirola.runningplanbuilder.model.RunningPlanEntrySnapshot;
+import de.hirola.runningplanbuilder.model.RunningPlanSnapshot;
+import de.hirola.runningplanbuilder.model.RunningPlanSnapshotPublisher;
+import de.hirola.runningplanbuilder.model.ValidationFinding;
+import de.hirola.runningplanbuilder.model.ValidationResult;
+import de.hirola.runningplanbuilder.model.ValidationRule;
+import de.hirola.sportsapplications.model.MovementType;
+import de.hirola.sportsapplications.model.RunningPlan;
+import de.hirola.sportsapplications.model.RunningPlanEntry;
+import de.hirola.sportsapplications.model.RunningUnit;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Copyright 2022 by Michael Schmidt, Hirola Consulting
+ * This software us licensed under the AGPL-3.0 or later.
+ *
+ * Tests the rules of the validation and the validation of the changed entries.
+ *
+ * @author Michael Schmidt (Hirola)
+ * @since v0.1
+ */
+class PlanValidatorTest {
+
+    private final PlanValidator planValidator = new PlanValidator(new RunningPlanSnapshotPublisher(), result -> {});
+
+    @Test
+    void testWeekGapIsFoundAtTheFirstEntryOfTheWeek() {
+        List<RunningPlanEntry> entries = new ArrayList<>();
+        entries.add(createEntry(1, 1, 30));
+        entries.add(createEntry(2, 3, 30));
+        entries.add(createEntry(5, 2, 30));
+        entries.add(createEntry(5, 4, 30));
+        ValidationResult result = planValidator.validate(createSnapshot(entries));
+
+        assertEquals(1, result.getFindings().size());
+        ValidationFinding finding = result.getFindings().get(0);
+        assertEquals(ValidationRule.WEEK_GAP, finding.getRule());
+        assertEquals(entries.get(2).getUUID(), finding.getEntryUUID());
+        assertEquals(5, finding.getWeek());
+        assertEquals(2, finding.getDay());
+    }
+
+    @Test
+    void testEntryWithoutRunningUnitsIsFound() {
+        List<RunningPlanEntry> entries = new ArrayList<>();
+        entries.add(createEntry(1, 1, 30));
+        entries.add(createEntry(1, 2));
+        ValidationResult result = planValidator.validate(createSnapshot(entries));
+
+        assertEquals(List.of(ValidationRule.EMPTY_ENTRY), getRules(result.getFindings()));
+        assertEquals(1, result.getFindings(entries.get(1).getUUID()).size());
+        assertTrue(result.getFindings(entries.get(0).getUUID()).isEmpty());
+    }
+
+    @Test
+    void testRunningUnitWithoutDurationIsFoundOncePerEntry() {
+        List<RunningPlanEntry> entries = new ArrayList<>();
+        entries.add(createEntry(1, 1, 30, 0, 0));
+        entries.add(createEntry(1, 2, 30, 10));
+        ValidationResult result = planValidator.validate(createSnapshot(entries));
+
+        assertEquals(List.of(ValidationRule.ZERO_DURATION), getRules(result.getFindings()));
+        assertEquals(entries.get(0).getUUID(), result.getFindings().get(0).getEntryUUID());
+    }
+
+    @Test
+    void testAllEntriesOfADuplicateDayAreFound() {
+        List<RunningPlanEntry> entries = new ArrayList<>();
+        entries.add(createEntry(1, 3, 30));
+        entries.add(createEntry(1, 3, 20));
+        entries.add(createEntry(1, 3, 10));
+        // the same day in another week
+        entries.add(createEntry(2, 3, 30));
+        ValidationResult result = planValidator.validate(createSnapshot(entries));
+
+        assertEquals(3, result.getFindings().size());
+        for (int index = 0; index < 3; index++) {
+            List<ValidationFinding> findings = result.getFindings(entries.get(index).getUUID());
+            assertEquals(List.of(ValidationRule.DUPLICATE_DAY), getRules(findings));
+        }
+        assertTrue(result.getFindings(entries.get(3).getUUID()).isEmpty());
+        assertFalse(result.isValid());
+    }
+
+    @Test
+    void testOnlyTheChangedEntriesAreValidatedAgain() {
+        List<RunningPlanEntry> entries = new ArrayList<>();
+        for (int index = 0; index < 52 * 7; index++) {
+            // each tenth entry without duration
+            entries.add(createEntry(index / 7 + 1, index % 7 + 1, index % 10 == 0 ? 0 : 30));
+        }
+        RunningPlanSnapshot snapshot = createSnapshot(entries);
+        ValidationResult result = planValidator.validate(snapshot);
+        assertEquals(37, result.getFindings().size());
+        ValidationFinding unchangedFinding = result.getFindings(entries.get(10).getUUID()).get(0);
+        assertSame(result, planValidator.validate(snapshot));
+
+        // the first entry gets a duration, the second entry is moved to the day of the third entry
+        entries.get(0).getRunningUnits().get(0).setDuration(30);
+        entries.get(1).setDay(3);
+        RunningPlanSnapshot changedSnapshot = snapshot.withEntry(0, entries.get(0)).withEntry(1, entries.get(1));
+        result = planValidator.validate(changedSnapshot);
+        assertTrue(result.getFindings(entries.get(0).getUUID()).isEmpty());
+        assertEquals(List.of(ValidationRule.DUPLICATE_DAY), getRules(result.getFindings(entries.get(1).getUUID())));
+        assertEquals(List.of(ValidationRule.DUPLICATE_DAY), getRules(result.getFindings(entries.get(2).getUUID())));
+        assertEquals(38, result.getFindings().size());
+        // the findings of the unchanged entries are taken from the last validation
+        assertSame(unchangedFinding, result.getFindings(entries.get(10).getUUID()).get(0));
+
+        // the entry is moved back, the duplicate day of the week is checked again
+        entries.get(1).setDay(2);
+        result = planValidator.validate(changedSnapshot.withEntry(1, entries.get(1)));
+        assertEquals(36, result.getFindings().size());
+        assertTrue(result.getFindings(entries.get(2).getUUID()).isEmpty());
+        assertSame(unchangedFinding, result.getFindings(entries.get(10).getUUID()).get(0));
+    }
+
+    private static RunningPlanSnapshot createSnapshot(List<RunningPlanEntry> entries) {
+        RunningPlan runningPlan = new RunningPlan();
+        runningPlan.setName("Test");
+        runningPlan.setEntries(entries);
+        return RunningPlanSnapshot.of(runningPlan, entries);
+    }
+
+    private static RunningPlanEntry createEntry(int week, int day, long... durations) {
+        List<RunningUnit> runningUnits = new ArrayList<>();
+        for (long duration: durations) {
+            RunningUnit runningUnit = new RunningUnit();
+            runningUnit.setDuration(duration);
+            runningUnit.setMovementType(new MovementType());
+            runningUnits.add(runningUnit);
+        }
+        RunningPlanEntry entry = new RunningPlanEntry();
+        entry.setWeek(week);
+        entry.setDay(day);
+        entry.setRunningUnits(runningUnits);
+        return entry;
+    }
+
+    private static List<ValidationRule> getRules(List<ValidationFinding> findings) {
+        List<ValidationRule> rules = new ArrayList<>(findings.size());
+        for (ValidationFinding finding: findings) {
+            rules.add(finding.getRule());
+        }
+        return rules;
+    }
+}
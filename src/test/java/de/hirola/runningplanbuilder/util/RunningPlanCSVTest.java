@@ -0,0 +1,183 @@
+package de.hirola.runningplanbuilder.util;
+
+import de.hirola.sportsapplications.SportsLibrary;
+import de.hirola.sportsapplications.model.MovementType;
+import de.hirola.sportsapplications.model.RunningPlan;
+import de.hirola.sportsapplications.model.RunningPlanEntry;
+import de.hirola.sportsapplications.model.RunningUnit;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Copyright 2022 by Michael Schmidt, Hirola Consulting
+ * This software us licensed under the AGPL-3.0 or later.
+ *
+ * Tests the import and export of running plans as CSV.
+ *
+ * @author Michael Schmidt (Hirola)
+ * @since v0.1
+ */
+class RunningPlanCSVTest {
+
+    private static List<MovementType> movementTypes;
+
+    @BeforeAll
+    static void setUp() throws Exception {
+        File appDirectory = SportsLibrary.initializeAppDirectory("RunningPlanBuilderTest");
+        SportsLibrary sportsLibrary = SportsLibrary.getInstance(true, Locale.ENGLISH, appDirectory, null);
+        movementTypes = sportsLibrary.getMovementTypes();
+        assertTrue(movementTypes.size() >= 2, "The tests need two movement types.");
+    }
+
+    @Test
+    void testRoundTripKeepsEntriesOfTheSameDay() throws Exception {
+        List<RunningPlanEntry> entries = new ArrayList<>();
+        entries.add(createEntry(1, 1, 10, 5));
+        entries.add(createEntry(1, 1, 20)); // a second entry of the same day
+        entries.add(createEntry(1, 3));  // without running units
+        entries.add(createEntry(2, 7, 30));
+
+        StringWriter writer = new StringWriter();
+        RunningPlanCSV.exportRunningPlan(entries, writer);
+        RunningPlan runningPlan = RunningPlanCSV.importRunningPlan(new StringReader(writer.toString()),
+                "Test", movementTypes);
+
+        assertEquals("Test", runningPlan.getName());
+        List<RunningPlanEntry> importedEntries = runningPlan.getEntries();
+        assertEquals(entries.size(), importedEntries.size());
+        for (int index = 0; index < entries.size(); index++) {
+            RunningPlanEntry entry = entries.get(index);
+            RunningPlanEntry importedEntry = importedEntries.get(index);
+            assertEquals(entry.getWeek(), importedEntry.getWeek());
+            assertEquals(entry.getDay(), importedEntry.getDay());
+            assertEquals(entry.getRunningUnits().size(), importedEntry.getRunningUnits().size());
+            for (int unitIndex = 0; unitIndex < entry.getRunningUnits().size(); unitIndex++) {
+                RunningUnit runningUnit = entry.getRunningUnits().get(unitIndex);
+                RunningUnit importedRunningUnit = importedEntry.getRunningUnits().get(unitIndex);
+                assertEquals(runningUnit.getDuration(), importedRunningUnit.getDuration());
+                assertEquals(runningUnit.getMovementType().getKey(), importedRunningUnit.getMovementType().getKey());
+            }
+        }
+    }
+
+    @Test
+    void testDraftWithoutEntryColumnGroupsTheRowsOfADay() throws Exception {
+        String key = movementTypes.get(0).getKey();
+        String csv = "week;day;movementType;duration\n"
+                + "1;1;" + key + ";10\n"
+                + "1;1;" + key + ";5\n"
+                + "1;2;" + key + ";20\n";
+        RunningPlan runningPlan = RunningPlanCSV.importRunningPlan(new StringReader(csv), "Draft", movementTypes);
+
+        assertEquals(2, runningPlan.getEntries().size());
+        assertEquals(2, runningPlan.getEntries().get(0).getRunningUnits().size());
+        assertEquals(1, runningPlan.getEntries().get(1).getRunningUnits().size());
+    }
+
+    @Test
+    void testSplitDayWithoutEntryColumnIsRejected() {
+        String key = movementTypes.get(0).getKey();
+        String csv = "week,day,movementType,duration\n"
+                + "1,1," + key + ",10\n"
+                + "1,2," + key + ",20\n"
+                + "1,1," + key + ",5\n";
+        ParseException exception = assertThrows(ParseException.class,
+                () -> RunningPlanCSV.importRunningPlan(new StringReader(csv), "Draft", movementTypes));
+        assertEquals(4, exception.getErrorOffset());
+    }
+
+    @Test
+    void testUnorderedEntryNumbersAreRejected() {
+        String key = movementTypes.get(0).getKey();
+        String csv = "week,day,movementType,duration,remarks,entry\n"
+                + "1,1," + key + ",10,,2\n"
+                + "1,1," + key + ",5,,1\n";
+        ParseException exception = assertThrows(ParseException.class,
+                () -> RunningPlanCSV.importRunningPlan(new StringReader(csv), "Draft", movementTypes));
+        assertEquals(3, exception.getErrorOffset());
+    }
+
+    @Test
+    void testMalformedLinesAreReportedWithTheirNumbers() {
+        String key = movementTypes.get(0).getKey();
+        String csv = "week,day,movementType,duration\n"
+                + "1,1," + key + ",10\n"
+                + "1,8," + key + ",10\n"
+                + "\n"
+                + "2,1,unknown,10\n";
+        ParseException exception = assertThrows(ParseException.class,
+                () -> RunningPlanCSV.importRunningPlan(new StringReader(csv), "Draft", movementTypes));
+        assertEquals(3, exception.getErrorOffset());
+        String[] errors = exception.getMessage().split("\n");
+        assertEquals(2, errors.length);
+        assertTrue(errors[0].contains(" 3: "));
+        assertTrue(errors[1].contains(" 5: "));
+    }
+
+    @Test
+    void testEntriesArePassedInGrowingChunksInTheOrderOfTheRows() throws Exception {
+        List<RunningPlanEntry> entries = new ArrayList<>();
+        for (int index = 0; index < 1000; index++) {
+            entries.add(createEntry(index / 7 + 1, index % 7 + 1, 10, 5));
+        }
+        StringWriter writer = new StringWriter();
+        RunningPlanCSV.exportRunningPlan(entries, writer);
+
+        List<Integer> chunkSizes = new ArrayList<>();
+        List<RunningPlanEntry> passedEntries = new ArrayList<>();
+        RunningPlan runningPlan = RunningPlanCSV.importRunningPlan(new StringReader(writer.toString()),
+                "Test", movementTypes, chunk -> {
+                    chunkSizes.add(chunk.size());
+                    for (RunningPlanEntry entry: chunk) {
+                        // an entry is passed after its last row
+                        assertEquals(2, entry.getRunningUnits().size());
+                        passedEntries.add(entry);
+                    }
+                });
+
+        assertEquals(List.of(64, 128, 256, 512, 40), chunkSizes);
+        assertEquals(runningPlan.getEntries(), passedEntries);
+    }
+
+    @Test
+    void testNoChunksArePassedAfterAMalformedLine() throws Exception {
+        List<RunningPlanEntry> entries = new ArrayList<>();
+        for (int index = 0; index < 100; index++) {
+            entries.add(createEntry(index / 7 + 1, index % 7 + 1, 10));
+        }
+        StringWriter writer = new StringWriter();
+        RunningPlanCSV.exportRunningPlan(entries, writer);
+        writer.write("20,8,unknown,10,,101\n");
+
+        List<Integer> chunkSizes = new ArrayList<>();
+        ParseException exception = assertThrows(ParseException.class, () -> RunningPlanCSV.importRunningPlan(
+                new StringReader(writer.toString()), "Test", movementTypes, chunk -> chunkSizes.add(chunk.size())));
+        assertEquals(102, exception.getErrorOffset());
+        assertEquals(List.of(64), chunkSizes);
+    }
+
+    private RunningPlanEntry createEntry(int week, int day, long... durations) {
+        RunningPlanEntry entry = new RunningPlanEntry();
+        entry.setWeek(week);
+        entry.setDay(day);
+        List<RunningUnit> runningUnits = new ArrayList<>();
+        for (int index = 0; index < durations.length; index++) {
+            RunningUnit runningUnit = new RunningUnit();
+            runningUnit.setDuration(durations[index]);
+            runningUnit.setMovementType(movementTypes.get(index % 2));
+            runningUnits.add(runningUnit);
+        }
+        entry.setRunningUnits(runningUnits);
+        return entry;
+    }
+}
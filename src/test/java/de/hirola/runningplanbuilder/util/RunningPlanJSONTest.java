@@ -0,0 +1,130 @@
+package de.hirola.runningplanbuilder.util;
+
+import de.hirola.runningplanbuilder.model.RunningPlanEntrySnapshot;
+import de.hirola.runningplanbuilder.model.RunningPlanSnapshot;
+import de.hirola.sportsapplications.SportsLibrary;
+import de.hirola.sportsapplications.model.MovementType;
+import de.hirola.sportsapplications.model.RunningPlan;
+import de.hirola.sportsapplications.model.RunningPlanEntry;
+import de.hirola.sportsapplications.model.RunningUnit;
+import de.hirola.sportsapplications.util.TemplateLoader;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Copyright 2022 by Michael Schmidt, Hirola Consulting
+ * This software us licensed under the AGPL-3.0 or later.
+ *
+ * Tests the export of running plans as JSON in the layout of the templates.
+ *
+ * @author Michael Schmidt (Hirola)
+ * @since v0.1
+ */
+class RunningPlanJSONTest {
+
+    private static SportsLibrary sportsLibrary;
+    private static List<MovementType> movementTypes;
+
+    @TempDir
+    Path directory;
+
+    @BeforeAll
+    static void setUp() throws Exception {
+        File appDirectory = SportsLibrary.initializeAppDirectory("RunningPlanBuilderTest");
+        sportsLibrary = SportsLibrary.getInstance(true, Locale.ENGLISH, appDirectory, null);
+        movementTypes = sportsLibrary.getMovementTypes();
+        assertTrue(movementTypes.size() >= 2, "The tests need two movement types.");
+    }
+
+    @Test
+    void testExportedPlanIsLoadedByTheTemplateLoader() throws Exception {
+        RunningPlanSnapshot snapshot = createSnapshot(30);
+        Path jsonFile = directory.resolve("plan.json");
+        export(snapshot, jsonFile);
+
+        RunningPlan loadedPlan = new TemplateLoader(sportsLibrary).loadRunningPlanFromJSON(jsonFile.toFile());
+        assertEquals("Test", loadedPlan.getName());
+        assertEquals(2, loadedPlan.getOrderNumber());
+        assertEquals(Optional.of("Plan remarks"), loadedPlan.getRemarks());
+        List<RunningPlanEntry> loadedEntries = loadedPlan.getEntries();
+        assertEquals(snapshot.getEntries().size(), loadedEntries.size());
+        for (int index = 0; index < loadedEntries.size(); index++) {
+            RunningPlanEntrySnapshot entry = snapshot.getEntries().get(index);
+            RunningPlanEntry loadedEntry = loadedEntries.get(index);
+            assertEquals(entry.getWeek(), loadedEntry.getWeek());
+            assertEquals(entry.getDay(), loadedEntry.getDay());
+            assertEquals(entry.getRunningUnits().size(), loadedEntry.getRunningUnits().size());
+            for (int unitIndex = 0; unitIndex < entry.getRunningUnits().size(); unitIndex++) {
+                assertEquals(entry.getRunningUnits().get(unitIndex).getDuration(),
+                        loadedEntry.getRunningUnits().get(unitIndex).getDuration());
+                assertEquals(entry.getRunningUnits().get(unitIndex).getMovementType().getKey(),
+                        loadedEntry.getRunningUnits().get(unitIndex).getMovementType().getKey());
+            }
+        }
+    }
+
+    @Test
+    void testExportedPlanIsIndexed() throws Exception {
+        Path jsonFile = directory.resolve("plan.json");
+        export(createSnapshot(30), jsonFile);
+        assertTrue(TemplateOffsetIndex.update(jsonFile, 0));
+
+        AtomicLong parsedBytes = new AtomicLong();
+        Optional<RunningPlan> indexedPlan = TemplateOffsetIndex.loadWeeks(jsonFile, 2, 3, movementTypes,
+                parsedBytes::set);
+        assertTrue(indexedPlan.isPresent());
+        assertEquals(14, indexedPlan.get().getEntries().size());
+        assertEquals(2, indexedPlan.get().getEntries().get(0).getWeek());
+        // only the two weeks are parsed
+        assertTrue(parsedBytes.get() > 0);
+        assertTrue(parsedBytes.get() < Files.size(jsonFile) / 2, "Parsed bytes: " + parsedBytes.get());
+    }
+
+    private static void export(RunningPlanSnapshot snapshot, Path jsonFile) throws Exception {
+        try (PlanExportPipeline.FormatWriter writer = RunningPlanJSON.createFormatWriter(
+                new BufferedOutputStream(Files.newOutputStream(jsonFile)))) {
+            writer.begin(snapshot);
+            for (RunningPlanEntrySnapshot entry: snapshot.getEntries()) {
+                writer.write(entry);
+            }
+            writer.end();
+        }
+    }
+
+    private static RunningPlanSnapshot createSnapshot(int entryCount) {
+        List<RunningPlanEntry> entries = new ArrayList<>();
+        for (int index = 0; index < entryCount; index++) {
+            List<RunningUnit> runningUnits = new ArrayList<>();
+            for (int unitIndex = 0; unitIndex <= index % 3; unitIndex++) {
+                RunningUnit runningUnit = new RunningUnit();
+                runningUnit.setDuration(10 + unitIndex);
+                runningUnit.setMovementType(movementTypes.get(unitIndex % 2));
+                runningUnits.add(runningUnit);
+            }
+            RunningPlanEntry entry = new RunningPlanEntry();
+            entry.setWeek(index / 7 + 1);
+            entry.setDay(index % 7 + 1);
+            entry.setRunningUnits(runningUnits);
+            entries.add(entry);
+        }
+        RunningPlan runningPlan = new RunningPlan();
+        runningPlan.setName("Test");
+        runningPlan.setOrderNumber(2);
+        runningPlan.setRemarks("Plan remarks");
+        runningPlan.setEntries(entries);
+        return RunningPlanSnapshot.of(runningPlan, entries);
+    }
+}
@@ -0,0 +1,166 @@
+package de.hirola.runningplanbuilder.util;
+
+import de.hirola.runningplanbuilder.model.EntryAttribute;
+import de.hirola.runningplanbuilder.model.EntryChange;
+import de.hirola.runningplanbuilder.model.MergeConflict;
+import de.hirola.runningplanbuilder.model.MergeResolution;
+import de.hirola.runningplanbuilder.model.MergeResult;
+import de.hirola.runningplanbuilder.model.RunningPlanSnapshot;
+import de.hirola.sportsapplications.model.MovementType;
+import de.hirola.sportsapplications.model.RunningPlan;
+import de.hirola.sportsapplications.model.RunningPlanEntry;
+import de.hirola.sportsapplications.model.RunningUnit;
+import de.hirola.sportsapplications.model.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Copyright 2022 by Michael Schmidt, Hirola Consulting
+ * This software us licensed under the AGPL-3.0 or later.
+ *
+ * Tests the diff and the three-way merge of plans.
+ *
+ * @author Michael Schmidt (Hirola)
+ * @since v0.1
+ */
+class RunningPlanMergeTest {
+
+    private List<RunningPlanEntry> entries;
+    private RunningPlanSnapshot ancestor;
+
+    @BeforeEach
+    void setUp() {
+        entries = new ArrayList<>();
+        for (int index = 0; index < 3; index++) {
+            entries.add(createEntry(1, index + 1, 30));
+        }
+        RunningPlan runningPlan = new RunningPlan();
+        runningPlan.setName("Test");
+        runningPlan.setEntries(entries);
+        ancestor = RunningPlanSnapshot.of(runningPlan, entries);
+    }
+
+    @Test
+    void testDiffFindsAddedRemovedAndChangedEntries() {
+        RunningPlanEntry addedEntry = createEntry(2, 1, 20);
+        entries.get(0).setDay(5);
+        RunningPlanSnapshot after = ancestor.withEntry(0, entries.get(0)).withoutEntry(1).withAddedEntry(addedEntry);
+
+        List<EntryChange> changes = RunningPlanDiff.diff(ancestor, after);
+        assertEquals(3, changes.size());
+        assertEquals(EntryChange.Type.CHANGED, changes.get(0).getType());
+        assertEquals(Set.of(EntryAttribute.DAY), changes.get(0).getAttributes());
+        assertEquals(EntryChange.Type.ADDED, changes.get(1).getType());
+        assertEquals(addedEntry.getUUID(), changes.get(1).getUUID());
+        assertEquals(EntryChange.Type.REMOVED, changes.get(2).getType());
+        assertEquals(entries.get(1).getUUID(), changes.get(2).getUUID());
+
+        assertTrue(RunningPlanDiff.diff(ancestor, ancestor).isEmpty());
+    }
+
+    @Test
+    void testChangesOfDifferentAttributesAreMerged() {
+        RunningPlanEntry entry = entries.get(0);
+        entry.setWeek(2);
+        RunningPlanSnapshot ours = ancestor.withEntry(0, entry);
+        entry.setWeek(1);
+        entry.getRunningUnits().get(0).setDuration(45);
+        RunningPlanSnapshot theirs = ancestor.withEntry(0, entry);
+
+        MergeResult result = RunningPlanMerge.merge(ancestor, ours, theirs);
+        assertTrue(result.getConflicts().isEmpty());
+        List<RunningPlanEntry> mergedEntries = result.restoreEntries();
+        assertEquals(3, mergedEntries.size());
+        // sorted by week and day
+        RunningPlanEntry mergedEntry = mergedEntries.get(2);
+        assertEquals(entry.getUUID(), mergedEntry.getUUID());
+        assertEquals(2, mergedEntry.getWeek());
+        assertEquals(45, mergedEntry.getRunningUnits().get(0).getDuration());
+    }
+
+    @Test
+    void testChangesOfTheSameAttributeAreAConflict() {
+        RunningPlanEntry entry = entries.get(1);
+        entry.setDay(6);
+        RunningPlanSnapshot ours = ancestor.withEntry(1, entry);
+        entry.setDay(7);
+        RunningPlanSnapshot theirs = ancestor.withEntry(1, entry);
+
+        MergeResult result = RunningPlanMerge.merge(ancestor, ours, theirs);
+        assertEquals(1, result.getConflicts().size());
+        MergeConflict conflict = result.getConflicts().get(0);
+        assertEquals(entry.getUUID(), conflict.getUUID());
+        assertEquals(Set.of(EntryAttribute.DAY), conflict.getAttributes());
+        assertFalse(conflict.isRemoval());
+        assertEquals(MergeResolution.OURS, conflict.getResolution());
+        assertEquals(6, result.restoreEntries().get(2).getDay());
+
+        conflict.setResolution(MergeResolution.THEIRS);
+        assertEquals(7, result.restoreEntries().get(2).getDay());
+    }
+
+    @Test
+    void testEqualChangesAreNoConflict() {
+        RunningPlanEntry entry = entries.get(2);
+        entry.setDay(4);
+        RunningPlanSnapshot changed = ancestor.withEntry(2, entry);
+
+        MergeResult result = RunningPlanMerge.merge(ancestor, changed, changed);
+        assertTrue(result.getConflicts().isEmpty());
+        assertEquals(4, result.restoreEntries().get(2).getDay());
+    }
+
+    @Test
+    void testRemovalOfAChangedEntryIsAConflict() {
+        RunningPlanEntry entry = entries.get(2);
+        UUID uuid = entry.getUUID();
+        RunningPlanSnapshot ours = ancestor.withoutEntry(2);
+        entry.getRunningUnits().get(0).setDuration(60);
+        RunningPlanSnapshot theirs = ancestor.withEntry(2, entry);
+
+        MergeResult result = RunningPlanMerge.merge(ancestor, ours, theirs);
+        assertEquals(1, result.getConflicts().size());
+        MergeConflict conflict = result.getConflicts().get(0);
+        assertTrue(conflict.isRemoval());
+        assertNull(conflict.getEntry(MergeResolution.OURS));
+        assertEquals(2, result.restoreEntries().size());
+
+        conflict.setResolution(MergeResolution.THEIRS);
+        List<RunningPlanEntry> mergedEntries = result.restoreEntries();
+        assertEquals(3, mergedEntries.size());
+        assertEquals(uuid, mergedEntries.get(2).getUUID());
+        assertEquals(60, mergedEntries.get(2).getRunningUnits().get(0).getDuration());
+    }
+
+    @Test
+    void testRemovalOfAnUnchangedEntryIsMerged() {
+        UUID uuid = entries.get(0).getUUID();
+        RunningPlanSnapshot theirs = ancestor.withoutEntry(0);
+
+        MergeResult result = RunningPlanMerge.merge(ancestor, ancestor, theirs);
+        assertTrue(result.getConflicts().isEmpty());
+        assertEquals(2, result.restoreEntries().size());
+        Map<UUID, RunningPlanEntry> theirChangedEntries = result.restoreTheirChangedEntries();
+        assertEquals(1, theirChangedEntries.size());
+        assertTrue(theirChangedEntries.containsKey(uuid));
+        assertNull(theirChangedEntries.get(uuid));
+    }
+
+    private RunningPlanEntry createEntry(int week, int day, int duration) {
+        RunningUnit runningUnit = new RunningUnit();
+        runningUnit.setDuration(duration);
+        runningUnit.setMovementType(new MovementType());
+        RunningPlanEntry entry = new RunningPlanEntry();
+        entry.setWeek(week);
+        entry.setDay(day);
+        entry.setRunningUnits(new ArrayList<>(List.of(runningUnit)));
+        return entry;
+    }
+}
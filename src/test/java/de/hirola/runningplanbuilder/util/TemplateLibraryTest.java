@@ -0,0 +1,66 @@
+package de.hirola.runningplanbuilder.util;
+
+import de.hirola.runningplanbuilder.model.TemplateMetadata;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Copyright 2022 by Michael Schmidt, Hirola Consulting
+ * This software us licensed under the AGPL-3.0 or later.
+ *
+ * Tests the compression of the templates of the library.
+ *
+ * @author Michael Schmidt (Hirola)
+ * @since v0.1
+ */
+class TemplateLibraryTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testOpenTemplatesAreNotCompressed() throws IOException {
+        Path templates = Files.createDirectory(directory.resolve("templates"));
+        Path openFile = writeTemplate(templates.resolve("open.json"), "Open");
+        Path closedFile = writeTemplate(templates.resolve("closed.json"), "Closed");
+        Path indexFile = TemplateOffsetIndex.getIndexFile(closedFile);
+        Files.writeString(indexFile, "{}");
+        TemplateLibrary templateLibrary = new TemplateLibrary(directory.resolve("library.json"));
+
+        // a relative path of the open file is skipped, too
+        Path relativeOpenFile = new File("").getAbsoluteFile().toPath().relativize(openFile);
+        TemplateLibrary.CompressionResult result = templateLibrary.compress(List.of(templates),
+                Set.of(relativeOpenFile));
+        assertEquals(1, result.getCompressedCount());
+        assertEquals(1, result.getSkippedCount());
+        assertEquals(0, result.getFailedCount());
+
+        // the original file and its offset index are deleted
+        assertTrue(Files.exists(openFile));
+        assertFalse(Files.exists(closedFile));
+        assertFalse(Files.exists(indexFile));
+        Path compressedFile = templates.resolve("closed.json.gz");
+        assertTrue(CompressedFiles.isCompressed(compressedFile.toFile()));
+        List<Path> paths = new ArrayList<>();
+        for (TemplateMetadata template: templateLibrary.getTemplates()) {
+            paths.add(template.getPath());
+        }
+        assertTrue(paths.contains(compressedFile), paths.toString());
+        assertTrue(paths.contains(openFile), paths.toString());
+    }
+
+    private static Path writeTemplate(Path file, String name) throws IOException {
+        return Files.writeString(file, "{\"name\": \"" + name + "\", \"orderNumber\": 1, \"entries\": ["
+                + "{\"week\": 1, \"day\": 1, \"runningUnits\": [{\"duration\": 10, \"movementType\": \"L\"}]}]}");
+    }
+}
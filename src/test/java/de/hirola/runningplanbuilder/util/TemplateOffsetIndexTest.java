@@ -0,0 +1,163 @@
+package de.hirola.runningplanbuilder.util;
+
+import de.hirola.sportsapplications.SportsLibrary;
+import de.hirola.sportsapplications.model.MovementType;
+import de.hirola.sportsapplications.model.RunningPlan;
+import de.hirola.sportsapplications.model.RunningPlanEntry;
+import de.hirola.sportsapplications.model.RunningUnit;
+import de.hirola.sportsapplications.util.TemplateLoader;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Copyright 2022 by Michael Schmidt, Hirola Consulting
+ * This software us licensed under the AGPL-3.0 or later.
+ *
+ * Tests the loading of weeks with the index of a template.
+ *
+ * @author Michael Schmidt (Hirola)
+ * @since v0.1
+ */
+class TemplateOffsetIndexTest {
+
+    private static SportsLibrary sportsLibrary;
+    private static List<MovementType> movementTypes;
+
+    @TempDir
+    Path directory;
+
+    @BeforeAll
+    static void setUp() throws Exception {
+        File appDirectory = SportsLibrary.initializeAppDirectory("RunningPlanBuilderTest");
+        sportsLibrary = SportsLibrary.getInstance(true, Locale.ENGLISH, appDirectory, null);
+        movementTypes = sportsLibrary.getMovementTypes();
+    }
+
+    @Test
+    void testIndexedWeeksAreLoadedAsByTheTemplateLoader() throws Exception {
+        Path jsonFile = directory.resolve("plan.json");
+        TemplateLoader templateLoader = new TemplateLoader(sportsLibrary);
+        templateLoader.exportRunningPlanToJSON(createRunningPlan(20), jsonFile.toFile());
+        assertTrue(TemplateOffsetIndex.update(jsonFile, 0));
+
+        Optional<RunningPlan> indexedPlan = TemplateOffsetIndex.loadWeeks(jsonFile, 5, 8, movementTypes);
+        RunningPlan loadedPlan = templateLoader.loadRunningPlanFromJSON(jsonFile.toFile());
+
+        assertTrue(indexedPlan.isPresent());
+        assertEquals(loadedPlan.getName(), indexedPlan.get().getName());
+        assertEquals(loadedPlan.getOrderNumber(), indexedPlan.get().getOrderNumber());
+        assertEquals(loadedPlan.getRemarks(), indexedPlan.get().getRemarks());
+        List<RunningPlanEntry> loadedEntries = loadedPlan.getEntries().stream()
+                .filter(entry -> entry.getWeek() >= 5 && entry.getWeek() <= 8)
+                .collect(Collectors.toList());
+        assertEquals(describe(loadedEntries), describe(indexedPlan.get().getEntries()));
+    }
+
+    @Test
+    void testChangedTemplateMakesTheIndexStale() throws Exception {
+        Path jsonFile = directory.resolve("plan.json");
+        new TemplateLoader(sportsLibrary).exportRunningPlanToJSON(createRunningPlan(4), jsonFile.toFile());
+        assertTrue(TemplateOffsetIndex.update(jsonFile, 0));
+
+        Files.write(jsonFile, " ".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+        assertTrue(TemplateOffsetIndex.loadWeeks(jsonFile, 1, 4, movementTypes).isEmpty());
+    }
+
+    @Test
+    void testUnknownMovementTypeMakesTheIndexStale() throws Exception {
+        Path jsonFile = directory.resolve("plan.json");
+        writeTemplate(jsonFile, "{\"duration\":10,\"movementType\":\"unknown\"}", null);
+        assertTrue(TemplateOffsetIndex.update(jsonFile, 0));
+
+        assertTrue(TemplateOffsetIndex.loadWeeks(jsonFile, 1, 1, movementTypes).isEmpty());
+    }
+
+    @Test
+    void testRemarksOfAnEntryMakeTheIndexStale() throws Exception {
+        Path jsonFile = directory.resolve("plan.json");
+        String movementType = "{\"key\":\"" + movementTypes.get(0).getKey() + "\"}";
+        writeTemplate(jsonFile, "{\"duration\":10,\"movementType\":" + movementType + "}", "\"easy\"");
+        assertTrue(TemplateOffsetIndex.update(jsonFile, 0));
+
+        assertTrue(TemplateOffsetIndex.loadWeeks(jsonFile, 1, 1, movementTypes).isEmpty());
+    }
+
+    @Test
+    void testUnknownLayoutIsNotIndexed() throws Exception {
+        Path jsonFile = directory.resolve("plan.json");
+        Files.writeString(jsonFile, "{\"name\":\"Plan\",\"weeks\":[{\"week\":1}],\"entries\":[]}");
+
+        assertFalse(TemplateOffsetIndex.update(jsonFile, 0));
+        assertFalse(Files.exists(TemplateOffsetIndex.getIndexFile(jsonFile)));
+    }
+
+    @Test
+    void testSmallTemplateIsNotIndexed() throws Exception {
+        Path jsonFile = directory.resolve("plan.json");
+        new TemplateLoader(sportsLibrary).exportRunningPlanToJSON(createRunningPlan(4), jsonFile.toFile());
+
+        assertFalse(TemplateOffsetIndex.update(jsonFile));
+        assertTrue(TemplateOffsetIndex.loadWeeks(jsonFile, 1, 4, movementTypes).isEmpty());
+    }
+
+    private RunningPlan createRunningPlan(int weeks) {
+        List<RunningPlanEntry> entries = new ArrayList<>();
+        for (int week = 1; week <= weeks; week++) {
+            for (int day = 1; day <= 7; day += 2) {
+                RunningPlanEntry entry = new RunningPlanEntry();
+                entry.setWeek(week);
+                entry.setDay(day);
+                List<RunningUnit> runningUnits = new ArrayList<>();
+                for (int index = 0; index < day % 4 + 1; index++) {
+                    RunningUnit runningUnit = new RunningUnit();
+                    runningUnit.setDuration(5 + week + index);
+                    runningUnit.setMovementType(movementTypes.get(index % movementTypes.size()));
+                    runningUnits.add(runningUnit);
+                }
+                entry.setRunningUnits(runningUnits);
+                entries.add(entry);
+            }
+        }
+        RunningPlan runningPlan = new RunningPlan();
+        runningPlan.setName("Test");
+        runningPlan.setOrderNumber(3);
+        runningPlan.setRemarks("A plan for the test.");
+        runningPlan.setEntries(entries);
+        return runningPlan;
+    }
+
+    private void writeTemplate(Path jsonFile, String runningUnit, String remarks) throws Exception {
+        Files.writeString(jsonFile, "{\"name\":\"Plan\",\"orderNumber\":1,\"entries\":["
+                + "{\"week\":1,\"day\":1,\"remarks\":" + remarks + ",\"runningUnits\":[" + runningUnit + "]}]}");
+    }
+
+    // the values of the entries, which must be loaded
+    private List<String> describe(List<RunningPlanEntry> entries) {
+        List<String> descriptions = new ArrayList<>();
+        for (RunningPlanEntry entry: entries) {
+            StringBuilder description = new StringBuilder();
+            description.append(entry.getWeek()).append('/').append(entry.getDay());
+            for (RunningUnit runningUnit: entry.getRunningUnits()) {
+                description.append(' ').append(runningUnit.getMovementType().getKey())
+                        .append(':').append(runningUnit.getDuration());
+            }
+            descriptions.add(description.toString());
+        }
+        return descriptions;
+    }
+}
@@ -0,0 +1,122 @@
+package de.hirola.runningplanbuilder.util;
+
+import javafx.collections.ListChangeListener;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Copyright 2022 by Michael Schmidt, Hirola Consulting
+ * This software us licensed under the AGPL-3.0 or later.
+ *
+ * Tests the loading and the eviction of the windows of the list, which is not attached to a table.
+ *
+ * @author Michael Schmidt (Hirola)
+ * @since v0.1
+ */
+class WindowedObservableListTest {
+
+    private static final int ROW_COUNT = 1000;
+    private static final int WINDOW_SIZE = 10;
+    private static final int ELEMENT_SIZE = 100;
+
+    private final List<Integer> source = IntStream.range(0, ROW_COUNT).boxed().collect(Collectors.toList());
+
+    @Test
+    void testLoadedElementsStayWithinTheBudget() {
+        AtomicInteger createdElements = new AtomicInteger();
+        // three windows
+        WindowedObservableList<Integer, String> list = new WindowedObservableList<>(row -> {
+            createdElements.incrementAndGet();
+            return "Row " + row;
+        }, WINDOW_SIZE, 3L * WINDOW_SIZE * ELEMENT_SIZE, ELEMENT_SIZE);
+        list.setSource(source);
+        assertEquals(ROW_COUNT, list.size());
+        assertEquals(0, list.getLoadedElementCount());
+
+        for (int row = 0; row < ROW_COUNT; row++) {
+            assertEquals("Row " + row, list.get(row));
+            assertTrue(list.getLoadedElementCount() <= 3 * WINDOW_SIZE,
+                    "Loaded elements: " + list.getLoadedElementCount());
+        }
+        // each window is loaded once while scrolling down
+        assertEquals(ROW_COUNT / WINDOW_SIZE, list.getLoadedWindowCount());
+        assertEquals(ROW_COUNT, createdElements.get());
+    }
+
+    @Test
+    void testWindowFarthestFromTheReadRowIsEvicted() {
+        WindowedObservableList<Integer, String> list = new WindowedObservableList<>(String::valueOf,
+                WINDOW_SIZE, 3L * WINDOW_SIZE * ELEMENT_SIZE, ELEMENT_SIZE);
+        list.setSource(source);
+        list.get(0);
+        list.get(10);
+        list.get(20);
+        assertEquals(3, list.getLoadedWindowCount());
+
+        // the first window is evicted
+        list.get(30);
+        assertEquals(4, list.getLoadedWindowCount());
+        list.get(25);
+        list.get(15);
+        assertEquals(4, list.getLoadedWindowCount());
+        list.get(5);
+        assertEquals(5, list.getLoadedWindowCount());
+        assertEquals(3 * WINDOW_SIZE, list.getLoadedElementCount());
+    }
+
+    @Test
+    void testTwoWindowsAreKeptWithATooSmallBudget() {
+        WindowedObservableList<Integer, String> list = new WindowedObservableList<>(String::valueOf,
+                WINDOW_SIZE, 0, ELEMENT_SIZE);
+        list.setSource(source);
+        // the visible rows at the border of two windows
+        list.get(9);
+        list.get(10);
+        list.get(9);
+        list.get(10);
+        assertEquals(2, list.getLoadedWindowCount());
+        assertEquals(2 * WINDOW_SIZE, list.getLoadedElementCount());
+        assertThrows(IndexOutOfBoundsException.class, () -> list.get(ROW_COUNT));
+        assertThrows(IllegalArgumentException.class,
+                () -> new WindowedObservableList<Integer, String>(String::valueOf, 0, 0, ELEMENT_SIZE));
+    }
+
+    @Test
+    void testNewSourceRemovesTheLoadedWindows() {
+        WindowedObservableList<Integer, String> list = new WindowedObservableList<>(String::valueOf,
+                WINDOW_SIZE, 3L * WINDOW_SIZE * ELEMENT_SIZE, ELEMENT_SIZE);
+        list.setSource(source);
+        list.get(15);
+        List<List<String>> removedRows = new ArrayList<>();
+        List<Integer> addedSizes = new ArrayList<>();
+        list.addListener((ListChangeListener<String>) change -> {
+            while (change.next()) {
+                if (change.wasRemoved()) {
+                    removedRows.add(new ArrayList<>(change.getRemoved()));
+                }
+                if (change.wasAdded()) {
+                    addedSizes.add(change.getAddedSize());
+                }
+            }
+        });
+
+        list.setSource(source.subList(0, 50));
+        assertEquals(50, list.size());
+        assertEquals(0, list.getLoadedElementCount());
+        assertEquals(1, removedRows.size());
+        assertEquals(List.of(50), addedSizes);
+        // only the loaded rows are reported with their element
+        List<String> removed = removedRows.get(0);
+        assertEquals(ROW_COUNT, removed.size());
+        assertEquals("15", removed.get(15));
+        assertNull(removed.get(0));
+        assertEquals("12", list.get(12));
+    }
+}